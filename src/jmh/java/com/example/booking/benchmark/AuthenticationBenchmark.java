@@ -0,0 +1,115 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.config.TokenAuthenticationFilter;
+import com.example.booking.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost per request: HTTP Basic through the authentication manager, with the {@code {noop}}
+ * password of the configured user and with a bcrypt hash as a real user store would keep, against
+ * {@link TokenAuthenticationFilter} verifying an HMAC token, with and without the verified token cache.
+ * Each invocation runs one request through the filter and clears the security context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class AuthenticationBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    private Filter basicNoop;
+    private Filter basicBcrypt;
+    private Filter tokenUncached;
+    private Filter tokenCached;
+    private MockHttpServletRequest basicRequest;
+    private MockHttpServletRequest[] tokenRequests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        basicNoop = basicFilter("{noop}booking7891");
+        basicBcrypt = basicFilter(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("booking7891"));
+        TokenService uncached = tokenService(0);
+        tokenUncached = new TokenAuthenticationFilter(uncached);
+        tokenCached = new TokenAuthenticationFilter(tokenService(10_000));
+
+        basicRequest = new MockHttpServletRequest("GET", "/api/events/1/availability");
+        basicRequest.addHeader("Authorization", "Basic "
+                + Base64.getEncoder().encodeToString("user2025:booking7891".getBytes(StandardCharsets.UTF_8)));
+        tokenRequests = new MockHttpServletRequest[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            String token = uncached.issue(UsernamePasswordAuthenticationToken.authenticated(
+                    "user" + i, null, AuthorityUtils.createAuthorityList("ROLE_USER"))).getAccessToken();
+            tokenRequests[i] = new MockHttpServletRequest("GET", "/api/events/1/availability");
+            tokenRequests[i].addHeader("Authorization", "Bearer " + token);
+        }
+    }
+
+    @Benchmark
+    public Object basicNoopPassword() throws Exception {
+        return authenticate(basicNoop, basicRequest);
+    }
+
+    @Benchmark
+    public Object basicBcryptPassword() throws Exception {
+        return authenticate(basicBcrypt, basicRequest);
+    }
+
+    @Benchmark
+    public Object tokenVerified() throws Exception {
+        // Cycles through more tokens than the cache holds, so every request computes the HMAC
+        return authenticate(tokenUncached, tokenRequests[next++ & (TOKENS - 1)]);
+    }
+
+    @Benchmark
+    public Object tokenCached() throws Exception {
+        return authenticate(tokenCached, tokenRequests[0]);
+    }
+
+    private static Object authenticate(Filter filter, MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static Filter basicFilter(String password) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+                User.withUsername("user2025").password(password).roles("USER").build()));
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return new BasicAuthenticationFilter(new ProviderManager(provider));
+    }
+
+    private static TokenService tokenService(int cacheSize) {
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "secret", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(tokenService, "ttl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(tokenService, "cacheSize", cacheSize);
+        tokenService.init();
+        return tokenService;
+    }
+}
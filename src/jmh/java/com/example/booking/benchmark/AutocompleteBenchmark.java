@@ -0,0 +1,98 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSuggestion;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.repository.EventRepository;
+import com.example.booking.service.EventAutocompleteIndex;
+import com.example.booking.service.SeatStateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete lookup cost per keystroke: {@link EventAutocompleteIndex} against filtering every event the way
+ * the frontend does with {@code getAllEvents}, for prefixes of growing length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {"jazz", "rock", "opera", "night", "festival", "symphony", "live", "tour",
+            "arena", "garden", "hall", "theatre", "park", "stadium", "club", "summer", "winter", "gala", "comedy",
+            "classic", "orchestra", "acoustic", "electric", "blues", "soul", "madison", "square", "royal", "albert"};
+
+    @Param({"20000"})
+    public int events;
+
+    @Param({"j", "jaz", "jazz ni", "royal albert h"})
+    public String prefix;
+
+    private EventAutocompleteIndex index;
+    private List<Event> all;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        all = new ArrayList<>(events);
+        for (long id = 1; id <= events; id++) {
+            Event event = new Event();
+            event.setId(id);
+            event.setName(words(random, 3) + " " + id);
+            event.setLocation(words(random, 2));
+            event.setEventDate(LocalDateTime.now().plusDays(1 + random.nextInt(365)));
+            event.setTotalSeats(1000);
+            all.add(event);
+        }
+        SeatStateCache sales = new SeatStateCache() {
+            @Override
+            public Optional<SeatAvailability> getAvailability(Long eventId) {
+                return Optional.empty();
+            }
+        };
+        index = new EventAutocompleteIndex();
+        ReflectionTestUtils.setField(index, "eventRepository",
+                InMemoryRepositories.of(EventRepository.class).on("findAll", args -> all).build());
+        ReflectionTestUtils.setField(index, "seatStateCache", sales);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "topK", 10);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<EventSuggestion> trie() {
+        return index.suggest(prefix, 10);
+    }
+
+    @Benchmark
+    public List<Event> scanAllEvents() {
+        String needle = prefix.toLowerCase(Locale.ROOT);
+        return all.stream()
+                .filter(event -> event.getName().toLowerCase(Locale.ROOT).contains(needle)
+                        || event.getLocation().toLowerCase(Locale.ROOT).contains(needle))
+                .sorted(Comparator.comparing(Event::getEventDate))
+                .limit(10)
+                .toList();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
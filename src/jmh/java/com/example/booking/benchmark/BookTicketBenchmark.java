@@ -0,0 +1,176 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.kafka.BookingEventPublisher;
+import com.example.booking.kafka.BookingEventSerializer;
+import com.example.booking.model.Booking;
+import com.example.booking.model.BookingEvent;
+import com.example.booking.model.BookingRequest;
+import com.example.booking.model.Event;
+import com.example.booking.model.Seat;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.repository.EventRepository;
+import com.example.booking.repository.SeatRepository;
+import com.example.booking.repository.WaitlistRepository;
+import com.example.booking.service.BinarySeatUpdateBatcher;
+import com.example.booking.service.SeatEventStreamBroadcaster;
+import com.example.booking.service.BookingMetrics;
+import com.example.booking.service.BookingService;
+import com.example.booking.service.SeatSnapshotService;
+import com.example.booking.service.SeatUpdateFanout;
+import com.example.booking.service.WaitlistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the CPU cost of {@link BookingService#bookTicket(BookingRequest)} and
+ * {@link BookingService#cancelBooking(Long, Long)} against in-memory repository stand-ins,
+ * a completing Kafka producer and a discarding STOMP channel.
+ * Database and broker latency are deliberately excluded; see the load harness for those.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class BookTicketBenchmark {
+
+    private BookingService bookingService;
+    private NoOpProducer<String, BookingEvent> producer;
+    private BookingRequest request;
+    private BookingRequest takenSeatRequest;
+    private final AtomicLong bookingIds = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Event event = new Event();
+        event.setId(1L);
+        event.setName("Benchmark Live");
+        event.setLocation("Arena");
+        event.setEventDate(LocalDateTime.now().plusDays(30));
+        event.setTotalSeats(1000);
+
+        Seat seat = new Seat();
+        seat.setId(7L);
+        seat.setEvent(event);
+        seat.setSeatNumber("123");
+
+        Seat takenSeat = new Seat();
+        takenSeat.setId(8L);
+        takenSeat.setEvent(event);
+        takenSeat.setSeatNumber("124");
+        takenSeat.setIsBooked(true);
+
+        Booking activeBooking = new Booking();
+        activeBooking.setId(99L);
+        activeBooking.setUserId(42L);
+        activeBooking.setEventId(1L);
+        activeBooking.setSeatId(7L);
+
+        EventRepository eventRepository = InMemoryRepositories.of(EventRepository.class)
+                .on("findById", args -> Optional.of(event))
+                .build();
+        SeatRepository seatRepository = InMemoryRepositories.of(SeatRepository.class)
+                .on("findByEventIdAndSeatNumberForUpdate", args -> {
+                    if (takenSeat.getSeatNumber().equals(args[1])) {
+                        return Optional.of(takenSeat);
+                    }
+                    seat.setIsBooked(false);
+                    return Optional.of(seat);
+                })
+                .on("findByEventIdAndId", args -> {
+                    seat.setIsBooked(true);
+                    return Optional.of(seat);
+                })
+                .on("save", args -> args[0])
+                .build();
+        BookingRepository bookingRepository = InMemoryRepositories.of(BookingRepository.class)
+                .on("findByEventIdAndSeatIdAndStatus", args -> Optional.empty())
+                .on("findByEventIdAndIdAndStatus", args -> {
+                    activeBooking.setStatus(BookingService.BOOKED);
+                    return Optional.of(activeBooking);
+                })
+                .on("save", args -> {
+                    Booking booking = (Booking) args[0];
+                    if (booking.getId() == null) {
+                        booking.setId(bookingIds.incrementAndGet());
+                    }
+                    return booking;
+                })
+                .on("delete", args -> null)
+                .build();
+
+        producer = new NoOpProducer<>(new StringSerializer(), new BookingEventSerializer());
+        ProducerFactory<String, BookingEvent> producerFactory = () -> producer;
+
+        bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(bookingService, "seatRepository", seatRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingEventPublisher",
+                new BookingEventPublisher(new KafkaTemplate<>(producerFactory), new SimpleMeterRegistry(), "booking-events"));
+        SeatUpdateFanout seatUpdateFanout = new SeatUpdateFanout();
+        ReflectionTestUtils.setField(seatUpdateFanout, "messagingTemplate", new SimpMessagingTemplate((message, timeout) -> true));
+        ReflectionTestUtils.setField(seatUpdateFanout, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(seatUpdateFanout, "producerFactory", new StaticListableBeanFactory().getBeanProvider(ProducerFactory.class));
+        ReflectionTestUtils.setField(seatUpdateFanout, "seatSnapshotService", new SeatSnapshotService());
+        ReflectionTestUtils.setField(seatUpdateFanout, "binarySeatUpdateBatcher", new BinarySeatUpdateBatcher());
+        ReflectionTestUtils.setField(seatUpdateFanout, "seatEventStreamBroadcaster", new SeatEventStreamBroadcaster());
+        seatUpdateFanout.init();
+        ReflectionTestUtils.setField(bookingService, "seatUpdateFanout", seatUpdateFanout);
+        ReflectionTestUtils.setField(bookingService, "bookingMetrics", new BookingMetrics(new SimpleMeterRegistry()));
+        WaitlistService waitlistService = new WaitlistService();
+        ReflectionTestUtils.setField(waitlistService, "waitlistRepository", InMemoryRepositories.of(WaitlistRepository.class)
+                .on("existsByEventIdAndStatus", args -> false)
+                .build());
+        ReflectionTestUtils.setField(bookingService, "waitlistService", waitlistService);
+
+        request = new BookingRequest();
+        request.setUserId(42L);
+        request.setEventId(1L);
+        request.setSeatNumber("123");
+
+        takenSeatRequest = new BookingRequest();
+        takenSeatRequest.setUserId(43L);
+        takenSeatRequest.setEventId(1L);
+        takenSeatRequest.setSeatNumber("124");
+    }
+
+    @Setup(Level.Iteration)
+    public void clearProducerHistory() {
+        producer.clear();
+    }
+
+    @Benchmark
+    public Booking bookTicket() {
+        return bookingService.bookTicket(request);
+    }
+
+    /**
+     * A booking rejected because the seat is taken, the common outcome under on-sale contention.
+     */
+    @Benchmark
+    public Object bookTakenSeat() {
+        try {
+            return bookingService.bookTicket(takenSeatRequest);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public void cancelBooking() {
+        bookingService.cancelBooking(99L, 1L);
+    }
+}
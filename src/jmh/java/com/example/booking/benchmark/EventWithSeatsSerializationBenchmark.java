@@ -0,0 +1,79 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventWithSeats;
+import com.example.booking.model.Seat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON serialization of the {@code GET /api/events/{id}} response at several venue sizes,
+ * both for the default 20-seat page and for a page holding the whole venue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class EventWithSeatsSerializationBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    private int venueSize;
+
+    private ObjectMapper objectMapper;
+    private EventWithSeats defaultPage;
+    private EventWithSeats fullVenue;
+    private Page<Seat> fullVenueSeats;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Event event = new Event();
+        event.setId(1L);
+        event.setName("Benchmark Live");
+        event.setLocation("Arena");
+        event.setEventDate(LocalDateTime.now().plusDays(30));
+        event.setTotalSeats(venueSize);
+
+        List<Seat> seats = new ArrayList<>(venueSize);
+        for (int i = 1; i <= venueSize; i++) {
+            Seat seat = new Seat();
+            seat.setId((long) i);
+            seat.setEvent(event);
+            seat.setSeatNumber(String.valueOf(i));
+            seat.setIsBooked(i % 3 == 0);
+            seats.add(seat);
+        }
+        fullVenueSeats = new PageImpl<>(seats, PageRequest.of(0, venueSize), venueSize);
+        fullVenue = new EventWithSeats(event, fullVenueSeats);
+        defaultPage = new EventWithSeats(event, new PageImpl<>(seats.subList(0, 20), PageRequest.of(0, 20), venueSize));
+    }
+
+    @Benchmark
+    public byte[] defaultPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(defaultPage);
+    }
+
+    @Benchmark
+    public byte[] fullVenue() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fullVenue);
+    }
+
+    @Benchmark
+    public void fullVenueSeatPage(Blackhole blackhole) throws JsonProcessingException {
+        blackhole.consume(objectMapper.writeValueAsBytes(fullVenueSeats));
+    }
+}
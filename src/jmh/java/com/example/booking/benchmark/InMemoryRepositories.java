@@ -0,0 +1,77 @@
+package com.example.booking.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds in-memory stand-ins for Spring Data repository interfaces.
+ * Only the methods a benchmark registers are implemented; anything else fails fast so a
+ * benchmark never silently measures an unexpected code path.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * Starts a stand-in for the given repository interface.
+     *
+     * @param repositoryType the repository interface
+     * @param <T> the repository type
+     * @return a builder for method handlers
+     */
+    static <T> Builder<T> of(Class<T> repositoryType) {
+        return new Builder<>(repositoryType);
+    }
+
+    /**
+     * Collects method handlers keyed by method name.
+     *
+     * @param <T> the repository type
+     */
+    static final class Builder<T> {
+        private final Class<T> repositoryType;
+        private final Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+
+        private Builder(Class<T> repositoryType) {
+            this.repositoryType = repositoryType;
+        }
+
+        /**
+         * Registers the handler for a repository method.
+         *
+         * @param methodName the method name
+         * @param handler receives the call arguments and returns the result
+         * @return this builder
+         */
+        Builder<T> on(String methodName, Function<Object[], Object> handler) {
+            handlers.put(methodName, handler);
+            return this;
+        }
+
+        /**
+         * Creates the proxy.
+         * @return the repository stand-in
+         */
+        T build() {
+            InvocationHandler invocationHandler = (proxy, method, args) -> {
+                Function<Object[], Object> handler = handlers.get(method.getName());
+                if (handler != null) {
+                    return handler.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                    default -> throw new UnsupportedOperationException(
+                            repositoryType.getSimpleName() + "." + method.getName() + " is not stubbed");
+                };
+            };
+            return repositoryType.cast(Proxy.newProxyInstance(
+                    repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, invocationHandler));
+        }
+    }
+}
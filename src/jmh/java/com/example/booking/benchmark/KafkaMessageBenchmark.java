@@ -0,0 +1,68 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.kafka.BookingEventCodec;
+import com.example.booking.model.BookingEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures construction of the booking Kafka message: the legacy {@code String.format} payload
+ * (as previously sent through {@code StringSerializer}), a plain {@link StringBuilder} baseline, and the
+ * JSON and binary encodings of {@link BookingEventCodec}. Payload sizes are printed once per fork.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KafkaMessageBenchmark {
+
+    private long bookingId = 1_234_567L;
+    private long userId = 42L;
+    private long eventId = 1_001L;
+    private String seatNumber = "A-123";
+    private BookingEvent event;
+
+    @Setup
+    public void setUp() {
+        event = BookingEvent.booked(bookingId, userId, eventId, seatNumber);
+        System.out.printf("Payload bytes: stringFormat=%d, codecJson=%d, codecBinary=%d%n",
+                stringFormatSerialized().length,
+                BookingEventCodec.encodeJson(event).length,
+                BookingEventCodec.encodeBinary(event).length);
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format("{\"type\":\"BOOKED\",\"bookingId\":%d,\"userId\":%d,\"eventId\":%d,\"seatNumber\":\"%s\"}",
+                bookingId, userId, eventId, seatNumber);
+    }
+
+    @Benchmark
+    public byte[] stringFormatSerialized() {
+        return stringFormat().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String stringBuilder() {
+        return new StringBuilder(96)
+                .append("{\"type\":\"BOOKED\",\"bookingId\":").append(bookingId)
+                .append(",\"userId\":").append(userId)
+                .append(",\"eventId\":").append(eventId)
+                .append(",\"seatNumber\":\"").append(seatNumber).append("\"}")
+                .toString();
+    }
+
+    @Benchmark
+    public byte[] codecJson() {
+        return BookingEventCodec.encodeJson(event);
+    }
+
+    @Benchmark
+    public byte[] codecBinary() {
+        return BookingEventCodec.encodeBinary(event);
+    }
+}
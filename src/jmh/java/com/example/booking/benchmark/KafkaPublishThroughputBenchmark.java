@@ -0,0 +1,95 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.kafka.BookingEventPublisher;
+import com.example.booking.kafka.BookingEventSerializer;
+import com.example.booking.model.BookingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures acknowledged publish throughput of {@link BookingEventPublisher} against an embedded
+ * single-node KRaft broker, comparing the Kafka client defaults with the tuned producer settings from
+ * {@code application.properties}, for both wire formats.
+ * <p>
+ * Each invocation publishes {@value #BATCH} events spread over {@value #EVENTS} event keys and waits
+ * until the broker has acknowledged all of them.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class KafkaPublishThroughputBenchmark {
+
+    private static final String TOPIC = "booking-events";
+    private static final int PARTITIONS = 6;
+    private static final int BATCH = 1000;
+    private static final int EVENTS = 100;
+
+    @Param({"defaults", "tuned"})
+    private String producer;
+
+    @Param({"json", "binary"})
+    private String format;
+
+    private EmbeddedKafkaBroker broker;
+    private DefaultKafkaProducerFactory<String, BookingEvent> producerFactory;
+    private BookingEventPublisher publisher;
+    private BookingEvent[] events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, BookingEventSerializer.class);
+        config.put(BookingEventSerializer.FORMAT_CONFIG, format);
+        if ("tuned".equals(producer)) {
+            config.put(ProducerConfig.ACKS_CONFIG, "all");
+            config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+            config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+            config.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+            config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        }
+        producerFactory = new DefaultKafkaProducerFactory<>(config);
+        publisher = new BookingEventPublisher(new KafkaTemplate<>(producerFactory), new SimpleMeterRegistry(), TOPIC);
+
+        events = new BookingEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            events[i] = BookingEvent.booked(1_000_000L + i, 10_000L + i, 1 + (i % EVENTS), "A-" + (i % 500));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void publishAcknowledged() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = publisher.publish(events[i]);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
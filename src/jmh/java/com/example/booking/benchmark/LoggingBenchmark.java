@@ -0,0 +1,141 @@
+package com.example.booking.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.example.booking.config.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request-thread time spent logging one booking: the seven INFO/DEBUG lines {@code BookingController} and
+ * {@code BookingService} emit per {@code /api/bookings/book}, from four concurrent request threads.
+ * <ul>
+ *     <li>{@code sync}: the default configuration, DEBUG for {@code com.example.booking} and a pattern-encoded
+ *     file appender written on the calling thread (the console appender is left out)</li>
+ *     <li>{@code async}: the {@code prod} appenders, INFO, logstash JSON written by an {@link AsyncAppender}</li>
+ *     <li>{@code prod}: {@code async} plus {@link SamplingTurboFilter} on the booking loggers at 20 messages/s</li>
+ * </ul>
+ * Sustained benchmark load fills any queue, and the production appenders then drop INFO lines, so a benchmark
+ * configured like them would mostly time dropped lines. Here the async appender discards nothing and a full
+ * queue blocks the caller, so every mode pays for every line it writes. Lines expected, written and sampled
+ * out are printed at teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class LoggingBenchmark {
+
+    @Param({"sync", "async", "prod"})
+    public String mode;
+
+    private final AtomicLong ids = new AtomicLong();
+    private LoggerContext context;
+    private SamplingTurboFilter sampling;
+    private Path file;
+    private Logger controller;
+    private Logger service;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("booking-log-", ".log");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.putObject(Environment.class.getName(), new StandardEnvironment());
+        boolean sync = mode.equals("sync");
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(sync ? patternEncoder() : jsonEncoder());
+        fileAppender.start();
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (!sync) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setNeverBlock(false);
+            async.setIncludeCallerData(false);
+            async.addAppender(fileAppender);
+            async.start();
+            appender = async;
+        }
+        if (mode.equals("prod")) {
+            sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.addLogger("com.example.booking.controller.BookingController");
+            sampling.addLogger("com.example.booking.service.BookingService");
+            sampling.setMaxPerSecond(20);
+            sampling.start();
+            context.addTurboFilter(sampling);
+        }
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.getLogger("com.example.booking").setLevel(sync ? Level.DEBUG : Level.INFO);
+        controller = context.getLogger("com.example.booking.controller.BookingController");
+        service = context.getLogger("com.example.booking.service.BookingService");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        long lines;
+        try (var stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        // Seven lines per booking at DEBUG, three at INFO
+        long expected = ids.get() * (mode.equals("sync") ? 7 : 3);
+        System.out.printf("%n%s: %d bookings, %d lines expected, %d written, %d sampled out%n",
+                mode, ids.get(), expected, lines, sampling != null ? sampling.getSampledOut() : 0);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void logBooking() {
+        long id = ids.incrementAndGet();
+        String request = "BookingRequest{userId=42, eventId=1, seatNumber='" + (id % 2000) + "'}";
+        controller.info("Received booking request: {}", request);
+        service.info("Attempting to book ticket: userId={}, eventId={}, seatNumber={}", 42L, 1L, id % 2000);
+        service.debug("Seat marked as booked: seatId={}", id);
+        service.info("Booking created: bookingId={}", id);
+        service.debug("Booking event sent to Kafka: {}", request);
+        service.debug("WebSocket notification sent for seat booking: eventId={}, seatNumber={}", 1L, id % 2000);
+        controller.debug("Booking successful: {}", request);
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> jsonEncoder() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.start();
+        return encoder;
+    }
+}
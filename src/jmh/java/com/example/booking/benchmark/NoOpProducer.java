@@ -0,0 +1,29 @@
+package com.example.booking.benchmark;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.time.Duration;
+
+/**
+ * Kafka {@link MockProducer} that completes sends immediately and survives {@code close()},
+ * because {@code KafkaTemplate} closes its producer after every non-transactional send.
+ * Call {@link #clear()} between iterations so the send history does not grow without bound.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+class NoOpProducer<K, V> extends MockProducer<K, V> {
+
+    NoOpProducer(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        super(true, keySerializer, valueSerializer);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void close(Duration timeout) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.model.SeatStatusUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON serialization of {@link SeatStatusUpdate}, the payload of every
+ * {@code /topic/seats/{id}} WebSocket message, with and without constructing the DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class SeatStatusUpdateSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private SeatStatusUpdate update;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        update = new SeatStatusUpdate("123", true);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(update);
+    }
+
+    @Benchmark
+    public byte[] createAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new SeatStatusUpdate("123", true));
+    }
+}
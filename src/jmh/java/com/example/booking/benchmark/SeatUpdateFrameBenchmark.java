@@ -0,0 +1,161 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.model.SeatStatusUpdate;
+import com.example.booking.service.SeatUpdateFrameCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the per-update cost of seat update STOMP frames: one JSON {@link SeatStatusUpdate} frame per update
+ * (the {@code /topic/seats/{id}} stream) against one batched {@link SeatUpdateFrameCodec} frame per
+ * {@code batchSize} updates (the {@code /topic/seats/{id}/bin} stream).
+ * Each invocation serializes the payload once and STOMP-encodes it for one subscriber, as the broker does.
+ * Bytes per update, raw and after permessage-deflate style compression, are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class SeatUpdateFrameBenchmark {
+
+    private static final int SEATS = 2000;
+
+    @Param({"1", "16", "128"})
+    public int batchSize;
+
+    private ObjectMapper objectMapper;
+    private StompEncoder encoder;
+    private List<SeatStatusUpdate> updates;
+    private List<SeatUpdateFrameCodec.Entry> entries;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        encoder = new StompEncoder();
+        Random random = new Random(42);
+        updates = new ArrayList<>(batchSize);
+        entries = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int seat = random.nextInt(SEATS);
+            boolean booked = random.nextInt(10) != 0;
+            long sequence = 10_000 + i;
+            updates.add(new SeatStatusUpdate(String.valueOf(seat + 1), booked, sequence));
+            entries.add(new SeatUpdateFrameCodec.Entry(sequence, seat, booked));
+        }
+        printSizes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(128)
+    public void jsonFrames(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < 128; i++) {
+            SeatStatusUpdate update = updates.get(i % batchSize);
+            blackhole.consume(encoder.encode(jsonHeaders(update.getSeatNumber()), objectMapper.writeValueAsBytes(update)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(128)
+    public void binaryFrames(Blackhole blackhole) {
+        for (int i = 0; i < 128; i += batchSize) {
+            blackhole.consume(encoder.encode(binaryHeaders(), SeatUpdateFrameCodec.encode(entries)));
+        }
+    }
+
+    private Map<String, Object> jsonHeaders(String seatNumber) {
+        return jsonHeaders(seatNumber, 1);
+    }
+
+    private Map<String, Object> jsonHeaders(String seatNumber, long messageId) {
+        StompHeaderAccessor accessor = messageHeaders(messageId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader("conflation-key", seatNumber);
+        return accessor.getMessageHeaders();
+    }
+
+    private Map<String, Object> binaryHeaders() {
+        return binaryHeaders(1);
+    }
+
+    private Map<String, Object> binaryHeaders(long messageId) {
+        StompHeaderAccessor accessor = messageHeaders(messageId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        return accessor.getMessageHeaders();
+    }
+
+    private static StompHeaderAccessor messageHeaders(long messageId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination("/topic/seats/1");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setMessageId("a1b2c3d4-" + messageId);
+        accessor.setNativeHeader("message-type", "delta");
+        return accessor;
+    }
+
+    /**
+     * Encodes a stream of 4096 distinct random updates both ways and prints the bytes per update.
+     */
+    private void printSizes() throws JsonProcessingException {
+        Random random = new Random(7);
+        Deflater jsonDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        Deflater binaryDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long jsonBytes = 0;
+        long jsonDeflated = 0;
+        long binaryBytes = 0;
+        long binaryDeflated = 0;
+        long sequence = 0;
+        int total = 4096 / batchSize * batchSize;
+        for (int round = 0; round < total / batchSize; round++) {
+            List<SeatUpdateFrameCodec.Entry> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                int seat = random.nextInt(SEATS);
+                boolean booked = random.nextInt(10) != 0;
+                sequence++;
+                SeatStatusUpdate update = new SeatStatusUpdate(String.valueOf(seat + 1), booked, sequence);
+                byte[] frame = encoder.encode(jsonHeaders(update.getSeatNumber(), sequence), objectMapper.writeValueAsBytes(update));
+                jsonBytes += frame.length;
+                jsonDeflated += deflate(jsonDeflater, frame);
+                batch.add(new SeatUpdateFrameCodec.Entry(sequence, seat, booked));
+            }
+            byte[] frame = encoder.encode(binaryHeaders(round), SeatUpdateFrameCodec.encode(batch));
+            binaryBytes += frame.length;
+            binaryDeflated += deflate(binaryDeflater, frame);
+        }
+        System.out.printf("Bytes per update (batch %d): json=%.1f (deflated %.1f), binary=%.1f (deflated %.1f)%n",
+                batchSize, (double) jsonBytes / total, (double) jsonDeflated / total,
+                (double) binaryBytes / total, (double) binaryDeflated / total);
+    }
+
+    /**
+     * Compresses one message with a shared sliding window, as permessage-deflate with context takeover does.
+     */
+    private static int deflate(Deflater deflater, byte[] message) {
+        deflater.setInput(message);
+        byte[] out = new byte[message.length + 64];
+        int total = 0;
+        int written;
+        while ((written = deflater.deflate(out, 0, out.length, Deflater.SYNC_FLUSH)) > 0) {
+            total += written;
+            if (written < out.length) {
+                break;
+            }
+        }
+        return total - 4;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.booking.benchmark;
+
+import com.example.booking.model.Event;
+import com.example.booking.repository.EventRepository;
+import com.example.booking.service.EventChangedEvent;
+import com.example.booking.service.UpcomingEventsIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the "next 7 days" listing page: a precomputed page of {@link UpcomingEventsIndex}, a page rebuilt
+ * from the skip list after an event in its window changed, and the previous {@code findAll()}, filter, sort and serialize.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class UpcomingEventsBenchmark {
+
+    @Param({"20000"})
+    public int events;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private UpcomingEventsIndex index;
+    private List<Event> all;
+    private Event changed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        all = new ArrayList<>(events);
+        for (long id = 1; id <= events; id++) {
+            Event event = new Event();
+            event.setId(id);
+            event.setName("Event " + id);
+            event.setLocation("Arena " + random.nextInt(100));
+            event.setEventDate(LocalDateTime.now().plusMinutes(1 + random.nextInt(365 * 24 * 60)));
+            event.setTotalSeats(1000);
+            all.add(event);
+        }
+        changed = all.get(0);
+        changed.setEventDate(LocalDateTime.now().plusDays(2));
+        index = new UpcomingEventsIndex();
+        ReflectionTestUtils.setField(index, "eventRepository",
+                InMemoryRepositories.of(EventRepository.class).on("findAll", args -> all).build());
+        ReflectionTestUtils.setField(index, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "cachedPages", 5);
+        index.registerMetrics();
+        index.rebuild();
+    }
+
+    @Benchmark
+    public byte[] precomputedPage() {
+        return index.getPage(UpcomingEventsIndex.Window.NEXT_7_DAYS, 0, 20).getJson();
+    }
+
+    @Benchmark
+    public byte[] pageAfterChange() {
+        index.onEventChanged(EventChangedEvent.saved(changed));
+        return index.getPage(UpcomingEventsIndex.Window.NEXT_7_DAYS, 0, 20).getJson();
+    }
+
+    @Benchmark
+    public byte[] findAllAndSort() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime to = now.toLocalDate().plusDays(7).atStartOfDay();
+        return objectMapper.writeValueAsBytes(all.stream()
+                .filter(event -> event.getEventDate().isAfter(now) && event.getEventDate().isBefore(to))
+                .sorted(Comparator.comparing(Event::getEventDate))
+                .limit(20)
+                .toList());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.booking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Optional controller that grows or shrinks the Hikari pool within configured bounds.
+ * <p>
+ * Every tick it compares the mean connection wait time against the mean connection hold time
+ * (a proxy for DB latency) observed by {@link MeteredDataSource} since the previous tick.
+ * Waiting longer than a configured fraction of the hold time while threads are queued grows the pool;
+ * sustained idle capacity with no waiters shrinks it.
+ * </p>
+ * Enabled with {@code booking.datasource.adaptive.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.datasource.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.datasource.adaptive.min-pool-size:10}")
+    private int minPoolSize;
+
+    @Value("${booking.datasource.adaptive.max-pool-size:50}")
+    private int maxPoolSize;
+
+    @Value("${booking.datasource.adaptive.step:2}")
+    private int step;
+
+    @Value("${booking.datasource.adaptive.grow-wait-ratio:0.25}")
+    private double growWaitRatio;
+
+    @Value("${booking.datasource.adaptive.shrink-after-ticks:6}")
+    private int shrinkAfterTicks;
+
+    private MeteredDataSource metered;
+    private HikariDataSource hikari;
+
+    private long lastAcquireCount;
+    private long lastAcquireNanos;
+    private long lastHoldCount;
+    private long lastHoldNanos;
+    private int idleTicks;
+    private volatile int targetSize;
+
+    /**
+     * Resolves the metered and Hikari data sources and registers the target size gauge.
+     */
+    @PostConstruct
+    void init() {
+        try {
+            metered = dataSource.unwrap(MeteredDataSource.class);
+            hikari = dataSource.unwrap(HikariDataSource.class);
+            targetSize = hikari.getMaximumPoolSize();
+            Gauge.builder("booking.datasource.pool.target-size", this, sizer -> sizer.targetSize)
+                    .description("Maximum pool size chosen by the adaptive pool sizer")
+                    .register(meterRegistry);
+            logger.info("Adaptive pool sizing enabled: bounds=[{}, {}], step={}, growWaitRatio={}",
+                    minPoolSize, maxPoolSize, step, growWaitRatio);
+        } catch (SQLException ex) {
+            logger.error("Adaptive pool sizing requires a metered Hikari data source", ex);
+            throw new IllegalStateException("Adaptive pool sizing initialization failed", ex);
+        }
+    }
+
+    /**
+     * Samples wait/hold statistics and resizes the pool if needed.
+     */
+    @Scheduled(fixedDelayString = "${booking.datasource.adaptive.interval-ms:10000}")
+    public void adjust() {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            logger.debug("Hikari pool not started yet, skipping adaptive sizing tick");
+            return;
+        }
+        try {
+            long acquireCount = metered.getAcquireCount();
+            long acquireNanos = metered.getAcquireNanos();
+            long holdCount = metered.getHoldCount();
+            long holdNanos = metered.getHoldNanos();
+            double meanWait = mean(acquireNanos - lastAcquireNanos, acquireCount - lastAcquireCount);
+            double meanHold = mean(holdNanos - lastHoldNanos, holdCount - lastHoldCount);
+            lastAcquireCount = acquireCount;
+            lastAcquireNanos = acquireNanos;
+            lastHoldCount = holdCount;
+            lastHoldNanos = holdNanos;
+
+            int current = hikari.getMaximumPoolSize();
+            int pending = pool.getThreadsAwaitingConnection();
+            int idle = pool.getIdleConnections();
+            idleTicks = pending == 0 && idle >= step ? idleTicks + 1 : 0;
+
+            int target = computeTargetSize(current, meanWait, meanHold, pending, idleTicks);
+            if (target != current) {
+                logger.info("Resizing connection pool {} -> {} (meanWait={}us, meanHold={}us, pending={}, idle={})",
+                        current, target, (long) (meanWait / 1000), (long) (meanHold / 1000), pending, idle);
+                hikari.getHikariConfigMXBean().setMaximumPoolSize(target);
+                if (hikari.getMinimumIdle() > target) {
+                    hikari.getHikariConfigMXBean().setMinimumIdle(target);
+                }
+                idleTicks = 0;
+            }
+            targetSize = target;
+        } catch (Exception ex) {
+            logger.error("Adaptive pool sizing tick failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Computes the next maximum pool size.
+     *
+     * @param current the current maximum pool size
+     * @param meanWaitNanos mean connection wait time over the last interval
+     * @param meanHoldNanos mean connection hold time over the last interval
+     * @param pending threads currently waiting for a connection
+     * @param idleTicks consecutive ticks with spare idle connections and no waiters
+     * @return the new maximum pool size, clamped to the configured bounds
+     */
+    int computeTargetSize(int current, double meanWaitNanos, double meanHoldNanos, int pending, int idleTicks) {
+        int target = current;
+        if (pending > 0 && meanHoldNanos > 0 && meanWaitNanos > growWaitRatio * meanHoldNanos) {
+            target = current + step;
+        } else if (idleTicks >= shrinkAfterTicks) {
+            target = current - step;
+        }
+        return Math.max(minPoolSize, Math.min(maxPoolSize, target));
+    }
+
+    private static double mean(long totalNanos, long count) {
+        return count > 0 ? (double) totalNanos / count : 0d;
+    }
+}
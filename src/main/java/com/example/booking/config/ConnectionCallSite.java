@@ -0,0 +1,42 @@
+package com.example.booking.config;
+
+/**
+ * Holds the logical call site (e.g. {@code POST /api/bookings/book}) for the current thread.
+ * Used to tag JDBC connection acquisition and hold-time metrics per endpoint.
+ */
+public final class ConnectionCallSite {
+
+    /**
+     * Call site reported when no request-scoped call site is bound (scheduled jobs, listeners, startup).
+     */
+    public static final String BACKGROUND = "background";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ConnectionCallSite() {
+    }
+
+    /**
+     * Binds the call site for the current thread.
+     * @param callSite the call site name
+     */
+    public static void set(String callSite) {
+        CURRENT.set(callSite);
+    }
+
+    /**
+     * Gets the call site bound to the current thread.
+     * @return the call site, or {@link #BACKGROUND} when none is bound
+     */
+    public static String current() {
+        String callSite = CURRENT.get();
+        return callSite != null ? callSite : BACKGROUND;
+    }
+
+    /**
+     * Clears the call site for the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.booking.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * MVC interceptor that binds the matched route (HTTP method plus URI pattern) as the
+ * {@link ConnectionCallSite} for the duration of the request.
+ * Route patterns are used instead of raw URIs to keep metric tag cardinality bounded.
+ */
+public class ConnectionCallSiteInterceptor implements HandlerInterceptor {
+
+    /**
+     * Binds the call site before the handler runs.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param handler the chosen handler
+     * @return always true
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        ConnectionCallSite.set(request.getMethod() + " " + (pattern != null ? pattern : "unmapped"));
+        return true;
+    }
+
+    /**
+     * Clears the call site once the request completes.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param handler the chosen handler
+     * @param ex exception thrown by the handler, if any
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ConnectionCallSite.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.booking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for JDBC connection pool instrumentation.
+ * Wraps the pooled {@link DataSource} in a {@link MeteredDataSource} and binds the
+ * current route as the connection call site for every MVC request.
+ * Hikari's own pool metrics ({@code hikaricp.connections.*}) are exported by actuator.
+ */
+@Configuration
+@EnableScheduling
+public class DataSourceMetricsConfig implements WebMvcConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceMetricsConfig.class);
+
+    /**
+     * Registers a post-processor that decorates the application's data source with call-site metrics.
+     *
+     * @param meterRegistry lazily resolved meter registry
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor meteredDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof MeteredDataSource)) {
+                    logger.info("Wrapping data source '{}' with connection call-site metrics.", beanName);
+                    return new MeteredDataSource(dataSource, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Adds the {@link ConnectionCallSiteInterceptor} to the MVC interceptor chain.
+     *
+     * @param registry the {@link InterceptorRegistry} to add to
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        try {
+            logger.info("Registering connection call-site interceptor.");
+            registry.addInterceptor(new ConnectionCallSiteInterceptor());
+        } catch (Exception ex) {
+            logger.error("Failed to register connection call-site interceptor.", ex);
+            throw new IllegalStateException("Connection call-site interceptor registration failed", ex);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.booking.config;
+
+import org.apache.kafka.streams.StreamsConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Enables Kafka Streams for the real-time sales aggregation.
+ * Streams properties come from {@code spring.kafka.streams.*}; set {@code booking.streams.enabled=false}
+ * to run without it.
+ * <p>
+ * {@code application.server}, the endpoint other instances use for interactive queries, is set from
+ * {@code booking.streams.advertised-host}, or from the instance's host name when that is blank. With
+ * {@code booking.cluster.enabled=true} an advertised host that resolves to a loopback address fails startup,
+ * since every replica would advertise itself as the caller.
+ * </p>
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "booking.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaStreamsConfig {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaStreamsConfig.class);
+
+    /**
+     * Constructs KafkaStreamsConfig.
+     */
+    public KafkaStreamsConfig() {
+        logger.info("Kafka Streams sales aggregation enabled.");
+    }
+
+    /**
+     * Sets {@code application.server} to this instance's advertised endpoint.
+     * @param advertisedHost the configured advertised host, or blank to derive it
+     * @param hostname the host name, from the {@code HOSTNAME} environment variable
+     * @param port the HTTP port
+     * @param multiInstance whether other instances query this one, i.e. cluster mode is enabled
+     * @return the configurer
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer applicationServerConfigurer(
+            @Value("${booking.streams.advertised-host:}") String advertisedHost,
+            @Value("${HOSTNAME:}") String hostname,
+            @Value("${server.port:8080}") int port,
+            @Value("${booking.cluster.enabled:false}") boolean multiInstance) {
+        String endpoint = resolveAdvertisedHost(advertisedHost, hostname, multiInstance) + ":" + port;
+        logger.info("Kafka Streams advertises {} for interactive queries", endpoint);
+        return factoryBean -> factoryBean.getStreamsConfiguration().put(StreamsConfig.APPLICATION_SERVER_CONFIG, endpoint);
+    }
+
+    /**
+     * Resolves the host other instances should use to reach this one.
+     * @param advertisedHost the configured advertised host, or blank to derive it
+     * @param hostname the {@code HOSTNAME} environment variable, or blank
+     * @param multiInstance whether a loopback host is an error
+     * @return the advertised host
+     * @throws IllegalStateException if the host resolves to a loopback address on a multi-instance deployment
+     */
+    static String resolveAdvertisedHost(String advertisedHost, String hostname, boolean multiInstance) {
+        String host = !advertisedHost.isBlank() ? advertisedHost.trim()
+                : !hostname.isBlank() ? hostname.trim()
+                : localHostName();
+        boolean loopback;
+        try {
+            loopback = InetAddress.getByName(host).isLoopbackAddress();
+        } catch (UnknownHostException ex) {
+            logger.warn("Advertised Kafka Streams host {} does not resolve locally", host);
+            return host;
+        }
+        if (loopback && multiInstance) {
+            throw new IllegalStateException("Kafka Streams advertised host " + host + " is a loopback address; "
+                    + "set booking.streams.advertised-host to an address other instances can reach");
+        }
+        if (loopback) {
+            logger.warn("Kafka Streams advertised host {} is a loopback address; interactive queries only work "
+                    + "with a single instance", host);
+        }
+        return host;
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            throw new IllegalStateException("Cannot determine the local host name; set booking.streams.advertised-host", ex);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.booking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DataSource} decorator that records connection acquisition latency and connection
+ * hold time per {@link ConnectionCallSite}.
+ * <p>
+ * Publishes {@code booking.datasource.connection.acquire} and {@code booking.datasource.connection.hold}
+ * timers tagged with {@code call_site}, and keeps cumulative totals for the {@link AdaptivePoolSizer}.
+ * </p>
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+
+    public static final String ACQUIRE_TIMER = "booking.datasource.connection.acquire";
+    public static final String HOLD_TIMER = "booking.datasource.connection.hold";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> acquireTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder holdCount = new LongAdder();
+    private final LongAdder holdNanos = new LongAdder();
+
+    /**
+     * Constructs a MeteredDataSource around the given target.
+     *
+     * @param target the pooled data source to decorate
+     * @param meterRegistry the registry to publish timers to
+     */
+    public MeteredDataSource(DataSource target, MeterRegistry meterRegistry) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        return track(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return track(connection, start);
+    }
+
+    /**
+     * Gets the cumulative number of connection acquisitions.
+     * @return acquisition count
+     */
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    /**
+     * Gets the cumulative time spent waiting for connections.
+     * @return total acquisition time in nanoseconds
+     */
+    public long getAcquireNanos() {
+        return acquireNanos.sum();
+    }
+
+    /**
+     * Gets the cumulative number of released connections.
+     * @return release count
+     */
+    public long getHoldCount() {
+        return holdCount.sum();
+    }
+
+    /**
+     * Gets the cumulative time connections were held by callers.
+     * @return total hold time in nanoseconds
+     */
+    public long getHoldNanos() {
+        return holdNanos.sum();
+    }
+
+    private Connection track(Connection connection, long start) {
+        long acquired = System.nanoTime();
+        String callSite = ConnectionCallSite.current();
+        long waited = acquired - start;
+        acquireTimers.computeIfAbsent(callSite, site -> Timer.builder(ACQUIRE_TIMER)
+                        .description("Time spent waiting for a pooled JDBC connection")
+                        .tag("call_site", site)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(waited, TimeUnit.NANOSECONDS);
+        acquireCount.increment();
+        acquireNanos.add(waited);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new HoldTimingHandler(connection, callSite, acquired));
+    }
+
+    private void recordHold(String callSite, long heldNanos) {
+        holdTimers.computeIfAbsent(callSite, site -> Timer.builder(HOLD_TIMER)
+                        .description("Time a JDBC connection was held before being returned to the pool")
+                        .tag("call_site", site)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+        holdCount.increment();
+        holdNanos.add(heldNanos);
+    }
+
+    /**
+     * Connection proxy handler that records hold time when the connection is closed.
+     */
+    private final class HoldTimingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final String callSite;
+        private final long acquiredAt;
+        private boolean closed;
+
+        HoldTimingHandler(Connection target, String callSite, long acquiredAt) {
+            this.target = target;
+            this.callSite = callSite;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name) && !closed) {
+                closed = true;
+                recordHold(callSite, System.nanoTime() - acquiredAt);
+            } else if ("unwrap".equals(name) && args != null && ((Class<?>) args[0]).isInstance(target)) {
+                return target;
+            } else if ("isWrapperFor".equals(name) && args != null && ((Class<?>) args[0]).isInstance(target)) {
+                return true;
+            } else if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            } else if ("toString".equals(name)) {
+                return "Metered[" + callSite + "] " + target;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
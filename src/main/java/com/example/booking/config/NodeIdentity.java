@@ -0,0 +1,41 @@
+package com.example.booking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identity of this service instance among its replicas.
+ * Uses {@code booking.node-id} when set, otherwise the host name plus a random suffix, so that a restarted
+ * node never reuses the identity (and consumer groups) of its previous run.
+ */
+@Component
+public class NodeIdentity {
+    private static final Logger logger = LoggerFactory.getLogger(NodeIdentity.class);
+
+    private final String nodeId;
+
+    /**
+     * Constructs the NodeIdentity.
+     * @param configuredNodeId the configured node ID, or blank to generate one
+     * @param hostname the host name, from the {@code HOSTNAME} environment variable
+     */
+    public NodeIdentity(@Value("${booking.node-id:}") String configuredNodeId,
+                        @Value("${HOSTNAME:node}") String hostname) {
+        this.nodeId = configuredNodeId.isBlank()
+                ? hostname + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : configuredNodeId;
+        logger.info("Node identity: {}", nodeId);
+    }
+
+    /**
+     * Gets the node ID.
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.booking.config;
+
+import com.example.booking.service.SeatSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-session backpressure on the client outbound channel.
+ * <p>
+ * Counts the messages queued for each WebSocket session. Broker messages carrying the
+ * {@value #CONFLATION_KEY_HEADER} and sequence native headers (seat deltas) are coalesced: while a delta for a
+ * subscription is still queued, newer ones are merged into it instead of queueing behind it. When it is sent
+ * it becomes one {@code deltas} message with the latest state of each seat (keyed by the conflation key) and
+ * the whole sequence range it covers, so a lagging session receives fewer, larger messages and still sees a
+ * contiguous sequence. A session with {@code booking.ws.session.max-pending}
+ * messages queued has further messages dropped, and is evicted once it has stayed over that budget for
+ * {@code booking.ws.session.evict-after-ms}.
+ * </p>
+ */
+@Component
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(OutboundBackpressureInterceptor.class);
+
+    public static final String CONFLATION_KEY_HEADER = "conflation-key";
+    public static final String MESSAGES_COUNTER = "booking.ws.outbound.messages";
+    public static final String PENDING_GAUGE = "booking.ws.session.pending";
+
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final int maxPending;
+    private final long evictAfterMillis;
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Counter conflated;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    /**
+     * Constructs the OutboundBackpressureInterceptor.
+     * @param sessionRegistry the registry used to evict sessions
+     * @param meterRegistry the meter registry
+     * @param maxPending the number of queued messages a session may have
+     * @param evictAfterMillis how long a session may stay at its budget before it is evicted
+     */
+    public OutboundBackpressureInterceptor(WebSocketSessionRegistry sessionRegistry, MeterRegistry meterRegistry,
+                                           @Value("${booking.ws.session.max-pending:256}") int maxPending,
+                                           @Value("${booking.ws.session.evict-after-ms:15000}") long evictAfterMillis) {
+        this.sessionRegistry = sessionRegistry;
+        this.maxPending = maxPending;
+        this.evictAfterMillis = evictAfterMillis;
+        this.conflated = counter(meterRegistry, "conflated");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.rejected = counter(meterRegistry, "rejected");
+        Gauge.builder(PENDING_GAUGE, sessions, s -> s.values().stream().mapToInt(state -> state.pending.get()).sum())
+                .description("Outbound messages queued for WebSocket sessions")
+                .tag("statistic", "total")
+                .register(meterRegistry);
+        Gauge.builder(PENDING_GAUGE, sessions, s -> s.values().stream().mapToInt(state -> state.pending.get()).max().orElse(0))
+                .description("Outbound messages queued for WebSocket sessions")
+                .tag("statistic", "max")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        SessionState state = sessions.computeIfAbsent(sessionId, id -> new SessionState());
+        String key = conflationKey(message);
+        Coalesced queued = null;
+        if (key != null) {
+            boolean[] merged = new boolean[1];
+            queued = state.queued.compute(key, (k, coalesced) -> {
+                if (coalesced == null) {
+                    return new Coalesced(message);
+                }
+                coalesced.add(message);
+                merged[0] = true;
+                return coalesced;
+            });
+            if (merged[0]) {
+                // A delta of this subscription is still queued; it will carry this one when it is handled
+                conflated.increment();
+                return null;
+            }
+        }
+        if (state.pending.get() >= maxPending) {
+            if (key != null) {
+                state.queued.remove(key, queued);
+            }
+            dropped.increment();
+            overBudget(sessionId, state);
+            return null;
+        }
+        state.overBudgetSince = 0;
+        state.pending.incrementAndGet();
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (ex == null) {
+            return;
+        }
+        // The bounded outbound executor rejected the message
+        rejected.increment();
+        SessionState state = state(message);
+        if (state != null) {
+            String key = conflationKey(message);
+            if (key != null) {
+                state.queued.remove(key);
+            }
+            state.pending.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        SessionState state = state(message);
+        String key = conflationKey(message);
+        if (state == null || key == null) {
+            return message;
+        }
+        Coalesced queued = state.queued.remove(key);
+        return queued != null ? queued.toMessage() : message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SessionState state = state(message);
+        if (state != null) {
+            state.pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets a closed session.
+     * @param event the disconnect event
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    /**
+     * Gets the number of messages queued for a session.
+     * @param sessionId the session ID
+     * @return queued message count
+     */
+    public int getPending(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        return state != null ? state.pending.get() : 0;
+    }
+
+    private void overBudget(String sessionId, SessionState state) {
+        long now = System.currentTimeMillis();
+        if (state.overBudgetSince == 0) {
+            state.overBudgetSince = now;
+            logger.debug("WebSocket session {} reached its outbound budget of {} messages", sessionId, maxPending);
+        } else if (now - state.overBudgetSince >= evictAfterMillis) {
+            logger.warn("Evicting WebSocket session {}: over its outbound budget for {} ms", sessionId, now - state.overBudgetSince);
+            state.overBudgetSince = now;
+            sessionRegistry.evict(sessionId, WebSocketSessionRegistry.REASON_LAGGING);
+        }
+    }
+
+    private SessionState state(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * Returns the subscription of a seat delta that can be coalesced, or null.
+     */
+    private static String conflationKey(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[])
+                || nativeHeader(message, CONFLATION_KEY_HEADER) == null
+                || nativeHeader(message, SeatSnapshotService.SEQUENCE_HEADER) == null) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+    }
+
+    private static String nativeHeader(Message<?> message, String name) {
+        Map<String, List<String>> nativeHeaders = message.getHeaders()
+                .get(NativeMessageHeaderAccessor.NATIVE_HEADERS, Map.class);
+        if (nativeHeaders == null) {
+            return null;
+        }
+        List<String> values = nativeHeaders.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(MESSAGES_COUNTER)
+                .description("Outbound WebSocket messages not delivered as sent")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class SessionState {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Map<String, Coalesced> queued = new ConcurrentHashMap<>();
+        private volatile long overBudgetSince;
+    }
+
+    /**
+     * The queued delta of a subscription and the deltas merged into it. Only touched inside the session's map
+     * operations, which also hand it from the sending thread to the handling one.
+     */
+    private static final class Coalesced {
+        private final Message<?> first;
+        private final String firstSequence;
+        private String lastSequence;
+        private final Map<String, byte[]> latest = new LinkedHashMap<>();
+
+        private Coalesced(Message<?> first) {
+            this.first = first;
+            this.firstSequence = nativeHeader(first, SeatSnapshotService.SEQUENCE_HEADER);
+            add(first);
+        }
+
+        private void add(Message<?> message) {
+            lastSequence = nativeHeader(message, SeatSnapshotService.SEQUENCE_HEADER);
+            latest.put(nativeHeader(message, CONFLATION_KEY_HEADER), (byte[]) message.getPayload());
+        }
+
+        private Message<?> toMessage() {
+            if (lastSequence.equals(firstSequence)) {
+                return first;
+            }
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            json.write('[');
+            for (byte[] payload : latest.values()) {
+                if (json.size() > 1) {
+                    json.write(',');
+                }
+                json.writeBytes(payload);
+            }
+            json.write(']');
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(first);
+            accessor.setNativeHeader(SeatSnapshotService.MESSAGE_TYPE_HEADER, SeatSnapshotService.DELTAS);
+            accessor.setNativeHeader(SeatSnapshotService.FIRST_SEQUENCE_HEADER, firstSequence);
+            accessor.setNativeHeader(SeatSnapshotService.SEQUENCE_HEADER, lastSequence);
+            accessor.removeNativeHeader(CONFLATION_KEY_HEADER);
+            return MessageBuilder.createMessage(json.toByteArray(), accessor.getMessageHeaders());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.booking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that rate-limits INFO and lower messages of hot-path loggers.
+ * <p>
+ * Each logger whose name starts with one of the configured {@code <logger>} prefixes may log at most
+ * {@code maxPerSecond} INFO/DEBUG/TRACE messages per second; the rest are denied before the message is
+ * formatted or an event is created. WARN and ERROR always pass, as do loggers outside the prefixes.
+ * </p>
+ * <pre>{@code
+ * <turboFilter class="com.example.booking.config.SamplingTurboFilter">
+ *     <logger>com.example.booking.service.BookingService</logger>
+ *     <maxPerSecond>20</maxPerSecond>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final Window UNSAMPLED = new Window();
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private int maxPerSecond = 20;
+
+    /**
+     * Adds a logger name prefix to sample.
+     * @param prefix the logger name or package
+     */
+    public void addLogger(String prefix) {
+        prefixes.add(prefix);
+    }
+
+    /**
+     * Sets how many INFO and lower messages each sampled logger may log per second.
+     * @param maxPerSecond messages per second
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Gets the number of messages denied so far.
+     * @return denied message count
+     */
+    public long getSampledOut() {
+        return sampledOut.get();
+    }
+
+    @Override
+    public void start() {
+        if (prefixes.isEmpty()) {
+            addWarn("No <logger> configured for " + getName() + "; nothing is sampled");
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks (no format) and messages below the logger's level do not use up the budget
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> sampled(name) ? new Window() : UNSAMPLED);
+        if (window == UNSAMPLED) {
+            return FilterReply.NEUTRAL;
+        }
+        if (window.tryAcquire(System.nanoTime(), maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean sampled(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One-second window of admitted messages of one logger.
+     */
+    private static final class Window {
+        private final AtomicLong start = new AtomicLong(System.nanoTime());
+        private final AtomicLong count = new AtomicLong();
+
+        private boolean tryAcquire(long now, int limit) {
+            long windowStart = start.get();
+            if (now - windowStart >= WINDOW_NANOS && start.compareAndSet(windowStart, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -1,24 +1,35 @@
 // src/main/java/com/example/booking/config/SecurityConfig.java
 package com.example.booking.config;
 
+import com.example.booking.service.TokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 /**
- * Security configuration for enabling HTTP Basic authentication.
+ * Security configuration for stateless access token and HTTP Basic authentication.
+ * Clients exchange Basic credentials for a signed token at {@code /api/auth/token} once and then send the token,
+ * which {@link TokenAuthenticationFilter} verifies without a user lookup.
+ * The {@code /internal} endpoints of cluster mode are reserved to other nodes, which authenticate with a token
+ * granting {@link TokenService#CLUSTER_AUTHORITY}.
  * Configures CSRF, request authorization, and logs security setup.
  */
 @Configuration
 public class SecurityConfig {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
 
+    @Autowired
+    private TokenService tokenService;
+
     /**
-     * Configures the security filter chain with HTTP Basic authentication.
+     * Configures the security filter chain with access token and HTTP Basic authentication.
      *
      * @param http the {@link HttpSecurity} to modify
      * @return the configured {@link SecurityFilterChain}
@@ -26,16 +37,19 @@ public class SecurityConfig {
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) {
         try {
-            logger.info("Initializing security filter chain with HTTP Basic authentication.");
+            logger.info("Initializing security filter chain with access token and HTTP Basic authentication.");
             http
                     .csrf(csrf -> {
                         csrf.disable();
                         logger.debug("CSRF protection disabled.");
                     })
                     .authorizeHttpRequests(auth -> {
+                        auth.requestMatchers("/internal/**").hasAuthority(TokenService.CLUSTER_AUTHORITY);
                         auth.anyRequest().authenticated();
-                        logger.debug("All requests require authentication.");
+                        logger.debug("Internal requests require a node token, all others authentication.");
                     })
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                     .httpBasic(Customizer.withDefaults());
             logger.info("Security filter chain initialized successfully.");
             return http.build();
@@ -0,0 +1,81 @@
+package com.example.booking.config;
+
+import com.example.booking.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying an access token from {@link TokenService}.
+ * The token is read from an {@code Authorization: Bearer} header. The {@code access_token} query parameter is
+ * accepted only on the WebSocket handshake and seat stream paths, whose browser clients cannot set headers;
+ * elsewhere it would leak the token into access logs and {@code Referer} headers.
+ * Requests without a valid token continue unauthenticated, so HTTP Basic still applies to them.
+ * The token endpoint itself is skipped: only a password may mint a token, so a leaked token cannot renew itself.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
+
+    static final String BEARER_PREFIX = "Bearer ";
+    static final String TOKEN_PARAMETER = "access_token";
+    static final String TOKEN_ENDPOINT = "/api/auth/token";
+    static final List<String> PARAMETER_PATHS = List.of("/ws/**", "/ws-native", "/api/events/*/seats/stream");
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final TokenService tokenService;
+
+    /**
+     * Constructs the TokenAuthenticationFilter.
+     * @param tokenService the token service
+     */
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return TOKEN_ENDPOINT.equals(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null) {
+            tokenService.verify(token).ifPresentOrElse(authentication -> {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }, () -> logger.debug("Rejected access token on {}", request.getRequestURI()));
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        String path = path(request);
+        if (PARAMETER_PATHS.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+            return request.getParameter(TOKEN_PARAMETER);
+        }
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -1,23 +1,74 @@
 package com.example.booking.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.*;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
+
 /**
  * WebSocket configuration for enabling STOMP messaging with SockJS fallback.
  * Configures endpoints and message broker for real-time communication.
+ * <p>
+ * The client inbound and outbound channels run on bounded executors, so a burst sheds messages instead of
+ * growing an unbounded queue, and each session's send buffer and send time are limited. Queued seat updates
+ * of lagging sessions are conflated and sessions that stay over budget are evicted
+ * (see {@link OutboundBackpressureInterceptor}).
+ * </p>
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
 
+    public static final String CHANNEL_QUEUE_GAUGE = "booking.ws.channel.queue";
+    public static final String CHANNEL_ACTIVE_GAUGE = "booking.ws.channel.active";
+    public static final String CHANNEL_REJECTED_COUNTER = "booking.ws.channel.rejected";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+
+    @Autowired
+    private WebSocketSessionRegistry webSocketSessionRegistry;
+
+    @Value("${booking.ws.inbound.threads:16}")
+    private int inboundThreads;
+
+    @Value("${booking.ws.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${booking.ws.outbound.threads:16}")
+    private int outboundThreads;
+
+    @Value("${booking.ws.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${booking.ws.send-buffer-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${booking.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${booking.ws.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     /**
      * Registers STOMP endpoints for WebSocket connections.
-     * Adds SockJS fallback and allows all origins.
+     * Adds SockJS fallback on {@code /ws}, a native endpoint {@code /ws-native}, and allows all origins.
      *
      * @param registry the {@link StompEndpointRegistry} to register endpoints with
      */
@@ -26,7 +77,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         try {
             logger.info("Registering STOMP endpoint '/ws' with SockJS and allowed origins '*'.");
             registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
-            logger.debug("STOMP endpoint '/ws' registered successfully.");
+            // Native WebSocket only: carries binary frames and negotiates permessage-deflate with the container
+            registry.addEndpoint("/ws-native").setAllowedOriginPatterns("*");
+            logger.debug("STOMP endpoints '/ws' and '/ws-native' registered successfully.");
         } catch (Exception ex) {
             logger.error("Failed to register STOMP endpoints.", ex);
             throw new IllegalStateException("WebSocket endpoint registration failed", ex);
@@ -51,4 +104,78 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             throw new IllegalStateException("WebSocket message broker configuration failed", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Limits each session's message size, send buffer and send time.
+     * A session exceeding the buffer or time limit is closed by the transport.
+     *
+     * @param registration the {@link WebSocketTransportRegistration} to configure
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        logger.info("WebSocket transport limits: send buffer {} bytes, send time {} ms, message size {} bytes",
+                sendBufferSizeLimit, sendTimeLimit, messageSizeLimit);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(webSocketSessionRegistry);
+    }
+
+    /**
+     * Runs the client inbound channel on a bounded executor.
+     *
+     * @param registration the inbound {@link ChannelRegistration}
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("inbound", inboundThreads, inboundQueueCapacity));
+    }
+
+    /**
+     * Runs the client outbound channel on a bounded executor with per-session backpressure.
+     *
+     * @param registration the outbound {@link ChannelRegistration}
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("outbound", outboundThreads, outboundQueueCapacity))
+                .interceptors(outboundBackpressureInterceptor);
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String channel, int threads, int queueCapacity) {
+        logger.info("WebSocket {} channel: {} threads, queue capacity {}", channel, threads, queueCapacity);
+        Counter rejected = Counter.builder(CHANNEL_REJECTED_COUNTER)
+                .description("Messages rejected because the WebSocket channel queue was full")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("WebSocket " + channel + " channel queue is full");
+        });
+        channelGauge(CHANNEL_QUEUE_GAUGE, "Messages queued on the WebSocket channel", channel, executor,
+                pool -> pool.getQueue().size());
+        channelGauge(CHANNEL_ACTIVE_GAUGE, "Threads handling WebSocket channel messages", channel, executor,
+                ThreadPoolExecutor::getActiveCount);
+        return executor;
+    }
+
+    private void channelGauge(String name, String description, String channel, ThreadPoolTaskExecutor executor,
+                              ToDoubleFunction<ThreadPoolExecutor> value) {
+        Gauge.builder(name, executor, e -> {
+                    try {
+                        return value.applyAsDouble(e.getThreadPoolExecutor());
+                    } catch (IllegalStateException ex) {
+                        return 0;
+                    }
+                })
+                .description(description)
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+}
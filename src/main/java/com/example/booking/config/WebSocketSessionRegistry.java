@@ -0,0 +1,98 @@
+package com.example.booking.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks open WebSocket sessions so that slow consumers can be evicted.
+ * <p>
+ * Sessions closed by the transport because they exceeded {@code booking.ws.send-buffer-limit} or
+ * {@code booking.ws.send-time-limit-ms} are counted as evicted with reason {@value #REASON_TRANSPORT_LIMIT};
+ * sessions closed by {@link OutboundBackpressureInterceptor} with reason {@value #REASON_LAGGING}.
+ * </p>
+ */
+@Component
+public class WebSocketSessionRegistry implements WebSocketHandlerDecoratorFactory {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketSessionRegistry.class);
+
+    public static final String SESSIONS_GAUGE = "booking.ws.sessions";
+    public static final String EVICTIONS_COUNTER = "booking.ws.sessions.evicted";
+    public static final String REASON_TRANSPORT_LIMIT = "transport_limit";
+    public static final String REASON_LAGGING = "lagging";
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs the WebSocketSessionRegistry.
+     * @param meterRegistry the meter registry
+     */
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(SESSIONS_GAUGE, sessions, Map::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                if (sessions.remove(session.getId()) != null && CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    countEviction(REASON_TRANSPORT_LIMIT);
+                    logger.warn("WebSocket session {} closed by the transport: send buffer or time limit exceeded", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Closes a session that cannot keep up.
+     * @param sessionId the session ID
+     * @param reason the eviction reason, used as a metric tag
+     */
+    public void evict(String sessionId, String reason) {
+        WebSocketSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        countEviction(reason);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ex) {
+            logger.debug("Failed to close evicted WebSocket session {}: {}", sessionId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of open sessions.
+     * @return open session count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private void countEviction(String reason) {
+        meterRegistry.counter(EVICTIONS_COUNTER, "reason", reason).increment();
+    }
+}
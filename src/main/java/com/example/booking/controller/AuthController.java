@@ -0,0 +1,43 @@
+package com.example.booking.controller;
+
+import com.example.booking.model.AccessToken;
+import com.example.booking.service.TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller issuing access tokens.
+ * Clients authenticate once with HTTP Basic and send the token on subsequent requests.
+ * Tokens are not accepted here, so an expiring token cannot be exchanged for a fresh one.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
+    @Autowired
+    private TokenService tokenService;
+
+    /**
+     * Issues a short-lived access token for the authenticated user.
+     *
+     * @param authentication the current authentication, always from HTTP Basic
+     * @return the signed token and its lifetime
+     */
+    @PostMapping("/token")
+    public AccessToken issueToken(Authentication authentication) {
+        logger.info("Issuing access token for user: {}", authentication.getName());
+        try {
+            return tokenService.issue(authentication);
+        } catch (Exception e) {
+            logger.error("Error issuing access token: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to issue access token", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.booking.controller;
+
+import com.example.booking.exception.BookingException;
+import com.example.booking.model.BookingRequest;
+import com.example.booking.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Book and cancel handling shared by {@link BookingController} and {@link ClusterController}, which differ only
+ * in how a command is routed. Booking failures ({@link BookingException}) are left to
+ * {@link BookingExceptionHandler}; other runtime failures are answered with 400 and the failure message.
+ */
+abstract class BookingCommandController {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    protected BookingService bookingService;
+
+    /**
+     * Books a ticket on the owner of its event or here.
+     *
+     * @param request the booking request details
+     * @param forward forwards the booking to the owner of its event, or returns empty to book it here
+     * @param execute runs the booking here
+     * @return the booking confirmation, the owner's response or the error message
+     * @throws BookingException if the seat cannot be booked
+     */
+    protected ResponseEntity<?> book(BookingRequest request, Supplier<Optional<ResponseEntity<String>>> forward,
+                                     Function<Supplier<Object>, Object> execute) {
+        try {
+            Optional<ResponseEntity<String>> forwarded = forward.get();
+            if (forwarded.isPresent()) {
+                return forwarded.get();
+            }
+            Object response = execute.apply(() -> bookingService.bookTicket(request));
+            logger.debug("Booking successful: {}", response);
+            return ResponseEntity.ok(response);
+        } catch (BookingException ex) {
+            // Expected outcome, mapped to 404/409 by BookingExceptionHandler
+            throw ex;
+        } catch (RuntimeException ex) {
+            logger.error("Booking failed: {}", ex.getMessage(), ex);
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Cancels a booking on the owner of its event or here.
+     *
+     * @param bookingId the ID of the booking to cancel
+     * @param eventId the ID of the booking's event, or null
+     * @param forward forwards the cancellation to the owner of its event, or returns empty to cancel here
+     * @param execute runs the cancellation here
+     * @return success message, the owner's response or the error message
+     * @throws BookingException if the booking does not exist
+     */
+    protected ResponseEntity<?> cancel(Long bookingId, Long eventId, Supplier<Optional<ResponseEntity<String>>> forward,
+                                       Function<Supplier<Object>, Object> execute) {
+        try {
+            Optional<ResponseEntity<String>> forwarded = forward.get();
+            if (forwarded.isPresent()) {
+                return forwarded.get();
+            }
+            execute.apply(() -> {
+                bookingService.cancelBooking(bookingId, eventId);
+                return null;
+            });
+            logger.debug("Booking {} cancelled successfully", bookingId);
+            return ResponseEntity.ok("Booking cancelled successfully");
+        } catch (BookingException ex) {
+            // Expected outcome, mapped to 404/409 by BookingExceptionHandler
+            throw ex;
+        } catch (RuntimeException ex) {
+            logger.error("Cancellation failed for bookingId {}: {}", bookingId, ex.getMessage(), ex);
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
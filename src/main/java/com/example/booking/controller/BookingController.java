@@ -1,7 +1,8 @@
 package com.example.booking.controller;
 
+import com.example.booking.exception.BookingException;
 import com.example.booking.model.BookingRequest;
-import com.example.booking.service.BookingService;
+import com.example.booking.service.EventRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,58 +11,46 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * REST controller for managing booking operations.
+ * In cluster mode, bookings and cancellations of events owned by another node are forwarded to it by the
+ * {@link EventRouter}.
  */
 @RestController
 @RequestMapping("/api/bookings")
-public class BookingController {
+public class BookingController extends BookingCommandController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
 
     @Autowired
-    private BookingService bookingService;
+    private EventRouter eventRouter;
 
     /**
      * Books a ticket based on the provided booking request.
      *
      * @param request the booking request details
      * @return the booking confirmation or error message
+     * @throws BookingException if the seat cannot be booked
      */
     @PostMapping("/book")
     public ResponseEntity<?> bookTicket(@RequestBody BookingRequest request) {
         logger.info("Received booking request: {}", request);
-        try {
-            Object response = bookingService.bookTicket(request);
-            logger.debug("Booking successful: {}", response);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException ex) {
-            logger.error("Booking failed: {}", ex.getMessage(), ex);
-            return ResponseEntity.badRequest().body(ex.getMessage());
-        } catch (Exception ex) {
-            logger.error("Unexpected error during booking", ex);
-            return ResponseEntity.internalServerError().body("Internal server error");
-        }
+        return book(request, () -> eventRouter.forwardBooking(request),
+                command -> eventRouter.execute(request.getEventId(), request.getSeatNumber(), command));
     }
 
     /**
      * Cancels a booking with the given booking ID.
      *
      * @param bookingId the ID of the booking to cancel
+     * @param eventId the ID of the booking's event, optional; lets the lookup skip other events' partitions, and
+     *                routes the cancellation to the event's owner in cluster mode
      * @return success message or error message
+     * @throws BookingException if the booking does not exist
      */
     @PostMapping("/cancel/{bookingId}")
-    public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId) {
+    public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId, @RequestParam(required = false) Long eventId) {
         logger.info("Received cancel request for bookingId: {}", bookingId);
-        try {
-            bookingService.cancelBooking(bookingId);
-            logger.debug("Booking {} cancelled successfully", bookingId);
-            return ResponseEntity.ok("Booking cancelled successfully");
-        } catch (RuntimeException ex) {
-            logger.error("Cancellation failed for bookingId {}: {}", bookingId, ex.getMessage(), ex);
-            return ResponseEntity.badRequest().body(ex.getMessage());
-        } catch (Exception ex) {
-            logger.error("Unexpected error during cancellation for bookingId {}", bookingId, ex);
-            return ResponseEntity.internalServerError().body("Internal server error");
-        }
+        return cancel(bookingId, eventId, () -> eventRouter.forwardCancel(bookingId, eventId),
+                command -> eventRouter.execute(eventId, null, command));
     }
 
     /**
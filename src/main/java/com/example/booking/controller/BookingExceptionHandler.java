@@ -0,0 +1,46 @@
+package com.example.booking.controller;
+
+import com.example.booking.exception.BookingException;
+import com.example.booking.exception.BookingNotFoundException;
+import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.SeatNotFoundException;
+import com.example.booking.exception.WaitlistEntryNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps expected booking failures to HTTP statuses: 404 for a missing event, seat, booking or waitlist entry, and
+ * 409 Conflict for a seat that is taken, an event that is sold out or a waitlist claim without an offer.
+ * The response body is the failure message, as before.
+ * The failures were already logged by the service, so they are only logged here at DEBUG, without a stack trace.
+ */
+@RestControllerAdvice
+public class BookingExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExceptionHandler.class);
+
+    /**
+     * Maps a booking failure to its HTTP status.
+     *
+     * @param ex the failure
+     * @return the failure message with 404 or 409
+     */
+    @ExceptionHandler(BookingException.class)
+    public ResponseEntity<String> handleBookingException(BookingException ex) {
+        HttpStatus status = statusOf(ex);
+        logger.debug("Booking failure {} mapped to {}", ex.getClass().getSimpleName(), status.value());
+        return ResponseEntity.status(status).body(ex.getMessage());
+    }
+
+    static HttpStatus statusOf(BookingException ex) {
+        if (ex instanceof EventNotFoundException || ex instanceof SeatNotFoundException
+                || ex instanceof BookingNotFoundException || ex instanceof WaitlistEntryNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        return HttpStatus.CONFLICT;
+    }
+}
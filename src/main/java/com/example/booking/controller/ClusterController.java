@@ -0,0 +1,84 @@
+package com.example.booking.controller;
+
+import com.example.booking.config.SecurityConfig;
+import com.example.booking.exception.BookingException;
+import com.example.booking.model.BookingRequest;
+import com.example.booking.model.ClusterMember;
+import com.example.booking.model.ClusterView;
+import com.example.booking.service.ClusterMembership;
+import com.example.booking.service.EventRouter;
+import com.example.booking.service.TokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * Internal endpoints of cluster mode: booking commands forwarded by other nodes (see {@link EventRouter}), and
+ * this node's view of the event ownership ring. Only cluster members, authenticated with a
+ * {@link TokenService#issueNodeToken node token}, may call them (see {@link SecurityConfig}). Forwarded commands are executed here whichever node the local
+ * ring names as owner, so a command is forwarded at most once.
+ */
+@RestController
+@RequestMapping("/internal")
+public class ClusterController extends BookingCommandController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterController.class);
+
+    @Autowired
+    private EventRouter eventRouter;
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    /**
+     * Books a ticket for another node.
+     *
+     * @param request the booking request details
+     * @param forwardedBy the node that forwarded the booking, from its node token
+     * @return the booking confirmation or error message
+     * @throws BookingException if the seat cannot be booked
+     */
+    @PostMapping("/bookings/book")
+    public ResponseEntity<?> bookTicket(@RequestBody BookingRequest request,
+                                        Principal forwardedBy) {
+        logger.debug("Received forwarded booking request from {}: {}", forwardedBy.getName(), request);
+        // Failures are relayed by the forwarding node as they are answered here
+        return book(request, Optional::empty,
+                command -> eventRouter.executeForwarded(request.getEventId(), request.getSeatNumber(), forwardedBy.getName(), command));
+    }
+
+    /**
+     * Cancels a booking for another node.
+     *
+     * @param bookingId the ID of the booking to cancel
+     * @param eventId the ID of the booking's event
+     * @param forwardedBy the node that forwarded the cancellation, from its node token
+     * @return success message or error message
+     * @throws BookingException if the booking does not exist
+     */
+    @PostMapping("/bookings/cancel/{bookingId}")
+    public ResponseEntity<?> cancelBooking(@PathVariable Long bookingId, @RequestParam Long eventId,
+                                           Principal forwardedBy) {
+        logger.debug("Received forwarded cancel request from {} for bookingId: {}", forwardedBy.getName(), bookingId);
+        return cancel(bookingId, eventId, Optional::empty,
+                command -> eventRouter.executeForwarded(eventId, null, forwardedBy.getName(), command));
+    }
+
+    /**
+     * Gets this node's view of the cluster.
+     *
+     * @param eventId an event whose owner to include, optional
+     * @return the members on this node's ring and the event's owner
+     */
+    @GetMapping("/cluster")
+    public ResponseEntity<ClusterView> getCluster(@RequestParam(required = false) Long eventId) {
+        String owner = eventId == null ? null
+                : clusterMembership.ownerOf(eventId).map(ClusterMember::getNodeId).orElse(null);
+        return ResponseEntity.ok(new ClusterView(clusterMembership.getNodeId(), clusterMembership.getMembers(), eventId, owner));
+    }
+}
@@ -3,17 +3,33 @@ package com.example.booking.controller;
 
 import com.example.booking.model.EventRequest;
 import com.example.booking.model.Event;
+import com.example.booking.model.EventSearchHit;
+import com.example.booking.model.EventSuggestion;
 import com.example.booking.model.Seat;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.model.SeatGroupAvailability;
+import com.example.booking.service.EventAutocompleteIndex;
+import com.example.booking.service.EventSearchIndex;
 import com.example.booking.service.EventService;
+import com.example.booking.service.SeatEventStreamBroadcaster;
+import com.example.booking.service.SeatSnapshotService;
+import com.example.booking.service.SeatStateCache;
+import com.example.booking.service.UpcomingEventsIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.example.booking.model.EventWithSeats;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -24,10 +40,29 @@ import java.util.List;
 @RequestMapping("/api/events")
 public class EventController {
     private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+    private static final int MAX_RESULTS = 100;
 
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private SeatStateCache seatStateCache;
+
+    @Autowired
+    private SeatEventStreamBroadcaster seatEventStreamBroadcaster;
+
+    @Autowired
+    private SeatSnapshotService seatSnapshotService;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Autowired
+    private EventAutocompleteIndex eventAutocompleteIndex;
+
+    @Autowired
+    private UpcomingEventsIndex upcomingEventsIndex;
+
     /**
      * Creates a new event with the provided details.
      *
@@ -64,6 +99,96 @@ public class EventController {
         }
     }
 
+    /**
+     * Searches events by name and location words, best matches first, optionally within a date range.
+     * The last word also matches as a prefix. Without words, the events in the range are returned by date.
+     * Served from the in-memory {@link EventSearchIndex}.
+     *
+     * @param q The words to search for, if any.
+     * @param from The first event date to include, if any.
+     * @param to The last event date to include, if any.
+     * @param limit The maximum number of results, 1 to 100.
+     * @return The matching events with their scores, or a 400 response for an invalid range or limit.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        logger.debug("Searching events: q={}, from={}, to={}, limit={}", q, from, to, limit);
+        if (limit < 1 || limit > MAX_RESULTS) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_RESULTS);
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().body("to must not be before from");
+        }
+        try {
+            List<EventSearchHit> hits = eventSearchIndex.search(q,
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    limit);
+            logger.debug("Found {} events for q={}", hits.size(), q);
+            return ResponseEntity.ok(hits);
+        } catch (Exception e) {
+            logger.error("Error searching events for q={}: {}", q, e.getMessage(), e);
+            throw new RuntimeException("Failed to search events", e);
+        }
+    }
+
+    /**
+     * Suggests upcoming events whose name or location has a word starting with the typed prefix, best selling
+     * and soonest first. Served from the in-memory {@link EventAutocompleteIndex}.
+     *
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions, at most {@code booking.autocomplete.top-k}.
+     * @return The suggestions, or a 400 response for an invalid limit.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit < 1 || limit > eventAutocompleteIndex.getTopK()) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + eventAutocompleteIndex.getTopK());
+        }
+        List<EventSuggestion> suggestions = eventAutocompleteIndex.suggest(prefix, limit);
+        logger.debug("Found {} suggestions for prefix={}", suggestions.size(), prefix);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Lists the events of a date window that have not started, by date. Pages are served from the
+     * {@link UpcomingEventsIndex} as JSON serialized once per change of the window; conditional requests with
+     * the returned ETag get a 304.
+     *
+     * @param window The window: today, this-weekend, next-7-days, next-30-days or all.
+     * @param page The zero-based page number.
+     * @param size The page size, 1 to 100, rounded up to one of {@link UpcomingEventsIndex#PAGE_SIZES}.
+     * @return The page, or a 400 response for an unknown window or invalid paging.
+     */
+    @GetMapping(value = "/upcoming", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getUpcomingEvents(
+            @RequestParam(defaultValue = "next-7-days") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (page < 0 || size < 1 || size > MAX_RESULTS) {
+            return ResponseEntity.badRequest().body("page must not be negative and size must be between 1 and "
+                    + MAX_RESULTS);
+        }
+        return UpcomingEventsIndex.Window.fromParam(window)
+                .<ResponseEntity<?>>map(selected -> {
+                    UpcomingEventsIndex.CachedPage listing = upcomingEventsIndex.getPage(selected, page, size);
+                    return ResponseEntity.ok()
+                            .eTag(listing.getETag())
+                            .cacheControl(CacheControl.noCache())
+                            .body(listing.getJson());
+                })
+                .orElseGet(() -> ResponseEntity.badRequest().body("Unknown window: " + window));
+    }
+
     /**
      * Retrieves an event along with its paginated seats.
      *
@@ -88,6 +213,154 @@ public class EventController {
         }
     }
 
+    /**
+     * Retrieves the seat availability of an event from the in-memory seat state cache.
+     *
+     * @param id The ID of the event.
+     * @return The seat availability, or a 404 response if the event has no seats.
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<SeatAvailability> getAvailability(@PathVariable Long id) {
+        logger.info("Fetching seat availability for event with id: {}", id);
+        try {
+            return seatStateCache.getAvailability(id)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> {
+                        logger.warn("No seats found for event with id {}", id);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (Exception e) {
+            logger.error("Error fetching seat availability for event with id {}: {}", id, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch seat availability", e);
+        }
+    }
+
+    /**
+     * Retrieves the seat availability of every section of an event from the in-memory seat state cache.
+     *
+     * @param id The ID of the event.
+     * @return The availability of each section; empty if the event's seats have no sections.
+     */
+    @GetMapping("/{id}/availability/sections")
+    public List<SeatGroupAvailability> getSectionAvailability(@PathVariable Long id) {
+        logger.debug("Fetching section availability for event with id: {}", id);
+        try {
+            return seatStateCache.getSectionAvailability(id);
+        } catch (Exception e) {
+            logger.error("Error fetching section availability for event with id {}: {}", id, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch section availability", e);
+        }
+    }
+
+    /**
+     * Retrieves the seat availability of one section of an event from the in-memory seat state cache.
+     *
+     * @param id The ID of the event.
+     * @param section The section name.
+     * @return The availability, or a 404 response if the section has no seats.
+     */
+    @GetMapping("/{id}/availability/sections/{section}")
+    public ResponseEntity<SeatGroupAvailability> getSectionAvailability(@PathVariable Long id, @PathVariable String section) {
+        logger.debug("Fetching availability of section {} for event with id: {}", section, id);
+        try {
+            return seatStateCache.getSectionAvailability(id, section)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching availability of section {} for event with id {}: {}", section, id, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch section availability", e);
+        }
+    }
+
+    /**
+     * Retrieves the seat availability of one row of an event from the in-memory seat state cache.
+     *
+     * @param id The ID of the event.
+     * @param section The section name.
+     * @param row The row label.
+     * @return The availability, or a 404 response if the row has no seats.
+     */
+    @GetMapping("/{id}/availability/sections/{section}/rows/{row}")
+    public ResponseEntity<SeatGroupAvailability> getRowAvailability(
+            @PathVariable Long id,
+            @PathVariable String section,
+            @PathVariable String row
+    ) {
+        logger.debug("Fetching availability of row {} of section {} for event with id: {}", row, section, id);
+        try {
+            return seatStateCache.getRowAvailability(id, section, row)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching availability of row {} of section {} for event with id {}: {}", row, section, id, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch row availability", e);
+        }
+    }
+
+    /**
+     * Retrieves the seat map of an event: every seat number and a bit set of the booked ones, as in the
+     * WebSocket snapshot. The JSON is serialized and gzip-compressed once per change of the seat state, and
+     * sent compressed to clients that accept gzip. Conditional requests with the returned ETag get a 304.
+     *
+     * @param id The ID of the event.
+     * @param acceptEncoding The client's Accept-Encoding header, if any.
+     * @return The seat map, or a 404 response if the event has no seats.
+     */
+    @GetMapping(value = "/{id}/seat-map", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getSeatMap(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        logger.debug("Fetching seat map for event with id: {}", id);
+        try {
+            return seatSnapshotService.getSeatMap(id)
+                    .map(seatMap -> {
+                        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                .eTag(seatMap.getETag())
+                                .cacheControl(CacheControl.noCache())
+                                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+                        if (acceptsGzip(acceptEncoding)) {
+                            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(seatMap.getGzip());
+                        }
+                        return response.body(seatMap.getJson());
+                    })
+                    .orElseGet(() -> {
+                        logger.warn("No seats found for event with id {}", id);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (Exception e) {
+            logger.error("Error fetching seat map for event with id {}: {}", id, e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch seat map", e);
+        }
+    }
+
+    /**
+     * Streams the seat updates of an event as Server-Sent Events: a snapshot first, then one
+     * {@code seat} event per update, with the update's sequence number as event ID.
+     *
+     * @param id The ID of the event.
+     * @param lastEventId The last event ID a reconnecting client received, if any.
+     * @return The event stream, or a 404 response if the event has no seats.
+     */
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeats(
+            @PathVariable Long id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        logger.debug("Opening seat stream for event with id: {} from event ID {}", id, lastEventId);
+        try {
+            return seatEventStreamBroadcaster.subscribe(id, lastEventId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> {
+                        logger.warn("No seats found for event with id {}", id);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (Exception e) {
+            logger.error("Error opening seat stream for event with id {}: {}", id, e.getMessage(), e);
+            throw new RuntimeException("Failed to open seat stream", e);
+        }
+    }
+
     /**
      * Updates an existing event with the provided details.
      *
@@ -132,4 +405,17 @@ public class EventController {
             throw new RuntimeException("Failed to delete event", e);
         }
     }
-}
\ No newline at end of file
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.booking.controller;
+
+import com.example.booking.service.SalesQueryService;
+import org.apache.kafka.streams.state.HostInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * REST controller for real-time sales reporting, served from Kafka Streams state stores.
+ * Requests for an event owned by another instance are redirected there.
+ */
+@RestController
+@RequestMapping("/api/sales")
+public class SalesController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesController.class);
+
+    static final int MAX_MINUTES = 24 * 60;
+
+    @Autowired
+    private SalesQueryService salesQueryService;
+
+    /**
+     * Gets booked and cancelled counts of an event since it went on sale.
+     *
+     * @param eventId the event ID
+     * @return the sales counts
+     */
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<?> getTotals(@PathVariable Long eventId) {
+        logger.info("Fetching sales totals for eventId: {}", eventId);
+        try {
+            Optional<ResponseEntity<?>> redirect = redirectToOwner(eventId);
+            return redirect.orElseGet(() -> ResponseEntity.ok(salesQueryService.getTotals(eventId)));
+        } catch (IllegalStateException ex) {
+            logger.warn("Sales totals unavailable for eventId {}: {}", eventId, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+        } catch (Exception ex) {
+            logger.error("Error fetching sales totals for eventId {}", eventId, ex);
+            return ResponseEntity.internalServerError().body("Internal server error");
+        }
+    }
+
+    /**
+     * Gets per-minute sales of an event for the last {@code minutes} minutes.
+     *
+     * @param eventId the event ID
+     * @param minutes how many minutes to look back (1 to 1440)
+     * @return the sales windows, oldest first
+     */
+    @GetMapping("/events/{eventId}/per-minute")
+    public ResponseEntity<?> getPerMinute(@PathVariable Long eventId, @RequestParam(defaultValue = "60") int minutes) {
+        logger.info("Fetching per-minute sales for eventId: {} over {} minutes", eventId, minutes);
+        if (minutes < 1 || minutes > MAX_MINUTES) {
+            return ResponseEntity.badRequest().body("minutes must be between 1 and " + MAX_MINUTES);
+        }
+        try {
+            Optional<ResponseEntity<?>> redirect = redirectToOwner(eventId);
+            if (redirect.isPresent()) {
+                return redirect.get();
+            }
+            Instant to = Instant.now();
+            return ResponseEntity.ok(salesQueryService.getPerMinute(eventId, to.minus(Duration.ofMinutes(minutes)), to));
+        } catch (IllegalStateException ex) {
+            logger.warn("Per-minute sales unavailable for eventId {}: {}", eventId, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+        } catch (Exception ex) {
+            logger.error("Error fetching per-minute sales for eventId {}", eventId, ex);
+            return ResponseEntity.internalServerError().body("Internal server error");
+        }
+    }
+
+    private Optional<ResponseEntity<?>> redirectToOwner(Long eventId) {
+        Optional<HostInfo> owner = salesQueryService.remoteOwner(eventId);
+        return owner.map(host -> ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().host(host.host()).port(host.port()).build().toUri())
+                .build());
+    }
+}
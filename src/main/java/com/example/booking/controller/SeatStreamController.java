@@ -0,0 +1,36 @@
+package com.example.booking.controller;
+
+import com.example.booking.model.SeatSnapshot;
+import com.example.booking.service.SeatSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP controller for the seat update stream.
+ * Clients that detect a gap in the sequence numbers of {@code /topic/seats/{eventId}} subscribe to
+ * {@code /app/seats/{eventId}/snapshot} to receive a fresh snapshot without resubscribing to the topic.
+ */
+@Controller
+public class SeatStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatStreamController.class);
+
+    @Autowired
+    private SeatSnapshotService seatSnapshotService;
+
+    /**
+     * Replies to the subscriber with a snapshot of an event's seat state.
+     *
+     * @param eventId the event ID
+     * @return the snapshot, or null (no reply) if the event has no seats
+     */
+    @SubscribeMapping("/seats/{eventId}/snapshot")
+    public SeatSnapshot snapshot(@DestinationVariable Long eventId) {
+        logger.debug("Seat snapshot requested for eventId: {}", eventId);
+        return seatSnapshotService.getSnapshot(eventId).orElse(null);
+    }
+}
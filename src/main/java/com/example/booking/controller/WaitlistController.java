@@ -0,0 +1,102 @@
+package com.example.booking.controller;
+
+import com.example.booking.exception.BookingException;
+import com.example.booking.model.Booking;
+import com.example.booking.model.WaitlistStatus;
+import com.example.booking.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the waitlists of sold-out events.
+ * Offers are pushed to {@code /topic/waitlist/{eventId}/{userId}}; a user claims an offered seat before it
+ * expires.
+ */
+@RestController
+@RequestMapping("/api/events/{eventId}/waitlist")
+public class WaitlistController {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistController.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    /**
+     * Adds a user to the waitlist of a sold-out event.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's waitlist status or error message
+     * @throws BookingException if the event does not exist or still has seats
+     */
+    @PostMapping
+    public ResponseEntity<?> join(@PathVariable Long eventId, @RequestParam Long userId) {
+        logger.info("Received waitlist join: eventId={}, userId={}", eventId, userId);
+        try {
+            WaitlistStatus status = waitlistService.join(eventId, userId);
+            logger.debug("Waitlist joined: {}", status);
+            return ResponseEntity.ok(status);
+        } catch (BookingException ex) {
+            // Expected outcome, mapped to 404/409 by BookingExceptionHandler
+            throw ex;
+        } catch (RuntimeException ex) {
+            logger.error("Waitlist join failed: {}", ex.getMessage(), ex);
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Gets a user's waitlist status, including any seat offered to them.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's waitlist status
+     * @throws BookingException if the user is not on the waitlist
+     */
+    @GetMapping("/{userId}")
+    public ResponseEntity<WaitlistStatus> getStatus(@PathVariable Long eventId, @PathVariable Long userId) {
+        logger.debug("Fetching waitlist status: eventId={}, userId={}", eventId, userId);
+        return ResponseEntity.ok(waitlistService.getStatus(eventId, userId));
+    }
+
+    /**
+     * Removes a user from the waitlist, passing any seat offered to them on to the next in line.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's final waitlist status
+     * @throws BookingException if the user is not on the waitlist
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<WaitlistStatus> leave(@PathVariable Long eventId, @PathVariable Long userId) {
+        logger.info("Received waitlist leave: eventId={}, userId={}", eventId, userId);
+        return ResponseEntity.ok(waitlistService.leave(eventId, userId));
+    }
+
+    /**
+     * Books the seat offered to a user.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the booking or error message
+     * @throws BookingException if the user holds no unexpired offer
+     */
+    @PostMapping("/{userId}/claim")
+    public ResponseEntity<?> claim(@PathVariable Long eventId, @PathVariable Long userId) {
+        logger.info("Received waitlist claim: eventId={}, userId={}", eventId, userId);
+        try {
+            Booking booking = waitlistService.claim(eventId, userId);
+            logger.debug("Waitlist claim booked: {}", booking.getId());
+            return ResponseEntity.ok(booking);
+        } catch (BookingException ex) {
+            // Expected outcome, mapped to 404/409 by BookingExceptionHandler
+            throw ex;
+        } catch (RuntimeException ex) {
+            logger.error("Waitlist claim failed: {}", ex.getMessage(), ex);
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
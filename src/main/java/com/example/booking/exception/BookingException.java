@@ -0,0 +1,20 @@
+package com.example.booking.exception;
+
+/**
+ * Base class of expected booking failures, such as a seat that is already taken.
+ * <p>
+ * These are outcomes of normal operation, and under on-sale contention they outnumber successful bookings.
+ * They carry no stack trace and no suppressed exceptions, so throwing one costs about as much as
+ * returning a value. The HTTP status of each subclass is mapped by {@code BookingExceptionHandler}.
+ * </p>
+ */
+public abstract class BookingException extends RuntimeException {
+
+    /**
+     * Constructs a BookingException.
+     * @param message the client-facing failure message
+     */
+    protected BookingException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a cancellation refers to a booking that does not exist or is no longer active.
+ */
+public class BookingNotFoundException extends BookingException {
+
+    /**
+     * Constructs a BookingNotFoundException.
+     */
+    public BookingNotFoundException() {
+        super("Active booking not found");
+    }
+}
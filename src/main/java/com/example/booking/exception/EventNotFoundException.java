@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a booking refers to an event that does not exist.
+ */
+public class EventNotFoundException extends BookingException {
+
+    /**
+     * Constructs a EventNotFoundException.
+     */
+    public EventNotFoundException() {
+        super("Event not found");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a waitlisted user claims a seat but holds no unexpired seat offer.
+ */
+public class NoSeatOfferException extends BookingException {
+
+    /**
+     * Constructs a NoSeatOfferException.
+     */
+    public NoSeatOfferException() {
+        super("No seat is currently offered to this user");
+    }
+}
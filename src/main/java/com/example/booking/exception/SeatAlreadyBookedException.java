@@ -0,0 +1,22 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when the requested seat is already booked.
+ */
+public class SeatAlreadyBookedException extends BookingException {
+
+    /**
+     * Constructs a SeatAlreadyBookedException with the default message.
+     */
+    public SeatAlreadyBookedException() {
+        super("Seat already booked");
+    }
+
+    /**
+     * Constructs a SeatAlreadyBookedException.
+     * @param message the client-facing failure message
+     */
+    public SeatAlreadyBookedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a booking refers to a seat the event does not have.
+ */
+public class SeatNotFoundException extends BookingException {
+
+    /**
+     * Constructs a SeatNotFoundException.
+     */
+    public SeatNotFoundException() {
+        super("Seat not found");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a user tries to join the waitlist of an event that still has seats to book.
+ */
+public class SeatsAvailableException extends BookingException {
+
+    /**
+     * Constructs a SeatsAvailableException.
+     */
+    public SeatsAvailableException() {
+        super("Seats are still available for this event");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when an event has no seats left to book.
+ */
+public class SoldOutException extends BookingException {
+
+    /**
+     * Constructs a SoldOutException.
+     */
+    public SoldOutException() {
+        super("No seats available for this event");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.exception;
+
+/**
+ * Thrown when a user has no active waitlist entry for an event.
+ */
+public class WaitlistEntryNotFoundException extends BookingException {
+
+    /**
+     * Constructs a WaitlistEntryNotFoundException.
+     */
+    public WaitlistEntryNotFoundException() {
+        super("Waitlist entry not found");
+    }
+}
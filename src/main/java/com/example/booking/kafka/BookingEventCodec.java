@@ -0,0 +1,274 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Wire encodings for {@link BookingEvent}.
+ * <p>
+ * <b>Binary (schema version 1)</b>:
+ * <pre>
+ *   byte    magic (0xB7)
+ *   byte    schema version (1)
+ *   byte    type ordinal (0 = BOOKED, 1 = CANCELLED)
+ *   varint  bookingId
+ *   varint  userId
+ *   varint  eventId
+ *   varint  seatNumber length, followed by that many UTF-8 bytes
+ * </pre>
+ * Varints are unsigned LEB128. Later schema versions may only append fields, so a decoder
+ * accepts any version at or above 1 and ignores trailing bytes it does not know about. That keeps
+ * consumers on this version working while producers roll forward to a newer one.
+ * </p>
+ * <b>JSON</b>: the legacy {@code {"type":...,"bookingId":...,"userId":...,"eventId":...,"seatNumber":...}}
+ * object with the same field order, with {@code seatNumber} properly escaped.
+ * <p>
+ * Both encoders write into a per-thread scratch buffer and copy out exactly one right-sized array,
+ * so encoding allocates nothing but the returned payload.
+ * </p>
+ */
+public final class BookingEventCodec {
+
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte SCHEMA_VERSION = 1;
+
+    private static final BookingEvent.Type[] TYPES = BookingEvent.Type.values();
+    private static final int SCRATCH_SIZE = 512;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SCRATCH_SIZE));
+    private static final byte[] LONG_MIN_DIGITS = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] JSON_TYPE_PREFIX = new byte[TYPES.length][];
+    private static final byte[] JSON_USER_ID = ascii(",\"userId\":");
+    private static final byte[] JSON_EVENT_ID = ascii(",\"eventId\":");
+    private static final byte[] JSON_SEAT_NUMBER = ascii(",\"seatNumber\":\"");
+    private static final byte[] JSON_END = ascii("\"}");
+
+    static {
+        for (BookingEvent.Type type : TYPES) {
+            JSON_TYPE_PREFIX[type.ordinal()] = ascii("{\"type\":\"" + type.name() + "\",\"bookingId\":");
+        }
+    }
+
+    private BookingEventCodec() {
+    }
+
+    /**
+     * Encodes an event in the binary format.
+     * @param event the event
+     * @return the encoded payload
+     */
+    public static byte[] encodeBinary(BookingEvent event) {
+        ByteBuffer buffer = scratch();
+        try {
+            encodeBinary(event, buffer);
+        } catch (BufferOverflowException ex) {
+            buffer = ByteBuffer.allocate(binarySizeUpperBound(event));
+            encodeBinary(event, buffer);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Encodes an event in the binary format into the given buffer, starting at its position.
+     * @param event the event
+     * @param buffer the destination buffer
+     * @throws BufferOverflowException if the buffer is too small
+     */
+    public static void encodeBinary(BookingEvent event, ByteBuffer buffer) {
+        buffer.put(MAGIC);
+        buffer.put(SCHEMA_VERSION);
+        buffer.put((byte) event.getType().ordinal());
+        putVarint(buffer, event.getBookingId());
+        putVarint(buffer, event.getUserId());
+        putVarint(buffer, event.getEventId());
+        String seatNumber = event.getSeatNumber();
+        if (isAscii(seatNumber)) {
+            putVarint(buffer, seatNumber.length());
+            for (int i = 0; i < seatNumber.length(); i++) {
+                buffer.put((byte) seatNumber.charAt(i));
+            }
+        } else {
+            byte[] utf8 = seatNumber.getBytes(StandardCharsets.UTF_8);
+            putVarint(buffer, utf8.length);
+            buffer.put(utf8);
+        }
+    }
+
+    /**
+     * Encodes an event in the legacy JSON format.
+     * @param event the event
+     * @return the UTF-8 encoded JSON payload
+     */
+    public static byte[] encodeJson(BookingEvent event) {
+        ByteBuffer buffer = scratch();
+        try {
+            encodeJson(event, buffer);
+        } catch (BufferOverflowException ex) {
+            buffer = ByteBuffer.allocate(128 + event.getSeatNumber().length() * 6);
+            encodeJson(event, buffer);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void encodeJson(BookingEvent event, ByteBuffer buffer) {
+        buffer.put(JSON_TYPE_PREFIX[event.getType().ordinal()]);
+        putDecimal(buffer, event.getBookingId());
+        buffer.put(JSON_USER_ID);
+        putDecimal(buffer, event.getUserId());
+        buffer.put(JSON_EVENT_ID);
+        putDecimal(buffer, event.getEventId());
+        buffer.put(JSON_SEAT_NUMBER);
+        putJsonString(buffer, event.getSeatNumber());
+        buffer.put(JSON_END);
+    }
+
+    /**
+     * Checks whether a payload is in the binary format.
+     * @param payload the payload
+     * @return true if the payload starts with the binary magic byte
+     */
+    public static boolean isBinary(byte[] payload) {
+        return payload != null && payload.length > 0 && payload[0] == MAGIC;
+    }
+
+    /**
+     * Decodes a binary payload.
+     * @param payload the payload
+     * @return the decoded event
+     * @throws IllegalArgumentException if the payload is malformed or has an invalid schema version
+     */
+    public static BookingEvent decodeBinary(byte[] payload) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            if (buffer.get() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary booking event");
+            }
+            byte version = buffer.get();
+            if (version < 1) {
+                throw new IllegalArgumentException("Unsupported booking event schema version: " + version);
+            }
+            int typeOrdinal = buffer.get();
+            if (typeOrdinal < 0 || typeOrdinal >= TYPES.length) {
+                throw new IllegalArgumentException("Unknown booking event type: " + typeOrdinal);
+            }
+            long bookingId = getVarint(buffer);
+            long userId = getVarint(buffer);
+            long eventId = getVarint(buffer);
+            int seatLength = (int) getVarint(buffer);
+            if (seatLength < 0 || seatLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid seat number length: " + seatLength);
+            }
+            String seatNumber = new String(payload, buffer.position(), seatLength, StandardCharsets.UTF_8);
+            return new BookingEvent(TYPES[typeOrdinal], bookingId, userId, eventId, seatNumber);
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated binary booking event", ex);
+        }
+    }
+
+    private static ByteBuffer scratch() {
+        ByteBuffer buffer = SCRATCH.get();
+        buffer.clear();
+        return buffer;
+    }
+
+    private static int binarySizeUpperBound(BookingEvent event) {
+        return 3 + 4 * 10 + event.getSeatNumber().length() * 3;
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(LONG_MIN_DIGITS);
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + (value % 10)));
+            value /= 10;
+        } while (value != 0);
+        byte[] array = buffer.array();
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    private static void putJsonString(ByteBuffer buffer, String value) {
+        int i = 0;
+        while (i < value.length()) {
+            int c = value.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20 || c <= 0xFFFF && Character.isSurrogate((char) c)) {
+                putUnicodeEscape(buffer, c);
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            } else if (c < 0x10000) {
+                buffer.put((byte) (0xE0 | (c >> 12)))
+                        .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xF0 | (c >> 18)))
+                        .put((byte) (0x80 | ((c >> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Writes a JSON unicode escape. Used for control characters and for unpaired surrogates,
+     * which have no UTF-8 encoding but are still valid in a JSON string when escaped.
+     */
+    private static void putUnicodeEscape(ByteBuffer buffer, int c) {
+        buffer.put((byte) '\\').put((byte) 'u')
+                .put(HEX[(c >> 12) & 0xF]).put(HEX[(c >> 8) & 0xF])
+                .put(HEX[(c >> 4) & 0xF]).put(HEX[c & 0xF]);
+    }
+}
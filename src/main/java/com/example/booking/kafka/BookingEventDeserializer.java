@@ -0,0 +1,42 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer for {@link BookingEvent}. Detects the wire format from the first byte, so consumers
+ * keep working while producers migrate from JSON to the binary encoding.
+ */
+public class BookingEventDeserializer implements Deserializer<BookingEvent> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public BookingEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (BookingEventCodec.isBinary(data)) {
+                return BookingEventCodec.decodeBinary(data);
+            }
+            return fromJson(objectMapper.readTree(data));
+        } catch (IOException | IllegalArgumentException | NullPointerException ex) {
+            throw new SerializationException("Failed to deserialize booking event from topic " + topic, ex);
+        }
+    }
+
+    private static BookingEvent fromJson(JsonNode node) {
+        return new BookingEvent(
+                BookingEvent.Type.valueOf(node.get("type").asText()),
+                node.get("bookingId").asLong(),
+                node.get("userId").asLong(),
+                node.get("eventId").asLong(),
+                node.get("seatNumber").asText());
+    }
+}
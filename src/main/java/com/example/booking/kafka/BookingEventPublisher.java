@@ -0,0 +1,97 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link BookingEvent}s to the booking topic.
+ * <p>
+ * Records are keyed by event ID, so every booking and cancellation for an event lands on the same partition
+ * and is consumed in order. Delivery is tracked from the send future: the broker acknowledgement latency is
+ * recorded per record and failed deliveries are counted by exception type. Batching, compression and
+ * idempotence are configured through the {@code spring.kafka.producer.*} properties.
+ * </p>
+ */
+@Component
+public class BookingEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingEventPublisher.class);
+
+    public static final String DELIVERY_TIMER = "booking.kafka.delivery";
+    public static final String FAILURE_COUNTER = "booking.kafka.delivery.failures";
+
+    private final KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String topic;
+    private final Timer[] deliveryTimers = new Timer[BookingEvent.Type.values().length];
+
+    /**
+     * Constructs a BookingEventPublisher and registers its delivery timers.
+     * @param kafkaTemplate the Kafka template
+     * @param meterRegistry the registry to publish metrics to
+     * @param topic the booking topic
+     */
+    public BookingEventPublisher(KafkaTemplate<String, BookingEvent> kafkaTemplate, MeterRegistry meterRegistry,
+                                 @Value("${booking.kafka.topic}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+        for (BookingEvent.Type type : BookingEvent.Type.values()) {
+            deliveryTimers[type.ordinal()] = Timer.builder(DELIVERY_TIMER)
+                    .description("Time from send until the broker acknowledged the booking event")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Sends a booking event keyed by its event ID.
+     * @param event the booking event
+     * @return the send future, completed when the broker acknowledges the record
+     */
+    public CompletableFuture<SendResult<String, BookingEvent>> publish(BookingEvent event) {
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, BookingEvent>> future;
+        try {
+            future = kafkaTemplate.send(topic, String.valueOf(event.getEventId()), event);
+        } catch (RuntimeException ex) {
+            recordFailure(event, ex);
+            throw ex;
+        }
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                deliveryTimers[event.getType().ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                recordFailure(event, ex);
+            }
+        });
+        return future;
+    }
+
+    private void recordFailure(BookingEvent event, Throwable ex) {
+        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+        Counter.builder(FAILURE_COUNTER)
+                .description("Booking events the broker did not acknowledge")
+                .tag("type", event.getType().name().toLowerCase(Locale.ROOT))
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+        logger.error("Failed to deliver booking event {}: {}", event, cause.getMessage());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Kafka Streams serde for {@link BookingEvent}, reading either wire format and writing the configured one.
+ */
+public class BookingEventSerde extends Serdes.WrapperSerde<BookingEvent> {
+
+    /**
+     * Constructs a BookingEventSerde.
+     */
+    public BookingEventSerde() {
+        super(new BookingEventSerializer(), new BookingEventDeserializer());
+    }
+}
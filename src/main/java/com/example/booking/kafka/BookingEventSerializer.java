@@ -0,0 +1,71 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kafka serializer for {@link BookingEvent}.
+ * <p>
+ * The wire format is chosen with the {@value #FORMAT_CONFIG} producer property: {@code json} (default) keeps
+ * the legacy JSON payload for existing consumers, {@code binary} switches to the compact versioned encoding of
+ * {@link BookingEventCodec}. {@link BookingEventDeserializer} reads either.
+ * </p>
+ */
+public class BookingEventSerializer implements Serializer<BookingEvent> {
+
+    public static final String FORMAT_CONFIG = "booking.event.format";
+
+    /**
+     * Supported wire formats.
+     */
+    public enum Format {
+        JSON, BINARY
+    }
+
+    private Format format = Format.JSON;
+
+    /**
+     * Constructs a serializer using the JSON format until configured otherwise.
+     */
+    public BookingEventSerializer() {
+    }
+
+    /**
+     * Constructs a serializer with a fixed format.
+     * @param format the wire format
+     */
+    public BookingEventSerializer(Format format) {
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object value = configs.get(FORMAT_CONFIG);
+        if (value != null) {
+            try {
+                format = Format.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalStateException("Unsupported " + FORMAT_CONFIG + ": " + value, ex);
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, BookingEvent data) {
+        if (data == null) {
+            return null;
+        }
+        return format == Format.BINARY ? BookingEventCodec.encodeBinary(data) : BookingEventCodec.encodeJson(data);
+    }
+
+    /**
+     * Gets the configured wire format.
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import com.example.booking.model.SalesCounts;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.*;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Kafka Streams topology that aggregates booking events into per-event sales counts.
+ * <p>
+ * Two local state stores are maintained, both keyed by event ID:
+ * <ul>
+ *     <li>{@value #TOTALS_STORE}: booked/cancelled counts since the event went on sale</li>
+ *     <li>{@value #PER_MINUTE_STORE}: the same counts in one-minute tumbling windows</li>
+ * </ul>
+ * Records are already keyed by event ID by {@link BookingEventPublisher}, so aggregation happens without a
+ * repartition topic. Records without a key (published before events were keyed) are skipped.
+ * The stores are queried by {@link com.example.booking.service.SalesQueryService}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "booking.streams.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingSalesTopology {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSalesTopology.class);
+
+    public static final String TOTALS_STORE = "booking-sales-totals";
+    public static final String PER_MINUTE_STORE = "booking-sales-per-minute";
+
+    public static final Duration WINDOW_SIZE = Duration.ofMinutes(1);
+    public static final Duration WINDOW_GRACE = Duration.ofSeconds(30);
+
+    @Value("${booking.kafka.topic}")
+    private String topic;
+
+    @Value("${booking.streams.window-retention:PT24H}")
+    private Duration windowRetention;
+
+    /**
+     * Adds the sales aggregation to the application's streams builder.
+     * @param streamsBuilder the streams builder managed by Spring Kafka
+     */
+    @Autowired
+    public void buildPipeline(StreamsBuilder streamsBuilder) {
+        logger.info("Building booking sales topology over topic '{}' with window retention {}", topic, windowRetention);
+        build(streamsBuilder, topic, windowRetention);
+    }
+
+    /**
+     * Builds the sales aggregation on the given builder.
+     * @param streamsBuilder the streams builder
+     * @param topic the booking events topic
+     * @param windowRetention how long per-minute windows stay queryable
+     */
+    public static void build(StreamsBuilder streamsBuilder, String topic, Duration windowRetention) {
+        SalesCountsSerde countsSerde = new SalesCountsSerde();
+        KGroupedStream<String, BookingEvent> byEvent = streamsBuilder
+                .stream(topic, Consumed.with(Serdes.String(), new BookingEventSerde()))
+                .filter((eventId, event) -> eventId != null && event != null)
+                .groupByKey(Grouped.with(Serdes.String(), new BookingEventSerde()));
+
+        byEvent.aggregate(
+                () -> SalesCounts.EMPTY,
+                (eventId, event, counts) -> counts.apply(event),
+                Materialized.<String, SalesCounts, KeyValueStore<Bytes, byte[]>>as(TOTALS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(countsSerde));
+
+        byEvent.windowedBy(TimeWindows.ofSizeAndGrace(WINDOW_SIZE, WINDOW_GRACE))
+                .aggregate(
+                        () -> SalesCounts.EMPTY,
+                        (eventId, event, counts) -> counts.apply(event),
+                        Materialized.<String, SalesCounts, WindowStore<Bytes, byte[]>>as(PER_MINUTE_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(countsSerde)
+                                .withRetention(windowRetention.plus(WINDOW_GRACE)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.SalesCounts;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Kafka Streams serde for {@link SalesCounts} state store values: two big-endian longs.
+ */
+public class SalesCountsSerde extends Serdes.WrapperSerde<SalesCounts> {
+
+    private static final int SIZE = 2 * Long.BYTES;
+
+    /**
+     * Constructs a SalesCountsSerde.
+     */
+    public SalesCountsSerde() {
+        super(new CountsSerializer(), new CountsDeserializer());
+    }
+
+    private static final class CountsSerializer implements Serializer<SalesCounts> {
+        @Override
+        public byte[] serialize(String topic, SalesCounts data) {
+            if (data == null) {
+                return null;
+            }
+            return ByteBuffer.allocate(SIZE).putLong(data.getBooked()).putLong(data.getCancelled()).array();
+        }
+    }
+
+    private static final class CountsDeserializer implements Deserializer<SalesCounts> {
+        @Override
+        public SalesCounts deserialize(String topic, byte[] data) {
+            if (data == null) {
+                return null;
+            }
+            if (data.length != SIZE) {
+                throw new SerializationException("Invalid sales counts payload of " + data.length + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            return new SalesCounts(buffer.getLong(), buffer.getLong());
+        }
+    }
+}
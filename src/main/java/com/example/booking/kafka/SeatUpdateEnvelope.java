@@ -0,0 +1,132 @@
+package com.example.booking.kafka;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Seat status update exchanged between nodes over the fan-out topic.
+ * <p>
+ * Carries the originating node, so receivers can tell their own updates apart, and a per-node sequence number
+ * for diagnostics; receivers detect duplicates by record offset. Wire layout (big-endian, version 1): {@code byte version, short origin length, origin UTF-8,
+ * long sequence, long eventId, byte booked, short seat length, seat UTF-8}.
+ * </p>
+ */
+public final class SeatUpdateEnvelope {
+
+    static final byte VERSION = 1;
+
+    private final String originNode;
+    private final long sequence;
+    private final long eventId;
+    private final String seatNumber;
+    private final boolean booked;
+
+    /**
+     * Constructs a SeatUpdateEnvelope.
+     * @param originNode the node that produced the update
+     * @param sequence the producing node's sequence number
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @param booked the seat's booking status
+     */
+    public SeatUpdateEnvelope(String originNode, long sequence, long eventId, String seatNumber, boolean booked) {
+        this.originNode = originNode;
+        this.sequence = sequence;
+        this.eventId = eventId;
+        this.seatNumber = seatNumber;
+        this.booked = booked;
+    }
+
+    /**
+     * Gets the originating node ID.
+     * @return origin node ID
+     */
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    /**
+     * Gets the originating node's sequence number.
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the seat number.
+     * @return seat number
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Gets the booking status.
+     * @return true if booked
+     */
+    public boolean isBooked() {
+        return booked;
+    }
+
+    /**
+     * Encodes the envelope.
+     * @return the encoded bytes
+     */
+    public byte[] toBytes() {
+        byte[] origin = originNode.getBytes(StandardCharsets.UTF_8);
+        byte[] seat = seatNumber.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + 2 + origin.length + 8 + 8 + 1 + 2 + seat.length)
+                .put(VERSION)
+                .putShort((short) origin.length).put(origin)
+                .putLong(sequence)
+                .putLong(eventId)
+                .put((byte) (booked ? 1 : 0))
+                .putShort((short) seat.length).put(seat)
+                .array();
+    }
+
+    /**
+     * Decodes an envelope.
+     * @param data the encoded bytes
+     * @return the envelope
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static SeatUpdateEnvelope fromBytes(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported seat update envelope version: " + version);
+            }
+            String origin = readString(buffer);
+            long sequence = buffer.getLong();
+            long eventId = buffer.getLong();
+            boolean booked = buffer.get() != 0;
+            return new SeatUpdateEnvelope(origin, sequence, eventId, readString(buffer), booked);
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated seat update envelope", ex);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "SeatUpdateEnvelope{originNode='" + originNode + "', sequence=" + sequence + ", eventId=" + eventId
+                + ", seatNumber='" + seatNumber + "', booked=" + booked + "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.booking.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Kafka deserializer for {@link SeatUpdateEnvelope}.
+ */
+public class SeatUpdateEnvelopeDeserializer implements Deserializer<SeatUpdateEnvelope> {
+
+    @Override
+    public SeatUpdateEnvelope deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return SeatUpdateEnvelope.fromBytes(data);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Failed to deserialize seat update from topic " + topic, ex);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.booking.kafka;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer for {@link SeatUpdateEnvelope}.
+ */
+public class SeatUpdateEnvelopeSerializer implements Serializer<SeatUpdateEnvelope> {
+
+    @Override
+    public byte[] serialize(String topic, SeatUpdateEnvelope data) {
+        return data == null ? null : data.toBytes();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.booking.model;
+
+/**
+ * DTO for a signed access token issued by {@code POST /api/auth/token}.
+ */
+public class AccessToken {
+
+    private final String accessToken;
+    private final String tokenType = "Bearer";
+    private final long expiresIn;
+
+    /**
+     * Constructs an AccessToken.
+     * @param accessToken the signed token
+     * @param expiresIn seconds until the token expires
+     */
+    public AccessToken(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+
+    /**
+     * Gets the signed token.
+     * @return access token
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Gets the token type to use in the {@code Authorization} header.
+     * @return token type
+     */
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Gets the seconds until the token expires.
+     * @return expiry in seconds
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.booking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +24,8 @@ public class Booking {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // bookings is partitioned by event_id; Hibernate adds it to the WHERE clause of UPDATE and DELETE statements
+    @PartitionKey
     @Column(name = "event_id", nullable = false)
     private Long eventId;
 
@@ -0,0 +1,132 @@
+package com.example.booking.model;
+
+import java.util.Objects;
+
+/**
+ * Event published to Kafka whenever a seat is booked or a booking is cancelled.
+ * Immutable; encoded on the wire by {@link com.example.booking.kafka.BookingEventCodec}.
+ */
+public final class BookingEvent {
+
+    /**
+     * Kind of booking change.
+     */
+    public enum Type {
+        BOOKED, CANCELLED
+    }
+
+    private final Type type;
+    private final long bookingId;
+    private final long userId;
+    private final long eventId;
+    private final String seatNumber;
+
+    /**
+     * Constructs a BookingEvent.
+     * @param type the event type
+     * @param bookingId the booking ID
+     * @param userId the user ID
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     */
+    public BookingEvent(Type type, long bookingId, long userId, long eventId, String seatNumber) {
+        if (type == null) {
+            throw new IllegalArgumentException("Booking event type must not be null");
+        }
+        if (seatNumber == null) {
+            throw new IllegalArgumentException("Seat number must not be null");
+        }
+        this.type = type;
+        this.bookingId = bookingId;
+        this.userId = userId;
+        this.eventId = eventId;
+        this.seatNumber = seatNumber;
+    }
+
+    /**
+     * Creates a {@link Type#BOOKED} event.
+     * @param bookingId the booking ID
+     * @param userId the user ID
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @return the event
+     */
+    public static BookingEvent booked(long bookingId, long userId, long eventId, String seatNumber) {
+        return new BookingEvent(Type.BOOKED, bookingId, userId, eventId, seatNumber);
+    }
+
+    /**
+     * Creates a {@link Type#CANCELLED} event.
+     * @param bookingId the booking ID
+     * @param userId the user ID
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @return the event
+     */
+    public static BookingEvent cancelled(long bookingId, long userId, long eventId, String seatNumber) {
+        return new BookingEvent(Type.CANCELLED, bookingId, userId, eventId, seatNumber);
+    }
+
+    /**
+     * Gets the event type.
+     * @return event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the booking ID.
+     * @return booking ID
+     */
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * Gets the user ID.
+     * @return user ID
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the seat number.
+     * @return seat number
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingEvent that)) {
+            return false;
+        }
+        return bookingId == that.bookingId && userId == that.userId && eventId == that.eventId
+                && type == that.type && seatNumber.equals(that.seatNumber);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, bookingId, userId, eventId, seatNumber);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingEvent{type=" + type + ", bookingId=" + bookingId + ", userId=" + userId
+                + ", eventId=" + eventId + ", seatNumber='" + seatNumber + "'}";
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.booking.model;
+
+import java.util.Objects;
+
+/**
+ * A service instance of the booking cluster, as seen through static configuration or local discovery.
+ */
+public class ClusterMember {
+
+    private final String nodeId;
+    private final String url;
+
+    /**
+     * Constructs a ClusterMember.
+     * @param nodeId the node ID, see {@code NodeIdentity}
+     * @param url the base URL other nodes forward commands to, e.g. {@code http://10.0.0.5:8080}
+     */
+    public ClusterMember(String nodeId, String url) {
+        this.nodeId = nodeId;
+        this.url = url;
+    }
+
+    /**
+     * Gets the node ID.
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gets the base URL of the node.
+     * @return base URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClusterMember)) {
+            return false;
+        }
+        ClusterMember other = (ClusterMember) o;
+        return nodeId.equals(other.nodeId) && Objects.equals(url, other.url);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nodeId, url);
+    }
+
+    @Override
+    public String toString() {
+        return nodeId + "=" + url;
+    }
+}
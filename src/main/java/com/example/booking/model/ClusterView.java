@@ -0,0 +1,60 @@
+package com.example.booking.model;
+
+import java.util.List;
+
+/**
+ * DTO for one node's view of the booking cluster, and optionally of the owner of an event.
+ */
+public class ClusterView {
+
+    private final String nodeId;
+    private final List<ClusterMember> members;
+    private final Long eventId;
+    private final String owner;
+
+    /**
+     * Constructs a ClusterView.
+     * @param nodeId the ID of the node answering
+     * @param members the members on its ring, sorted by node ID
+     * @param eventId the event asked about, or null
+     * @param owner the node owning that event, or null
+     */
+    public ClusterView(String nodeId, List<ClusterMember> members, Long eventId, String owner) {
+        this.nodeId = nodeId;
+        this.members = members;
+        this.eventId = eventId;
+        this.owner = owner;
+    }
+
+    /**
+     * Gets the ID of the node answering.
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gets the members on the node's ring.
+     * @return members, sorted by node ID
+     */
+    public List<ClusterMember> getMembers() {
+        return members;
+    }
+
+    /**
+     * Gets the event asked about.
+     * @return event ID, or null
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the node owning the event asked about.
+     * @return owner node ID, or null
+     */
+    public String getOwner() {
+        return owner;
+    }
+}
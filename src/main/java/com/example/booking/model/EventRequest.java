@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO representing a request to create or update an event.
@@ -19,6 +20,7 @@ public class EventRequest {
     private Integer totalSeats;
     private Integer seatStart; // e.g., 1
     private Integer seatEnd;   // e.g., 100
+    private List<SectionLayout> sections; // replaces seatStart/seatEnd when set
 
     /**
      * Gets the event name.
@@ -151,4 +153,23 @@ public class EventRequest {
         }
         this.seatEnd = seatEnd;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the section layout of the venue.
+     * @return sections, or null for flat seat numbers from seatStart to seatEnd
+     */
+    public List<SectionLayout> getSections() {
+        return sections;
+    }
+
+    /**
+     * Sets the section layout of the venue. Seats are then created per section and row, labelled
+     * {@code section-row-number}, instead of from seatStart to seatEnd.
+     * Logs at debug level.
+     * @param sections sections
+     */
+    public void setSections(List<SectionLayout> sections) {
+        logger.debug("Setting sections: {}", sections == null ? 0 : sections.size());
+        this.sections = sections;
+    }
+}
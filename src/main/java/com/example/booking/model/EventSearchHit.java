@@ -0,0 +1,83 @@
+package com.example.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one result of {@code GET /api/events/search}: the event's fields and its relevance score.
+ */
+public class EventSearchHit {
+
+    private final Long id;
+    private final String name;
+    private final String location;
+    private final LocalDateTime eventDate;
+    private final Integer totalSeats;
+    private final double score;
+
+    /**
+     * Constructs an EventSearchHit.
+     * @param id event ID
+     * @param name event name
+     * @param location event location
+     * @param eventDate event date
+     * @param totalSeats total number of seats
+     * @param score the relevance score, higher is better; 0 when searching by date only
+     */
+    public EventSearchHit(Long id, String name, String location, LocalDateTime eventDate, Integer totalSeats,
+                          double score) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.eventDate = eventDate;
+        this.totalSeats = totalSeats;
+        this.score = score;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the event name.
+     * @return event name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the event location.
+     * @return event location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the event date.
+     * @return event date
+     */
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+
+    /**
+     * Gets the total number of seats.
+     * @return total seats
+     */
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    /**
+     * Gets the relevance score.
+     * @return score
+     */
+    public double getScore() {
+        return score;
+    }
+}
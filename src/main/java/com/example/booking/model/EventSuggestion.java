@@ -0,0 +1,61 @@
+package com.example.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one result of {@code GET /api/events/autocomplete}: an upcoming event whose name or location
+ * starts with the typed prefix.
+ */
+public class EventSuggestion {
+
+    private final Long eventId;
+    private final String name;
+    private final String location;
+    private final LocalDateTime eventDate;
+
+    /**
+     * Constructs an EventSuggestion.
+     * @param eventId event ID
+     * @param name event name
+     * @param location event location
+     * @param eventDate event date
+     */
+    public EventSuggestion(Long eventId, String name, String location, LocalDateTime eventDate) {
+        this.eventId = eventId;
+        this.name = name;
+        this.location = location;
+        this.eventDate = eventDate;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the event name.
+     * @return event name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the event location.
+     * @return event location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the event date.
+     * @return event date
+     */
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one event of an upcoming events listing.
+ */
+public class EventSummary {
+
+    private final Long id;
+    private final String name;
+    private final String location;
+    private final LocalDateTime eventDate;
+    private final Integer totalSeats;
+
+    /**
+     * Constructs an EventSummary.
+     * @param id event ID
+     * @param name event name
+     * @param location event location
+     * @param eventDate event date
+     * @param totalSeats total number of seats
+     */
+    public EventSummary(Long id, String name, String location, LocalDateTime eventDate, Integer totalSeats) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.eventDate = eventDate;
+        this.totalSeats = totalSeats;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the event name.
+     * @return event name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the event location.
+     * @return event location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the event date.
+     * @return event date
+     */
+    public LocalDateTime getEventDate() {
+        return eventDate;
+    }
+
+    /**
+     * Gets the total number of seats.
+     * @return total seats
+     */
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.booking.model;
+
+/**
+ * Booked and cancelled seat counts for an event, as aggregated by the sales stream.
+ * Immutable; {@link #apply(BookingEvent)} returns a new instance.
+ */
+public final class SalesCounts {
+
+    public static final SalesCounts EMPTY = new SalesCounts(0, 0);
+
+    private final long booked;
+    private final long cancelled;
+
+    /**
+     * Constructs SalesCounts.
+     * @param booked number of bookings
+     * @param cancelled number of cancellations
+     */
+    public SalesCounts(long booked, long cancelled) {
+        this.booked = booked;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Returns the counts with the given booking event added.
+     * @param event the booking event
+     * @return the updated counts
+     */
+    public SalesCounts apply(BookingEvent event) {
+        return event.getType() == BookingEvent.Type.BOOKED
+                ? new SalesCounts(booked + 1, cancelled)
+                : new SalesCounts(booked, cancelled + 1);
+    }
+
+    /**
+     * Gets the number of bookings.
+     * @return bookings
+     */
+    public long getBooked() {
+        return booked;
+    }
+
+    /**
+     * Gets the number of cancellations.
+     * @return cancellations
+     */
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the number of seats sold net of cancellations.
+     * @return net sales
+     */
+    public long getNet() {
+        return booked - cancelled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof SalesCounts that && booked == that.booked && cancelled == that.cancelled);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(booked) * 31 + Long.hashCode(cancelled);
+    }
+
+    @Override
+    public String toString() {
+        return "SalesCounts{booked=" + booked + ", cancelled=" + cancelled + "}";
+    }
+}
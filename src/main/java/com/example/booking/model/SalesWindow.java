@@ -0,0 +1,57 @@
+package com.example.booking.model;
+
+import java.time.Instant;
+
+/**
+ * DTO for the sales of an event within one time window.
+ */
+public class SalesWindow {
+
+    private final Instant windowStart;
+    private final Instant windowEnd;
+    private final SalesCounts counts;
+
+    /**
+     * Constructs a SalesWindow.
+     * @param windowStart start of the window (inclusive)
+     * @param windowEnd end of the window (exclusive)
+     * @param counts the counts within the window
+     */
+    public SalesWindow(Instant windowStart, Instant windowEnd, SalesCounts counts) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.counts = counts;
+    }
+
+    /**
+     * Gets the window start.
+     * @return window start
+     */
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Gets the window end.
+     * @return window end
+     */
+    public Instant getWindowEnd() {
+        return windowEnd;
+    }
+
+    /**
+     * Gets the number of bookings in the window.
+     * @return bookings
+     */
+    public long getBooked() {
+        return counts.getBooked();
+    }
+
+    /**
+     * Gets the number of cancellations in the window.
+     * @return cancellations
+     */
+    public long getCancelled() {
+        return counts.getCancelled();
+    }
+}
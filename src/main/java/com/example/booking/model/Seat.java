@@ -2,6 +2,7 @@
 package com.example.booking.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,9 +24,21 @@ public class Seat {
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
 
+    // Read-only copy of the join column: seats is partitioned by event_id, and Hibernate adds the partition key
+    // to the WHERE clause of the seat's UPDATE and DELETE statements
+    @PartitionKey
+    @Column(name = "event_id", insertable = false, updatable = false)
+    private Long eventId;
+
     @Column(name = "seat_number", nullable = false, length = 10)
     private String seatNumber;
 
+    @Column(name = "section", length = 10)
+    private String section;
+
+    @Column(name = "seat_row", length = 10)
+    private String row;
+
     @Column(name = "is_booked")
     private Boolean isBooked = false;
 
@@ -85,6 +98,15 @@ public class Seat {
             throw new IllegalArgumentException("Event must not be null");
         }
         this.event = event;
+        this.eventId = event.getId();
+    }
+
+    /**
+     * Gets the ID of the event associated with the seat, without loading the event.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
     }
 
     /**
@@ -109,6 +131,38 @@ public class Seat {
         this.seatNumber = seatNumber;
     }
 
+    /**
+     * Gets the section of the seat.
+     * @return section, or null for a seat without section
+     */
+    public String getSection() {
+        return section;
+    }
+
+    /**
+     * Sets the section of the seat.
+     * @param section section
+     */
+    public void setSection(String section) {
+        this.section = section;
+    }
+
+    /**
+     * Gets the row of the seat.
+     * @return row, or null for a seat without section
+     */
+    public String getRow() {
+        return row;
+    }
+
+    /**
+     * Sets the row of the seat.
+     * @param row row
+     */
+    public void setRow(String row) {
+        this.row = row;
+    }
+
     /**
      * Gets the booking status of the seat.
      * @return true if booked, false otherwise
@@ -0,0 +1,68 @@
+package com.example.booking.model;
+
+import java.time.Instant;
+
+/**
+ * DTO for the seat availability of an event, served from the in-memory seat state cache.
+ */
+public class SeatAvailability {
+
+    private final Long eventId;
+    private final int totalSeats;
+    private final int bookedSeats;
+    private final Instant lastUpdate;
+
+    /**
+     * Constructs a SeatAvailability.
+     * @param eventId the event ID
+     * @param totalSeats number of seats
+     * @param bookedSeats number of booked seats
+     * @param lastUpdate time of the last booking event applied for this event, or null if none since loading
+     */
+    public SeatAvailability(Long eventId, int totalSeats, int bookedSeats, Instant lastUpdate) {
+        this.eventId = eventId;
+        this.totalSeats = totalSeats;
+        this.bookedSeats = bookedSeats;
+        this.lastUpdate = lastUpdate;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the number of seats.
+     * @return total seats
+     */
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    /**
+     * Gets the number of booked seats.
+     * @return booked seats
+     */
+    public int getBookedSeats() {
+        return bookedSeats;
+    }
+
+    /**
+     * Gets the number of available seats.
+     * @return available seats
+     */
+    public int getAvailableSeats() {
+        return totalSeats - bookedSeats;
+    }
+
+    /**
+     * Gets the time of the last booking event applied for this event.
+     * @return last update, or null if none since loading
+     */
+    public Instant getLastUpdate() {
+        return lastUpdate;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.booking.model;
+
+/**
+ * DTO for the seat availability of one section, or one row of a section, of an event.
+ */
+public class SeatGroupAvailability {
+
+    private final Long eventId;
+    private final String section;
+    private final String row;
+    private final int totalSeats;
+    private final int bookedSeats;
+
+    /**
+     * Constructs a SeatGroupAvailability.
+     * @param eventId event ID
+     * @param section section name
+     * @param row row label, or null for a whole section
+     * @param totalSeats seats in the group
+     * @param bookedSeats booked seats in the group
+     */
+    public SeatGroupAvailability(Long eventId, String section, String row, int totalSeats, int bookedSeats) {
+        this.eventId = eventId;
+        this.section = section;
+        this.row = row;
+        this.totalSeats = totalSeats;
+        this.bookedSeats = bookedSeats;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the section name.
+     * @return section name
+     */
+    public String getSection() {
+        return section;
+    }
+
+    /**
+     * Gets the row label.
+     * @return row label, or null for a whole section
+     */
+    public String getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the number of seats in the group.
+     * @return total seats
+     */
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    /**
+     * Gets the number of booked seats in the group.
+     * @return booked seats
+     */
+    public int getBookedSeats() {
+        return bookedSeats;
+    }
+
+    /**
+     * Gets the number of available seats in the group.
+     * @return available seats
+     */
+    public int getAvailableSeats() {
+        return totalSeats - bookedSeats;
+    }
+}
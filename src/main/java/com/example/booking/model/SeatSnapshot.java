@@ -0,0 +1,87 @@
+package com.example.booking.model;
+
+import java.util.List;
+
+/**
+ * DTO for the seat state of an event sent to a client when it subscribes to the event's seat updates.
+ * <p>
+ * {@code seats} lists the seat numbers in order; {@code booked} is a Base64 little-endian bit set
+ * ({@link java.util.BitSet#toByteArray()}) whose bit {@code i} is set when {@code seats[i]} is booked.
+ * Updates with a {@code sequence} greater than the snapshot's apply on top of it.
+ * </p>
+ */
+public class SeatSnapshot {
+
+    private final Long eventId;
+    private final long sequence;
+    private final int totalSeats;
+    private final int bookedSeats;
+    private final List<String> seats;
+    private final String booked;
+
+    /**
+     * Constructs a SeatSnapshot.
+     * @param eventId the event ID
+     * @param sequence the sequence number of the last update included
+     * @param totalSeats number of seats
+     * @param bookedSeats number of booked seats
+     * @param seats seat numbers
+     * @param booked Base64 bit set of booked seats, indexed like {@code seats}
+     */
+    public SeatSnapshot(Long eventId, long sequence, int totalSeats, int bookedSeats, List<String> seats, String booked) {
+        this.eventId = eventId;
+        this.sequence = sequence;
+        this.totalSeats = totalSeats;
+        this.bookedSeats = bookedSeats;
+        this.seats = seats;
+        this.booked = booked;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the sequence number of the last update included in the snapshot.
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the number of seats.
+     * @return total seats
+     */
+    public int getTotalSeats() {
+        return totalSeats;
+    }
+
+    /**
+     * Gets the number of booked seats.
+     * @return booked seats
+     */
+    public int getBookedSeats() {
+        return bookedSeats;
+    }
+
+    /**
+     * Gets the seat numbers.
+     * @return seat numbers
+     */
+    public List<String> getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the Base64 bit set of booked seats.
+     * @return booked seat bits
+     */
+    public String getBooked() {
+        return booked;
+    }
+}
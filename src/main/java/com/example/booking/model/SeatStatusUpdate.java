@@ -13,6 +13,7 @@ public class SeatStatusUpdate {
 
     private String seatNumber;
     private boolean isBooked;
+    private long sequence;
 
     /**
      * Default constructor.
@@ -37,6 +38,17 @@ public class SeatStatusUpdate {
         this.isBooked = isBooked;
     }
 
+    /**
+     * Constructs a sequence-numbered SeatStatusUpdate.
+     * @param seatNumber the seat number
+     * @param isBooked the booking status
+     * @param sequence the event's update sequence number
+     */
+    public SeatStatusUpdate(String seatNumber, boolean isBooked, long sequence) {
+        this(seatNumber, isBooked);
+        this.sequence = sequence;
+    }
+
     /**
      * Gets the seat number.
      * @return seat number
@@ -76,4 +88,21 @@ public class SeatStatusUpdate {
         logger.info("Setting isBooked: {}", booked);
         this.isBooked = booked;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the event's update sequence number, assigned by the node that delivers the update.
+     * Consecutive updates of an event have consecutive numbers; 0 if not yet assigned.
+     * @return sequence number
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Sets the event's update sequence number.
+     * @param sequence sequence number
+     */
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.booking.model;
+
+/**
+ * DTO describing one section of a venue in an {@link EventRequest}: its name, number of rows (labelled A, B, ...,
+ * Z, AA, ...) and seats per row (numbered from 1).
+ */
+public class SectionLayout {
+
+    private String name;
+    private int rows;
+    private int seatsPerRow;
+
+    /**
+     * Default constructor.
+     */
+    public SectionLayout() {
+    }
+
+    /**
+     * Constructs a SectionLayout.
+     * @param name section name, such as {@code 112}
+     * @param rows number of rows
+     * @param seatsPerRow seats in each row
+     */
+    public SectionLayout(String name, int rows, int seatsPerRow) {
+        this.name = name;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    /**
+     * Gets the section name.
+     * @return section name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the section name.
+     * @param name section name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the number of rows.
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Sets the number of rows.
+     * @param rows rows
+     */
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Gets the number of seats in each row.
+     * @return seats per row
+     */
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * Sets the number of seats in each row.
+     * @param seatsPerRow seats per row
+     */
+    public void setSeatsPerRow(int seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+}
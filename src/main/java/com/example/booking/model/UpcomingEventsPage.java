@@ -0,0 +1,96 @@
+package com.example.booking.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for one page of {@code GET /api/events/upcoming}: the events of a date window that have not started,
+ * by date.
+ */
+public class UpcomingEventsPage {
+
+    private final String window;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int page;
+    private final int size;
+    private final int totalElements;
+    private final List<EventSummary> events;
+
+    /**
+     * Constructs an UpcomingEventsPage.
+     * @param window the window name, such as {@code next-7-days}
+     * @param from start of the window, inclusive
+     * @param to end of the window, exclusive, or null if open-ended
+     * @param page zero-based page number
+     * @param size page size
+     * @param totalElements number of events in the window
+     * @param events the events of this page, by date
+     */
+    public UpcomingEventsPage(String window, LocalDateTime from, LocalDateTime to, int page, int size,
+                              int totalElements, List<EventSummary> events) {
+        this.window = window;
+        this.from = from;
+        this.to = to;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.events = events;
+    }
+
+    /**
+     * Gets the window name.
+     * @return window name
+     */
+    public String getWindow() {
+        return window;
+    }
+
+    /**
+     * Gets the start of the window.
+     * @return start, inclusive
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the end of the window.
+     * @return end, exclusive, or null if open-ended
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the page number.
+     * @return zero-based page number
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the page size.
+     * @return page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of events in the window.
+     * @return total events
+     */
+    public int getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Gets the events of this page.
+     * @return events by date
+     */
+    public List<EventSummary> getEvents() {
+        return events;
+    }
+}
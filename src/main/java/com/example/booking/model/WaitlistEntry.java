@@ -0,0 +1,195 @@
+package com.example.booking.model;
+
+import jakarta.persistence.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a user's place in the waitlist of a sold-out event.
+ * Entries are served in ID order; an offered entry holds one seat until its offer expires.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_event_status", columnList = "event_id, status, id"),
+        @Index(name = "idx_waitlist_status_expiry", columnList = "status, offer_expires_at"),
+        @Index(name = "idx_waitlist_seat", columnList = "seat_id")
+})
+public class WaitlistEntry {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistEntry.class);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = "WAITING";
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt = LocalDateTime.now();
+
+    @Column(name = "seat_id")
+    private Long seatId;
+
+    @Column(name = "seat_number", length = 10)
+    private String seatNumber;
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    /**
+     * JPA lifecycle callback before persisting the entity.
+     */
+    @PrePersist
+    private void prePersist() {
+        logger.debug("Persisting new WaitlistEntry: eventId={}, userId={}", eventId, userId);
+    }
+
+    /**
+     * Gets the entry ID.
+     * @return entry ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the entry ID.
+     * @param id the entry ID
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets the event ID.
+     * @param eventId the event ID
+     */
+    public void setEventId(Long eventId) {
+        if (eventId == null || eventId <= 0) {
+            logger.error("Invalid eventId: {}", eventId);
+            throw new IllegalArgumentException("eventId must be positive and not null");
+        }
+        this.eventId = eventId;
+    }
+
+    /**
+     * Gets the user ID.
+     * @return user ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the user ID.
+     * @param userId the user ID
+     */
+    public void setUserId(Long userId) {
+        if (userId == null || userId <= 0) {
+            logger.error("Invalid userId: {}", userId);
+            throw new IllegalArgumentException("userId must be positive and not null");
+        }
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the entry status.
+     * @return status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the entry status.
+     * @param status the status
+     */
+    public void setStatus(String status) {
+        if (status == null || status.isBlank()) {
+            logger.warn("Attempted to set blank or null status");
+            throw new IllegalArgumentException("status must not be blank");
+        }
+        this.status = status;
+    }
+
+    /**
+     * Gets the time the user joined the waitlist.
+     * @return join time
+     */
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    /**
+     * Sets the time the user joined the waitlist.
+     * @param joinedAt the join time
+     */
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+
+    /**
+     * Gets the ID of the offered seat.
+     * @return seat ID, or null if no seat was offered
+     */
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    /**
+     * Sets the ID of the offered seat.
+     * @param seatId the seat ID
+     */
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
+    }
+
+    /**
+     * Gets the number of the offered seat.
+     * @return seat number, or null if no seat was offered
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Sets the number of the offered seat.
+     * @param seatNumber the seat number
+     */
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    /**
+     * Gets the time the seat offer expires.
+     * @return offer expiry, or null if no seat was offered
+     */
+    public LocalDateTime getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+
+    /**
+     * Sets the time the seat offer expires.
+     * @param offerExpiresAt the offer expiry
+     */
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+}
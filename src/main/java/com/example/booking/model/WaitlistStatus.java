@@ -0,0 +1,155 @@
+package com.example.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing a user's waitlist state for an event: returned by the waitlist endpoints and pushed to
+ * {@code /topic/waitlist/{eventId}/{userId}} when a seat is offered or an offer expires.
+ */
+public class WaitlistStatus {
+
+    private Long eventId;
+    private Long userId;
+    private String status;
+    private long ahead;
+    private String seatNumber;
+    private LocalDateTime offerExpiresAt;
+
+    /**
+     * Default constructor, for JSON deserialization.
+     */
+    public WaitlistStatus() {
+    }
+
+    /**
+     * Constructs a WaitlistStatus.
+     * @param eventId event ID
+     * @param userId user ID
+     * @param status entry status
+     * @param ahead waiting users ahead of this one, or 0 once a seat was offered
+     * @param seatNumber offered seat number, or null
+     * @param offerExpiresAt offer expiry, or null
+     */
+    public WaitlistStatus(Long eventId, Long userId, String status, long ahead, String seatNumber,
+                          LocalDateTime offerExpiresAt) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.status = status;
+        this.ahead = ahead;
+        this.seatNumber = seatNumber;
+        this.offerExpiresAt = offerExpiresAt;
+    }
+
+    /**
+     * Creates the status of a waitlist entry.
+     * @param entry the entry
+     * @param ahead waiting users ahead of the entry
+     * @return the status
+     */
+    public static WaitlistStatus of(WaitlistEntry entry, long ahead) {
+        return new WaitlistStatus(entry.getEventId(), entry.getUserId(), entry.getStatus(), ahead,
+                entry.getSeatNumber(), entry.getOfferExpiresAt());
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets the event ID.
+     * @param eventId event ID
+     */
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Gets the user ID.
+     * @return user ID
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the user ID.
+     * @param userId user ID
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the entry status.
+     * @return status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the entry status.
+     * @param status status
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the number of waiting users ahead of this one.
+     * @return users ahead
+     */
+    public long getAhead() {
+        return ahead;
+    }
+
+    /**
+     * Sets the number of waiting users ahead of this one.
+     * @param ahead users ahead
+     */
+    public void setAhead(long ahead) {
+        this.ahead = ahead;
+    }
+
+    /**
+     * Gets the offered seat number.
+     * @return seat number, or null
+     */
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Sets the offered seat number.
+     * @param seatNumber seat number
+     */
+    public void setSeatNumber(String seatNumber) {
+        this.seatNumber = seatNumber;
+    }
+
+    /**
+     * Gets the offer expiry.
+     * @return offer expiry, or null
+     */
+    public LocalDateTime getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+
+    /**
+     * Sets the offer expiry.
+     * @param offerExpiresAt offer expiry
+     */
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistStatus{eventId=" + eventId + ", userId=" + userId + ", status=" + status
+                + ", ahead=" + ahead + ", seatNumber=" + seatNumber + ", offerExpiresAt=" + offerExpiresAt + "}";
+    }
+}
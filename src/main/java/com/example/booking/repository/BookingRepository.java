@@ -2,8 +2,12 @@ package com.example.booking.repository;
 
 import com.example.booking.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     /**
      * Finds a booking by its ID and status.
+     * On a partitioned bookings table this probes every partition; see {@link #findEventIdById}.
      *
      * @param id the booking ID
      * @param status the booking status
@@ -23,8 +28,31 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      */
     Optional<Booking> findByIdAndStatus(Long id, String status);
 
+    /**
+     * Finds the event of a booking in the {@code booking_locators} lookup table (see
+     * {@code V3__booking_locators_and_partition_locks.sql}), without probing the bookings partitions.
+     * The table exists only in databases managed by the Flyway migrations.
+     *
+     * @param id the booking ID
+     * @return an Optional containing the event ID if the booking exists, or empty otherwise
+     */
+    @Query(value = "SELECT event_id FROM booking_locators WHERE booking_id = :id", nativeQuery = true)
+    Optional<Long> findEventIdById(@Param("id") Long id);
+
+    /**
+     * Finds a booking by event ID, booking ID and status. Unlike {@link #findByIdAndStatus}, the lookup is
+     * limited to the event's partition.
+     *
+     * @param eventId the event ID
+     * @param id the booking ID
+     * @param status the booking status
+     * @return an Optional containing the booking if found, or empty otherwise
+     */
+    Optional<Booking> findByEventIdAndIdAndStatus(Long eventId, Long id, String status);
+
     /**
      * Finds all bookings for a given user ID.
+     * A user's bookings span events, so this probes the user ID index of every partition.
      *
      * @param userId the user ID
      * @return a list of bookings for the user
@@ -40,4 +68,32 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      * @return an Optional containing the booking if found, or empty otherwise
      */
     Optional<Booking> findByEventIdAndSeatIdAndStatus(Long eventId, Long seatId, String status);
-}
\ No newline at end of file
+
+    /**
+     * Finds the bookings of an event in a status for any of the given seats.
+     *
+     * @param eventId the event ID
+     * @param status the booking status
+     * @param seatIds the seat IDs
+     * @return the bookings
+     */
+    List<Booking> findByEventIdAndStatusAndSeatIdIn(Long eventId, String status, Collection<Long> seatIds);
+
+    /**
+     * Finds bookings in a status whose seat is not held by a waitlist entry in the given status.
+     * Cancelled bookings are kept only while their seat is handed to the waitlist, so with
+     * {@code CANCELLED} and {@code OFFERED} this finds hand-offs that are not yet offered to anyone.
+     *
+     * Only events taking place on or after {@code since} are searched.
+     *
+     * @param status the booking status
+     * @param entryStatus the waitlist entry status
+     * @param since the earliest event date
+     * @return the bookings
+     */
+    @Query("SELECT b FROM Booking b WHERE b.eventId >= (SELECT MIN(e.id) FROM Event e WHERE e.eventDate >= :since) "
+            + "AND b.status = :status AND NOT EXISTS "
+            + "(SELECT w FROM WaitlistEntry w WHERE w.seatId = b.seatId AND w.status = :entryStatus)")
+    List<Booking> findWithoutWaitlistEntry(@Param("status") String status, @Param("entryStatus") String entryStatus,
+                                           @Param("since") LocalDateTime since);
+}
@@ -12,11 +12,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for Seat entities.
  * Provides methods to perform CRUD operations and custom queries on seats.
+ * The seats table is partitioned by event ID, so every query here is restricted to one event or a range of events.
  * <p>
  * Note: Logging and exception handling should be implemented in the service or controller layers.
  * </p>
@@ -35,6 +39,27 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     @Query("SELECT s FROM Seat s WHERE s.event = :event AND s.seatNumber = :seatNumber")
     Optional<Seat> findByEventIdAndSeatNumberForUpdate(@Param("event") Event event, @Param("seatNumber") String seatNumber);
 
+    /**
+     * Finds seats of an event by ID with a pessimistic write lock, in ID order so that concurrent callers lock
+     * them in the same order.
+     *
+     * @param eventId the event ID
+     * @param ids the seat IDs
+     * @return the seats found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seat s WHERE s.eventId = :eventId AND s.id IN :ids ORDER BY s.id")
+    List<Seat> findAllByIdForUpdate(@Param("eventId") Long eventId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds a seat by event ID and seat ID. Unlike {@code findById}, the lookup is limited to the event's partition.
+     *
+     * @param eventId the event ID
+     * @param id the seat ID
+     * @return an Optional containing the seat if found, or empty otherwise
+     */
+    Optional<Seat> findByEventIdAndId(Long eventId, Long id);
+
     /**
      * Finds a seat by event ID and seat number.
      *
@@ -52,4 +77,24 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
      * @return a page of seats for the event
      */
     Page<Seat> findByEventId(Long eventId, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Finds the booking state of all seats of an event.
+     *
+     * @param eventId the event ID
+     * @return the seat states
+     */
+    @Query("SELECT s.event.id AS eventId, s.seatNumber AS seatNumber, s.isBooked AS booked FROM Seat s WHERE s.event.id = :eventId")
+    List<SeatStateView> findSeatStatesByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Finds the booking state of all seats of events taking place on or after the given time.
+     * The lower bound on the event ID lets PostgreSQL skip the partitions of past events at execution time.
+     *
+     * @param since the earliest event date
+     * @return the seat states
+     */
+    @Query("SELECT s.event.id AS eventId, s.seatNumber AS seatNumber, s.isBooked AS booked FROM Seat s "
+            + "WHERE s.eventId >= (SELECT MIN(e.id) FROM Event e WHERE e.eventDate >= :since) AND s.event.eventDate >= :since")
+    List<SeatStateView> findSeatStatesForEventsSince(@Param("since") LocalDateTime since);
+}
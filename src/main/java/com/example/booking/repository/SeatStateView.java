@@ -0,0 +1,25 @@
+package com.example.booking.repository;
+
+/**
+ * Projection of a seat's booking state, used to load seat state without hydrating {@code Seat} entities.
+ */
+public interface SeatStateView {
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    Long getEventId();
+
+    /**
+     * Gets the seat number.
+     * @return seat number
+     */
+    String getSeatNumber();
+
+    /**
+     * Gets the booking status.
+     * @return true if booked
+     */
+    Boolean getBooked();
+}
@@ -0,0 +1,112 @@
+package com.example.booking.repository;
+
+import com.example.booking.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for WaitlistEntry entities.
+ * Status changes are conditional updates, so that concurrent allocators on several nodes never hand the same
+ * entry two seats or the same offer to two outcomes.
+ */
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * Checks whether an event has entries in a status.
+     *
+     * @param eventId the event ID
+     * @param status the entry status
+     * @return true if at least one entry exists
+     */
+    boolean existsByEventIdAndStatus(Long eventId, String status);
+
+    /**
+     * Finds a user's latest entry for an event among the given statuses.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @param statuses the accepted statuses
+     * @return an Optional containing the entry if found, or empty otherwise
+     */
+    Optional<WaitlistEntry> findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(Long eventId, Long userId,
+                                                                               Collection<String> statuses);
+
+    /**
+     * Counts the entries of an event in a status that joined before the given entry.
+     *
+     * @param eventId the event ID
+     * @param status the entry status
+     * @param id the entry ID
+     * @return the number of entries ahead
+     */
+    long countByEventIdAndStatusAndIdLessThan(Long eventId, String status, Long id);
+
+    /**
+     * Finds the oldest entries of an event in a status.
+     *
+     * @param eventId the event ID
+     * @param status the entry status
+     * @param pageable the number of entries to load
+     * @return the entries in joining order
+     */
+    List<WaitlistEntry> findByEventIdAndStatusOrderByIdAsc(Long eventId, String status, Pageable pageable);
+
+    /**
+     * Finds entries in a status whose offer expired before the given time.
+     *
+     * @param status the entry status
+     * @param time the cut-off time
+     * @param pageable the number of entries to load
+     * @return the entries
+     */
+    List<WaitlistEntry> findByStatusAndOfferExpiresAtBefore(String status, LocalDateTime time, Pageable pageable);
+
+    /**
+     * Finds which of the given seats are held by an entry in a status.
+     *
+     * @param seatIds the seat IDs
+     * @param status the entry status
+     * @return the IDs of the held seats
+     */
+    @Query("SELECT w.seatId FROM WaitlistEntry w WHERE w.seatId IN :seatIds AND w.status = :status")
+    List<Long> findSeatIdsByStatus(@Param("seatIds") Collection<Long> seatIds, @Param("status") String status);
+
+    /**
+     * Offers a seat to an entry if it is still in the expected status.
+     *
+     * @param id the entry ID
+     * @param from the expected status
+     * @param to the new status
+     * @param seatId the seat ID
+     * @param seatNumber the seat number
+     * @param expiresAt the offer expiry
+     * @return 1 if the entry was updated, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to, w.seatId = :seatId, w.seatNumber = :seatNumber, "
+            + "w.offerExpiresAt = :expiresAt WHERE w.id = :id AND w.status = :from")
+    int offer(@Param("id") Long id, @Param("from") String from, @Param("to") String to, @Param("seatId") Long seatId,
+              @Param("seatNumber") String seatNumber, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Changes the status of an entry if it is still in the expected status.
+     *
+     * @param id the entry ID
+     * @param from the expected status
+     * @param to the new status
+     * @return 1 if the entry was updated, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to WHERE w.id = :id AND w.status = :from")
+    int transition(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+}
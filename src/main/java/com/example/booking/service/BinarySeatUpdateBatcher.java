@@ -0,0 +1,113 @@
+package com.example.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batches seat updates into binary frames on {@code /topic/seats/{eventId}/bin}.
+ * <p>
+ * Updates of an event collected during {@code booking.ws.binary.batch-ms} are sent as one
+ * {@link SeatUpdateFrameCodec} frame with content type {@code application/octet-stream}, which STOMP sends
+ * as a binary WebSocket message on the native {@code /ws-native} endpoint. SockJS carries text only, so binary
+ * subscribers must connect to {@code /ws-native}.
+ * </p>
+ */
+@Service
+public class BinarySeatUpdateBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinarySeatUpdateBatcher.class);
+
+    public static final String FRAMES_COUNTER = "booking.ws.binary.frames";
+    public static final String BATCH_SUMMARY = "booking.ws.binary.batch.updates";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SeatSnapshotService seatSnapshotService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.ws.binary.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Long, List<SeatUpdateFrameCodec.Entry>> pending = new ConcurrentHashMap<>();
+    private Counter frames;
+    private DistributionSummary batchSize;
+
+    /**
+     * Registers metrics.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        frames = Counter.builder(FRAMES_COUNTER)
+                .description("Binary seat update frames broadcast")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder(BATCH_SUMMARY)
+                .description("Seat updates per binary frame")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a seat update for the event's next binary frame.
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @param booked the seat's booking status
+     * @param sequence the update's sequence number
+     */
+    public void offer(Long eventId, String seatNumber, boolean booked, long sequence) {
+        if (!enabled) {
+            return;
+        }
+        int ordinal = seatSnapshotService.ordinal(eventId, seatNumber);
+        if (ordinal < 0) {
+            // Binary clients see the sequence gap and resync
+            logger.warn("No ordinal for seat {} of event {}; update {} left out of binary frames", seatNumber, eventId, sequence);
+            return;
+        }
+        SeatUpdateFrameCodec.Entry entry = new SeatUpdateFrameCodec.Entry(sequence, ordinal, booked);
+        pending.compute(eventId, (id, entries) -> {
+            List<SeatUpdateFrameCodec.Entry> list = entries != null ? entries : new ArrayList<>();
+            list.add(entry);
+            return list;
+        });
+    }
+
+    /**
+     * Sends one binary frame per event with queued updates.
+     */
+    @Scheduled(fixedDelayString = "${booking.ws.binary.batch-ms:50}")
+    public void flush() {
+        for (Long eventId : pending.keySet()) {
+            List<SeatUpdateFrameCodec.Entry> entries = pending.remove(eventId);
+            if (entries == null || entries.isEmpty()) {
+                continue;
+            }
+            entries.sort(Comparator.comparingLong(SeatUpdateFrameCodec.Entry::getSequence));
+            try {
+                messagingTemplate.convertAndSend("/topic/seats/" + eventId + "/bin", SeatUpdateFrameCodec.encode(entries),
+                        Map.of(SeatSnapshotService.MESSAGE_TYPE_HEADER, SeatSnapshotService.DELTA));
+                frames.increment();
+                batchSize.record(entries.size());
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to broadcast binary seat updates of event {}: {}", eventId, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-phase latency timers for booking and cancellation.
+ * <p>
+ * All timers are registered up front and looked up by enum ordinal, so recording a phase on the
+ * request path is a {@link System#nanoTime()} call plus an array index — no tag or sample allocation.
+ * Timers publish percentile histograms for the Prometheus scrape endpoint.
+ * </p>
+ * <p>
+ * The transaction commit, where the writes are flushed and the database commits, runs after the operation's
+ * method has returned. It is timed as the {@link Phase#COMMIT} phase by a transaction synchronization, which
+ * also records the end-to-end operation latency once the outcome of the commit is known.
+ * </p>
+ */
+@Component
+public class BookingMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingMetrics.class);
+
+    public static final String PHASE_TIMER = "booking.phase";
+    public static final String OPERATION_TIMER = "booking.operation";
+
+    /**
+     * Booking operations that are instrumented.
+     */
+    public enum Operation {
+        BOOK(Phase.EVENT_LOOKUP, Phase.SEAT_LOCK, Phase.BOOKING_INSERT, Phase.KAFKA_SEND, Phase.WEBSOCKET_NOTIFY,
+                Phase.COMMIT),
+        CANCEL(Phase.BOOKING_LOOKUP, Phase.BOOKING_UPDATE, Phase.SEAT_RELEASE, Phase.KAFKA_SEND,
+                Phase.WEBSOCKET_NOTIFY, Phase.BOOKING_DELETE, Phase.COMMIT);
+
+        private final Phase[] phases;
+
+        Operation(Phase... phases) {
+            this.phases = phases;
+        }
+    }
+
+    /**
+     * Individually timed phases of an operation.
+     */
+    public enum Phase {
+        EVENT_LOOKUP, SEAT_LOCK, BOOKING_INSERT, KAFKA_SEND, WEBSOCKET_NOTIFY,
+        BOOKING_LOOKUP, BOOKING_UPDATE, SEAT_RELEASE, BOOKING_DELETE, COMMIT
+    }
+
+    private static final int OUTCOMES = 2;
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+
+    private final Timer[][][] phaseTimers = new Timer[Operation.values().length][Phase.values().length][OUTCOMES];
+    private final Timer[][] operationTimers = new Timer[Operation.values().length][OUTCOMES];
+
+    /**
+     * Constructs BookingMetrics and registers every operation/phase/outcome timer.
+     * @param meterRegistry the registry to publish timers to
+     */
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+                operationTimers[operation.ordinal()][outcome] = timer(OPERATION_TIMER)
+                        .description("End-to-end booking operation latency")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", outcome == SUCCESS ? "success" : "failure")
+                        .register(meterRegistry);
+                for (Phase phase : operation.phases) {
+                    phaseTimers[operation.ordinal()][phase.ordinal()][outcome] = timer(PHASE_TIMER)
+                            .description("Latency of a single booking operation phase")
+                            .tag("operation", tagValue(operation))
+                            .tag("phase", tagValue(phase))
+                            .tag("outcome", outcome == SUCCESS ? "success" : "failure")
+                            .register(meterRegistry);
+                }
+            }
+        }
+        logger.info("Registered booking phase timers for operations {}", (Object) Operation.values());
+    }
+
+    /**
+     * Records a successfully completed phase.
+     *
+     * @param operation the operation
+     * @param phase the phase that completed
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     * @return the current {@link System#nanoTime()}, to be used as the start of the next phase
+     */
+    public long phaseSucceeded(Operation operation, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers[operation.ordinal()][phase.ordinal()][SUCCESS].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Records a phase that ended with a failure.
+     *
+     * @param operation the operation
+     * @param phase the phase that failed
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     */
+    public void phaseFailed(Operation operation, Phase phase, long startNanos) {
+        phaseTimers[operation.ordinal()][phase.ordinal()][FAILURE]
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the end-to-end latency of an operation.
+     *
+     * @param operation the operation
+     * @param success whether the operation succeeded
+     * @param startNanos {@link System#nanoTime()} when the operation started
+     */
+    public void operationCompleted(Operation operation, boolean success, long startNanos) {
+        operationTimers[operation.ordinal()][success ? SUCCESS : FAILURE]
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a successful operation once its transaction has committed, timing the commit as the
+     * {@link Phase#COMMIT} phase. An operation whose transaction rolls back is recorded as failed. Without an
+     * active transaction the operation is recorded right away.
+     *
+     * @param operation the operation
+     * @param startNanos {@link System#nanoTime()} when the operation started
+     */
+    public void operationSucceeded(Operation operation, long startNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            operationCompleted(operation, true, startNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (commitStart != 0) {
+                    if (committed) {
+                        phaseSucceeded(operation, Phase.COMMIT, commitStart);
+                    } else {
+                        phaseFailed(operation, Phase.COMMIT, commitStart);
+                    }
+                }
+                operationCompleted(operation, committed, startNanos);
+            }
+        });
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10));
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
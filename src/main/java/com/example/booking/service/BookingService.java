@@ -1,15 +1,17 @@
 package com.example.booking.service;
 
+import com.example.booking.exception.*;
+import com.example.booking.kafka.BookingEventPublisher;
 import com.example.booking.model.*;
 import com.example.booking.repository.*;
+import com.example.booking.service.BookingMetrics.Operation;
+import com.example.booking.service.BookingMetrics.Phase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.beans.factory.annotation.Value;
 
 import java.util.List;
 
@@ -26,9 +28,6 @@ public class BookingService {
     public static final String BOOKED = "BOOKED";
     public static final String CANCELLED = "CANCELLED";
 
-    @Value("${booking.kafka.topic}")
-    private String topic;
-
     @Autowired
     private SeatRepository seatRepository;
 
@@ -39,10 +38,19 @@ public class BookingService {
     private EventRepository eventRepository;
 
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private BookingEventPublisher bookingEventPublisher;
+
+    @Autowired
+    private SeatUpdateFanout seatUpdateFanout;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Value("${booking.partitioning.enabled:false}")
+    private boolean partitioned;
 
     /**
      * Books a ticket for a user for a specific event and seat.
@@ -50,38 +58,37 @@ public class BookingService {
      *
      * @param request the booking request
      * @return the saved Booking entity
-     * @throws RuntimeException if booking fails due to invalid state or data
+     * @throws BookingException if the event or seat does not exist, or the seat cannot be booked
+     * @throws RuntimeException if booking fails unexpectedly
      */
     @Transactional
     public Booking bookTicket(BookingRequest request) {
         logger.info("Attempting to book ticket: userId={}, eventId={}, seatNumber={}",
                 request.getUserId(), request.getEventId(), request.getSeatNumber());
+        long start = System.nanoTime();
+        long phaseStart = start;
+        Phase phase = Phase.EVENT_LOOKUP;
         try {
             Event event = eventRepository.findById(request.getEventId())
-                    .orElseThrow(() -> {
-                        logger.error("Event not found: eventId={}", request.getEventId());
-                        return new RuntimeException("Event not found");
-                    });
+                    .orElseThrow(EventNotFoundException::new);
 
             if (event.getTotalSeats() <= 0) {
-                logger.warn("No seats available for event: eventId={}", event.getId());
-                throw new RuntimeException("No seats available for this event");
+                throw new SoldOutException();
             }
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.BOOK, phase, phaseStart);
 
+            phase = Phase.SEAT_LOCK;
             Seat seat = seatRepository.findByEventIdAndSeatNumberForUpdate(event, request.getSeatNumber())
-                    .orElseThrow(() -> {
-                        logger.error("Seat not found: eventId={}, seatNumber={}", event.getId(), request.getSeatNumber());
-                        return new RuntimeException("Seat not found");
-                    });
+                    .orElseThrow(SeatNotFoundException::new);
 
             if (Boolean.TRUE.equals(seat.getIsBooked())) {
-                logger.warn("Seat already booked: seatId={}, seatNumber={}", seat.getId(), seat.getSeatNumber());
-                throw new RuntimeException("Seat already booked");
+                throw new SeatAlreadyBookedException();
             }
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.BOOK, phase, phaseStart);
 
+            phase = Phase.BOOKING_INSERT;
             if (bookingRepository.findByEventIdAndSeatIdAndStatus(seat.getEvent().getId(), seat.getId(), BOOKED).isPresent()) {
-                logger.warn("Booking already exists for seat: seatId={}, eventId={}", seat.getId(), event.getId());
-                throw new RuntimeException("Booking already exists for this seat");
+                throw new SeatAlreadyBookedException("Booking already exists for this seat");
             }
 
             seat.setIsBooked(true);
@@ -96,24 +103,37 @@ public class BookingService {
             booking.setBookedAt(java.time.LocalDateTime.now());
             Booking savedBooking = bookingRepository.save(booking);
             logger.info("Booking created: bookingId={}", savedBooking.getId());
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.BOOK, phase, phaseStart);
 
-            String message = String.format("{\"type\":\"BOOKED\",\"bookingId\":%d,\"userId\":%d,\"eventId\":%d,\"seatNumber\":\"%s\"}",
+            phase = Phase.KAFKA_SEND;
+            BookingEvent message = BookingEvent.booked(
                     savedBooking.getId(), savedBooking.getUserId(), event.getId(), seat.getSeatNumber());
-            kafkaTemplate.send(topic, message);
+            bookingEventPublisher.publish(message);
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.BOOK, phase, phaseStart);
 
             logger.debug("Booking event sent to Kafka: {}", message);
 
-            messagingTemplate.convertAndSend(
-                    "/topic/seats/" + event.getId(),
-                    new SeatStatusUpdate(seat.getSeatNumber(), true)
-            );
+            phase = Phase.WEBSOCKET_NOTIFY;
+            seatUpdateFanout.publish(event.getId(), new SeatStatusUpdate(seat.getSeatNumber(), true));
+            bookingMetrics.phaseSucceeded(Operation.BOOK, phase, phaseStart);
             logger.debug("WebSocket notification sent for seat booking: eventId={}, seatNumber={}", event.getId(), seat.getSeatNumber());
 
+            bookingMetrics.operationSucceeded(Operation.BOOK, start);
             return savedBooking;
+        } catch (BookingException ex) {
+            bookingMetrics.phaseFailed(Operation.BOOK, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.BOOK, false, start);
+            logger.info("Booking rejected: {} (eventId={}, seatNumber={})",
+                    ex.getMessage(), request.getEventId(), request.getSeatNumber());
+            throw ex;
         } catch (RuntimeException ex) {
+            bookingMetrics.phaseFailed(Operation.BOOK, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.BOOK, false, start);
             logger.error("Error booking ticket: {}", ex.getMessage(), ex);
             throw ex;
         } catch (Exception ex) {
+            bookingMetrics.phaseFailed(Operation.BOOK, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.BOOK, false, start);
             logger.error("Unexpected error during booking: {}", ex.getMessage(), ex);
             throw new RuntimeException("Unexpected error during booking", ex);
         }
@@ -121,51 +141,96 @@ public class BookingService {
 
     /**
      * Cancels an active booking and frees up the seat.
-     * Emits cancellation events and notifies clients.
+     * Emits cancellation events and notifies clients. If users are waiting for a seat of the event, the seat
+     * stays booked and is handed to the {@link WaitlistService} instead; the cancelled booking is kept, and its
+     * cancellation published, until the seat is claimed from the waitlist or released.
      *
      * @param bookingId the ID of the booking to cancel
-     * @throws RuntimeException if cancellation fails due to invalid state or data
+     * @throws BookingException if the booking or its seat does not exist
+     * @throws RuntimeException if cancellation fails unexpectedly
      */
     @Transactional
     public void cancelBooking(Long bookingId) {
-        logger.info("Attempting to cancel booking: bookingId={}", bookingId);
+        cancelBooking(bookingId, null);
+    }
+
+    /**
+     * Cancels an active booking of a known event, see {@link #cancelBooking(Long)}.
+     * The booking is looked up in the event's partition only. Without the event ID, the event is first read
+     * from the booking locator table when the bookings table is partitioned.
+     *
+     * @param bookingId the ID of the booking to cancel
+     * @param eventId the ID of the booking's event, or null if unknown
+     * @throws BookingException if the booking or its seat does not exist
+     * @throws RuntimeException if cancellation fails unexpectedly
+     */
+    @Transactional
+    public void cancelBooking(Long bookingId, Long eventId) {
+        logger.info("Attempting to cancel booking: bookingId={}, eventId={}", bookingId, eventId);
+        long start = System.nanoTime();
+        long phaseStart = start;
+        Phase phase = Phase.BOOKING_LOOKUP;
         try {
-            Booking booking = bookingRepository.findByIdAndStatus(bookingId, BOOKED)
-                    .orElseThrow(() -> {
-                        logger.error("Active booking not found: bookingId={}", bookingId);
-                        return new RuntimeException("Active booking not found");
-                    });
+            if (eventId == null && partitioned) {
+                eventId = bookingRepository.findEventIdById(bookingId).orElseThrow(BookingNotFoundException::new);
+            }
+            Booking booking = (eventId != null
+                    ? bookingRepository.findByEventIdAndIdAndStatus(eventId, bookingId, BOOKED)
+                    : bookingRepository.findByIdAndStatus(bookingId, BOOKED))
+                    .orElseThrow(BookingNotFoundException::new);
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
 
+            phase = Phase.BOOKING_UPDATE;
             booking.setStatus(CANCELLED);
             bookingRepository.save(booking);
             logger.info("Booking marked as cancelled: bookingId={}", booking.getId());
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
 
-            Seat seat = seatRepository.findById(booking.getSeatId())
-                    .orElseThrow(() -> {
-                        logger.error("Seat not found for cancelled booking: seatId={}", booking.getSeatId());
-                        return new RuntimeException("Seat not found");
-                    });
+            phase = Phase.SEAT_RELEASE;
+            Seat seat = seatRepository.findByEventIdAndId(booking.getEventId(), booking.getSeatId())
+                    .orElseThrow(SeatNotFoundException::new);
+            if (waitlistService.hasWaiting(booking.getEventId())) {
+                waitlistService.handOff(booking.getEventId(), seat.getId());
+                bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
+                logger.info("Seat handed to the waitlist: eventId={}, seatId={}", booking.getEventId(), seat.getId());
+                bookingMetrics.operationSucceeded(Operation.CANCEL, start);
+                return;
+            }
             seat.setIsBooked(false);
             seatRepository.save(seat);
             logger.debug("Seat marked as available: seatId={}", seat.getId());
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
 
-            String message = String.format("{\"type\":\"CANCELLED\",\"bookingId\":%d,\"userId\":%d,\"eventId\":%d,\"seatNumber\":\"%s\"}",
+            phase = Phase.KAFKA_SEND;
+            BookingEvent message = BookingEvent.cancelled(
                     booking.getId(), booking.getUserId(), booking.getEventId(), seat.getSeatNumber());
-            kafkaTemplate.send(topic, message);
+            bookingEventPublisher.publish(message);
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
             logger.debug("Cancellation event sent to Kafka: {}", message);
 
-            messagingTemplate.convertAndSend(
-                    "/topic/seats/" + booking.getEventId(),
-                    new SeatStatusUpdate(seat.getSeatNumber(), false)
-            );
+            phase = Phase.WEBSOCKET_NOTIFY;
+            seatUpdateFanout.publish(booking.getEventId(), new SeatStatusUpdate(seat.getSeatNumber(), false));
+            phaseStart = bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
             logger.debug("WebSocket notification sent for seat cancellation: eventId={}, seatNumber={}", booking.getEventId(), seat.getSeatNumber());
 
+            phase = Phase.BOOKING_DELETE;
             bookingRepository.delete(booking);
+            bookingMetrics.phaseSucceeded(Operation.CANCEL, phase, phaseStart);
             logger.info("Cancelled booking deleted: bookingId={}", booking.getId());
+            bookingMetrics.operationSucceeded(Operation.CANCEL, start);
+        } catch (BookingException ex) {
+            bookingMetrics.phaseFailed(Operation.CANCEL, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.CANCEL, false, start);
+            logger.info("Cancellation rejected: {} (bookingId={})", ex.getMessage(), bookingId);
+            throw ex;
         } catch (RuntimeException ex) {
+            bookingMetrics.phaseFailed(Operation.CANCEL, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.CANCEL, false, start);
             logger.error("Error cancelling booking: {}", ex.getMessage(), ex);
             throw ex;
         } catch (Exception ex) {
+            bookingMetrics.phaseFailed(Operation.CANCEL, phase, phaseStart);
+            bookingMetrics.operationCompleted(Operation.CANCEL, false, start);
             logger.error("Unexpected error during cancellation: {}", ex.getMessage(), ex);
             throw new RuntimeException("Unexpected error during cancellation", ex);
         }
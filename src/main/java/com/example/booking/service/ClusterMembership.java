@@ -0,0 +1,344 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.model.ClusterMember;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Membership of the booking cluster and the {@link ConsistentHashRing} built from it.
+ * <p>
+ * Cluster mode is enabled by {@code booking.cluster.enabled}. Members are either listed statically in
+ * {@code booking.cluster.members} ({@code nodeId=url,...}, which must include this node's
+ * {@code booking.node-id}), or discovered through {@code booking.cluster.discovery-dir}, a directory shared by
+ * the nodes of one host. With discovery, every node rewrites its own member file every
+ * {@code booking.cluster.heartbeat-ms}, and files not rewritten within {@code booking.cluster.member-ttl-ms}
+ * are ignored. A node shutting down removes its file, so it leaves the ring at the next heartbeat of the others.
+ * A member file holds {@code booking.cluster.advertised-url}, or {@code http://<host name>:<port>} when that is
+ * blank; a host name that resolves to a loopback address fails startup, since the other nodes would call
+ * themselves.
+ * </p>
+ * Whenever the members change the ring is rebuilt, moving the events of a joining or leaving node to their new
+ * owners. Until every node has seen the change, two nodes may both accept commands for a moved event; the seat
+ * row locks in the database keep those commands correct.
+ * <p>
+ * A member that could not be reached is marked unreachable for {@code booking.cluster.unreachable-ms}, so
+ * commands for its events run locally meanwhile rather than each waiting for a connect timeout. This is the
+ * only health check static members get.
+ * </p>
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    public static final String REBALANCES_COUNTER = "booking.cluster.rebalances";
+    public static final String MEMBERS_GAUGE = "booking.cluster.members";
+
+    private static final String MEMBER_FILE_SUFFIX = ".member";
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.cluster.members:}")
+    private String staticMembers;
+
+    @Value("${booking.cluster.discovery-dir:data/cluster}")
+    private Path discoveryDir;
+
+    @Value("${booking.cluster.advertised-url:}")
+    private String advertisedUrl;
+
+    @Value("${HOSTNAME:}")
+    private String hostname;
+
+    @Value("${booking.cluster.member-ttl-ms:5000}")
+    private long memberTtlMs;
+
+    @Value("${booking.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${booking.cluster.unreachable-ms:10000}")
+    private long unreachableMs;
+
+    private volatile Map<String, ClusterMember> members = Map.of();
+    private volatile ConsistentHashRing ring = ConsistentHashRing.of(List.of(), 1);
+    private volatile String localUrl;
+    private final Map<String, Long> unreachableUntil = new ConcurrentHashMap<>();
+    private Counter rebalances;
+
+    /**
+     * Registers metrics and, with static membership, builds the ring.
+     */
+    @PostConstruct
+    public void init() {
+        rebalances = Counter.builder(REBALANCES_COUNTER)
+                .description("Changes of cluster membership that moved events to other nodes")
+                .register(meterRegistry);
+        Gauge.builder(MEMBERS_GAUGE, this, membership -> membership.members.size())
+                .description("Nodes on the event ownership ring")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        if (!staticMembers.isBlank()) {
+            Map<String, ClusterMember> configured = parseMembers(staticMembers);
+            if (!configured.containsKey(nodeIdentity.getNodeId())) {
+                throw new IllegalStateException("booking.cluster.members does not list this node's booking.node-id '"
+                        + nodeIdentity.getNodeId() + "'");
+            }
+            update(configured);
+        } else {
+            logger.info("Discovering cluster members through {}", discoveryDir.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Advertises this node once its web server accepts requests.
+     * @param event the web server event, giving the local port
+     * @throws IllegalStateException if discovery would advertise a derived loopback URL
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        // A separate management server has its own namespace; commands are only accepted on the main one
+        if (!enabled || event.getApplicationContext().getServerNamespace() != null) {
+            return;
+        }
+        if (staticMembers.isBlank()) {
+            localUrl = resolveLocalUrl(advertisedUrl, hostname, event.getWebServer().getPort());
+            logger.info("Advertising this node as {}", localUrl);
+        }
+        heartbeat();
+    }
+
+    /**
+     * Resolves the URL other nodes should use to reach this one.
+     * @param advertisedUrl the configured advertised URL, or blank to derive it
+     * @param hostname the {@code HOSTNAME} environment variable, or blank
+     * @param port the HTTP port
+     * @return the advertised URL
+     * @throws IllegalStateException if the derived host resolves to a loopback address
+     */
+    static String resolveLocalUrl(String advertisedUrl, String hostname, int port) {
+        if (!advertisedUrl.isBlank()) {
+            if (isLoopback(URI.create(advertisedUrl.trim()).getHost())) {
+                logger.warn("Advertised cluster URL {} is a loopback address; only nodes on this host can reach it",
+                        advertisedUrl);
+            }
+            return advertisedUrl.trim();
+        }
+        String host = !hostname.isBlank() ? hostname.trim() : localHostName();
+        if (isLoopback(host)) {
+            throw new IllegalStateException("Cluster host name " + host + " is a loopback address; "
+                    + "set booking.cluster.advertised-url to a URL other nodes can reach");
+        }
+        return "http://" + host + ":" + port;
+    }
+
+    private static boolean isLoopback(String host) {
+        try {
+            return host != null && InetAddress.getByName(host).isLoopbackAddress();
+        } catch (UnknownHostException ex) {
+            logger.warn("Advertised cluster host {} does not resolve locally", host);
+            return false;
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            throw new IllegalStateException("Cannot determine the local host name; set booking.cluster.advertised-url", ex);
+        }
+    }
+
+    /**
+     * Rewrites this node's member file and refreshes the members from the discovery directory.
+     */
+    @Scheduled(fixedDelayString = "${booking.cluster.heartbeat-ms:1000}")
+    public void heartbeat() {
+        if (!enabled || !staticMembers.isBlank() || localUrl == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(discoveryDir);
+            Path file = discoveryDir.resolve(nodeIdentity.getNodeId() + MEMBER_FILE_SUFFIX);
+            Path tmp = discoveryDir.resolve(nodeIdentity.getNodeId() + MEMBER_FILE_SUFFIX + ".tmp");
+            Files.writeString(tmp, localUrl, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            update(discover());
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Cluster heartbeat through {} failed: {}", discoveryDir, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Removes this node's member file, so the others move its events without waiting for it to expire.
+     */
+    @PreDestroy
+    public void leave() {
+        if (!enabled || !staticMembers.isBlank() || localUrl == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(discoveryDir.resolve(nodeIdentity.getNodeId() + MEMBER_FILE_SUFFIX));
+            logger.info("Left the cluster: {}", nodeIdentity.getNodeId());
+        } catch (IOException ex) {
+            logger.warn("Could not remove member file of {}: {}", nodeIdentity.getNodeId(), ex.getMessage());
+        }
+    }
+
+    Map<String, ClusterMember> discover() throws IOException {
+        long oldest = System.currentTimeMillis() - memberTtlMs;
+        Map<String, ClusterMember> found = new TreeMap<>();
+        try (Stream<Path> files = Files.list(discoveryDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(MEMBER_FILE_SUFFIX)) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < oldest) {
+                        continue;
+                    }
+                    String nodeId = name.substring(0, name.length() - MEMBER_FILE_SUFFIX.length());
+                    found.put(nodeId, new ClusterMember(nodeId, Files.readString(file, StandardCharsets.UTF_8).trim()));
+                } catch (NoSuchFileException ex) {
+                    // Removed by a node leaving meanwhile
+                }
+            }
+        }
+        found.putIfAbsent(nodeIdentity.getNodeId(), new ClusterMember(nodeIdentity.getNodeId(), localUrl));
+        return found;
+    }
+
+    synchronized void update(Map<String, ClusterMember> current) {
+        Map<String, ClusterMember> previous = members;
+        if (previous.equals(current)) {
+            return;
+        }
+        Map<String, ClusterMember> copy = Collections.unmodifiableMap(new TreeMap<>(current));
+        ring = ConsistentHashRing.of(copy.keySet(), virtualNodes);
+        members = copy;
+        if (!previous.isEmpty()) {
+            rebalances.increment();
+        }
+        logger.info("Cluster members changed: {} -> {}", previous.values(), copy.values());
+    }
+
+    static Map<String, ClusterMember> parseMembers(String spec) {
+        Map<String, ClusterMember> parsed = new TreeMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalArgumentException("Cluster member must be nodeId=url: '" + entry.trim() + "'");
+            }
+            String nodeId = entry.substring(0, separator).trim();
+            parsed.put(nodeId, new ClusterMember(nodeId, entry.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+
+    /**
+     * Tells whether cluster mode is enabled.
+     * @return true if events are owned by single nodes
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Finds the member owning an event.
+     * @param eventId the event ID
+     * @return the owner, or empty if cluster mode is off or no members are known yet
+     */
+    public Optional<ClusterMember> ownerOf(Long eventId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String owner = ring.ownerOf(eventId);
+        return owner == null ? Optional.empty() : Optional.ofNullable(members.get(owner));
+    }
+
+    /**
+     * Tells whether this node owns an event. Every node owns every event when cluster mode is off.
+     * @param eventId the event ID
+     * @return true if commands for the event are executed here
+     */
+    public boolean isLocal(Long eventId) {
+        return ownerOf(eventId).map(owner -> owner.getNodeId().equals(nodeIdentity.getNodeId())).orElse(true);
+    }
+
+    /**
+     * Marks a member unreachable for {@code booking.cluster.unreachable-ms}.
+     * @param nodeId the member's node ID
+     */
+    public void markUnreachable(String nodeId) {
+        if (unreachableUntil.put(nodeId, System.currentTimeMillis() + unreachableMs) == null) {
+            logger.warn("Cluster member {} unreachable, not forwarding to it for {} ms", nodeId, unreachableMs);
+        }
+    }
+
+    /**
+     * Tells whether a member may be sent commands, i.e. it was not marked unreachable recently.
+     * @param nodeId the member's node ID
+     * @return false while the member is marked unreachable
+     */
+    public boolean isReachable(String nodeId) {
+        Long until = unreachableUntil.get(nodeId);
+        if (until == null) {
+            return true;
+        }
+        if (until > System.currentTimeMillis()) {
+            return false;
+        }
+        unreachableUntil.remove(nodeId, until);
+        return true;
+    }
+
+    /**
+     * Gets the current members.
+     * @return members, sorted by node ID
+     */
+    public List<ClusterMember> getMembers() {
+        return List.copyOf(members.values());
+    }
+
+    /**
+     * Gets this node's ID.
+     * @return node ID
+     */
+    public String getNodeId() {
+        return nodeIdentity.getNodeId();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.booking.service;
+
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable consistent-hash ring assigning each event to one node.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} positions, and an event belongs to the first node
+ * position at or after the event's hash. When a node joins or leaves, only the events between its positions and
+ * their predecessors change owner, about {@code 1/n} of all events, and the ring is the same on every node that
+ * sees the same members. Hashes are Kafka's murmur2, the same as the partitioner applies to event ID keys.
+ * </p>
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Integer, String> positions;
+    private final SortedSet<String> nodeIds;
+
+    private ConsistentHashRing(NavigableMap<Integer, String> positions, SortedSet<String> nodeIds) {
+        this.positions = positions;
+        this.nodeIds = nodeIds;
+    }
+
+    /**
+     * Builds the ring of the given nodes.
+     * @param nodeIds the node IDs
+     * @param virtualNodes positions per node; more positions spread events more evenly
+     * @return the ring
+     */
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        TreeSet<String> sorted = new TreeSet<>(nodeIds);
+        TreeMap<Integer, String> positions = new TreeMap<>();
+        // Nodes are placed in sorted order so that rare position collisions resolve the same way on every node
+        for (String nodeId : sorted) {
+            for (int i = 0; i < virtualNodes; i++) {
+                positions.putIfAbsent(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+        return new ConsistentHashRing(positions, Collections.unmodifiableSortedSet(sorted));
+    }
+
+    /**
+     * Finds the node owning an event.
+     * @param eventId the event ID
+     * @return the owning node ID, or null if the ring is empty
+     */
+    public String ownerOf(Long eventId) {
+        if (positions.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Integer, String> position = positions.ceilingEntry(hash(String.valueOf(eventId)));
+        return (position != null ? position : positions.firstEntry()).getValue();
+    }
+
+    /**
+     * Gets the nodes on the ring.
+     * @return node IDs, sorted
+     */
+    public SortedSet<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    private static int hash(String key) {
+        return Utils.murmur2(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
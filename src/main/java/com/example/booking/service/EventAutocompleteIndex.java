@@ -0,0 +1,511 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSuggestion;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.repository.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Prefix autocomplete over the names and locations of upcoming events, for {@code GET /api/events/autocomplete}.
+ * <p>
+ * Every word suffix of an event's name and location ("jazz night at the park", "night at the park", ...) is a key
+ * in a compact (radix) trie, so a prefix matches the start of any word. Each trie node keeps the best
+ * {@code booking.autocomplete.top-k} events of its subtree, so a lookup walks at most the prefix length and
+ * returns a precomputed list. Events are ranked by booked seats per day until the event: an event twice as far
+ * away needs twice the sales to rank the same.
+ * </p>
+ * <p>
+ * The trie is loaded from the events table once the application is ready and updated from
+ * {@link EventChangedEvent}s after their transactions commit, including those of other nodes relayed by
+ * {@link EventChangeFanout}. Sales change with every booking, so ranks are recomputed, and past events dropped,
+ * every {@code booking.autocomplete.refresh-ms}. The trie is reloaded from the table every
+ * {@code booking.autocomplete.reload-ms}, so changes a node missed while the fan-out was down show up then.
+ * </p>
+ * <p>
+ * Ranking reads sales from the {@link SeatStateCache}, which may go to the database, so ranks are computed and
+ * full rebuilds assembled outside the lock. Readers are only held up while a change is applied or a rebuilt
+ * trie is swapped in; changes that arrive during a rebuild are applied to the new trie as well.
+ * </p>
+ */
+@Service
+public class EventAutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventAutocompleteIndex.class);
+
+    public static final String EVENTS_GAUGE = "booking.autocomplete.events";
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry entry) -> entry.rank).reversed()
+            .thenComparing(entry -> entry.suggestion.getEventDate())
+            .thenComparing(entry -> entry.suggestion.getEventId());
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SeatStateCache seatStateCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.autocomplete.top-k:10}")
+    private int topK;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuilding = new Object();
+    private Trie trie = new Trie();
+    // Changes applied while a rebuild is assembled, by event ID, null for removed; guarded by the write lock
+    private Map<Long, Entry> changedDuringRebuild;
+
+    /**
+     * Registers metrics.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder(EVENTS_GAUGE, this, EventAutocompleteIndex::size)
+                .description("Upcoming events in the autocomplete trie")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every upcoming event into the trie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            synchronized (rebuilding) {
+                rebuildFrom(() -> eventRepository.findAll().stream()
+                        .map(event -> new EventSuggestion(event.getId(), event.getName(), event.getLocation(),
+                                event.getEventDate()))
+                        .toList());
+            }
+            logger.info("Autocomplete trie loaded with {} upcoming events", size());
+        } catch (RuntimeException ex) {
+            logger.error("Failed to load the autocomplete trie: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reloads the trie from the events table, picking up changes that did not reach this node.
+     */
+    @Scheduled(fixedDelayString = "${booking.autocomplete.reload-ms:900000}",
+            initialDelayString = "${booking.autocomplete.reload-ms:900000}")
+    public void reload() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes ranks from current sales and drops events that have started.
+     */
+    @Scheduled(fixedDelayString = "${booking.autocomplete.refresh-ms:60000}",
+            initialDelayString = "${booking.autocomplete.refresh-ms:60000}")
+    public void refresh() {
+        synchronized (rebuilding) {
+            rebuildFrom(() -> {
+                lock.readLock().lock();
+                try {
+                    return trie.entries.values().stream().map(entry -> entry.suggestion).toList();
+                } finally {
+                    lock.readLock().unlock();
+                }
+            });
+        }
+        logger.debug("Autocomplete trie re-ranked with {} upcoming events", size());
+    }
+
+    /**
+     * Applies a created, updated or deleted event once its transaction has committed.
+     * @param change the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        Entry entry = null;
+        if (!change.isDeleted()) {
+            Event event = change.getEvent();
+            entry = entry(new EventSuggestion(event.getId(), event.getName(), event.getLocation(), event.getEventDate()),
+                    LocalDateTime.now(clock));
+        }
+        lock.writeLock().lock();
+        try {
+            trie.replace(change.getEventId(), entry);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(change.getEventId(), entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests upcoming events whose name or location has a word starting with the prefix.
+     * @param prefix the typed text; every word but the last must match whole words in order
+     * @param limit maximum number of suggestions, at most the configured top-K
+     * @return the best suggestions, best first
+     */
+    public List<EventSuggestion> suggest(String prefix, int limit) {
+        String key = EventSearchIndex.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = trie.root;
+            int i = 0;
+            while (i < key.length()) {
+                int slot = node.find(key.charAt(i));
+                if (slot < 0) {
+                    return List.of();
+                }
+                node = node.children[slot];
+                int common = commonPrefix(node.label, key, i);
+                if (common < node.label.length() && i + common < key.length()) {
+                    return List.of();
+                }
+                i += common;
+            }
+            List<EventSuggestion> suggestions = node.suggestions;
+            return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of upcoming events in the trie.
+     * @return event count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the maximum number of suggestions per prefix.
+     * @return top-K
+     */
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Builds a trie of the given events outside the lock and swaps it in, with the changes made meanwhile.
+     * Callers hold {@code rebuilding}.
+     * @param events reads the events; called once changes are being recorded, so a change made while they are
+     *               read is replayed rather than lost
+     */
+    private void rebuildFrom(Supplier<List<EventSuggestion>> events) {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            Trie built = new Trie();
+            for (EventSuggestion suggestion : events.get()) {
+                built.replace(suggestion.getEventId(), entry(suggestion, now));
+            }
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild.forEach(built::replace);
+                trie = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Ranks an event and collects its trie keys.
+     * @return the entry, or null if the event has started
+     */
+    private Entry entry(EventSuggestion suggestion, LocalDateTime now) {
+        LocalDateTime date = suggestion.getEventDate();
+        if (date == null || !date.isAfter(now)) {
+            return null;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        addSuffixes(suggestion.getName(), keys);
+        addSuffixes(suggestion.getLocation(), keys);
+        return new Entry(suggestion, rank(suggestion.getEventId(), date, now), keys);
+    }
+
+    private double rank(Long eventId, LocalDateTime date, LocalDateTime now) {
+        double days = Duration.between(now, date).toMinutes() / 1440.0;
+        int booked = seatStateCache.getAvailability(eventId).map(SeatAvailability::getBookedSeats).orElse(0);
+        return (1 + booked) / (1 + days);
+    }
+
+    private static void addSuffixes(String text, Set<String> keys) {
+        String normalized = EventSearchIndex.normalize(text);
+        for (int start = 0; !normalized.isEmpty(); start = normalized.indexOf(' ', start) + 1) {
+            keys.add(normalized.substring(start));
+            if (normalized.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * An indexed event with its rank and trie keys.
+     */
+    private static final class Entry {
+        private final EventSuggestion suggestion;
+        private final double rank;
+        private final Set<String> keys;
+
+        private Entry(EventSuggestion suggestion, double rank, Set<String> keys) {
+            this.suggestion = suggestion;
+            this.rank = rank;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * The indexed events and the trie of their keys.
+     */
+    private final class Trie {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final Node root = new Node("");
+
+        /**
+         * Replaces an event's entry.
+         * @param eventId the event ID
+         * @param entry the new entry, or null to remove the event
+         */
+        private void replace(Long eventId, Entry entry) {
+            Entry previous = entries.remove(eventId);
+            if (previous != null) {
+                previous.keys.forEach(key -> delete(key, previous));
+            }
+            if (entry != null) {
+                entries.put(eventId, entry);
+                entry.keys.forEach(key -> insert(key, entry));
+            }
+        }
+
+        private void insert(String key, Entry entry) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                int slot = node.find(key.charAt(i));
+                if (slot < 0) {
+                    Node leaf = new Node(key.substring(i));
+                    node.addChild(leaf);
+                    node = leaf;
+                    path.add(node);
+                    break;
+                }
+                int common = commonPrefix(node.children[slot].label, key, i);
+                node = common < node.children[slot].label.length() ? node.split(slot, common) : node.children[slot];
+                path.add(node);
+                i += common;
+            }
+            node.terminals.add(entry);
+            path.forEach(visited -> visited.offer(entry, topK));
+        }
+
+        private void delete(String key, Entry entry) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                node = node.children[node.find(key.charAt(i))];
+                path.add(node);
+                i += node.label.length();
+            }
+            node.terminals.remove(entry);
+            for (int j = path.size() - 1; j > 0; j--) {
+                Node visited = path.get(j);
+                if (visited.terminals.isEmpty() && visited.children.length == 0) {
+                    path.get(j - 1).removeChild(visited.label.charAt(0));
+                } else if (visited.terminals.isEmpty() && visited.children.length == 1) {
+                    visited.absorbChild();
+                } else if (visited.contains(entry)) {
+                    visited.recompute(topK);
+                }
+            }
+            if (root.contains(entry)) {
+                root.recompute(topK);
+            }
+        }
+    }
+
+    /**
+     * A radix trie node: the edge label from its parent, children by first label character, the events whose
+     * key ends here and the best events of its subtree.
+     */
+    private static final class Node {
+        private String label;
+        private char[] firsts = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private List<Entry> terminals = new ArrayList<>(1);
+        private Entry[] top = NO_ENTRIES;
+        private List<EventSuggestion> suggestions = List.of();
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int find(char first) {
+            return Arrays.binarySearch(firsts, first);
+        }
+
+        private void addChild(Node child) {
+            int slot = -find(child.label.charAt(0)) - 1;
+            firsts = insertAt(firsts, slot, child.label.charAt(0));
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, slot);
+            grown[slot] = child;
+            System.arraycopy(children, slot, grown, slot + 1, children.length - slot);
+            children = grown;
+        }
+
+        private void removeChild(char first) {
+            int slot = find(first);
+            char[] shrunkFirsts = new char[firsts.length - 1];
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, shrunkFirsts, 0, slot);
+            System.arraycopy(firsts, slot + 1, shrunkFirsts, slot, firsts.length - slot - 1);
+            System.arraycopy(children, 0, shrunk, 0, slot);
+            System.arraycopy(children, slot + 1, shrunk, slot, children.length - slot - 1);
+            firsts = shrunkFirsts;
+            children = shrunk;
+        }
+
+        /**
+         * Splits the edge to a child after {@code length} characters.
+         * @return the new intermediate node
+         */
+        private Node split(int slot, int length) {
+            Node child = children[slot];
+            Node middle = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            middle.firsts = new char[]{child.label.charAt(0)};
+            middle.children = new Node[]{child};
+            middle.top = child.top;
+            middle.suggestions = child.suggestions;
+            children[slot] = middle;
+            return middle;
+        }
+
+        /**
+         * Merges the only child into this node, which has no events of its own.
+         */
+        private void absorbChild() {
+            Node child = children[0];
+            label = label + child.label;
+            firsts = child.firsts;
+            children = child.children;
+            terminals = child.terminals;
+            top = child.top;
+            suggestions = child.suggestions;
+        }
+
+        private boolean contains(Entry entry) {
+            for (Entry candidate : top) {
+                if (candidate == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void offer(Entry entry, int k) {
+            if (contains(entry)) {
+                return;
+            }
+            int position = 0;
+            while (position < top.length && RANKING.compare(top[position], entry) <= 0) {
+                position++;
+            }
+            if (position >= k) {
+                return;
+            }
+            Entry[] updated = new Entry[Math.min(top.length + 1, k)];
+            System.arraycopy(top, 0, updated, 0, position);
+            updated[position] = entry;
+            System.arraycopy(top, position, updated, position + 1, updated.length - position - 1);
+            setTop(updated);
+        }
+
+        private void recompute(int k) {
+            List<Entry> candidates = new ArrayList<>(terminals);
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            Set<Entry> seen = new HashSet<>();
+            setTop(candidates.stream().filter(seen::add).limit(k).toArray(Entry[]::new));
+        }
+
+        private void setTop(Entry[] entries) {
+            top = entries;
+            suggestions = Arrays.stream(entries).map(entry -> entry.suggestion).toList();
+        }
+
+        private static char[] insertAt(char[] chars, int slot, char c) {
+            char[] grown = new char[chars.length + 1];
+            System.arraycopy(chars, 0, grown, 0, slot);
+            grown[slot] = c;
+            System.arraycopy(chars, slot, grown, slot + 1, chars.length - slot);
+            return grown;
+        }
+    }
+}
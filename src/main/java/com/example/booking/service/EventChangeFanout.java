@@ -0,0 +1,138 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.model.Event;
+import com.example.booking.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+/**
+ * Passes event changes on to the other nodes, so that their search, autocomplete and upcoming events indexes
+ * follow events created, edited or deleted anywhere.
+ * <p>
+ * Once a change commits, the event ID is published to {@code booking.event-changes.topic}, keyed by event ID,
+ * with the origin node as the value. Every node consumes the topic with its own consumer group, skips its own
+ * records, reloads the event from the database and republishes the change as
+ * {@link EventChangedEvent#received received}, which this class does not publish again. Reloading instead of
+ * shipping the event means a node always applies the latest committed state, whatever order changes arrive in.
+ * </p>
+ * <p>
+ * A node that misses changes, because the fan-out is disabled or the topic was unreachable, catches up when its
+ * indexes are next loaded from the database, at the latest on restart.
+ * </p>
+ */
+@Service
+public class EventChangeFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventChangeFanout.class);
+
+    public static final String LISTENER_ID = "event-change-fanout";
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectProvider<ProducerFactory<?, ?>> producerFactory;
+
+    @Value("${booking.event-changes.topic:event-changes}")
+    private String topic;
+
+    @Value("${booking.fanout.enabled:true}")
+    private boolean enabled;
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    /**
+     * Creates the change producer.
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        ProducerFactory<?, ?> factory = producerFactory.getIfAvailable();
+        if (enabled && factory != null) {
+            kafkaTemplate = new KafkaTemplate<>((ProducerFactory<String, String>) factory,
+                    Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class));
+            logger.info("Event changes fanned out on topic '{}'", topic);
+        } else {
+            logger.info("Event change fan-out disabled; other nodes see changes made here after a restart");
+        }
+    }
+
+    /**
+     * Publishes a change made on this node once its transaction has committed.
+     * @param change the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        if (kafkaTemplate == null || change.isReceived()) {
+            return;
+        }
+        String key = String.valueOf(change.getEventId());
+        try {
+            kafkaTemplate.send(topic, key, nodeIdentity.getNodeId()).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Failed to fan out change of event {}: {}", key, ex.getMessage());
+                }
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to fan out change of event {}: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies a change received from the event change topic.
+     * @param record the change record, keyed by event ID with the origin node as value
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "${booking.event-changes.topic:event-changes}",
+            groupId = "booking-event-changes-#{@nodeIdentity.nodeId}",
+            autoStartup = "${booking.fanout.enabled:true}",
+            properties = {"auto.offset.reset=latest",
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer"})
+    public void onChange(ConsumerRecord<String, String> record) {
+        if (record.key() == null) {
+            return;
+        }
+        try {
+            receive(Long.valueOf(record.key()), record.value());
+        } catch (NumberFormatException ex) {
+            logger.warn("Skipping event change with invalid key '{}'", record.key());
+        }
+    }
+
+    /**
+     * Reloads an event changed on another node and republishes the change to this node's listeners.
+     * @param eventId the event ID
+     * @param originNode the node that made the change
+     * @return true if republished, false if the change was this node's own
+     */
+    boolean receive(Long eventId, String originNode) {
+        if (nodeIdentity.getNodeId().equals(originNode)) {
+            return false;
+        }
+        Event event = eventRepository.findById(eventId).orElse(null);
+        eventPublisher.publishEvent(EventChangedEvent.received(eventId, event));
+        logger.debug("Applied change of event {} from node {} (deleted={})", eventId, originNode, event == null);
+        return true;
+    }
+}
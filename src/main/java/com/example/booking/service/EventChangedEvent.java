@@ -0,0 +1,81 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+
+/**
+ * Application event published by {@link EventService} when an event is created, updated or deleted.
+ * Listeners that keep derived views of events, such as {@link EventSearchIndex}, apply it after the transaction
+ * commits. {@link EventChangeFanout} passes it on to the other nodes and republishes theirs as received changes.
+ */
+public class EventChangedEvent {
+
+    private final Long eventId;
+    private final Event event;
+    private final boolean received;
+
+    private EventChangedEvent(Long eventId, Event event, boolean received) {
+        this.eventId = eventId;
+        this.event = event;
+        this.received = received;
+    }
+
+    /**
+     * Creates the change of a created or updated event.
+     * @param event the saved event
+     * @return the change
+     */
+    public static EventChangedEvent saved(Event event) {
+        return new EventChangedEvent(event.getId(), event, false);
+    }
+
+    /**
+     * Creates the change of a deleted event.
+     * @param eventId the ID of the deleted event
+     * @return the change
+     */
+    public static EventChangedEvent deleted(Long eventId) {
+        return new EventChangedEvent(eventId, null, false);
+    }
+
+    /**
+     * Creates the change of an event made on another node.
+     * @param eventId the event ID
+     * @param event the event as stored now, or null if it was deleted
+     * @return the change
+     */
+    public static EventChangedEvent received(Long eventId, Event event) {
+        return new EventChangedEvent(eventId, event, true);
+    }
+
+    /**
+     * Gets the event ID.
+     * @return event ID
+     */
+    public Long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Gets the saved event.
+     * @return the event, or null if it was deleted
+     */
+    public Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Tells whether the event was deleted.
+     * @return true if deleted
+     */
+    public boolean isDeleted() {
+        return event == null;
+    }
+
+    /**
+     * Tells whether the change was made on another node.
+     * @return true if received from another node
+     */
+    public boolean isReceived() {
+        return received;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.booking.service;
+
+import com.example.booking.model.AccessToken;
+import com.example.booking.model.BookingRequest;
+import com.example.booking.model.ClusterMember;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Routes booking commands to the node owning their event when cluster mode is enabled (see
+ * {@link ClusterMembership}).
+ * <p>
+ * A node that does not own the event forwards the command to the owner's {@code /internal/bookings} endpoint
+ * and relays the owner's response. The caller was authenticated here; the forwarded request is authenticated as
+ * this node with a {@link TokenService#issueNodeToken node token}, which the owner's {@code /internal} endpoints
+ * require and which names the forwarding node, so clients cannot call them to skip routing. The owner executes commands received from
+ * other nodes as its own, even if its ring disagrees while a membership change propagates, so commands are
+ * never forwarded twice. If the connection to the owner cannot be made, the request never reached it, so the
+ * command is executed locally and the owner is marked unreachable for a while (see
+ * {@link ClusterMembership#markUnreachable}); the database keeps it correct. Once the request was sent, the owner
+ * may have executed it, so a timeout or broken connection is answered with {@code 504} or {@code 503} instead of
+ * executing the command a second time.
+ * </p>
+ * On the owner, bookings of the same seat are serialized on one of {@code booking.cluster.seat-lock-stripes}
+ * JVM locks, so contenders queue without holding a database connection and only the winner's transaction waits
+ * on the seat row lock.
+ */
+@Service
+public class EventRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventRouter.class);
+
+    public static final String COMMANDS_COUNTER = "booking.cluster.commands";
+    public static final String NODE_HEADER = "X-Booking-Node";
+
+    @Autowired
+    private ClusterMembership clusterMembership;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.cluster.forward-timeout-ms:5000}")
+    private long forwardTimeoutMs;
+
+    @Value("${booking.cluster.seat-lock-stripes:1024}")
+    private int seatLockStripes;
+
+    private HttpClient httpClient;
+    private ReentrantLock[] seatLocks;
+    private Counter local;
+    private Counter received;
+    private Counter forwarded;
+    private Counter fallback;
+    private Counter unanswered;
+    private volatile NodeAuthorization nodeAuthorization;
+
+    /**
+     * Creates the forwarding client, the seat locks and the metrics.
+     */
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(forwardTimeoutMs))
+                .build();
+        seatLocks = new ReentrantLock[seatLockStripes];
+        for (int i = 0; i < seatLocks.length; i++) {
+            seatLocks[i] = new ReentrantLock();
+        }
+        local = commandsCounter("local", "Commands executed by the node owning their event");
+        received = commandsCounter("received", "Commands executed for the node that forwarded them");
+        forwarded = commandsCounter("forwarded", "Commands forwarded to the node owning their event");
+        fallback = commandsCounter("fallback", "Commands executed locally because their owner was unreachable");
+        unanswered = commandsCounter("unanswered", "Commands sent to their owner without getting its response");
+    }
+
+    private Counter commandsCounter(String route, String description) {
+        return Counter.builder(COMMANDS_COUNTER)
+                .description(description)
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Forwards a booking to the owner of its event, unless this node owns it.
+     * @param request the booking request
+     * @return the owner's response, or empty if the booking is to be executed here
+     */
+    public Optional<ResponseEntity<String>> forwardBooking(BookingRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Booking request cannot be forwarded: " + ex.getMessage(), ex);
+        }
+        return forward(request.getEventId(), "/internal/bookings/book", body);
+    }
+
+    /**
+     * Forwards a cancellation to the owner of its event, unless this node owns it or the event is not known.
+     * @param bookingId the booking ID
+     * @param eventId the booking's event ID, or null
+     * @return the owner's response, or empty if the cancellation is to be executed here
+     */
+    public Optional<ResponseEntity<String>> forwardCancel(Long bookingId, Long eventId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return forward(eventId, "/internal/bookings/cancel/" + bookingId + "?eventId=" + eventId, "");
+    }
+
+    private Optional<ResponseEntity<String>> forward(Long eventId, String path, String body) {
+        if (eventId == null || clusterMembership.isLocal(eventId)) {
+            return Optional.empty();
+        }
+        Optional<ClusterMember> owner = clusterMembership.ownerOf(eventId);
+        if (owner.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!clusterMembership.isReachable(owner.get().getNodeId())) {
+            fallback.increment();
+            logger.debug("Owner {} of eventId={} marked unreachable, executing {} locally", owner.get(), eventId, path);
+            return Optional.empty();
+        }
+        HttpRequest forwardedRequest = HttpRequest.newBuilder(URI.create(owner.get().getUrl() + path))
+                .timeout(Duration.ofMillis(forwardTimeoutMs))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, nodeAuthorization())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(forwardedRequest, HttpResponse.BodyHandlers.ofString());
+            forwarded.increment();
+            logger.debug("Forwarded {} for eventId={} to {}: {}", path, eventId, owner.get(), response.statusCode());
+            ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.statusCode())
+                    .header(NODE_HEADER, owner.get().getNodeId());
+            response.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(type -> relayed.header(HttpHeaders.CONTENT_TYPE, type));
+            return Optional.of(relayed.body(response.body()));
+        } catch (ConnectException | HttpConnectTimeoutException | UnknownHostException ex) {
+            // Not connected, so the owner never saw the command
+            clusterMembership.markUnreachable(owner.get().getNodeId());
+            fallback.increment();
+            logger.warn("Owner {} of eventId={} unreachable, executing {} locally: {}", owner.get(), eventId, path, ex.toString());
+            return Optional.empty();
+        } catch (IOException ex) {
+            // Sent, so the owner may have executed the command; running it here too could answer a successful
+            // booking with 409 or cancel twice
+            clusterMembership.markUnreachable(owner.get().getNodeId());
+            unanswered.increment();
+            boolean timedOut = ex instanceof HttpTimeoutException;
+            logger.warn("No response from owner {} of eventId={} to {}: {}", owner.get(), eventId, path, ex.toString());
+            return Optional.of(ResponseEntity.status(timedOut ? 504 : 503)
+                    .header(NODE_HEADER, owner.get().getNodeId())
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body((timedOut ? "Owner node did not respond in time" : "Connection to owner node failed")
+                            + "; the command may or may not have been executed"));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding to " + owner.get(), ex);
+        }
+    }
+
+    /**
+     * Gets the {@code Authorization} header of forwarded requests, issuing a new node token once half the current
+     * one's lifetime has passed.
+     */
+    private String nodeAuthorization() {
+        NodeAuthorization current = nodeAuthorization;
+        long now = System.currentTimeMillis();
+        if (current == null || now >= current.renewAt) {
+            AccessToken token = tokenService.issueNodeToken(clusterMembership.getNodeId());
+            current = new NodeAuthorization("Bearer " + token.getAccessToken(), now + token.getExpiresIn() * 500);
+            nodeAuthorization = current;
+        }
+        return current.header;
+    }
+
+    /**
+     * Executes a command of a client of this node, serialized with other commands for the same seat.
+     * @param eventId the event ID
+     * @param seatNumber the seat number, or null if the command does not target a known seat
+     * @param command the command
+     * @param <T> the command result
+     * @return the command result
+     */
+    public <T> T execute(Long eventId, String seatNumber, Supplier<T> command) {
+        if (!enabled) {
+            return command.get();
+        }
+        local.increment();
+        return serialized(eventId, seatNumber, command);
+    }
+
+    /**
+     * Executes a command forwarded by another node, see {@link #execute(Long, String, Supplier)}.
+     * @param eventId the event ID
+     * @param seatNumber the seat number, or null if the command does not target a known seat
+     * @param forwardedBy the node that forwarded the command
+     * @param command the command
+     * @param <T> the command result
+     * @return the command result
+     */
+    public <T> T executeForwarded(Long eventId, String seatNumber, String forwardedBy, Supplier<T> command) {
+        received.increment();
+        if (enabled && eventId != null && !clusterMembership.isLocal(eventId)) {
+            logger.debug("Executing command for eventId={} from {} although its owner is {}", eventId, forwardedBy,
+                    clusterMembership.ownerOf(eventId).map(ClusterMember::getNodeId).orElse(null));
+        }
+        return serialized(eventId, seatNumber, command);
+    }
+
+    private <T> T serialized(Long eventId, String seatNumber, Supplier<T> command) {
+        if (eventId == null || seatNumber == null) {
+            return command.get();
+        }
+        ReentrantLock lock = seatLocks[Math.floorMod(Objects.hash(eventId, seatNumber), seatLocks.length)];
+        lock.lock();
+        try {
+            return command.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class NodeAuthorization {
+        private final String header;
+        private final long renewAt;
+
+        private NodeAuthorization(String header, long renewAt) {
+            this.header = header;
+            this.renewAt = renewAt;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSearchHit;
+import com.example.booking.repository.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of events for {@code GET /api/events/search}.
+ * <p>
+ * Names and locations are split into lower-case, accent-free tokens; each token maps to the events (and fields)
+ * it occurs in. A query matches the events that contain every query token, the last one also as a prefix so
+ * that results follow the search box as the user types. Events are ranked by the sum over query tokens of the
+ * token's inverse document frequency times a field weight (name 2, location 1, halved for prefix matches),
+ * then by date. A date index serves date-range filters and date-only searches.
+ * </p>
+ * <p>
+ * The index is loaded from the events table once the application is ready and then kept current from the
+ * {@link EventChangedEvent}s of {@link EventService} after their transactions commit, and from those of other
+ * nodes relayed by {@link EventChangeFanout}, so searches never read the table.
+ * </p>
+ */
+@Service
+public class EventSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    public static final String EVENTS_GAUGE = "booking.search.events";
+    public static final String SEARCH_TIMER = "booking.search.latency";
+
+    static final int NAME = 1;
+    static final int LOCATION = 2;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double LOCATION_WEIGHT = 1.0;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Set<Long>> byDate = new TreeMap<>();
+    private Timer searchTimer;
+
+    /**
+     * Registers metrics.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder(EVENTS_GAUGE, this, EventSearchIndex::size)
+                .description("Events in the search index")
+                .register(meterRegistry);
+        searchTimer = Timer.builder(SEARCH_TIMER)
+                .description("Event search latency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every event into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            byDate.clear();
+            for (Event event : eventRepository.findAll()) {
+                add(event);
+            }
+            logger.info("Event search index loaded with {} events and {} tokens", documents.size(), postings.size());
+        } catch (RuntimeException ex) {
+            logger.error("Failed to load the event search index: {}", ex.getMessage(), ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a created, updated or deleted event once its transaction has committed.
+     * @param change the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            remove(change.getEventId());
+            if (!change.isDeleted()) {
+                add(change.getEvent());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Event search index updated for event {} (deleted={})", change.getEventId(), change.isDeleted());
+    }
+
+    /**
+     * Searches events.
+     * @param query free text matched against name and location, or blank to search by date only
+     * @param from earliest event date, inclusive, or null
+     * @param to latest event date, exclusive, or null
+     * @param limit maximum number of results
+     * @return the matching events, best first; by date when the query is blank
+     */
+    public List<EventSearchHit> search(String query, LocalDateTime from, LocalDateTime to, int limit) {
+        return searchTimer.record(() -> {
+            List<String> tokens = tokenize(query);
+            lock.readLock().lock();
+            try {
+                return tokens.isEmpty() ? byDate(from, to, limit) : byText(tokens, from, to, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Gets the number of indexed events.
+     * @return event count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case tokens without accents.
+     * @param text the text, may be null
+     * @return the tokens in order, without duplicates
+     */
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return new ArrayList<>(new LinkedHashSet<>(Arrays.asList(normalized.split(" "))));
+    }
+
+    /**
+     * Lower-cases text, strips accents and replaces each run of other characters than letters and digits with a
+     * single space.
+     * @param text the text, may be null
+     * @return the normalized text without leading or trailing spaces, empty if there are no words
+     */
+    static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    private List<EventSearchHit> byDate(LocalDateTime from, LocalDateTime to, int limit) {
+        List<EventSearchHit> hits = new ArrayList<>();
+        for (Set<Long> ids : dateRange(from, to).values()) {
+            for (Long id : ids) {
+                if (hits.size() == limit) {
+                    return hits;
+                }
+                hits.add(documents.get(id).hit(0));
+            }
+        }
+        return hits;
+    }
+
+    private List<EventSearchHit> byText(List<String> tokens, LocalDateTime from, LocalDateTime to, int limit) {
+        Map<Long, Double> scores = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            Map<Long, Double> tokenScores = score(tokens.get(i), i == tokens.size() - 1);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(entry -> documents.get(entry.getKey()).date, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Map.Entry.comparingByKey());
+        return scores.entrySet().stream()
+                .filter(entry -> documents.get(entry.getKey()).isWithin(from, to))
+                .sorted(ranking)
+                .limit(limit)
+                .map(entry -> documents.get(entry.getKey()).hit(entry.getValue()))
+                .toList();
+    }
+
+    private Map<Long, Double> score(String token, boolean prefix) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(token);
+        if (exact != null) {
+            double idf = idf(exact.size());
+            exact.forEach((id, fields) -> scores.put(id, idf * weight(fields)));
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                double idf = idf(entry.getValue().size());
+                entry.getValue().forEach((id, fields) ->
+                        scores.merge(id, idf * weight(fields) * PREFIX_FACTOR, Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (double) documents.size() / documentFrequency);
+    }
+
+    private static double weight(int fields) {
+        return ((fields & NAME) != 0 ? NAME_WEIGHT : 0) + ((fields & LOCATION) != 0 ? LOCATION_WEIGHT : 0);
+    }
+
+    private NavigableMap<LocalDateTime, Set<Long>> dateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            return from.isBefore(to) ? byDate.subMap(from, true, to, false) : new TreeMap<>();
+        }
+        if (from != null) {
+            return byDate.tailMap(from, true);
+        }
+        return to != null ? byDate.headMap(to, false) : byDate;
+    }
+
+    private void add(Event event) {
+        Document document = new Document(event);
+        documents.put(document.id, document);
+        document.tokens.forEach((token, fields) ->
+                postings.computeIfAbsent(token, t -> new HashMap<>()).put(document.id, fields));
+        if (document.date != null) {
+            byDate.computeIfAbsent(document.date, d -> new LinkedHashSet<>()).add(document.id);
+        }
+    }
+
+    private void remove(Long eventId) {
+        Document document = documents.remove(eventId);
+        if (document == null) {
+            return;
+        }
+        document.tokens.keySet().forEach(token -> {
+            Map<Long, Integer> events = postings.get(token);
+            events.remove(eventId);
+            if (events.isEmpty()) {
+                postings.remove(token);
+            }
+        });
+        if (document.date != null) {
+            Set<Long> ids = byDate.get(document.date);
+            ids.remove(eventId);
+            if (ids.isEmpty()) {
+                byDate.remove(document.date);
+            }
+        }
+    }
+
+    /**
+     * An indexed event: a copy of its fields and its tokens with the fields they occur in.
+     */
+    private static final class Document {
+        private final Long id;
+        private final String name;
+        private final String location;
+        private final LocalDateTime date;
+        private final Integer totalSeats;
+        private final Map<String, Integer> tokens = new HashMap<>();
+
+        private Document(Event event) {
+            this.id = event.getId();
+            this.name = event.getName();
+            this.location = event.getLocation();
+            this.date = event.getEventDate();
+            this.totalSeats = event.getTotalSeats();
+            tokenize(name).forEach(token -> tokens.merge(token, NAME, (a, b) -> a | b));
+            tokenize(location).forEach(token -> tokens.merge(token, LOCATION, (a, b) -> a | b));
+        }
+
+        private boolean isWithin(LocalDateTime from, LocalDateTime to) {
+            if (from == null && to == null) {
+                return true;
+            }
+            return date != null && (from == null || !date.isBefore(from)) && (to == null || date.isBefore(to));
+        }
+
+        private EventSearchHit hit(double score) {
+            return new EventSearchHit(id, name, location, date, totalSeats, score);
+        }
+    }
+}
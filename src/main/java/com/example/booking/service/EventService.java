@@ -4,11 +4,13 @@ package com.example.booking.service;
 import com.example.booking.model.EventRequest;
 import com.example.booking.model.Event;
 import com.example.booking.model.Seat;
+import com.example.booking.model.SectionLayout;
 import com.example.booking.repository.EventRepository;
 import com.example.booking.repository.SeatRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,9 @@ public class EventService {
     @Autowired
     private SeatRepository seatRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Retrieves an event by its ID.
      *
@@ -74,7 +79,9 @@ public class EventService {
     }
 
     /**
-     * Creates a new event and its associated seats.
+     * Creates a new event and its associated seats, and publishes an {@link EventChangedEvent}.
+     * Seats are numbered from seatStart to seatEnd, or labelled {@code section-row-number} when the request
+     * has sections.
      *
      * @param request the event creation request
      * @return the saved Event entity
@@ -91,14 +98,11 @@ public class EventService {
             Event savedEvent = eventRepository.save(event);
             logger.debug("Event created with id={}", savedEvent.getId());
 
-            for (int i = request.getSeatStart(); i <= request.getSeatEnd(); i++) {
-                Seat seat = new Seat();
-                seat.setEvent(savedEvent);
-                seat.setSeatNumber(String.valueOf(i));
-                seat.setIsBooked(false);
-                seatRepository.save(seat);
-            }
-            logger.info("Created {} seats for eventId={}", request.getSeatEnd() - request.getSeatStart() + 1, savedEvent.getId());
+            int seats = request.getSections() != null && !request.getSections().isEmpty()
+                    ? createSectionedSeats(savedEvent, request.getSections())
+                    : createNumberedSeats(savedEvent, request.getSeatStart(), request.getSeatEnd());
+            logger.info("Created {} seats for eventId={}", seats, savedEvent.getId());
+            eventPublisher.publishEvent(EventChangedEvent.saved(savedEvent));
             return savedEvent;
         } catch (Exception ex) {
             logger.error("Error creating event with seats: {}", ex.getMessage(), ex);
@@ -106,6 +110,38 @@ public class EventService {
         }
     }
 
+    private int createNumberedSeats(Event event, int seatStart, int seatEnd) {
+        for (int i = seatStart; i <= seatEnd; i++) {
+            Seat seat = new Seat();
+            seat.setEvent(event);
+            seat.setSeatNumber(String.valueOf(i));
+            seat.setIsBooked(false);
+            seatRepository.save(seat);
+        }
+        return seatEnd - seatStart + 1;
+    }
+
+    private int createSectionedSeats(Event event, List<SectionLayout> sections) {
+        sections.forEach(SeatKeys::validate);
+        int count = 0;
+        for (SectionLayout section : sections) {
+            for (int r = 0; r < section.getRows(); r++) {
+                String row = SeatKeys.rowLabel(r);
+                for (int number = 1; number <= section.getSeatsPerRow(); number++) {
+                    Seat seat = new Seat();
+                    seat.setEvent(event);
+                    seat.setSeatNumber(SeatKeys.label(section.getName(), row, number));
+                    seat.setSection(section.getName());
+                    seat.setRow(row);
+                    seat.setIsBooked(false);
+                    seatRepository.save(seat);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Retrieves all events.
      *
@@ -146,7 +182,7 @@ public class EventService {
     }
 
     /**
-     * Updates an existing event.
+     * Updates an existing event and publishes an {@link EventChangedEvent}.
      *
      * @param id the event ID
      * @param request the event update request
@@ -163,6 +199,7 @@ public class EventService {
                 event.setTotalSeats(request.getTotalSeats());
                 Event updatedEvent = eventRepository.save(event);
                 logger.debug("Event updated: id={}", updatedEvent.getId());
+                eventPublisher.publishEvent(EventChangedEvent.saved(updatedEvent));
                 return updatedEvent;
             });
         } catch (Exception ex) {
@@ -172,7 +209,7 @@ public class EventService {
     }
 
     /**
-     * Deletes an event by its ID.
+     * Deletes an event by its ID and publishes an {@link EventChangedEvent}.
      *
      * @param id the event ID
      */
@@ -184,6 +221,7 @@ public class EventService {
                 seatRepository.deleteAll(seatRepository.findByEventId(id, Pageable.unpaged()));
                 // Then delete event
                 eventRepository.deleteById(id);
+                eventPublisher.publishEvent(EventChangedEvent.deleted(id));
                 logger.debug("Event and its seats deleted: id={}", id);
         } catch (Exception ex) {
             logger.error("Error deleting event: {}", ex.getMessage(), ex);
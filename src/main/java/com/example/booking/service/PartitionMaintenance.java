@@ -0,0 +1,73 @@
+package com.example.booking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains the event partitions of the seats and bookings tables (see
+ * {@code db/migration/V2__partition_seats_and_bookings.sql}).
+ * <p>
+ * Every {@code booking.partitioning.interval-ms} it creates the partitions of the block holding the newest
+ * event and of the {@code booking.partitioning.blocks-ahead} blocks after it, so new events land in their own
+ * partition rather than the default one. When {@code booking.partitioning.detach-after} is set, blocks whose
+ * events all took place longer ago than that are detached, ready to be archived and dropped.
+ * </p>
+ */
+@Component
+public class PartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${booking.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.partitioning.blocks-ahead:2}")
+    private int blocksAhead;
+
+    @Value("${booking.partitioning.detach-after:}")
+    private Duration detachAfter;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Creates missing partitions ahead of the newest event and detaches those past the retention period.
+     */
+    @Scheduled(fixedDelayString = "${booking.partitioning.interval-ms:3600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                    "SELECT booking_ensure_partitions((SELECT coalesce(max(id), 0) FROM events), ?)",
+                    Integer.class, blocksAhead);
+            if (created != null && created > 0) {
+                logger.info("Created {} seat and booking partitions", created);
+            }
+            if (detachAfter != null) {
+                Timestamp before = Timestamp.valueOf(LocalDateTime.now(clock).minus(detachAfter));
+                List<String> detached = jdbcTemplate.queryForList(
+                        "SELECT * FROM booking_detach_partitions(?)", String.class, before);
+                if (!detached.isEmpty()) {
+                    logger.info("Detached partitions of events before {}, ready to archive: {}", before, detached);
+                }
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Partition maintenance failed: {}", ex.getMessage(), ex);
+        }
+    }
+}
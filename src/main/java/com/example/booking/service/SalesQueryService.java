@@ -0,0 +1,126 @@
+package com.example.booking.service;
+
+import com.example.booking.kafka.BookingSalesTopology;
+import com.example.booking.model.SalesCounts;
+import com.example.booking.model.SalesWindow;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service answering sales queries from the local Kafka Streams state stores built by
+ * {@link BookingSalesTopology}, so reporting never queries the bookings table.
+ * <p>
+ * Each instance only holds the partitions assigned to it. {@link #remoteOwner(Long)} tells the caller
+ * which instance (as advertised through {@code application.server}) owns an event's counts.
+ * </p>
+ */
+@Service
+public class SalesQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesQueryService.class);
+
+    @Autowired
+    private ObjectProvider<StreamsBuilderFactoryBean> streamsBuilderFactoryBean;
+
+    /**
+     * Finds the instance holding the sales counts of an event, if it is not this one.
+     * @param eventId the event ID
+     * @return the owning host, or empty if the counts are local or ownership is unknown
+     */
+    public Optional<HostInfo> remoteOwner(Long eventId) {
+        StreamsBuilderFactoryBean factoryBean = factoryBean();
+        KafkaStreams streams = runningStreams(factoryBean);
+        KeyQueryMetadata metadata = streams.queryMetadataForKey(
+                BookingSalesTopology.TOTALS_STORE, String.valueOf(eventId), Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            return Optional.empty();
+        }
+        Object localServer = factoryBean.getStreamsConfiguration().get(StreamsConfig.APPLICATION_SERVER_CONFIG);
+        HostInfo owner = metadata.activeHost();
+        if (localServer == null || HostInfo.buildFromEndpoint(localServer.toString()).equals(owner)) {
+            return Optional.empty();
+        }
+        logger.debug("Sales for eventId {} are owned by {}", eventId, owner);
+        return Optional.of(owner);
+    }
+
+    /**
+     * Gets the booked and cancelled counts of an event since it went on sale.
+     * @param eventId the event ID
+     * @return the counts, zero if nothing was sold yet
+     */
+    public SalesCounts getTotals(Long eventId) {
+        try {
+            ReadOnlyKeyValueStore<String, SalesCounts> store = runningStreams(factoryBean()).store(
+                    StoreQueryParameters.fromNameAndType(BookingSalesTopology.TOTALS_STORE, QueryableStoreTypes.keyValueStore()));
+            SalesCounts counts = store.get(String.valueOf(eventId));
+            return counts != null ? counts : SalesCounts.EMPTY;
+        } catch (InvalidStateStoreException ex) {
+            logger.warn("Sales totals store unavailable: {}", ex.getMessage());
+            throw new IllegalStateException("Sales data is not available yet", ex);
+        }
+    }
+
+    /**
+     * Gets per-minute sales of an event for windows starting in the given range.
+     * @param eventId the event ID
+     * @param from earliest window start (inclusive)
+     * @param to latest window start (inclusive)
+     * @return windows with sales, oldest first
+     */
+    public List<SalesWindow> getPerMinute(Long eventId, Instant from, Instant to) {
+        try {
+            ReadOnlyWindowStore<String, SalesCounts> store = runningStreams(factoryBean()).store(
+                    StoreQueryParameters.fromNameAndType(BookingSalesTopology.PER_MINUTE_STORE, QueryableStoreTypes.windowStore()));
+            List<SalesWindow> windows = new ArrayList<>();
+            try (WindowStoreIterator<SalesCounts> iterator = store.fetch(String.valueOf(eventId), from, to)) {
+                while (iterator.hasNext()) {
+                    KeyValue<Long, SalesCounts> window = iterator.next();
+                    Instant start = Instant.ofEpochMilli(window.key);
+                    windows.add(new SalesWindow(start, start.plus(BookingSalesTopology.WINDOW_SIZE), window.value));
+                }
+            }
+            return windows;
+        } catch (InvalidStateStoreException ex) {
+            logger.warn("Sales per-minute store unavailable: {}", ex.getMessage());
+            throw new IllegalStateException("Sales data is not available yet", ex);
+        }
+    }
+
+    private StreamsBuilderFactoryBean factoryBean() {
+        StreamsBuilderFactoryBean factoryBean = streamsBuilderFactoryBean.getIfAvailable();
+        if (factoryBean == null) {
+            throw new IllegalStateException("Sales aggregation is disabled");
+        }
+        return factoryBean;
+    }
+
+    private static KafkaStreams runningStreams(StreamsBuilderFactoryBean factoryBean) {
+        KafkaStreams streams = factoryBean.getKafkaStreams();
+        if (streams == null || !streams.state().isRunningOrRebalancing()) {
+            throw new IllegalStateException("Sales data is not available yet");
+        }
+        return streams;
+    }
+}
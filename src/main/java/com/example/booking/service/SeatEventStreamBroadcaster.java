@@ -0,0 +1,675 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatStatusUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events streams of seat updates, one shared broadcaster per event.
+ * <p>
+ * Each update is rendered to its SSE wire form once ({@code id:<epoch>-<sequence>}, {@code event:seat}, JSON
+ * data) and the same bytes are queued for every subscriber. Subscribers of an event are spread over
+ * {@code booking.sse.shards-per-event} shards, each fanned out by one task at a time on the
+ * {@code booking.sse.threads} pool. Every subscriber then has its own outbox, written by one task at a time,
+ * and frames that queue up while it is being written go out together in the next write.
+ * </p>
+ * <p>
+ * Writes block until the client has taken the bytes, so a client that stops reading holds a writer thread.
+ * Its stream is dropped once its outbox holds more than {@code booking.sse.max-pending-bytes}, or its write
+ * has been blocked for {@code booking.sse.write-timeout-ms}; the client reconnects and gets a snapshot. A
+ * blocked write cannot be cut short, the container's write timeout ends it, so until then the pool gets one
+ * more thread per blocked write, up to {@code booking.sse.max-threads}.
+ * </p>
+ * <p>
+ * A new subscriber first gets an {@code event:snapshot} with the event's {@code SeatSnapshot}. A subscriber
+ * reconnecting with {@code Last-Event-ID} instead gets the frames it missed from the last
+ * {@code booking.sse.replay-size} updates, or a snapshot if it is further behind. Sequence numbers are counted
+ * per node from startup, so the ID carries an epoch drawn at startup, and an ID from another node or an earlier
+ * run, whatever its sequence, is answered with a snapshot. These initial frames are
+ * queued by the subscriber's shard, ahead of any later frame, so they can never be overtaken by a delta.
+ * Idle subscribers hold no thread; a comment is sent every {@code booking.sse.heartbeat-ms} to detect closed
+ * connections. An event left without subscribers for two heartbeats is forgotten.
+ * </p>
+ */
+@Service
+public class SeatEventStreamBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatEventStreamBroadcaster.class);
+
+    public static final String SUBSCRIBERS_GAUGE = "booking.sse.subscribers";
+    public static final String WRITES_COUNTER = "booking.sse.writes";
+    public static final String FANOUT_TIMER = "booking.sse.fanout";
+    public static final String EVICTIONS_COUNTER = "booking.sse.evictions";
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private SeatSnapshotService seatSnapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.sse.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${booking.sse.replay-size:256}")
+    private int replaySize;
+
+    @Value("${booking.sse.shards-per-event:4}")
+    private int shardsPerEvent;
+
+    @Value("${booking.sse.threads:4}")
+    private int threads;
+
+    @Value("${booking.sse.max-threads:32}")
+    private int maxThreads;
+
+    @Value("${booking.sse.max-pending-bytes:1048576}")
+    private long maxPendingBytes;
+
+    @Value("${booking.sse.write-timeout-ms:5000}")
+    private long writeTimeoutMillis;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final ConcurrentHashMap<Long, EventChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicInteger blockedWrites = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+    private Counter written;
+    private Counter failed;
+    private Counter backlogEvictions;
+    private Counter timeoutEvictions;
+    private Timer fanout;
+
+    /**
+     * Starts the writer pool and registers metrics.
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "sse-writer-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder(SUBSCRIBERS_GAUGE, subscriberCount, AtomicInteger::get)
+                .description("Open seat update SSE streams")
+                .register(meterRegistry);
+        written = Counter.builder(WRITES_COUNTER).tag("outcome", "sent")
+                .description("Writes to seat update SSE streams").register(meterRegistry);
+        failed = Counter.builder(WRITES_COUNTER).tag("outcome", "failed")
+                .description("Writes to seat update SSE streams").register(meterRegistry);
+        backlogEvictions = Counter.builder(EVICTIONS_COUNTER).tag("reason", "backlog")
+                .description("Seat update SSE streams dropped for not keeping up").register(meterRegistry);
+        timeoutEvictions = Counter.builder(EVICTIONS_COUNTER).tag("reason", "write-timeout")
+                .description("Seat update SSE streams dropped for not keeping up").register(meterRegistry);
+        fanout = Timer.builder(FANOUT_TIMER)
+                .description("Time to queue seat update frames for one shard of subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the writer pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a seat update stream for an event.
+     * @param eventId the event ID
+     * @param lastEventId the {@code Last-Event-ID} of a reconnecting client, or null
+     * @return the emitter, or empty if the event has no seats
+     */
+    public Optional<SseEmitter> subscribe(Long eventId, String lastEventId) {
+        if (!channels.containsKey(eventId) && seatSnapshotService.cachedSnapshot(eventId).isEmpty()) {
+            return Optional.empty();
+        }
+        Long resumeAfter = resumeSequence(lastEventId);
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        while (true) {
+            EventChannel channel = channels.computeIfAbsent(eventId, EventChannel::new);
+            synchronized (channel) {
+                if (channel.closed) {
+                    continue;
+                }
+                List<byte[]> initial = new ArrayList<>();
+                long baseline;
+                List<Frame> missed = resumeAfter != null ? channel.replayAfter(resumeAfter) : null;
+                if (missed != null) {
+                    baseline = resumeAfter;
+                } else {
+                    Optional<SeatSnapshotService.CachedSnapshot> snapshot = seatSnapshotService.cachedSnapshot(eventId);
+                    if (snapshot.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    baseline = snapshot.get().snapshot.getSequence();
+                    initial.add(render(baseline, "snapshot", snapshot.get().json));
+                    missed = channel.replayAfter(baseline);
+                    if (missed == null) {
+                        missed = List.of();
+                    }
+                }
+                for (Frame frame : missed) {
+                    initial.add(frame.bytes);
+                    baseline = frame.sequence;
+                }
+                Subscriber subscriber = new Subscriber(channel, emitter, concat(initial), baseline);
+                subscriberCount.incrementAndGet();
+                emitter.onCompletion(subscriber::detach);
+                emitter.onTimeout(subscriber::detach);
+                emitter.onError(ex -> subscriber.detach());
+                // Registered under the channel lock, so every later frame is queued behind the initial ones
+                channel.add(subscriber);
+            }
+            return Optional.of(emitter);
+        }
+    }
+
+    /**
+     * Streams a seat update to the event's subscribers. The update is serialized once.
+     * @param eventId the event ID
+     * @param update the sequence-numbered seat update
+     */
+    public void publish(Long eventId, SeatStatusUpdate update) {
+        EventChannel channel = channels.get(eventId);
+        if (channel == null) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(update);
+        } catch (JsonProcessingException ex) {
+            logger.error("Failed to serialize seat update {} of event {}", update.getSeatNumber(), eventId, ex);
+            return;
+        }
+        Frame frame = new Frame(update.getSequence(), render(update.getSequence(), "seat", json));
+        synchronized (channel) {
+            channel.remember(frame);
+            channel.enqueue(frame);
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber, keeping proxies from timing out idle streams
+     * and detecting closed connections.
+     */
+    @Scheduled(fixedDelayString = "${booking.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Frame heartbeat = new Frame(Long.MAX_VALUE, HEARTBEAT);
+        for (EventChannel channel : channels.values()) {
+            synchronized (channel) {
+                if (!channel.isEmpty()) {
+                    channel.idle = false;
+                    channel.enqueue(heartbeat);
+                } else if (channel.idle) {
+                    channel.closed = true;
+                    channels.remove(channel.eventId, channel);
+                } else {
+                    channel.idle = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops streams whose write has been blocked for longer than the write timeout.
+     */
+    @Scheduled(fixedDelayString = "${booking.sse.write-check-ms:1000}")
+    public void evictBlockedStreams() {
+        long now = System.nanoTime();
+        for (EventChannel channel : channels.values()) {
+            for (Shard shard : channel.shards) {
+                for (Subscriber subscriber : shard.subscribers) {
+                    subscriber.checkWrite(now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of events with a stream channel.
+     * @return channel count
+     */
+    int getChannelCount() {
+        return channels.size();
+    }
+
+    /**
+     * Gets the number of open streams.
+     * @return open stream count
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Gets the epoch that prefixes the IDs of this node's frames.
+     * @return the epoch
+     */
+    String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Creates the emitter of a new stream.
+     * @param timeout the stream timeout in milliseconds
+     * @return the emitter
+     */
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * Returns the sequence number of a {@code Last-Event-ID} issued by this node since startup, or null.
+     */
+    private Long resumeSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private byte[] render(long sequence, String event, byte[] json) {
+        byte[] head = ("id:" + epoch + "-" + sequence + "\nevent:" + event + "\ndata:").getBytes(StandardCharsets.US_ASCII);
+        byte[] frame = new byte[head.length + json.length + 2];
+        System.arraycopy(head, 0, frame, 0, head.length);
+        System.arraycopy(json, 0, frame, head.length, json.length);
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return frame;
+    }
+
+    /**
+     * Gives the pool one thread more or less for a write that is blocked.
+     */
+    private void resizeWriters(int delta) {
+        synchronized (executor) {
+            int size = Math.min(threads + blockedWrites.addAndGet(delta), Math.max(threads, maxThreads));
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            } else {
+                executor.setCorePoolSize(size);
+                executor.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    private static byte[] concat(List<byte[]> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parts.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static final class Frame {
+        private final long sequence;
+        private final byte[] bytes;
+
+        private Frame(long sequence, byte[] bytes) {
+            this.sequence = sequence;
+            this.bytes = bytes;
+        }
+
+        private boolean isHeartbeat() {
+            return sequence == Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * One stream, with the frames queued for it. Its outbox is written by one task at a time, and only that
+     * task completes the emitter, since completing it waits for a write in progress.
+     */
+    private final class Subscriber {
+        private final EventChannel channel;
+        private final SseEmitter emitter;
+        private final byte[] initial;
+        private final long baseline;
+        private final ConcurrentLinkedQueue<byte[]> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        private boolean completed;
+        private boolean writing;
+        private boolean blocked;
+        private long writeStarted;
+
+        /**
+         * @param channel the event's channel
+         * @param emitter the stream
+         * @param initial the snapshot and replayed frames to send first
+         * @param baseline the sequence number the initial frames bring the subscriber to
+         */
+        private Subscriber(EventChannel channel, SseEmitter emitter, byte[] initial, long baseline) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.initial = initial;
+            this.baseline = baseline;
+        }
+
+        private void detach() {
+            if (channel.remove(this)) {
+                subscriberCount.decrementAndGet();
+            }
+        }
+
+        /**
+         * Queues bytes for the stream, or drops the stream if it is too far behind. A payload is always taken
+         * while nothing is pending, however large.
+         */
+        private void offer(byte[] payload) {
+            if (evicted.get()) {
+                return;
+            }
+            long backlog = pendingBytes.getAndAdd(payload.length);
+            if (backlog > 0 && backlog + payload.length > maxPendingBytes) {
+                backlogEvictions.increment();
+                evict();
+                return;
+            }
+            outbox.add(payload);
+            schedule();
+        }
+
+        private void evict() {
+            if (evicted.compareAndSet(false, true)) {
+                detach();
+                outbox.clear();
+                schedule();
+            }
+        }
+
+        /**
+         * Drops the stream if its write has been blocked for longer than the write timeout.
+         */
+        private synchronized void checkWrite(long now) {
+            if (writing && !blocked && now - writeStarted > TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis)) {
+                blocked = true;
+                timeoutEvictions.increment();
+                resizeWriters(1);
+                evict();
+            }
+        }
+
+        private synchronized void startWrite() {
+            writing = true;
+            writeStarted = System.nanoTime();
+        }
+
+        private synchronized void endWrite() {
+            writing = false;
+            if (blocked) {
+                blocked = false;
+                resizeWriters(-1);
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (evicted.get()) {
+                    if (!completed) {
+                        completed = true;
+                        emitter.complete();
+                    }
+                    return;
+                }
+                List<byte[]> parts = new ArrayList<>();
+                for (byte[] part; (part = outbox.poll()) != null; ) {
+                    parts.add(part);
+                }
+                if (!parts.isEmpty()) {
+                    write(concat(parts));
+                }
+            } finally {
+                scheduled.set(false);
+                boolean more = evicted.get() ? !completed : !outbox.isEmpty();
+                if (more && scheduled.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private void write(byte[] payload) {
+            startWrite();
+            try {
+                emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(payload, MediaType.TEXT_EVENT_STREAM)));
+                written.increment();
+            } catch (Exception ex) {
+                failed.increment();
+                evicted.set(true);
+                detach();
+                completed = true;
+                emitter.completeWithError(ex);
+            } finally {
+                pendingBytes.addAndGet(-payload.length);
+                endWrite();
+            }
+        }
+    }
+
+    /**
+     * Subscribers and recent frames of one event.
+     */
+    private final class EventChannel {
+        private final Long eventId;
+        private final ArrayDeque<Frame> recent = new ArrayDeque<>();
+        private final Shard[] shards;
+        private int nextShard;
+        private boolean idle;
+        private boolean closed;
+
+        private EventChannel(Long eventId) {
+            this.eventId = eventId;
+            this.shards = new Shard[Math.max(1, shardsPerEvent)];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new Shard();
+            }
+        }
+
+        /**
+         * Returns the remembered frames after a sequence number, or null if some of them are no longer remembered.
+         */
+        private List<Frame> replayAfter(long sequence) {
+            long current = seatSnapshotService.currentSequence(eventId);
+            if (sequence > current) {
+                // Not issued yet; only a client that made its ID up gets here
+                return null;
+            }
+            if (sequence < current && (recent.isEmpty() || recent.peekFirst().sequence > sequence + 1)) {
+                return null;
+            }
+            List<Frame> frames = new ArrayList<>();
+            for (Frame frame : recent) {
+                if (frame.sequence > sequence) {
+                    frames.add(frame);
+                }
+            }
+            return frames;
+        }
+
+        private void remember(Frame frame) {
+            recent.addLast(frame);
+            while (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+        }
+
+        private void add(Subscriber subscriber) {
+            Shard shard = shards[nextShard++ % shards.length];
+            shard.joining.add(subscriber);
+            shard.schedule();
+        }
+
+        private boolean remove(Subscriber subscriber) {
+            for (Shard shard : shards) {
+                if (shard.subscribers.remove(subscriber) || shard.joining.remove(subscriber)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isEmpty() {
+            for (Shard shard : shards) {
+                if (!shard.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void enqueue(Frame frame) {
+            for (Shard shard : shards) {
+                if (!shard.isEmpty()) {
+                    shard.pending.add(frame);
+                    shard.schedule();
+                }
+            }
+        }
+    }
+
+    /**
+     * A slice of an event's subscribers, fanned out to by one task at a time. New subscribers wait in
+     * {@code joining} until the task has queued their initial frames.
+     */
+    private final class Shard {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ConcurrentLinkedQueue<Subscriber> joining = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Frame> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private boolean isEmpty() {
+            return subscribers.isEmpty() && joining.isEmpty();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                // Frames first: a subscriber that joined after they were polled gets them in the next drain
+                List<Frame> frames = new ArrayList<>();
+                for (Frame frame; (frame = pending.poll()) != null; ) {
+                    frames.add(frame);
+                }
+                List<Subscriber> joined = new ArrayList<>();
+                for (Subscriber subscriber; (subscriber = joining.poll()) != null; ) {
+                    joined.add(subscriber);
+                }
+                if (!frames.isEmpty() || !joined.isEmpty()) {
+                    fanout.record(() -> write(frames, joined));
+                }
+            } finally {
+                scheduled.set(false);
+                if ((!pending.isEmpty() || !joining.isEmpty()) && scheduled.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private void write(List<Frame> frames, List<Subscriber> joined) {
+            if (!frames.isEmpty()) {
+                List<byte[]> all = new ArrayList<>(frames.size());
+                for (Frame frame : frames) {
+                    all.add(frame.bytes);
+                }
+                byte[] batch = concat(all);
+                long first = firstSequence(frames);
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.baseline < first) {
+                        subscriber.offer(batch);
+                        continue;
+                    }
+                    // Joined with a snapshot that already holds some of these frames; frames are in sequence
+                    // order, so exactly the ones up to its baseline are left out
+                    byte[] unseen = unseen(frames, subscriber.baseline);
+                    if (unseen.length > 0) {
+                        subscriber.offer(unseen);
+                    }
+                }
+            }
+            for (Subscriber subscriber : joined) {
+                subscribers.add(subscriber);
+                byte[] payload = concat(List.of(subscriber.initial, unseen(frames, subscriber.baseline)));
+                if (payload.length > 0) {
+                    subscriber.offer(payload);
+                }
+            }
+        }
+
+        private byte[] unseen(List<Frame> frames, long baseline) {
+            List<byte[]> unseen = new ArrayList<>();
+            for (Frame frame : frames) {
+                if (frame.isHeartbeat() || frame.sequence > baseline) {
+                    unseen.add(frame.bytes);
+                }
+            }
+            return concat(unseen);
+        }
+
+        private long firstSequence(List<Frame> frames) {
+            long first = Long.MAX_VALUE;
+            for (Frame frame : frames) {
+                if (!frame.isHeartbeat()) {
+                    first = Math.min(first, frame.sequence);
+                }
+            }
+            return first;
+        }
+    }
+}
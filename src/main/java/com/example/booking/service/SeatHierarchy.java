@@ -0,0 +1,174 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatGroupAvailability;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Section and row availability counters of one event, with the label dictionary of its seat keys.
+ * <p>
+ * Seat labels of the form {@code section-row-number} are parsed into a {@link SeatKeys packed key}, interning
+ * section and row labels to indexes on first sight. Other labels, such as the flat numbers of events created
+ * without sections, belong to the unnamed section and row (index 0). Counters are kept per section and per row
+ * key and updated as seats are added and booked, so the availability of a section or row is a map lookup.
+ * </p>
+ */
+final class SeatHierarchy {
+
+    private static final String UNNAMED = "";
+
+    private final Map<String, Integer> sectionIndexes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> rowIndexes = new ConcurrentHashMap<>();
+    private final List<String> sectionLabels = new CopyOnWriteArrayList<>();
+    private final List<String> rowLabels = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Counts> sections = new ConcurrentHashMap<>();
+    private final Map<Integer, Counts> rows = new ConcurrentHashMap<>();
+
+    SeatHierarchy() {
+        intern(UNNAMED, sectionIndexes, sectionLabels, SeatKeys.MAX_SECTIONS);
+        intern(UNNAMED, rowIndexes, rowLabels, SeatKeys.MAX_ROWS);
+    }
+
+    /**
+     * Gets the key of a seat, adding its section and row to the dictionary if needed.
+     * @param seatNumber the seat label
+     * @return the packed key
+     */
+    int keyOf(String seatNumber) {
+        int first = seatNumber.indexOf(SeatKeys.SEPARATOR);
+        int second = first < 0 ? -1 : seatNumber.indexOf(SeatKeys.SEPARATOR, first + 1);
+        if (first > 0 && second > first + 1) {
+            int number = parseNumber(seatNumber, second + 1);
+            if (number >= 0) {
+                int section = intern(seatNumber.substring(0, first), sectionIndexes, sectionLabels, SeatKeys.MAX_SECTIONS);
+                int row = intern(seatNumber.substring(first + 1, second), rowIndexes, rowLabels, SeatKeys.MAX_ROWS);
+                if (section > 0 && row > 0) {
+                    return SeatKeys.pack(section, row, number);
+                }
+            }
+        }
+        return SeatKeys.pack(0, 0, Math.max(parseNumber(seatNumber, 0), 0));
+    }
+
+    /**
+     * Counts a new seat.
+     * @param seatNumber the seat label
+     * @param booked whether it is booked
+     */
+    void add(String seatNumber, boolean booked) {
+        int key = keyOf(seatNumber);
+        sections.computeIfAbsent(SeatKeys.section(key), k -> new Counts()).add(booked);
+        rows.computeIfAbsent(SeatKeys.rowKey(key), k -> new Counts()).add(booked);
+    }
+
+    /**
+     * Counts a known seat being booked or released.
+     * @param seatNumber the seat label
+     * @param booked whether it is now booked
+     */
+    void setBooked(String seatNumber, boolean booked) {
+        int key = keyOf(seatNumber);
+        int delta = booked ? 1 : -1;
+        sections.get(SeatKeys.section(key)).booked.addAndGet(delta);
+        rows.get(SeatKeys.rowKey(key)).booked.addAndGet(delta);
+    }
+
+    /**
+     * Gets the availability of a section.
+     * @param eventId the event ID
+     * @param section the section name
+     * @return the availability, or empty if the section has no seats
+     */
+    Optional<SeatGroupAvailability> section(Long eventId, String section) {
+        Integer index = sectionIndexes.get(section);
+        Counts counts = index == null ? null : sections.get(index);
+        return Optional.ofNullable(counts).map(c -> c.availability(eventId, section, null));
+    }
+
+    /**
+     * Gets the availability of a row.
+     * @param eventId the event ID
+     * @param section the section name
+     * @param row the row label
+     * @return the availability, or empty if the row has no seats
+     */
+    Optional<SeatGroupAvailability> row(Long eventId, String section, String row) {
+        Integer sectionIndex = sectionIndexes.get(section);
+        Integer rowIndex = rowIndexes.get(row);
+        Counts counts = sectionIndex == null || rowIndex == null ? null : rows.get(SeatKeys.pack(sectionIndex, rowIndex, 0));
+        return Optional.ofNullable(counts).map(c -> c.availability(eventId, section, row));
+    }
+
+    /**
+     * Gets the availability of every named section, in the order they were first seen.
+     * @param eventId the event ID
+     * @return availabilities
+     */
+    List<SeatGroupAvailability> sections(Long eventId) {
+        List<SeatGroupAvailability> result = new ArrayList<>();
+        for (int index = 1; index < sectionLabels.size(); index++) {
+            Counts counts = sections.get(index);
+            if (counts != null) {
+                result.add(counts.availability(eventId, sectionLabels.get(index), null));
+            }
+        }
+        return result;
+    }
+
+    private static int intern(String label, Map<String, Integer> indexes, List<String> labels, int capacity) {
+        Integer index = indexes.get(label);
+        if (index != null) {
+            return index;
+        }
+        synchronized (labels) {
+            return indexes.computeIfAbsent(label, l -> {
+                if (labels.size() == capacity) {
+                    // Dictionary full; count the seat in the unnamed section or row
+                    return 0;
+                }
+                labels.add(l);
+                return labels.size() - 1;
+            });
+        }
+    }
+
+    private static int parseNumber(String label, int from) {
+        if (from >= label.length() || label.length() - from > 4) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = from; i < label.length(); i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number <= SeatKeys.MAX_NUMBER ? number : -1;
+    }
+
+    /**
+     * Seat counts of a section or row.
+     */
+    private static final class Counts {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger booked = new AtomicInteger();
+
+        private void add(boolean isBooked) {
+            total.incrementAndGet();
+            if (isBooked) {
+                booked.incrementAndGet();
+            }
+        }
+
+        private SeatGroupAvailability availability(Long eventId, String section, String row) {
+            return new SeatGroupAvailability(eventId, section, row, total.get(), booked.get());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SectionLayout;
+
+/**
+ * Structured seat addressing.
+ * <p>
+ * A seat of a sectioned venue is labelled {@code section-row-number}, such as {@code 112-C-7}, and stored in
+ * {@code seat_number}. In memory, a seat is addressed by a packed integer key: 10 bits of section index, 10 bits
+ * of row index and 12 bits of seat number. The section and row indexes come from a per-event label dictionary
+ * (see {@link SeatHierarchy}). Clearing the number bits gives the key of the seat's row.
+ * </p>
+ */
+public final class SeatKeys {
+
+    public static final char SEPARATOR = '-';
+    public static final int MAX_LABEL_LENGTH = 10;
+
+    static final int ROW_BITS = 10;
+    static final int NUMBER_BITS = 12;
+    static final int MAX_SECTIONS = 1 << 10;
+    static final int MAX_ROWS = 1 << ROW_BITS;
+    static final int MAX_NUMBER = (1 << NUMBER_BITS) - 1;
+    private static final int ROW_MASK = MAX_ROWS - 1;
+
+    private SeatKeys() {
+    }
+
+    /**
+     * Packs a seat address into a key.
+     * @param section section index
+     * @param row row index
+     * @param number seat number
+     * @return the key
+     */
+    public static int pack(int section, int row, int number) {
+        return section << (ROW_BITS + NUMBER_BITS) | row << NUMBER_BITS | number;
+    }
+
+    /**
+     * Gets the section index of a key.
+     * @param key seat key
+     * @return section index
+     */
+    public static int section(int key) {
+        return key >>> (ROW_BITS + NUMBER_BITS);
+    }
+
+    /**
+     * Gets the row index of a key.
+     * @param key seat key
+     * @return row index
+     */
+    public static int row(int key) {
+        return key >>> NUMBER_BITS & ROW_MASK;
+    }
+
+    /**
+     * Gets the seat number of a key.
+     * @param key seat key
+     * @return seat number
+     */
+    public static int number(int key) {
+        return key & MAX_NUMBER;
+    }
+
+    /**
+     * Gets the key of the row a seat is in.
+     * @param key seat key
+     * @return the key with seat number 0
+     */
+    public static int rowKey(int key) {
+        return key & ~MAX_NUMBER;
+    }
+
+    /**
+     * Formats the label of a seat.
+     * @param section section name
+     * @param row row label
+     * @param number seat number
+     * @return the label, such as {@code 112-C-7}
+     */
+    public static String label(String section, String row, int number) {
+        return section + SEPARATOR + row + SEPARATOR + number;
+    }
+
+    /**
+     * Gets the label of a row: A to Z, then AA, AB and so on.
+     * @param index zero-based row index
+     * @return row label
+     */
+    public static String rowLabel(int index) {
+        StringBuilder label = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            label.insert(0, (char) ('A' + i % 26));
+        }
+        return label.toString();
+    }
+
+    /**
+     * Checks that a section's seats can be labelled and addressed.
+     * @param section the section layout
+     * @throws IllegalArgumentException if the name is blank or contains {@value #SEPARATOR}, if there are no
+     *         rows or seats or too many, or if the longest label exceeds {@value #MAX_LABEL_LENGTH} characters
+     */
+    public static void validate(SectionLayout section) {
+        String name = section.getName();
+        if (name == null || name.isBlank() || name.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Section name must not be blank or contain '" + SEPARATOR + "': " + name);
+        }
+        if (section.getRows() < 1 || section.getRows() >= MAX_ROWS) {
+            throw new IllegalArgumentException("Section " + name + " must have between 1 and " + (MAX_ROWS - 1) + " rows");
+        }
+        if (section.getSeatsPerRow() < 1 || section.getSeatsPerRow() > MAX_NUMBER) {
+            throw new IllegalArgumentException("Section " + name + " must have between 1 and " + MAX_NUMBER + " seats per row");
+        }
+        String longest = label(name, rowLabel(section.getRows() - 1), section.getSeatsPerRow());
+        if (longest.length() > MAX_LABEL_LENGTH) {
+            throw new IllegalArgumentException("Seat label " + longest + " is longer than " + MAX_LABEL_LENGTH + " characters");
+        }
+    }
+}
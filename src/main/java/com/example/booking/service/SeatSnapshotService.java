@@ -0,0 +1,366 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sequence numbers and subscribe-time snapshots for the seat update stream of each event.
+ * <p>
+ * Every seat update this node delivers to {@code /topic/seats/{eventId}} goes through {@link #apply}, which
+ * assigns the next sequence number of the event and applies the update to the event's seat view. When a client
+ * subscribes to that destination it is first sent a {@link SeatSnapshot} of the view carrying the current
+ * sequence number; the client applies updates with a greater sequence number on top and resubscribes (or
+ * subscribes to {@code /app/seats/{eventId}/snapshot}) when it detects a gap. Frames carry a
+ * {@value #MESSAGE_TYPE_HEADER} header of {@value #SNAPSHOT}, {@value #DELTA} or {@value #DELTAS}, and deltas
+ * a {@value #SEQUENCE_HEADER} header. A {@value #DELTAS} frame, sent to a session that fell behind, is a JSON
+ * array with the latest state of each seat updated from {@value #FIRST_SEQUENCE_HEADER} to
+ * {@value #SEQUENCE_HEADER}, inclusive.
+ * </p>
+ * <p>
+ * The view is seeded once from the {@link SeatStateCache} and from then on changes only through {@link #apply},
+ * under the same lock that assigns sequence numbers. A snapshot with sequence number N therefore holds exactly
+ * the updates up to N, however far the cache's Kafka consumer lags.
+ * </p>
+ * <p>
+ * Sequence numbers are per node: a client that reconnects to another node starts from that node's snapshot.
+ * Binary subscribers ({@code /topic/seats/{eventId}/bin}) get the same snapshot encoded by
+ * {@link SeatUpdateFrameCodec#encodeSnapshot}; its seat list defines the seat ordinals of the update frames. Seats first seen in an update are appended to the
+ * view, so ordinals never change once assigned.
+ * Serialized snapshots are reused while the event's sequence number is unchanged, so an on-sale's subscribe
+ * storm builds each snapshot once.
+ * </p>
+ */
+@Service
+public class SeatSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatSnapshotService.class);
+
+    public static final String MESSAGE_TYPE_HEADER = "message-type";
+    public static final String SNAPSHOT = "snapshot";
+    public static final String DELTA = "delta";
+    public static final String DELTAS = "deltas";
+    public static final String SEQUENCE_HEADER = "sequence";
+    public static final String FIRST_SEQUENCE_HEADER = "first-sequence";
+
+    private static final Pattern SEAT_TOPIC = Pattern.compile("^/topic/seats/(\\d+)(/bin)?$");
+
+    @Autowired
+    private SeatStateCache seatStateCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("clientOutboundChannel")
+    private MessageChannel clientOutboundChannel;
+
+    private final ConcurrentHashMap<Long, EventStream> streams = new ConcurrentHashMap<>();
+
+    /**
+     * Applies a seat update to the event's seat view and assigns it the next sequence number of the event.
+     * Must be called by the event's single writer, in the order the updates are delivered to clients
+     * (see {@link SeatUpdateFanout}); seeds the view on first use, which may read the database.
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @param booked the seat's booking status
+     * @return the sequence number
+     */
+    public long apply(Long eventId, String seatNumber, boolean booked) {
+        EventStream stream = stream(eventId);
+        synchronized (stream) {
+            if (!stream.isSeeded()) {
+                stream.seed(seatStateCache.getSeatImage(eventId).orElse(null));
+            }
+            stream.set(seatNumber, booked);
+            return ++stream.sequence;
+        }
+    }
+
+    /**
+     * Gets the last sequence number assigned to an event's seat updates.
+     * @param eventId the event ID
+     * @return the sequence number, 0 before the first update
+     */
+    public long currentSequence(Long eventId) {
+        return stream(eventId).sequence;
+    }
+
+    /**
+     * Gets a seat's index in the seat list of the event's snapshots, used by binary seat update frames.
+     * Never loads anything: seats of an event whose view is not seeded yet are unknown.
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @return the seat ordinal, or -1 if the seat is unknown
+     */
+    public int ordinal(Long eventId, String seatNumber) {
+        EventStream stream = stream(eventId);
+        synchronized (stream) {
+            Integer ordinal = stream.ordinals != null ? stream.ordinals.get(seatNumber) : null;
+            return ordinal != null ? ordinal : -1;
+        }
+    }
+
+    /**
+     * Gets a snapshot of an event's seat state.
+     * @param eventId the event ID
+     * @return the snapshot, or empty if the event has no seats
+     */
+    public Optional<SeatSnapshot> getSnapshot(Long eventId) {
+        return cachedSnapshot(eventId).map(cached -> cached.snapshot);
+    }
+
+    /**
+     * Sends a snapshot to a client subscribing to an event's seat updates.
+     * @param event the subscribe event
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        Matcher matcher = destination != null ? SEAT_TOPIC.matcher(destination) : null;
+        if (matcher == null || !matcher.matches()) {
+            return;
+        }
+        Long eventId = Long.valueOf(matcher.group(1));
+        boolean binary = matcher.group(2) != null;
+        try {
+            cachedSnapshot(eventId).ifPresent(cached -> {
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+                accessor.setSessionId(headers.getSessionId());
+                accessor.setSubscriptionId(headers.getSubscriptionId());
+                accessor.setDestination(destination);
+                accessor.setContentType(binary ? MimeTypeUtils.APPLICATION_OCTET_STREAM : MimeTypeUtils.APPLICATION_JSON);
+                accessor.setNativeHeader(MESSAGE_TYPE_HEADER, SNAPSHOT);
+                byte[] payload = binary ? cached.getBinary() : cached.json;
+                clientOutboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+            });
+        } catch (RuntimeException ex) {
+            // The client detects the missing snapshot and resyncs
+            logger.warn("Failed to send seat snapshot of event {} to session {}: {}", eventId, headers.getSessionId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Gets an event's snapshot together with its JSON and gzip encodings, for serving it over HTTP.
+     * The encodings are computed once per snapshot and shared by all requests.
+     * @param eventId the event ID
+     * @return the snapshot, or empty if the event has no seats
+     */
+    public Optional<CachedSnapshot> getSeatMap(Long eventId) {
+        return cachedSnapshot(eventId);
+    }
+
+    /**
+     * Gets an event's snapshot together with its serialized JSON.
+     * @param eventId the event ID
+     * @return the snapshot, or empty if the event has no seats
+     */
+    Optional<CachedSnapshot> cachedSnapshot(Long eventId) {
+        EventStream stream = stream(eventId);
+        CachedSnapshot cached = stream.cached;
+        if (cached != null && cached.snapshot.getSequence() == stream.sequence) {
+            return Optional.of(cached);
+        }
+        SeatSnapshot snapshot;
+        synchronized (stream) {
+            if (!stream.isSeeded()) {
+                Optional<SeatStateSnapshot.EventImage> image = seatStateCache.getSeatImage(eventId);
+                if (image.isEmpty()) {
+                    return Optional.empty();
+                }
+                stream.seed(image.get());
+            }
+            cached = stream.cached;
+            if (cached != null && cached.snapshot.getSequence() == stream.sequence) {
+                return Optional.of(cached);
+            }
+            if (stream.seatCount == 0) {
+                return Optional.empty();
+            }
+            snapshot = stream.snapshot(eventId);
+        }
+        CachedSnapshot built;
+        try {
+            built = new CachedSnapshot(snapshot, objectMapper.writeValueAsBytes(snapshot));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize seat snapshot of event " + eventId, ex);
+        }
+        synchronized (stream) {
+            if (stream.cached == null || stream.cached.snapshot.getSequence() < snapshot.getSequence()) {
+                stream.cached = built;
+            }
+        }
+        return Optional.of(built);
+    }
+
+    private EventStream stream(Long eventId) {
+        return streams.computeIfAbsent(eventId, id -> new EventStream());
+    }
+
+    /**
+     * Sequence number and seat view of one event. The view and the sequence number change together under the
+     * stream's lock; seats are kept in ordinal order.
+     */
+    private static final class EventStream {
+        private volatile long sequence;
+        private volatile CachedSnapshot cached;
+        private String[] seats;
+        private Map<String, Integer> ordinals;
+        private BitSet booked;
+        private int seatCount;
+
+        private boolean isSeeded() {
+            return seats != null;
+        }
+
+        private void seed(SeatStateSnapshot.EventImage image) {
+            int size = image != null ? image.seatNumbers.length : 0;
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> image.seatNumbers[i]));
+            seats = new String[Math.max(16, size)];
+            ordinals = new HashMap<>(Math.max(16, size * 2));
+            booked = new BitSet(size);
+            for (int i = 0; i < size; i++) {
+                seats[i] = image.seatNumbers[order[i]];
+                ordinals.put(seats[i], i);
+                booked.set(i, image.booked.get(order[i]));
+            }
+            seatCount = size;
+        }
+
+        private void set(String seatNumber, boolean isBooked) {
+            Integer ordinal = ordinals.get(seatNumber);
+            if (ordinal == null) {
+                if (seatCount == seats.length) {
+                    seats = Arrays.copyOf(seats, seats.length * 2);
+                }
+                ordinal = seatCount++;
+                seats[ordinal] = seatNumber;
+                ordinals.put(seatNumber, ordinal);
+            }
+            booked.set(ordinal, isBooked);
+        }
+
+        private SeatSnapshot snapshot(Long eventId) {
+            return new SeatSnapshot(eventId, sequence, seatCount, booked.cardinality(),
+                    List.of(Arrays.copyOf(seats, seatCount)), Base64.getEncoder().encodeToString(booked.toByteArray()));
+        }
+    }
+
+    /**
+     * A seat snapshot with its JSON, and its gzip-compressed JSON and binary encoding once they have been asked for.
+     */
+    public static final class CachedSnapshot {
+        final SeatSnapshot snapshot;
+        final byte[] json;
+        private final String eTag;
+        private volatile byte[] gzip;
+        private volatile byte[] binary;
+
+        private CachedSnapshot(SeatSnapshot snapshot, byte[] json) {
+            this.snapshot = snapshot;
+            this.json = json;
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            this.eTag = "W/\"" + snapshot.getEventId() + "-" + Long.toHexString(crc.getValue()) + "\"";
+        }
+
+        /**
+         * Gets the snapshot.
+         * @return snapshot
+         */
+        public SeatSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Gets the snapshot's JSON.
+         * @return JSON bytes
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Gets a weak entity tag of the snapshot's content, the same for the JSON and its gzip encoding.
+         * @return entity tag
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Gets the snapshot's JSON compressed with gzip at the highest level, compressed on first use.
+         * @return gzip bytes
+         */
+        public byte[] getGzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        /**
+         * Gets the snapshot in the binary {@link SeatUpdateFrameCodec} encoding, encoded on first use.
+         * @return binary snapshot bytes
+         */
+        public byte[] getBinary() {
+            byte[] encoded = binary;
+            if (encoded == null) {
+                encoded = SeatUpdateFrameCodec.encodeSnapshot(snapshot);
+                binary = encoded;
+            }
+            return encoded;
+        }
+
+        private static byte[] compress(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzipOut.write(data);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return out.toByteArray();
+        }
+    }
+}
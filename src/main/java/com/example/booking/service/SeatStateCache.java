@@ -0,0 +1,509 @@
+package com.example.booking.service;
+
+import com.example.booking.model.BookingEvent;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.model.SeatGroupAvailability;
+import com.example.booking.repository.SeatRepository;
+import com.example.booking.repository.SeatStateView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Event-sourced, in-memory view of seat booking state, kept coherent across replicas by consuming the
+ * booking topic.
+ * <p>
+ * Every node consumes with its own consumer group (see {@link com.example.booking.config.NodeIdentity}),
+ * so each one sees every booking and cancellation regardless of which replica handled it. On startup the
+ * cache records the topic's end offsets, loads seat state for upcoming events from the database and then
+ * starts consuming from the recorded offsets. Events published while the database was being read are
+ * therefore replayed; applying an event sets a seat's absolute state, so replays are harmless. Events
+ * for other events are loaded from the database on first access.
+ * </p>
+ * The next offset to apply is tracked per partition, so redelivered records after a rebalance are
+ * skipped. Staleness is bounded by consumer lag and is published as the {@value #PROPAGATION_TIMER} timer.
+ * <p>
+ * The state and its offsets are periodically written to a memory-mapped {@link SeatStateSnapshot}. A restarting
+ * node restores the snapshot instead of scanning {@code seats} and replays only the records after the
+ * snapshot's offsets. Snapshots for another topic, older than {@code booking.seat-cache.snapshot.max-age} or
+ * whose offsets have already been removed by retention fall back to the database load.
+ * </p>
+ */
+@Service
+public class SeatStateCache implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatStateCache.class);
+
+    public static final String LISTENER_ID = "seat-state-cache";
+    public static final String PROPAGATION_TIMER = "booking.seat-cache.propagation";
+    public static final String EVENTS_GAUGE = "booking.seat-cache.events";
+    public static final String SNAPSHOT_TIMER = "booking.seat-cache.snapshot.write";
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<ConsumerFactory<String, BookingEvent>> consumerFactory;
+
+    @Autowired
+    private ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry;
+
+    @Value("${booking.kafka.topic}")
+    private String topic;
+
+    @Value("${booking.seat-cache.consumer-enabled:true}")
+    private boolean consumerEnabled;
+
+    @Value("${booking.seat-cache.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${booking.seat-cache.snapshot.path:data/seat-state.snapshot}")
+    private Path snapshotPath;
+
+    @Value("${booking.seat-cache.snapshot.max-age:PT6H}")
+    private Duration snapshotMaxAge;
+
+    private final ConcurrentHashMap<Long, EventSeats> events = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, Long> startOffsets = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private long snapshotChanges = -1;
+    private volatile boolean bootstrapped;
+    private Timer propagationTimer;
+    private Timer snapshotTimer;
+
+    /**
+     * Registers the cache metrics.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        propagationTimer = Timer.builder(PROPAGATION_TIMER)
+                .description("Time from publishing a booking event until this node applied it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        snapshotTimer = Timer.builder(SNAPSHOT_TIMER)
+                .description("Time to write a seat state snapshot")
+                .register(meterRegistry);
+        Gauge.builder(EVENTS_GAUGE, events, Map::size)
+                .description("Events whose seat state is held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores seat state from the snapshot, or loads it from the database, and starts consuming booking events
+     * once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!consumerEnabled) {
+            logger.info("Seat state consumer disabled; availability is read from the database");
+            return;
+        }
+        if (!(snapshotEnabled && restoreSnapshot())) {
+            captureEndOffsets();
+            loadUpcomingEvents();
+        }
+        bootstrapped = true;
+        KafkaListenerEndpointRegistry registry = listenerRegistry.getIfAvailable();
+        MessageListenerContainer container = registry != null ? registry.getListenerContainer(LISTENER_ID) : null;
+        if (container != null) {
+            container.start();
+        }
+    }
+
+    private void loadUpcomingEvents() {
+        long start = System.nanoTime();
+        Map<Long, List<SeatStateView>> byEvent = seatRepository.findSeatStatesForEventsSince(LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(SeatStateView::getEventId));
+        byEvent.forEach((eventId, seats) -> events.computeIfAbsent(eventId, EventSeats::new).load(seats));
+        logger.info("Loaded seat state for {} upcoming events in {} ms", byEvent.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Restores seat state and offsets from the snapshot file if it is usable.
+     * @return true if restored
+     */
+    boolean restoreSnapshot() {
+        long start = System.nanoTime();
+        Optional<SeatStateSnapshot> read;
+        try {
+            read = SeatStateSnapshot.read(snapshotPath);
+        } catch (IOException | IllegalStateException ex) {
+            logger.warn("Ignoring unreadable seat state snapshot {}: {}", snapshotPath, ex.getMessage());
+            return false;
+        }
+        if (read.isEmpty()) {
+            logger.info("No seat state snapshot at {}", snapshotPath);
+            return false;
+        }
+        SeatStateSnapshot snapshot = read.get();
+        Duration age = Duration.ofMillis(System.currentTimeMillis() - snapshot.getCreatedAt());
+        if (!topic.equals(snapshot.getTopic()) || age.compareTo(snapshotMaxAge) > 0 || !offsetsRetained(snapshot.getNextOffsets())) {
+            logger.info("Seat state snapshot {} is not usable (topic '{}', age {}); loading from the database",
+                    snapshotPath, snapshot.getTopic(), age);
+            return false;
+        }
+        for (SeatStateSnapshot.EventImage image : snapshot.getEvents()) {
+            events.computeIfAbsent(image.eventId, EventSeats::new).restore(image);
+        }
+        nextOffsets.putAll(snapshot.getNextOffsets());
+        snapshotChanges = changes.get();
+        logger.info("Restored seat state for {} events from snapshot ({} old) in {} ms; resuming at offsets {}",
+                snapshot.getEvents().size(), age, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), nextOffsets);
+        return true;
+    }
+
+    /**
+     * Writes the current seat state and offsets to the snapshot file if anything changed since the last one.
+     */
+    @Scheduled(fixedDelayString = "${booking.seat-cache.snapshot.interval-ms:30000}",
+            initialDelayString = "${booking.seat-cache.snapshot.interval-ms:30000}")
+    @PreDestroy
+    public synchronized void writeSnapshot() {
+        if (!snapshotEnabled || !consumerEnabled || !bootstrapped) {
+            return;
+        }
+        long version = changes.get();
+        if (version == snapshotChanges) {
+            return;
+        }
+        long start = System.nanoTime();
+        // Offsets are copied before the state, so the state is never older than the offsets it is replayed from.
+        // Partitions nothing was consumed from yet keep the offsets captured when the state was loaded.
+        Map<Integer, Long> offsets = new HashMap<>();
+        startOffsets.forEach((partition, offset) -> offsets.put(partition.partition(), offset));
+        offsets.putAll(nextOffsets);
+        List<SeatStateSnapshot.EventImage> images = events.values().stream()
+                .filter(EventSeats::isLoaded)
+                .map(EventSeats::image)
+                .toList();
+        try {
+            long bytes = new SeatStateSnapshot(System.currentTimeMillis(), topic, offsets, images).write(snapshotPath);
+            snapshotChanges = version;
+            snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.debug("Wrote seat state snapshot of {} events ({} bytes) to {}", images.size(), bytes, snapshotPath);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Failed to write seat state snapshot to {}: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies a consumed booking event.
+     * @param record the booking event record
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "${booking.kafka.topic}", groupId = "booking-seat-cache-#{@nodeIdentity.nodeId}",
+            autoStartup = "false", properties = "auto.offset.reset=latest")
+    public void onBookingEvent(ConsumerRecord<String, BookingEvent> record) {
+        if (record.value() == null) {
+            return;
+        }
+        apply(record.partition(), record.offset(), record.timestamp(), record.value());
+    }
+
+    /**
+     * Resumes each assigned partition after its last applied record, or at the offset captured when the state
+     * was loaded. A partition with neither, such as one missing from the snapshot or added later, is replayed
+     * from the beginning rather than skipped to the end.
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            Long next = nextOffsets.getOrDefault(partition.partition(), startOffsets.get(partition));
+            if (next != null) {
+                logger.debug("Seat state consumer resuming {} at offset {}", partition, next);
+                callback.seek(partition.topic(), partition.partition(), next);
+            } else {
+                logger.info("No offset known for {}; seat state consumer replays it from the beginning", partition);
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        }
+    }
+
+    /**
+     * Applies a booking event unless its offset was already applied.
+     * @param partition the record partition
+     * @param offset the record offset
+     * @param timestamp the record timestamp in epoch milliseconds
+     * @param event the booking event
+     * @return true if applied, false if it was a duplicate
+     */
+    boolean apply(int partition, long offset, long timestamp, BookingEvent event) {
+        Long next = nextOffsets.get(partition);
+        if (next != null && offset < next) {
+            logger.debug("Skipping already applied offset {} on partition {}", offset, partition);
+            return false;
+        }
+        eventSeats(event.getEventId()).set(event.getSeatNumber(), event.getType() == BookingEvent.Type.BOOKED, timestamp);
+        nextOffsets.put(partition, offset + 1);
+        changes.incrementAndGet();
+        propagationTimer.record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * Gets the seat availability of an event.
+     * @param eventId the event ID
+     * @return the availability, or empty if the event has no seats
+     */
+    public Optional<SeatAvailability> getAvailability(Long eventId) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        if (seats.size() == 0) {
+            events.remove(eventId, seats);
+            return Optional.empty();
+        }
+        return Optional.of(seats.availability());
+    }
+
+    /**
+     * Checks whether a seat is booked.
+     * @param eventId the event ID
+     * @param seatNumber the seat number
+     * @return the booking status, or empty if the seat is unknown
+     */
+    public Optional<Boolean> isBooked(Long eventId, String seatNumber) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        return Optional.ofNullable(seats.seats.get(seatNumber));
+    }
+
+    /**
+     * Gets the seat availability of every section of an event.
+     * @param eventId the event ID
+     * @return availabilities in the order sections were created; empty if the event has no sections
+     */
+    public List<SeatGroupAvailability> getSectionAvailability(Long eventId) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        return seats.hierarchy.sections(eventId);
+    }
+
+    /**
+     * Gets the seat availability of one section of an event.
+     * @param eventId the event ID
+     * @param section the section name
+     * @return the availability, or empty if the section has no seats
+     */
+    public Optional<SeatGroupAvailability> getSectionAvailability(Long eventId, String section) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        return seats.hierarchy.section(eventId, section);
+    }
+
+    /**
+     * Gets the seat availability of one row of an event.
+     * @param eventId the event ID
+     * @param section the section name
+     * @param row the row label
+     * @return the availability, or empty if the row has no seats
+     */
+    public Optional<SeatGroupAvailability> getRowAvailability(Long eventId, String section, String row) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        return seats.hierarchy.row(eventId, section, row);
+    }
+
+    /**
+     * Gets an image of an event's seat states.
+     * @param eventId the event ID
+     * @return the image, or empty if the event has no seats
+     */
+    Optional<SeatStateSnapshot.EventImage> getSeatImage(Long eventId) {
+        EventSeats seats = consumerEnabled ? eventSeats(eventId) : loadedFromDatabase(eventId);
+        if (seats.size() == 0) {
+            events.remove(eventId, seats);
+            return Optional.empty();
+        }
+        return Optional.of(seats.image());
+    }
+
+    private EventSeats eventSeats(Long eventId) {
+        EventSeats seats = events.computeIfAbsent(eventId, EventSeats::new);
+        if (seats.ensureLoaded(seatRepository)) {
+            changes.incrementAndGet();
+        }
+        return seats;
+    }
+
+    private EventSeats loadedFromDatabase(Long eventId) {
+        EventSeats seats = new EventSeats(eventId);
+        seats.ensureLoaded(seatRepository);
+        return seats;
+    }
+
+    private void captureEndOffsets() {
+        Map<TopicPartition, Long> endOffsets = withBootstrapConsumer(consumer -> consumer.endOffsets(partitions(consumer), Duration.ofSeconds(10)));
+        if (endOffsets != null) {
+            startOffsets.putAll(endOffsets);
+            logger.info("Seat state consumer will start from offsets {}", startOffsets);
+        }
+    }
+
+    private boolean offsetsRetained(Map<Integer, Long> savedOffsets) {
+        Map<TopicPartition, Long> beginning = withBootstrapConsumer(consumer -> consumer.beginningOffsets(partitions(consumer), Duration.ofSeconds(10)));
+        if (beginning == null) {
+            return true;
+        }
+        for (Map.Entry<TopicPartition, Long> entry : beginning.entrySet()) {
+            Long saved = savedOffsets.get(entry.getKey().partition());
+            // A partition missing from the snapshot is replayed from the beginning, so its log must be complete
+            if (saved == null ? entry.getValue() > 0 : saved < entry.getValue()) {
+                logger.info("Snapshot offset {} of {} is no longer retained (log starts at {})", saved, entry.getKey(), entry.getValue());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, BookingEvent> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : consumer.partitionsFor(topic, Duration.ofSeconds(10))) {
+            partitions.add(new TopicPartition(topic, info.partition()));
+        }
+        return partitions;
+    }
+
+    private <T> T withBootstrapConsumer(Function<Consumer<String, BookingEvent>, T> action) {
+        ConsumerFactory<String, BookingEvent> factory = consumerFactory.getIfAvailable();
+        if (factory == null) {
+            return null;
+        }
+        try (Consumer<String, BookingEvent> consumer = factory.createConsumer("seat-state-bootstrap", "")) {
+            return action.apply(consumer);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not read offsets of topic '{}': {}", topic, ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Seat state of one event, with section and row counters. Loaded lazily; updates after loading are applied
+     * in place.
+     */
+    static final class EventSeats {
+        private final Long eventId;
+        private final ConcurrentHashMap<String, Boolean> seats = new ConcurrentHashMap<>();
+        private final AtomicInteger booked = new AtomicInteger();
+        private final SeatHierarchy hierarchy = new SeatHierarchy();
+        private volatile boolean loaded;
+        private volatile long lastUpdate;
+
+        EventSeats(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        boolean ensureLoaded(SeatRepository seatRepository) {
+            if (!loaded) {
+                synchronized (this) {
+                    if (!loaded) {
+                        load(seatRepository.findSeatStatesByEventId(eventId));
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized void restore(SeatStateSnapshot.EventImage image) {
+            for (int i = 0; i < image.seatNumbers.length; i++) {
+                boolean isBooked = image.booked.get(i);
+                if (seats.putIfAbsent(image.seatNumbers[i], isBooked) == null) {
+                    added(image.seatNumbers[i], isBooked);
+                }
+            }
+            lastUpdate = Math.max(lastUpdate, image.lastUpdate);
+            loaded = true;
+        }
+
+        SeatStateSnapshot.EventImage image() {
+            List<Map.Entry<String, Boolean>> entries = new ArrayList<>(seats.entrySet());
+            String[] seatNumbers = new String[entries.size()];
+            BitSet flags = new BitSet(entries.size());
+            for (int i = 0; i < seatNumbers.length; i++) {
+                seatNumbers[i] = entries.get(i).getKey();
+                flags.set(i, entries.get(i).getValue());
+            }
+            return new SeatStateSnapshot.EventImage(eventId, lastUpdate, seatNumbers, flags);
+        }
+
+        synchronized void load(List<SeatStateView> views) {
+            for (SeatStateView view : views) {
+                boolean isBooked = Boolean.TRUE.equals(view.getBooked());
+                if (seats.putIfAbsent(view.getSeatNumber(), isBooked) == null) {
+                    added(view.getSeatNumber(), isBooked);
+                }
+            }
+            loaded = true;
+        }
+
+        void set(String seatNumber, boolean isBooked, long timestamp) {
+            Boolean previous = seats.put(seatNumber, isBooked);
+            if (previous == null) {
+                added(seatNumber, isBooked);
+            } else if (previous != isBooked) {
+                if (isBooked) {
+                    booked.incrementAndGet();
+                } else {
+                    booked.decrementAndGet();
+                }
+                hierarchy.setBooked(seatNumber, isBooked);
+            }
+            lastUpdate = Math.max(lastUpdate, timestamp);
+        }
+
+        private void added(String seatNumber, boolean isBooked) {
+            if (isBooked) {
+                booked.incrementAndGet();
+            }
+            hierarchy.add(seatNumber, isBooked);
+        }
+
+        int size() {
+            return seats.size();
+        }
+
+        SeatAvailability availability() {
+            long updated = lastUpdate;
+            return new SeatAvailability(eventId, seats.size(), booked.get(), updated > 0 ? Instant.ofEpochMilli(updated) : null);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.booking.service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped snapshot file of {@link SeatStateCache} contents.
+ * <p>
+ * Layout (big-endian, schema version 1):
+ * <pre>
+ *   int     magic "SEAT"
+ *   short   schema version
+ *   long    created at (epoch millis)
+ *   short   topic length, topic UTF-8 bytes
+ *   int     partition count, then per partition: int partition, long next offset to apply
+ *   int     event count, then per event:
+ *             long  event ID
+ *             long  last update (epoch millis, 0 if none)
+ *             int   seat count, then per seat: byte length, seat number UTF-8 bytes
+ *             bytes booked flags, one bit per seat in seat order
+ *   int     CRC32C of all preceding bytes
+ * </pre>
+ * Files are written to a temporary sibling and atomically moved into place, so a crash mid-write leaves the
+ * previous snapshot intact.
+ * </p>
+ */
+final class SeatStateSnapshot {
+
+    static final int MAGIC = 0x53454154;
+    static final short SCHEMA_VERSION = 1;
+
+    private final long createdAt;
+    private final String topic;
+    private final Map<Integer, Long> nextOffsets;
+    private final List<EventImage> events;
+
+    SeatStateSnapshot(long createdAt, String topic, Map<Integer, Long> nextOffsets, List<EventImage> events) {
+        this.createdAt = createdAt;
+        this.topic = topic;
+        this.nextOffsets = nextOffsets;
+        this.events = events;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    Map<Integer, Long> getNextOffsets() {
+        return nextOffsets;
+    }
+
+    List<EventImage> getEvents() {
+        return events;
+    }
+
+    /**
+     * Point-in-time copy of one event's seats.
+     */
+    static final class EventImage {
+        final long eventId;
+        final long lastUpdate;
+        final String[] seatNumbers;
+        final BitSet booked;
+
+        EventImage(long eventId, long lastUpdate, String[] seatNumbers, BitSet booked) {
+            this.eventId = eventId;
+            this.lastUpdate = lastUpdate;
+            this.seatNumbers = seatNumbers;
+            this.booked = booked;
+        }
+    }
+
+    /**
+     * Writes the snapshot to the given path.
+     * @param path the snapshot file
+     * @return the number of bytes written
+     * @throws IOException if the file cannot be written
+     */
+    long write(Path path) throws IOException {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        List<byte[][]> encodedSeats = new ArrayList<>(events.size());
+        long size = 4 + 2 + 8 + 2 + topicBytes.length + 4 + (long) nextOffsets.size() * 12 + 4;
+        for (EventImage event : events) {
+            byte[][] names = new byte[event.seatNumbers.length][];
+            size += 8 + 8 + 4 + (names.length + 7) / 8;
+            for (int i = 0; i < names.length; i++) {
+                names[i] = event.seatNumbers[i].getBytes(StandardCharsets.UTF_8);
+                if (names[i].length > 255) {
+                    throw new IllegalArgumentException("Seat number too long: " + event.seatNumbers[i]);
+                }
+                size += 1 + names[i].length;
+            }
+            encodedSeats.add(names);
+        }
+        size += 4;
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(MAGIC).putShort(SCHEMA_VERSION).putLong(createdAt);
+                buffer.putShort((short) topicBytes.length).put(topicBytes);
+                buffer.putInt(nextOffsets.size());
+                nextOffsets.forEach((partition, offset) -> buffer.putInt(partition).putLong(offset));
+                buffer.putInt(events.size());
+                for (int e = 0; e < events.size(); e++) {
+                    EventImage event = events.get(e);
+                    byte[][] names = encodedSeats.get(e);
+                    buffer.putLong(event.eventId).putLong(event.lastUpdate).putInt(names.length);
+                    for (byte[] name : names) {
+                        buffer.put((byte) name.length).put(name);
+                    }
+                    byte[] flags = Arrays.copyOf(event.booked.toByteArray(), (names.length + 7) / 8);
+                    buffer.put(flags);
+                }
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.duplicate().flip());
+                buffer.putInt((int) crc.getValue());
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return size;
+    }
+
+    /**
+     * Reads a snapshot by mapping the given file.
+     * @param path the snapshot file
+     * @return the snapshot, or empty if the file does not exist
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is corrupt or from an unsupported schema version
+     */
+    static Optional<SeatStateSnapshot> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4 + 2 + 8 + 4 || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Invalid seat state snapshot size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate().limit((int) size - 4));
+            if ((int) crc.getValue() != buffer.getInt((int) size - 4)) {
+                throw new IllegalStateException("Seat state snapshot checksum mismatch");
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a seat state snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != SCHEMA_VERSION) {
+                throw new IllegalStateException("Unsupported seat state snapshot version: " + version);
+            }
+            long createdAt = buffer.getLong();
+            String topic = readString(buffer, buffer.getShort() & 0xFFFF);
+            int partitions = buffer.getInt();
+            Map<Integer, Long> nextOffsets = new HashMap<>();
+            for (int i = 0; i < partitions; i++) {
+                nextOffsets.put(buffer.getInt(), buffer.getLong());
+            }
+            int eventCount = buffer.getInt();
+            List<EventImage> events = new ArrayList<>(eventCount);
+            for (int e = 0; e < eventCount; e++) {
+                long eventId = buffer.getLong();
+                long lastUpdate = buffer.getLong();
+                String[] seatNumbers = new String[buffer.getInt()];
+                for (int i = 0; i < seatNumbers.length; i++) {
+                    seatNumbers[i] = readString(buffer, buffer.get() & 0xFF);
+                }
+                byte[] flags = new byte[(seatNumbers.length + 7) / 8];
+                buffer.get(flags);
+                events.add(new EventImage(eventId, lastUpdate, seatNumbers, BitSet.valueOf(flags)));
+            }
+            return Optional.of(new SeatStateSnapshot(createdAt, topic, nextOffsets, events));
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalStateException("Truncated seat state snapshot", ex);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
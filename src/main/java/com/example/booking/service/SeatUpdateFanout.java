@@ -0,0 +1,280 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.config.OutboundBackpressureInterceptor;
+import com.example.booking.kafka.SeatUpdateEnvelope;
+import com.example.booking.kafka.SeatUpdateEnvelopeSerializer;
+import com.example.booking.model.SeatStatusUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans seat status updates out to the WebSocket clients of every node.
+ * <p>
+ * The STOMP simple broker is node-local, so an update is published to the shared {@code booking.fanout.topic},
+ * keyed by event ID so updates of one event stay in one partition. Every node consumes that topic with its own
+ * consumer group and delivers every update, its own included, to its local broker in partition order, so all
+ * nodes send the updates of an event in the same order. When the fan-out is disabled or a send fails, the update
+ * is delivered to this node's clients directly. Records redelivered after a rebalance are skipped by their
+ * offset, tracked per partition; the envelope's origin node and per-node sequence number are only
+ * informational, since concurrent publishers may send them out of order.
+ * </p>
+ * <p>
+ * Local delivery goes through one queue per event, drained by one task at a time on the
+ * {@code booking.fanout.broadcast-threads} pool. The drain assigns each update its sequence number in
+ * {@link SeatSnapshotService#apply} and hands it to STOMP, binary and SSE subscribers before taking the next, so
+ * every stream of an event sees ascending sequence numbers. Callers, including the booking transaction, never
+ * wait for the delivery.
+ * </p>
+ */
+@Service
+public class SeatUpdateFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatUpdateFanout.class);
+
+    public static final String LISTENER_ID = "seat-update-fanout";
+    public static final String MESSAGES_COUNTER = "booking.fanout.messages";
+    public static final String LATENCY_TIMER = "booking.fanout.latency";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private NodeIdentity nodeIdentity;
+
+    @Autowired
+    private SeatSnapshotService seatSnapshotService;
+
+    @Autowired
+    private BinarySeatUpdateBatcher binarySeatUpdateBatcher;
+
+    @Autowired
+    private SeatEventStreamBroadcaster seatEventStreamBroadcaster;
+
+    @Autowired
+    private ObjectProvider<ProducerFactory<?, ?>> producerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.fanout.topic}")
+    private String topic;
+
+    @Value("${booking.fanout.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.fanout.broadcast-threads:4}")
+    private int broadcastThreads;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, BroadcastQueue> queues = new ConcurrentHashMap<>();
+    private Executor broadcaster;
+    private KafkaTemplate<String, SeatUpdateEnvelope> kafkaTemplate;
+    private Counter published;
+    private Counter publishFailed;
+    private Counter rebroadcast;
+    private Counter duplicates;
+    private Counter own;
+    private Timer latency;
+
+    /**
+     * Starts the broadcast pool, creates the fan-out producer and registers metrics.
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        broadcaster = Executors.newFixedThreadPool(Math.max(1, broadcastThreads), task -> {
+            Thread thread = new Thread(task, "seat-broadcast-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        published = counter("published");
+        publishFailed = counter("publish_failed");
+        rebroadcast = counter("rebroadcast");
+        duplicates = counter("duplicate");
+        own = counter("own");
+        latency = Timer.builder(LATENCY_TIMER)
+                .description("Time from publishing a seat update on one node until another node rebroadcast it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        ProducerFactory<?, ?> factory = producerFactory.getIfAvailable();
+        if (enabled && factory != null) {
+            kafkaTemplate = new KafkaTemplate<>((ProducerFactory<String, SeatUpdateEnvelope>) factory,
+                    Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, SeatUpdateEnvelopeSerializer.class));
+            logger.info("Seat update fan-out enabled on topic '{}' for node {}", topic, nodeIdentity.getNodeId());
+        } else {
+            logger.info("Seat update fan-out disabled; updates reach this node's clients only");
+        }
+    }
+
+    /**
+     * Stops the broadcast pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (broadcaster instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Publishes a seat update to every node, this one included, or delivers it to this node's clients only when
+     * the fan-out is disabled or the send fails.
+     * @param eventId the event ID
+     * @param update the seat status update
+     */
+    public void publish(Long eventId, SeatStatusUpdate update) {
+        if (kafkaTemplate == null) {
+            broadcast(eventId, update);
+            return;
+        }
+        SeatUpdateEnvelope envelope = new SeatUpdateEnvelope(nodeIdentity.getNodeId(), sequence.incrementAndGet(),
+                eventId, update.getSeatNumber(), update.isBooked());
+        try {
+            kafkaTemplate.send(topic, String.valueOf(eventId), envelope).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    published.increment();
+                } else {
+                    publishFailed.increment();
+                    logger.warn("Failed to fan out seat update {}: {}", envelope, ex.getMessage());
+                    broadcast(eventId, update);
+                }
+            });
+        } catch (RuntimeException ex) {
+            publishFailed.increment();
+            logger.warn("Failed to fan out seat update {}: {}", envelope, ex.getMessage());
+            broadcast(eventId, update);
+        }
+    }
+
+    /**
+     * Delivers a seat update received from the fan-out topic.
+     * @param record the seat update record
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "${booking.fanout.topic}", groupId = "booking-seat-fanout-#{@nodeIdentity.nodeId}",
+            autoStartup = "${booking.fanout.enabled:true}",
+            properties = {"auto.offset.reset=latest",
+                    "value.deserializer=com.example.booking.kafka.SeatUpdateEnvelopeDeserializer"})
+    public void onSeatUpdate(ConsumerRecord<String, SeatUpdateEnvelope> record) {
+        if (record.value() != null) {
+            receive(record.partition(), record.offset(), record.timestamp(), record.value());
+        }
+    }
+
+    /**
+     * Delivers an update from any node, this one included, unless its offset was already handled.
+     * @param partition the record partition
+     * @param offset the record offset
+     * @param timestamp the record timestamp in epoch milliseconds
+     * @param envelope the seat update
+     * @return true if delivered
+     */
+    boolean receive(int partition, long offset, long timestamp, SeatUpdateEnvelope envelope) {
+        Long next = nextOffsets.get(partition);
+        if (next != null && offset < next) {
+            duplicates.increment();
+            logger.debug("Skipping already handled offset {} on partition {}: {}", offset, partition, envelope);
+            return false;
+        }
+        nextOffsets.put(partition, offset + 1);
+        broadcast(envelope.getEventId(), new SeatStatusUpdate(envelope.getSeatNumber(), envelope.isBooked()));
+        if (nodeIdentity.getNodeId().equals(envelope.getOriginNode())) {
+            own.increment();
+        } else {
+            rebroadcast.increment();
+            latency.record(Math.max(0, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    private void broadcast(long eventId, SeatStatusUpdate update) {
+        queues.computeIfAbsent(eventId, BroadcastQueue::new).add(update);
+    }
+
+    private void deliver(long eventId, SeatStatusUpdate update) {
+        try {
+            update.setSequence(seatSnapshotService.apply(eventId, update.getSeatNumber(), update.isBooked()));
+            // Keyed by seat so that a lagging session gets the latest state of each seat in one coalesced delta
+            messagingTemplate.convertAndSend("/topic/seats/" + eventId, update,
+                    Map.of(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER, update.getSeatNumber(),
+                            SeatSnapshotService.MESSAGE_TYPE_HEADER, SeatSnapshotService.DELTA,
+                            SeatSnapshotService.SEQUENCE_HEADER, Long.toString(update.getSequence())));
+            binarySeatUpdateBatcher.offer(eventId, update.getSeatNumber(), update.isBooked(), update.getSequence());
+            seatEventStreamBroadcaster.publish(eventId, update);
+        } catch (RuntimeException ex) {
+            // Clients see the sequence gap and resync
+            logger.warn("Failed to broadcast seat update {} of event {}: {}", update.getSeatNumber(), eventId, ex.getMessage());
+        }
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder(MESSAGES_COUNTER)
+                .description("Seat updates handled by the cross-node fan-out")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seat updates of one event waiting for local delivery, drained by one task at a time.
+     */
+    private final class BroadcastQueue {
+        private final long eventId;
+        private final ConcurrentLinkedQueue<SeatStatusUpdate> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private BroadcastQueue(long eventId) {
+            this.eventId = eventId;
+        }
+
+        private void add(SeatStatusUpdate update) {
+            pending.add(update);
+            if (scheduled.compareAndSet(false, true)) {
+                broadcaster.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (SeatStatusUpdate update; (update = pending.poll()) != null; ) {
+                    deliver(eventId, update);
+                }
+            } finally {
+                scheduled.set(false);
+                if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    broadcaster.execute(this::drain);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatSnapshot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Binary encodings of the {@code /topic/seats/{eventId}/bin} stream: a seat snapshot sent on subscribe, then
+ * batches of seat updates. The first byte tells them apart.
+ * <p>
+ * <b>Update batch, version 1</b>:
+ * <pre>
+ *   byte    version (1)
+ *   varint  entry count
+ *   varint  sequence number of the first entry
+ *   per entry:
+ *     varint  sequence number minus the previous entry's (0 for the first entry)
+ *     varint  seat ordinal &lt;&lt; 1 | booked
+ * </pre>
+ * Varints are unsigned LEB128. The seat ordinal is the seat's index in the event's {@code SeatSnapshot}
+ * seat list. Entries are in sequence order, so a typical update takes two or three bytes.
+ * </p>
+ * <p>
+ * <b>Snapshot, version 1</b>:
+ * <pre>
+ *   byte    {@link #SNAPSHOT_VERSION} (0x81, version 1 with the high bit set)
+ *   varint  event ID
+ *   varint  sequence number
+ *   varint  seat count
+ *   per seat, in ordinal order:
+ *     varint  seat number length, followed by that many UTF-8 bytes
+ *   ceil(seat count / 8) bytes: the booked flag of seat ordinal i is bit i % 8 of byte i / 8
+ * </pre>
+ * The same content as the JSON {@link SeatSnapshot}, so binary clients need only this codec.
+ * </p>
+ */
+public final class SeatUpdateFrameCodec {
+
+    public static final byte VERSION = 1;
+    public static final byte SNAPSHOT_VERSION = (byte) 0x81;
+
+    private SeatUpdateFrameCodec() {
+    }
+
+    /**
+     * One seat update of a batch.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final int ordinal;
+        private final boolean booked;
+
+        /**
+         * Constructs an Entry.
+         * @param sequence the event's update sequence number
+         * @param ordinal the seat ordinal
+         * @param booked the seat's booking status
+         */
+        public Entry(long sequence, int ordinal, boolean booked) {
+            this.sequence = sequence;
+            this.ordinal = ordinal;
+            this.booked = booked;
+        }
+
+        /**
+         * Gets the sequence number.
+         * @return sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Gets the seat ordinal.
+         * @return seat ordinal
+         */
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        /**
+         * Gets the booking status.
+         * @return true if booked
+         */
+        public boolean isBooked() {
+            return booked;
+        }
+    }
+
+    /**
+     * Encodes a batch of updates.
+     * @param entries the updates, in ascending sequence order
+     * @return the encoded frame payload
+     */
+    public static byte[] encode(List<Entry> entries) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 10 + 10 + entries.size() * 15);
+        buffer.put(VERSION);
+        putVarint(buffer, entries.size());
+        long previous = entries.isEmpty() ? 0 : entries.get(0).sequence;
+        putVarint(buffer, previous);
+        for (Entry entry : entries) {
+            putVarint(buffer, entry.sequence - previous);
+            putVarint(buffer, ((long) entry.ordinal << 1) | (entry.booked ? 1 : 0));
+            previous = entry.sequence;
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Decodes a batch of updates.
+     * @param payload the frame payload
+     * @return the updates
+     * @throws IllegalArgumentException if the payload is malformed or of an unsupported version
+     */
+    public static List<Entry> decode(byte[] payload) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported seat update frame version: " + version);
+            }
+            int count = (int) getVarint(buffer);
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid seat update count: " + count);
+            }
+            long sequence = getVarint(buffer);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sequence += getVarint(buffer);
+                long seat = getVarint(buffer);
+                entries.add(new Entry(sequence, (int) (seat >>> 1), (seat & 1) != 0));
+            }
+            return entries;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated seat update frame", ex);
+        }
+    }
+
+    /**
+     * Checks whether a payload is a snapshot rather than a batch of updates.
+     * @param payload the frame payload
+     * @return true if the payload is a snapshot
+     */
+    public static boolean isSnapshot(byte[] payload) {
+        return payload.length > 0 && payload[0] == SNAPSHOT_VERSION;
+    }
+
+    /**
+     * Encodes a seat snapshot.
+     * @param snapshot the snapshot
+     * @return the encoded frame payload
+     */
+    public static byte[] encodeSnapshot(SeatSnapshot snapshot) {
+        List<String> seats = snapshot.getSeats();
+        byte[][] names = new byte[seats.size()][];
+        int size = 1 + 3 * 10 + (seats.size() + 7) / 8;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = seats.get(i).getBytes(StandardCharsets.UTF_8);
+            size += 5 + names[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(SNAPSHOT_VERSION);
+        putVarint(buffer, snapshot.getEventId());
+        putVarint(buffer, snapshot.getSequence());
+        putVarint(buffer, names.length);
+        for (byte[] name : names) {
+            putVarint(buffer, name.length);
+            buffer.put(name);
+        }
+        byte[] booked = Base64.getDecoder().decode(snapshot.getBooked());
+        buffer.put(Arrays.copyOf(booked, (names.length + 7) / 8));
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Decodes a seat snapshot.
+     * @param payload the frame payload
+     * @return the snapshot
+     * @throws IllegalArgumentException if the payload is malformed or not a snapshot
+     */
+    public static SeatSnapshot decodeSnapshot(byte[] payload) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("Not a seat snapshot frame: " + version);
+            }
+            long eventId = getVarint(buffer);
+            long sequence = getVarint(buffer);
+            int count = (int) getVarint(buffer);
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid seat count: " + count);
+            }
+            List<String> seats = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = (int) getVarint(buffer);
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Invalid seat number length: " + length);
+                }
+                seats.add(new String(payload, buffer.position(), length, StandardCharsets.UTF_8));
+                buffer.position(buffer.position() + length);
+            }
+            byte[] bits = new byte[(count + 7) / 8];
+            buffer.get(bits);
+            BitSet booked = BitSet.valueOf(bits);
+            return new SeatSnapshot(eventId, sequence, count, booked.cardinality(), seats,
+                    Base64.getEncoder().encodeToString(booked.toByteArray()));
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated seat snapshot frame", ex);
+        }
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.booking.service;
+
+import com.example.booking.model.AccessToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies short-lived HMAC-SHA256 signed access tokens.
+ * <p>
+ * A token is {@code base64url(payload).base64url(signature)} with payload
+ * {@code <expiry epoch seconds>:<comma-separated authorities>:<username>}. Verifying one needs only the shared
+ * secret ({@code booking.auth.token.secret}), no user lookup or password check, so every node can verify tokens
+ * issued by any other node configured with the same secret. When the secret is unset, tokens are signed with a
+ * random per-process key and only accepted by the node that issued them; in cluster mode, where nodes forward
+ * requests to each other with {@link #issueNodeToken node tokens}, startup fails instead.
+ * </p>
+ * <p>
+ * Verified tokens are cached with their principal, up to {@code booking.auth.token.cache-size} entries (0 turns
+ * the cache off), so repeated requests with the same token skip the HMAC as well. A full cache drops its least
+ * recently used token. Cached tokens are still checked for expiry.
+ * </p>
+ */
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    public static final String VERIFICATIONS_COUNTER = "booking.auth.token.verifications";
+    public static final String CLUSTER_AUTHORITY = "ROLE_CLUSTER_NODE";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.auth.token.secret:}")
+    private String secret;
+
+    @Value("${booking.auth.token.ttl:PT15M}")
+    private Duration ttl;
+
+    @Value("${booking.auth.token.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${booking.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    private Clock clock = Clock.systemUTC();
+    private Map<String, Verified> verified = Map.of();
+    private ThreadLocal<Mac> mac;
+    private Counter cacheHits;
+    private Counter verifiedTokens;
+    private Counter rejectedTokens;
+
+    /**
+     * Sets up the signing key and registers metrics.
+     * @throws IllegalStateException if no secret is configured in cluster mode
+     */
+    @PostConstruct
+    public void init() {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            if (clusterEnabled) {
+                throw new IllegalStateException("booking.auth.token.secret must be set to a Base64 key shared by all nodes in cluster mode");
+            }
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            logger.warn("booking.auth.token.secret is not set; tokens are signed with a random key and only valid on this node");
+        } else {
+            key = Base64.getDecoder().decode(secret);
+        }
+        if (cacheSize > 0) {
+            verified = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(keySpec);
+                return instance;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("HMAC signing unavailable", ex);
+            }
+        });
+        cacheHits = Counter.builder(VERIFICATIONS_COUNTER).tag("result", "cached")
+                .description("Access token verifications").register(meterRegistry);
+        verifiedTokens = Counter.builder(VERIFICATIONS_COUNTER).tag("result", "verified")
+                .description("Access token verifications").register(meterRegistry);
+        rejectedTokens = Counter.builder(VERIFICATIONS_COUNTER).tag("result", "rejected")
+                .description("Access token verifications").register(meterRegistry);
+    }
+
+    /**
+     * Issues a token for an authenticated user.
+     * @param authentication the authentication, typically from HTTP Basic
+     * @return the signed token
+     */
+    public AccessToken issue(Authentication authentication) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        byte[] payload = (expiresAt + ":" + authorities + ":" + authentication.getName()).getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        logger.debug("Issued access token for {} expiring at {}", authentication.getName(), expiresAt);
+        return new AccessToken(token, ttl.toSeconds());
+    }
+
+    /**
+     * Issues a token that authenticates a node to the other cluster members. Its only authority is
+     * {@link #CLUSTER_AUTHORITY}, which users are never granted, so only holders of the shared secret can call
+     * the {@code /internal} endpoints.
+     * @param nodeId the node ID, the token's principal
+     * @return the signed token
+     */
+    public AccessToken issueNodeToken(String nodeId) {
+        return issue(UsernamePasswordAuthenticationToken.authenticated(nodeId, null,
+                AuthorityUtils.createAuthorityList(CLUSTER_AUTHORITY)));
+    }
+
+    /**
+     * Verifies a token.
+     * @param token the token
+     * @return the authenticated principal, or empty if the token is malformed, forged or expired
+     */
+    public Optional<Authentication> verify(String token) {
+        long now = clock.instant().getEpochSecond();
+        Verified cached = verified.get(token);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                cacheHits.increment();
+                return Optional.of(cached.authentication);
+            }
+            verified.remove(token);
+            rejectedTokens.increment();
+            return Optional.empty();
+        }
+        Verified result = parse(token);
+        if (result == null || result.expiresAt <= now) {
+            rejectedTokens.increment();
+            return Optional.empty();
+        }
+        verifiedTokens.increment();
+        if (cacheSize > 0) {
+            verified.put(token, result);
+        }
+        return Optional.of(result.authentication);
+    }
+
+    /**
+     * Gets the number of cached verified tokens.
+     * @return cache size
+     */
+    public int getCachedCount() {
+        return verified.size();
+    }
+
+    private Verified parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split(":", 3);
+            if (fields.length != 3) {
+                return null;
+            }
+            List<GrantedAuthority> authorities = fields[1].isEmpty()
+                    ? List.of()
+                    : AuthorityUtils.commaSeparatedStringToAuthorityList(fields[1]);
+            return new Verified(Long.parseLong(fields[0]),
+                    UsernamePasswordAuthenticationToken.authenticated(fields[2], null, authorities));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+
+    private static final class Verified {
+        private final long expiresAt;
+        private final Authentication authentication;
+
+        private Verified(long expiresAt, Authentication authentication) {
+            this.expiresAt = expiresAt;
+            this.authentication = authentication;
+        }
+    }
+}
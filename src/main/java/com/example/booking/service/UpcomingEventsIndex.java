@@ -0,0 +1,417 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSummary;
+import com.example.booking.model.UpcomingEventsPage;
+import com.example.booking.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Date-ordered index of events that have not started, serving the upcoming events listing
+ * ({@code GET /api/events/upcoming}).
+ * <p>
+ * Events are kept in a {@link ConcurrentSkipListMap} keyed by date and ID, so a date window is a lock-free
+ * sub-map view. Listing pages are serialized to JSON once and reused until an event inside their window is
+ * created, changed, deleted or starts, or until midnight moves the window. Started events are purged every
+ * {@code booking.upcoming.purge-ms}.
+ * </p>
+ * <p>
+ * Requested page sizes are rounded up to one of {@link #PAGE_SIZES}, and only the first
+ * {@code booking.upcoming.cached-pages} pages of each window and size are kept, so the cache holds a fixed number
+ * of pages and clients paging deep or trying many sizes cannot evict the hot first pages.
+ * </p>
+ * <p>
+ * The index is loaded from the events table once the application is ready and updated from
+ * {@link EventChangedEvent}s after their transactions commit, including those of other nodes relayed by
+ * {@link EventChangeFanout}. It is reloaded from the table every {@code booking.upcoming.reload-ms}, so changes a
+ * node missed while the fan-out was down show up then; changes applied during a reload are replayed on top.
+ * </p>
+ */
+@Service
+public class UpcomingEventsIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpcomingEventsIndex.class);
+
+    public static final String EVENTS_GAUGE = "booking.upcoming.events";
+    public static final String PAGES_COUNTER = "booking.upcoming.pages";
+
+    /**
+     * Page sizes served, ascending; other sizes are rounded up to the next one.
+     */
+    public static final int[] PAGE_SIZES = {5, 10, 20, 50, 100};
+
+    /**
+     * Date windows of the listing. Each starts and ends at midnight, so a cached page stays valid for the day.
+     */
+    public enum Window {
+        TODAY("today"),
+        THIS_WEEKEND("this-weekend"),
+        NEXT_7_DAYS("next-7-days"),
+        NEXT_30_DAYS("next-30-days"),
+        ALL("all");
+
+        private final String param;
+
+        Window(String param) {
+            this.param = param;
+        }
+
+        /**
+         * Gets the request parameter value of the window.
+         * @return parameter value, such as {@code next-7-days}
+         */
+        public String getParam() {
+            return param;
+        }
+
+        /**
+         * Finds a window by its request parameter value.
+         * @param param parameter value
+         * @return the window, or empty if unknown
+         */
+        public static Optional<Window> fromParam(String param) {
+            for (Window window : values()) {
+                if (window.param.equalsIgnoreCase(param)) {
+                    return Optional.of(window);
+                }
+            }
+            return Optional.empty();
+        }
+
+        private LocalDateTime from(LocalDate today) {
+            return this == THIS_WEEKEND ? saturday(today).atStartOfDay() : today.atStartOfDay();
+        }
+
+        private LocalDateTime to(LocalDate today) {
+            return switch (this) {
+                case TODAY -> today.plusDays(1).atStartOfDay();
+                case THIS_WEEKEND -> saturday(today).plusDays(2).atStartOfDay();
+                case NEXT_7_DAYS -> today.plusDays(7).atStartOfDay();
+                case NEXT_30_DAYS -> today.plusDays(30).atStartOfDay();
+                case ALL -> null;
+            };
+        }
+
+        private static LocalDate saturday(LocalDate today) {
+            return today.getDayOfWeek() == DayOfWeek.SUNDAY
+                    ? today.minusDays(1)
+                    : today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+        }
+    }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.upcoming.cached-pages:5}")
+    private int cachedPages;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final ConcurrentSkipListMap<Key, EventSummary> byDate = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+    private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+    // Bumped after every change, so a page built from data read before a change is not cached
+    private final AtomicLong version = new AtomicLong();
+    // Changes applied while a reload reads the table, keyed by event ID (null for deleted); guarded by keys
+    private Map<Long, Event> changedDuringReload;
+    private Counter pageHits;
+    private Counter pageMisses;
+
+    /**
+     * Registers metrics.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder(EVENTS_GAUGE, byDate, Map::size)
+                .description("Events in the upcoming events index")
+                .register(meterRegistry);
+        pageHits = Counter.builder(PAGES_COUNTER).tag("result", "cached")
+                .description("Upcoming events pages served")
+                .register(meterRegistry);
+        pageMisses = Counter.builder(PAGES_COUNTER).tag("result", "built")
+                .description("Upcoming events pages served")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every event that has not started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (keys) {
+            changedDuringReload = new LinkedHashMap<>();
+        }
+        try {
+            List<Event> events = eventRepository.findAll();
+            LocalDateTime now = LocalDateTime.now(clock);
+            synchronized (keys) {
+                byDate.clear();
+                keys.clear();
+                events.forEach(event -> add(event, now));
+                changedDuringReload.forEach((id, event) -> {
+                    Key old = keys.remove(id);
+                    if (old != null) {
+                        byDate.remove(old);
+                    }
+                    if (event != null) {
+                        add(event, now);
+                    }
+                });
+                version.incrementAndGet();
+                pages.clear();
+            }
+            logger.info("Upcoming events index loaded with {} events", byDate.size());
+        } catch (RuntimeException ex) {
+            logger.error("Failed to load the upcoming events index: {}", ex.getMessage(), ex);
+        } finally {
+            synchronized (keys) {
+                changedDuringReload = null;
+            }
+        }
+    }
+
+    /**
+     * Reloads the index from the events table, picking up changes that did not reach this node.
+     */
+    @Scheduled(fixedDelayString = "${booking.upcoming.reload-ms:900000}",
+            initialDelayString = "${booking.upcoming.reload-ms:900000}")
+    public void reload() {
+        rebuild();
+    }
+
+    /**
+     * Applies a created, updated or deleted event once its transaction has committed, and drops the pages of
+     * the windows that contain its old or new date.
+     * @param change the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        synchronized (keys) {
+            Key old = keys.remove(change.getEventId());
+            if (old != null) {
+                byDate.remove(old);
+            }
+            Key added = change.isDeleted() ? null : add(change.getEvent(), now);
+            if (changedDuringReload != null) {
+                changedDuringReload.put(change.getEventId(), change.getEvent());
+            }
+            version.incrementAndGet();
+            if (old != null) {
+                invalidate(old.date);
+            }
+            if (added != null) {
+                invalidate(added.date);
+            }
+        }
+    }
+
+    /**
+     * Removes events that have started and drops the pages that listed them.
+     */
+    @Scheduled(fixedDelayString = "${booking.upcoming.purge-ms:30000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<LocalDateTime> started = new ArrayList<>();
+        synchronized (keys) {
+            Map.Entry<Key, EventSummary> first;
+            while ((first = byDate.firstEntry()) != null && !first.getKey().date.isAfter(now)) {
+                byDate.remove(first.getKey());
+                keys.remove(first.getKey().id);
+                started.add(first.getKey().date);
+            }
+            if (!started.isEmpty()) {
+                version.incrementAndGet();
+                started.forEach(this::invalidate);
+            }
+        }
+        if (!started.isEmpty()) {
+            logger.debug("Purged {} started events from the upcoming events index", started.size());
+        }
+    }
+
+    /**
+     * Gets a page of the events in a window that have not started, by date, as JSON.
+     * @param window the date window
+     * @param page zero-based page number
+     * @param size requested page size, rounded up to one of {@link #PAGE_SIZES}
+     * @return the serialized page
+     */
+    public CachedPage getPage(Window window, int page, int size) {
+        size = pageSize(size);
+        LocalDate today = LocalDate.now(clock);
+        LocalDateTime from = window.from(today);
+        LocalDateTime to = window.to(today);
+        String pageKey = window.getParam() + ':' + page + ':' + size;
+        CachedPage cached = pages.get(pageKey);
+        if (cached != null && cached.from.equals(from) && Objects.equals(cached.to, to)) {
+            pageHits.increment();
+            return cached;
+        }
+        pageMisses.increment();
+        long stamp = version.get();
+        NavigableMap<Key, EventSummary> range = to == null
+                ? byDate.tailMap(new Key(from, Long.MIN_VALUE), true)
+                : byDate.subMap(new Key(from, Long.MIN_VALUE), true, new Key(to, Long.MIN_VALUE), false);
+        List<EventSummary> events = range.values().stream().skip((long) page * size).limit(size).toList();
+        CachedPage built = new CachedPage(from, to,
+                serialize(new UpcomingEventsPage(window.getParam(), from, to, page, size, range.size(), events)));
+        if (page < cachedPages) {
+            pages.put(pageKey, built);
+            if (version.get() != stamp) {
+                pages.remove(pageKey, built);
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Rounds a requested page size up to the next served size.
+     * @param size requested page size
+     * @return the smallest of {@link #PAGE_SIZES} not below it, or the largest
+     */
+    public static int pageSize(int size) {
+        for (int served : PAGE_SIZES) {
+            if (size <= served) {
+                return served;
+            }
+        }
+        return PAGE_SIZES[PAGE_SIZES.length - 1];
+    }
+
+    /**
+     * Gets the number of events that have not started.
+     * @return event count
+     */
+    public int size() {
+        return byDate.size();
+    }
+
+    private Key add(Event event, LocalDateTime now) {
+        if (event.getEventDate() == null || !event.getEventDate().isAfter(now)) {
+            return null;
+        }
+        Key key = new Key(event.getEventDate(), event.getId());
+        byDate.put(key, new EventSummary(event.getId(), event.getName(), event.getLocation(), event.getEventDate(),
+                event.getTotalSeats()));
+        keys.put(event.getId(), key);
+        return key;
+    }
+
+    private void invalidate(LocalDateTime date) {
+        pages.values().removeIf(page -> page.covers(date));
+    }
+
+    private byte[] serialize(UpcomingEventsPage page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize upcoming events page " + page.getWindow(), ex);
+        }
+    }
+
+    /**
+     * A serialized listing page with the window it was built for.
+     */
+    public static final class CachedPage {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final byte[] json;
+        private final String eTag;
+
+        private CachedPage(LocalDateTime from, LocalDateTime to, byte[] json) {
+            this.from = from;
+            this.to = to;
+            this.json = json;
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            this.eTag = "W/\"" + Long.toHexString(crc.getValue()) + "\"";
+        }
+
+        /**
+         * Gets the page as JSON.
+         * @return JSON bytes, shared; do not modify
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Gets the weak entity tag of the page.
+         * @return ETag
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        private boolean covers(LocalDateTime date) {
+            return !date.isBefore(from) && (to == null || date.isBefore(to));
+        }
+    }
+
+    /**
+     * Skip-list key: event date, then event ID.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final LocalDateTime date;
+        private final long id;
+
+        private Key(LocalDateTime date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byDate = date.compareTo(other.date);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && date.equals(key.date) && id == key.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return date.hashCode() * 31 + Long.hashCode(id);
+        }
+    }
+}
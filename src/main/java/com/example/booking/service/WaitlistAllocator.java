@@ -0,0 +1,69 @@
+package com.example.booking.service;
+
+import com.example.booking.model.WaitlistStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drives the {@link WaitlistService}: every {@code booking.waitlist.batch-ms} it allocates up to
+ * {@code booking.waitlist.batch-size} handed-over seats, one transaction per event, and every
+ * {@code booking.waitlist.sweep-ms} it expires unclaimed offers and requeues hand-offs that no node is
+ * allocating. Users are notified of offers and expiries through the {@link WaitlistNotifier}.
+ */
+@Component
+public class WaitlistAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistAllocator.class);
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private WaitlistNotifier waitlistNotifier;
+
+    @Value("${booking.waitlist.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Allocates the seats handed to the waitlist since the last run.
+     */
+    @Scheduled(fixedDelayString = "${booking.waitlist.batch-ms:50}")
+    public void drain() {
+        Map<Long, Set<Long>> batch;
+        while (!(batch = waitlistService.pollFreedSeats(batchSize)).isEmpty()) {
+            for (Map.Entry<Long, Set<Long>> seats : batch.entrySet()) {
+                try {
+                    List<WaitlistStatus> offers = waitlistService.allocate(seats.getKey(), seats.getValue());
+                    offers.forEach(waitlistNotifier::notify);
+                } catch (RuntimeException ex) {
+                    // Entries taken from the head were rolled back to waiting; the seats are picked up by the sweep
+                    waitlistService.resetHead(seats.getKey());
+                    logger.error("Failed to allocate {} seats of eventId={} to the waitlist: {}",
+                            seats.getValue().size(), seats.getKey(), ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Expires unclaimed offers and requeues orphaned hand-offs.
+     */
+    @Scheduled(fixedDelayString = "${booking.waitlist.sweep-ms:5000}")
+    public void sweep() {
+        try {
+            waitlistService.expireOffers(batchSize).forEach(waitlistNotifier::notify);
+            int requeued = waitlistService.requeuePendingHandOffs();
+            logger.debug("Waitlist sweep requeued {} hand-offs", requeued);
+        } catch (RuntimeException ex) {
+            logger.error("Waitlist sweep failed: {}", ex.getMessage(), ex);
+        }
+    }
+}
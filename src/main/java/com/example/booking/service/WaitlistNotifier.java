@@ -0,0 +1,112 @@
+package com.example.booking.service;
+
+import com.example.booking.model.WaitlistStatus;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Pushes waitlist offers and expiries to {@code /topic/waitlist/{eventId}/{userId}} on every node, so that
+ * waitlisted users wait on a subscription instead of polling the event.
+ * <p>
+ * Like seat updates, notices go through {@code booking.waitlist.topic} (keyed by event ID) because the user may
+ * be connected to any node; every node, including the sender, delivers them to its local broker. With the
+ * fan-out disabled, or when the send fails, notices are delivered to this node's clients only.
+ * </p>
+ */
+@Service
+public class WaitlistNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistNotifier.class);
+
+    public static final String LISTENER_ID = "waitlist-notifier";
+    public static final String DESTINATION_PREFIX = "/topic/waitlist/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectProvider<ProducerFactory<?, ?>> producerFactory;
+
+    @Value("${booking.waitlist.topic:waitlist-notices}")
+    private String topic;
+
+    @Value("${booking.fanout.enabled:true}")
+    private boolean enabled;
+
+    private KafkaTemplate<String, WaitlistStatus> kafkaTemplate;
+
+    /**
+     * Creates the notice producer.
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        ProducerFactory<?, ?> factory = producerFactory.getIfAvailable();
+        if (enabled && factory != null) {
+            kafkaTemplate = new KafkaTemplate<>((ProducerFactory<String, WaitlistStatus>) factory,
+                    Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                            JsonSerializer.ADD_TYPE_INFO_HEADERS, false));
+            logger.info("Waitlist notices fanned out on topic '{}'", topic);
+        } else {
+            logger.info("Waitlist notice fan-out disabled; notices reach this node's clients only");
+        }
+    }
+
+    /**
+     * Notifies a user of a change of their waitlist entry.
+     * @param status the user's new waitlist status
+     */
+    public void notify(WaitlistStatus status) {
+        if (kafkaTemplate == null) {
+            deliver(status);
+            return;
+        }
+        try {
+            kafkaTemplate.send(topic, String.valueOf(status.getEventId()), status).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Failed to fan out waitlist notice {}: {}", status, ex.getMessage());
+                    deliver(status);
+                }
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to fan out waitlist notice {}: {}", status, ex.getMessage());
+            deliver(status);
+        }
+    }
+
+    /**
+     * Delivers a notice received from the waitlist topic to this node's clients.
+     * @param record the notice record
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "${booking.waitlist.topic:waitlist-notices}",
+            groupId = "booking-waitlist-#{@nodeIdentity.nodeId}",
+            autoStartup = "${booking.fanout.enabled:true}",
+            properties = {"auto.offset.reset=latest",
+                    "value.deserializer=org.springframework.kafka.support.serializer.JsonDeserializer",
+                    "spring.json.value.default.type=com.example.booking.model.WaitlistStatus",
+                    "spring.json.use.type.headers=false"})
+    public void onNotice(ConsumerRecord<String, WaitlistStatus> record) {
+        if (record.value() != null) {
+            deliver(record.value());
+        }
+    }
+
+    private void deliver(WaitlistStatus status) {
+        messagingTemplate.convertAndSend(DESTINATION_PREFIX + status.getEventId() + "/" + status.getUserId(), status);
+        logger.debug("Waitlist notice delivered: {}", status);
+    }
+}
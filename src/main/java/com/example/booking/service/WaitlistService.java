@@ -0,0 +1,419 @@
+package com.example.booking.service;
+
+import com.example.booking.exception.*;
+import com.example.booking.kafka.BookingEventPublisher;
+import com.example.booking.model.*;
+import com.example.booking.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-event waitlists for sold-out events.
+ * <p>
+ * Entries are stored in {@code waitlist_entries} and served in ID order. When a booking is cancelled while
+ * users are waiting, {@link BookingService#cancelBooking(Long)} keeps the seat booked and hands it over
+ * here instead of releasing it; the cancelled booking row marks the pending hand-off until the seat is
+ * claimed or released. Handed-over seats are queued in memory and allocated in batches by
+ * {@link WaitlistAllocator}: each is offered to the next waiting entry as a hold that expires after
+ * {@code booking.waitlist.hold}, or released to everyone when nobody is left waiting.
+ * </p>
+ * <p>
+ * The oldest waiting entries of each event are kept in memory, {@code booking.waitlist.head-size} at a time, so
+ * that a burst of cancellations is matched against one query instead of one per seat. Entries change status
+ * through conditional updates and seats are locked while they are offered or claimed, so several nodes can
+ * allocate the same event safely; a stale head entry is simply skipped.
+ * </p>
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    public static final String WAITING = "WAITING";
+    public static final String OFFERED = "OFFERED";
+    public static final String CLAIMED = "CLAIMED";
+    public static final String EXPIRED = "EXPIRED";
+    public static final String LEFT = "LEFT";
+
+    public static final String SEATS_COUNTER = "booking.waitlist.seats";
+    public static final String PENDING_GAUGE = "booking.waitlist.pending";
+
+    private static final List<String> ACTIVE = List.of(WAITING, OFFERED);
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SeatStateCache seatStateCache;
+
+    @Autowired
+    private BookingEventPublisher bookingEventPublisher;
+
+    @Autowired
+    private SeatUpdateFanout seatUpdateFanout;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.waitlist.hold:PT5M}")
+    private Duration hold;
+
+    @Value("${booking.waitlist.head-size:256}")
+    private int headSize;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final Queue<FreedSeat> freedSeats = new ConcurrentLinkedQueue<>();
+    // Only touched by the allocator thread
+    private final Map<Long, Deque<WaitlistEntry>> heads = new ConcurrentHashMap<>();
+    private Counter offered;
+    private Counter claimed;
+    private Counter expired;
+    private Counter released;
+
+    /**
+     * Registers metrics.
+     */
+    @PostConstruct
+    public void init() {
+        offered = counter("offered");
+        claimed = counter("claimed");
+        expired = counter("expired");
+        released = counter("released");
+        Gauge.builder(PENDING_GAUGE, freedSeats, Queue::size)
+                .description("Seats handed to the waitlist and not yet allocated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a user to the waitlist of a sold-out event. Joining again returns the user's active entry.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's waitlist status
+     * @throws EventNotFoundException if the event does not exist
+     * @throws SeatsAvailableException if the event still has seats to book
+     */
+    @Transactional
+    public WaitlistStatus join(Long eventId, Long userId) {
+        logger.info("Joining waitlist: eventId={}, userId={}", eventId, userId);
+        if (!eventRepository.existsById(eventId)) {
+            throw new EventNotFoundException();
+        }
+        Optional<WaitlistEntry> active = activeEntry(eventId, userId);
+        if (active.isPresent()) {
+            return status(active.get());
+        }
+        if (seatStateCache.getAvailability(eventId).map(SeatAvailability::getAvailableSeats).orElse(0) > 0) {
+            throw new SeatsAvailableException();
+        }
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setEventId(eventId);
+        entry.setUserId(userId);
+        entry.setStatus(WAITING);
+        entry.setJoinedAt(LocalDateTime.now(clock));
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        logger.debug("Waitlist entry created: entryId={}", saved.getId());
+        return status(saved);
+    }
+
+    /**
+     * Gets a user's waitlist status for an event.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's waitlist status
+     * @throws WaitlistEntryNotFoundException if the user is not waiting and holds no offer
+     */
+    @Transactional(readOnly = true)
+    public WaitlistStatus getStatus(Long eventId, Long userId) {
+        return status(activeEntry(eventId, userId).orElseThrow(WaitlistEntryNotFoundException::new));
+    }
+
+    /**
+     * Removes a user from the waitlist of an event. A seat offered to the user goes to the next in line.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the user's final waitlist status
+     * @throws WaitlistEntryNotFoundException if the user is not waiting and holds no offer
+     */
+    @Transactional
+    public WaitlistStatus leave(Long eventId, Long userId) {
+        logger.info("Leaving waitlist: eventId={}, userId={}", eventId, userId);
+        WaitlistEntry entry = activeEntry(eventId, userId).orElseThrow(WaitlistEntryNotFoundException::new);
+        if (waitlistRepository.transition(entry.getId(), entry.getStatus(), LEFT) == 0) {
+            throw new WaitlistEntryNotFoundException();
+        }
+        if (OFFERED.equals(entry.getStatus())) {
+            handOff(eventId, entry.getSeatId());
+        }
+        entry.setStatus(LEFT);
+        return WaitlistStatus.of(entry, 0);
+    }
+
+    /**
+     * Books the seat offered to a waitlisted user.
+     * The booking cancelled to free the seat is deleted and its cancellation published only now, so that
+     * the seat never shows as free while it is held.
+     *
+     * @param eventId the event ID
+     * @param userId the user ID
+     * @return the saved Booking entity
+     * @throws WaitlistEntryNotFoundException if the user is not waiting and holds no offer
+     * @throws NoSeatOfferException if no seat is offered to the user or the offer expired
+     */
+    @Transactional
+    public Booking claim(Long eventId, Long userId) {
+        logger.info("Claiming waitlist offer: eventId={}, userId={}", eventId, userId);
+        WaitlistEntry entry = activeEntry(eventId, userId).orElseThrow(WaitlistEntryNotFoundException::new);
+        if (!OFFERED.equals(entry.getStatus()) || !entry.getOfferExpiresAt().isAfter(LocalDateTime.now(clock))) {
+            throw new NoSeatOfferException();
+        }
+        Seat seat = seatRepository.findAllByIdForUpdate(eventId, List.of(entry.getSeatId())).stream()
+                .findFirst()
+                .orElseThrow(SeatNotFoundException::new);
+        if (waitlistRepository.transition(entry.getId(), OFFERED, CLAIMED) == 0) {
+            throw new NoSeatOfferException();
+        }
+
+        Optional<Booking> cancelled = bookingRepository.findByEventIdAndSeatIdAndStatus(
+                eventId, seat.getId(), BookingService.CANCELLED);
+        cancelled.ifPresent(booking -> {
+            bookingRepository.delete(booking);
+            // The new booking reuses (event_id, seat_id), so the delete must reach the database first
+            bookingRepository.flush();
+        });
+
+        Booking booking = new Booking();
+        booking.setUserId(userId);
+        booking.setEventId(eventId);
+        booking.setSeatId(seat.getId());
+        booking.setStatus(BookingService.BOOKED);
+        booking.setBookedAt(LocalDateTime.now(clock));
+        Booking saved = bookingRepository.save(booking);
+
+        cancelled.ifPresent(old -> bookingEventPublisher.publish(
+                BookingEvent.cancelled(old.getId(), old.getUserId(), eventId, seat.getSeatNumber())));
+        bookingEventPublisher.publish(BookingEvent.booked(saved.getId(), userId, eventId, seat.getSeatNumber()));
+        claimed.increment();
+        logger.info("Waitlist offer claimed: bookingId={}, seatNumber={}", saved.getId(), seat.getSeatNumber());
+        return saved;
+    }
+
+    /**
+     * Checks whether anyone is waiting for a seat of an event.
+     *
+     * @param eventId the event ID
+     * @return true if at least one user is waiting
+     */
+    public boolean hasWaiting(Long eventId) {
+        return waitlistRepository.existsByEventIdAndStatus(eventId, WAITING);
+    }
+
+    /**
+     * Queues a seat for allocation to the waitlist once the current transaction commits.
+     *
+     * @param eventId the event ID
+     * @param seatId the seat ID
+     */
+    public void handOff(Long eventId, Long seatId) {
+        FreedSeat seat = new FreedSeat(eventId, seatId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    freedSeats.add(seat);
+                }
+            });
+        } else {
+            freedSeats.add(seat);
+        }
+    }
+
+    /**
+     * Takes up to {@code max} queued seats, grouped by event.
+     *
+     * @param max the maximum number of seats
+     * @return seat IDs by event ID, without duplicates
+     */
+    public Map<Long, Set<Long>> pollFreedSeats(int max) {
+        Map<Long, Set<Long>> batch = new LinkedHashMap<>();
+        FreedSeat seat;
+        for (int i = 0; i < max && (seat = freedSeats.poll()) != null; i++) {
+            batch.computeIfAbsent(seat.eventId, id -> new LinkedHashSet<>()).add(seat.seatId);
+        }
+        return batch;
+    }
+
+    /**
+     * Offers handed-over seats of an event to the next waiting users, and releases the seats nobody is
+     * waiting for. Seats that were already offered, claimed or released are skipped.
+     *
+     * @param eventId the event ID
+     * @param seatIds the seat IDs
+     * @return the offers made
+     */
+    @Transactional
+    public List<WaitlistStatus> allocate(Long eventId, Collection<Long> seatIds) {
+        List<Seat> seats = seatRepository.findAllByIdForUpdate(eventId, seatIds);
+        Map<Long, Booking> handedOff = bookingRepository
+                .findByEventIdAndStatusAndSeatIdIn(eventId, BookingService.CANCELLED, seatIds).stream()
+                .collect(Collectors.toMap(Booking::getSeatId, Function.identity(), (a, b) -> a));
+        Set<Long> held = new HashSet<>(waitlistRepository.findSeatIdsByStatus(seatIds, OFFERED));
+        LocalDateTime expiresAt = LocalDateTime.now(clock).plus(hold);
+
+        List<WaitlistStatus> offers = new ArrayList<>();
+        for (Seat seat : seats) {
+            Booking cancelled = handedOff.get(seat.getId());
+            if (cancelled == null || held.contains(seat.getId())) {
+                continue;
+            }
+            WaitlistEntry next;
+            while ((next = nextWaiting(eventId)) != null) {
+                if (waitlistRepository.offer(next.getId(), WAITING, OFFERED, seat.getId(), seat.getSeatNumber(), expiresAt) == 1) {
+                    offers.add(new WaitlistStatus(eventId, next.getUserId(), OFFERED, 0, seat.getSeatNumber(), expiresAt));
+                    offered.increment();
+                    break;
+                }
+            }
+            if (next == null) {
+                release(seat, cancelled);
+            }
+        }
+        logger.debug("Allocated {} of {} seats to the waitlist of eventId={}", offers.size(), seatIds.size(), eventId);
+        return offers;
+    }
+
+    /**
+     * Expires offers that were not claimed in time and queues their seats for the next in line.
+     *
+     * @param max the maximum number of offers to expire
+     * @return the expired entries
+     */
+    @Transactional
+    public List<WaitlistStatus> expireOffers(int max) {
+        List<WaitlistStatus> result = new ArrayList<>();
+        for (WaitlistEntry entry : waitlistRepository.findByStatusAndOfferExpiresAtBefore(
+                OFFERED, LocalDateTime.now(clock), PageRequest.of(0, max))) {
+            if (waitlistRepository.transition(entry.getId(), OFFERED, EXPIRED) == 1) {
+                entry.setStatus(EXPIRED);
+                result.add(WaitlistStatus.of(entry, 0));
+                handOff(entry.getEventId(), entry.getSeatId());
+                expired.increment();
+            }
+        }
+        if (!result.isEmpty()) {
+            logger.info("Expired {} waitlist offers", result.size());
+        }
+        return result;
+    }
+
+    /**
+     * Queues handed-over seats that are not offered to anyone, such as those queued on a node that stopped
+     * before allocating them.
+     *
+     * @return the number of seats queued
+     */
+    @Transactional(readOnly = true)
+    public int requeuePendingHandOffs() {
+        List<Booking> pending = bookingRepository.findWithoutWaitlistEntry(
+                BookingService.CANCELLED, OFFERED, LocalDateTime.now(clock));
+        pending.forEach(booking -> freedSeats.add(new FreedSeat(booking.getEventId(), booking.getSeatId())));
+        return pending.size();
+    }
+
+    /**
+     * Drops the in-memory head of an event, for instance after an allocation was rolled back.
+     *
+     * @param eventId the event ID
+     */
+    public void resetHead(Long eventId) {
+        heads.remove(eventId);
+    }
+
+    private WaitlistEntry nextWaiting(Long eventId) {
+        Deque<WaitlistEntry> head = heads.computeIfAbsent(eventId, id -> new ArrayDeque<>());
+        if (head.isEmpty()) {
+            // Entries taken from the head are no longer waiting, so reloading from the start is enough
+            head.addAll(waitlistRepository.findByEventIdAndStatusOrderByIdAsc(
+                    eventId, WAITING, PageRequest.of(0, headSize)));
+            if (head.isEmpty()) {
+                heads.remove(eventId);
+                return null;
+            }
+        }
+        return head.poll();
+    }
+
+    private void release(Seat seat, Booking cancelled) {
+        seat.setIsBooked(false);
+        seatRepository.save(seat);
+        bookingRepository.delete(cancelled);
+        bookingEventPublisher.publish(BookingEvent.cancelled(
+                cancelled.getId(), cancelled.getUserId(), cancelled.getEventId(), seat.getSeatNumber()));
+        seatUpdateFanout.publish(cancelled.getEventId(), new SeatStatusUpdate(seat.getSeatNumber(), false));
+        released.increment();
+        logger.debug("Nobody waiting, seat released: seatId={}", seat.getId());
+    }
+
+    private Optional<WaitlistEntry> activeEntry(Long eventId, Long userId) {
+        return waitlistRepository.findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(eventId, userId, ACTIVE);
+    }
+
+    private WaitlistStatus status(WaitlistEntry entry) {
+        long ahead = WAITING.equals(entry.getStatus())
+                ? waitlistRepository.countByEventIdAndStatusAndIdLessThan(entry.getEventId(), WAITING, entry.getId())
+                : 0;
+        return WaitlistStatus.of(entry, ahead);
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder(SEATS_COUNTER)
+                .description("Seats handed to the waitlist, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A seat handed to the waitlist and not yet allocated.
+     */
+    private static final class FreedSeat {
+        private final Long eventId;
+        private final Long seatId;
+
+        private FreedSeat(Long eventId, Long seatId) {
+            this.eventId = eventId;
+            this.seatId = seatId;
+        }
+    }
+}
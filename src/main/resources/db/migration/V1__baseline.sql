@@ -0,0 +1,57 @@
+-- Schema as previously created by Hibernate (ddl-auto=update). Every statement is idempotent so that databases
+-- created that way, at any earlier version of the entities, are brought to the same starting point.
+
+CREATE TABLE IF NOT EXISTS events (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    name        varchar(255),
+    location    varchar(255),
+    event_date  timestamp(6),
+    total_seats integer,
+    created_at  timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    name       varchar(100) NOT NULL,
+    email      varchar(150) NOT NULL UNIQUE,
+    created_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS seats (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY,
+    event_id    bigint      NOT NULL REFERENCES events (id),
+    seat_number varchar(10) NOT NULL,
+    is_booked   boolean,
+    PRIMARY KEY (id),
+    UNIQUE (event_id, seat_number)
+);
+ALTER TABLE seats ADD COLUMN IF NOT EXISTS section varchar(10);
+ALTER TABLE seats ADD COLUMN IF NOT EXISTS seat_row varchar(10);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id   bigint NOT NULL,
+    event_id  bigint NOT NULL,
+    seat_id   bigint NOT NULL,
+    status    varchar(20),
+    booked_at timestamp(6),
+    PRIMARY KEY (id),
+    UNIQUE (event_id, seat_id)
+);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY,
+    event_id         bigint      NOT NULL,
+    user_id          bigint      NOT NULL,
+    status           varchar(20) NOT NULL,
+    joined_at        timestamp(6) NOT NULL,
+    seat_id          bigint,
+    seat_number      varchar(10),
+    offer_expires_at timestamp(6),
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_waitlist_event_status ON waitlist_entries (event_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_waitlist_status_expiry ON waitlist_entries (status, offer_expires_at);
+CREATE INDEX IF NOT EXISTS idx_waitlist_seat ON waitlist_entries (seat_id);
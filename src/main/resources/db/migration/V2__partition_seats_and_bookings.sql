@@ -0,0 +1,126 @@
+-- Declarative partitioning of seats and bookings by event.
+--
+-- Both tables are range-partitioned on event_id in blocks of booking_partition_width() consecutive event IDs
+-- (seats_p000000 holds events 0-999, seats_p000001 events 1000-1999, ...). Event IDs grow with creation time,
+-- so a block's events are close in date: upcoming events live in the last few partitions, and a block whose
+-- events are all over can be detached and archived as a whole. Rows of a block whose partition does not exist
+-- yet go to the default partition and are moved out when the partition is created.
+--
+-- Primary and unique keys of a partitioned table must contain the partition key, hence (event_id, id); id alone
+-- stays unique because it comes from a sequence. IDs use a sequence default rather than an identity column,
+-- which partitioned tables only support from PostgreSQL 17.
+
+CREATE OR REPLACE FUNCTION booking_partition_width() RETURNS bigint
+    LANGUAGE sql IMMUTABLE AS 'SELECT 1000::bigint';
+
+-- Creates the seats and bookings partitions of the block holding p_event_id and of the p_ahead blocks after it,
+-- and returns how many partitions were created. Rows of those blocks already in a default partition are moved
+-- into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION booking_ensure_partitions(p_event_id bigint, p_ahead integer DEFAULT 0)
+    RETURNS integer LANGUAGE plpgsql AS $$
+DECLARE
+    width       bigint := booking_partition_width();
+    first_block bigint := greatest(p_event_id, 0) / width;
+    block       bigint;
+    parent      text;
+    part        text;
+    created     integer := 0;
+BEGIN
+    FOR block IN first_block .. first_block + greatest(p_ahead, 0) LOOP
+        FOREACH parent IN ARRAY ARRAY['seats', 'bookings'] LOOP
+            part := format('%s_p%s', parent, lpad(block::text, 6, '0'));
+            CONTINUE WHEN to_regclass(part) IS NOT NULL;
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE event_id >= %s AND event_id < %s RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved',
+                           parent || '_default', block * width, (block + 1) * width, part);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                           parent, part, block * width, (block + 1) * width);
+            created := created + 1;
+        END LOOP;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- Detaches the seats and bookings partitions of complete blocks whose events all took place before p_before,
+-- and returns the names of the detached tables. They keep their rows until archived (pg_dump -t) and dropped.
+CREATE OR REPLACE FUNCTION booking_detach_partitions(p_before timestamp)
+    RETURNS SETOF text LANGUAGE plpgsql AS $$
+DECLARE
+    width  bigint := booking_partition_width();
+    max_id bigint := (SELECT coalesce(max(id), 0) FROM events);
+    part   record;
+    block  bigint;
+BEGIN
+    FOR part IN
+        SELECT c.relname AS name, p.relname AS parent
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname IN ('seats', 'bookings') AND pg_table_is_visible(p.oid) AND c.relname ~ '_p[0-9]+$'
+        ORDER BY c.relname
+    LOOP
+        block := substring(part.name FROM '_p([0-9]+)$')::bigint;
+        -- Events may still be created in a block that is not full yet
+        CONTINUE WHEN (block + 1) * width - 1 > max_id;
+        CONTINUE WHEN EXISTS (SELECT 1 FROM events
+                              WHERE id >= block * width AND id < (block + 1) * width
+                                AND (event_date IS NULL OR event_date >= p_before));
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', part.parent, part.name);
+        RETURN NEXT part.name;
+    END LOOP;
+END
+$$;
+
+ALTER TABLE seats RENAME TO seats_unpartitioned;
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+
+CREATE SEQUENCE seat_id_seq;
+SELECT setval('seat_id_seq', (SELECT coalesce(max(id), 0) + 1 FROM seats_unpartitioned), false);
+CREATE SEQUENCE booking_id_seq;
+SELECT setval('booking_id_seq', (SELECT coalesce(max(id), 0) + 1 FROM bookings_unpartitioned), false);
+
+CREATE TABLE seats (
+    id          bigint      NOT NULL DEFAULT nextval('seat_id_seq'),
+    event_id    bigint      NOT NULL REFERENCES events (id),
+    seat_number varchar(10) NOT NULL,
+    is_booked   boolean,
+    section     varchar(10),
+    seat_row    varchar(10),
+    CONSTRAINT pk_seats PRIMARY KEY (event_id, id),
+    CONSTRAINT uk_seats_event_seat_number UNIQUE (event_id, seat_number)
+) PARTITION BY RANGE (event_id);
+ALTER SEQUENCE seat_id_seq OWNED BY seats.id;
+-- Lookups by seat ID alone probe one index per partition; the application always adds the event ID
+CREATE INDEX idx_seats_id ON seats (id);
+CREATE TABLE seats_default PARTITION OF seats DEFAULT;
+
+CREATE TABLE bookings (
+    id        bigint      NOT NULL DEFAULT nextval('booking_id_seq'),
+    user_id   bigint      NOT NULL,
+    event_id  bigint      NOT NULL,
+    seat_id   bigint      NOT NULL,
+    status    varchar(20),
+    booked_at timestamp(6),
+    CONSTRAINT pk_bookings PRIMARY KEY (event_id, id),
+    CONSTRAINT uk_bookings_event_seat UNIQUE (event_id, seat_id)
+) PARTITION BY RANGE (event_id);
+ALTER SEQUENCE booking_id_seq OWNED BY bookings.id;
+CREATE INDEX idx_bookings_id ON bookings (id);
+CREATE INDEX idx_bookings_user ON bookings (user_id);
+-- Cancelled bookings only remain while their seat is handed to the waitlist
+CREATE INDEX idx_bookings_cancelled ON bookings (event_id, seat_id) WHERE status = 'CANCELLED';
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+SELECT booking_ensure_partitions(coalesce(min(id), 0),
+                                 ((coalesce(max(id), 0) - coalesce(min(id), 0)) / booking_partition_width() + 1)::integer)
+FROM events;
+
+INSERT INTO seats (id, event_id, seat_number, is_booked, section, seat_row)
+SELECT id, event_id, seat_number, is_booked, section, seat_row FROM seats_unpartitioned;
+INSERT INTO bookings (id, user_id, event_id, seat_id, status, booked_at)
+SELECT id, user_id, event_id, seat_id, status, booked_at FROM bookings_unpartitioned;
+
+DROP TABLE seats_unpartitioned;
+DROP TABLE bookings_unpartitioned;
@@ -0,0 +1,105 @@
+-- Booking ID -> event ID lookup, and race-free partition creation.
+--
+-- Cancelling by booking ID alone would otherwise probe the ID index of every bookings partition. The small,
+-- unpartitioned booking_locators table maps each booking to its event, so the booking itself is then read from
+-- that event's partition only. A trigger keeps it in step with bookings; event IDs of bookings never change.
+
+CREATE TABLE booking_locators (
+    booking_id bigint NOT NULL,
+    event_id   bigint NOT NULL,
+    CONSTRAINT pk_booking_locators PRIMARY KEY (booking_id)
+);
+
+INSERT INTO booking_locators (booking_id, event_id)
+SELECT id, event_id FROM bookings;
+
+CREATE OR REPLACE FUNCTION booking_locators_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO booking_locators (booking_id, event_id) VALUES (NEW.id, NEW.event_id);
+    ELSE
+        DELETE FROM booking_locators WHERE booking_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_bookings_locators
+    AFTER INSERT OR DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION booking_locators_sync();
+
+-- As in V2, but writers of seats and bookings are locked out while partitions are created. Otherwise a row
+-- inserted into a default partition after its block's rows were moved out makes ATTACH fail validation.
+-- The lock is only taken when a partition is missing, which blocks-ahead maintenance makes rare, and bookings
+-- is locked before seats, the order booking transactions write them in, so it cannot deadlock with them.
+CREATE OR REPLACE FUNCTION booking_ensure_partitions(p_event_id bigint, p_ahead integer DEFAULT 0)
+    RETURNS integer LANGUAGE plpgsql AS $$
+DECLARE
+    width       bigint := booking_partition_width();
+    first_block bigint := greatest(p_event_id, 0) / width;
+    last_block  bigint := first_block + greatest(p_ahead, 0);
+    block       bigint;
+    parent      text;
+    part        text;
+    created     integer := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM generate_series(first_block, last_block) AS b,
+                        unnest(ARRAY['seats', 'bookings']) AS p
+                   WHERE to_regclass(format('%s_p%s', p, lpad(b::text, 6, '0'))) IS NULL) THEN
+        RETURN 0;
+    END IF;
+    LOCK TABLE bookings, seats IN SHARE ROW EXCLUSIVE MODE;
+    FOR block IN first_block .. last_block LOOP
+        FOREACH parent IN ARRAY ARRAY['seats', 'bookings'] LOOP
+            part := format('%s_p%s', parent, lpad(block::text, 6, '0'));
+            CONTINUE WHEN to_regclass(part) IS NOT NULL;
+            EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part, parent);
+            EXECUTE format('WITH moved AS (DELETE FROM %I WHERE event_id >= %s AND event_id < %s RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved',
+                           parent || '_default', block * width, (block + 1) * width, part);
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%s) TO (%s)',
+                           parent, part, block * width, (block + 1) * width);
+            IF parent = 'bookings' THEN
+                -- Deleting the moved rows from the default partition dropped their locators
+                EXECUTE format('INSERT INTO booking_locators (booking_id, event_id) SELECT id, event_id FROM %I',
+                               part);
+            END IF;
+            created := created + 1;
+        END LOOP;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- As in V2, and drops the locators of detached bookings, which can no longer be cancelled.
+CREATE OR REPLACE FUNCTION booking_detach_partitions(p_before timestamp)
+    RETURNS SETOF text LANGUAGE plpgsql AS $$
+DECLARE
+    width  bigint := booking_partition_width();
+    max_id bigint := (SELECT coalesce(max(id), 0) FROM events);
+    part   record;
+    block  bigint;
+BEGIN
+    FOR part IN
+        SELECT c.relname AS name, p.relname AS parent
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname IN ('seats', 'bookings') AND pg_table_is_visible(p.oid) AND c.relname ~ '_p[0-9]+$'
+        ORDER BY c.relname
+    LOOP
+        block := substring(part.name FROM '_p([0-9]+)$')::bigint;
+        -- Events may still be created in a block that is not full yet
+        CONTINUE WHEN (block + 1) * width - 1 > max_id;
+        CONTINUE WHEN EXISTS (SELECT 1 FROM events
+                              WHERE id >= block * width AND id < (block + 1) * width
+                                AND (event_date IS NULL OR event_date >= p_before));
+        IF part.parent = 'bookings' THEN
+            EXECUTE format('DELETE FROM booking_locators l USING %I b WHERE l.booking_id = b.id', part.name);
+        END IF;
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', part.parent, part.name);
+        RETURN NEXT part.name;
+    END LOOP;
+END
+$$;
@@ -9,7 +9,8 @@ import org.springframework.boot.test.context.SpringBootTest;
  * Integration tests for BookingServiceApplication.
  * Verifies that the Spring application context loads successfully.
  */
-@SpringBootTest
+// Tokens need a shared signing key outside the dev profile
+@SpringBootTest(properties = "booking.auth.token.secret=AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=")
 class BookingServiceApplicationTests {
 
 	private static final Logger logger = LoggerFactory.getLogger(BookingServiceApplicationTests.class);
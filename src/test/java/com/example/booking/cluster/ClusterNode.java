@@ -0,0 +1,48 @@
+package com.example.booking.cluster;
+
+import com.example.booking.BookingServiceApplication;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Entry point of one node started by {@link ClusterRoutingHarness} in its own JVM: the application with the
+ * {@code loadtest} profile and an in-process Kafka producer. Database, ports and cluster settings come from the
+ * command line.
+ */
+public class ClusterNode {
+
+    /**
+     * Starts the node.
+     * @param args Spring Boot command line arguments
+     */
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(BookingServiceApplication.class, KafkaStandIn.class)
+                .profiles("loadtest")
+                .run(args);
+    }
+
+    /**
+     * Replaces the Kafka producer with an in-process stand-in that acknowledges every record.
+     */
+    @TestConfiguration
+    static class KafkaStandIn {
+        @Bean
+        ProducerFactory<Object, Object> producerFactory() {
+            Serializer<Object> serializer = (topic, data) -> String.valueOf(data).getBytes(StandardCharsets.UTF_8);
+            MockProducer<Object, Object> producer = new MockProducer<>(true, serializer, serializer) {
+                @Override
+                public void close(Duration timeout) {
+                    // KafkaTemplate closes the producer after every send; keep the shared stand-in open.
+                }
+            };
+            return () -> producer;
+        }
+    }
+}
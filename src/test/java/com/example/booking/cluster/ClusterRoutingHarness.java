@@ -0,0 +1,293 @@
+package com.example.booking.cluster;
+
+import com.example.booking.service.EventRouter;
+import com.example.booking.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-JVM test of cluster mode on one host.
+ * <p>
+ * Starts three {@link ClusterNode}s in their own JVMs, sharing an H2 database served over TCP by this JVM and
+ * discovering each other through a member directory under {@code target/cluster-harness}. Checks that the nodes
+ * agree on event owners, that bookings sent to any node are executed by the owner (one winner per contended
+ * seat), and that events move when the owner is killed and come back when it rejoins. Node output is written to
+ * {@code target/cluster-harness/<node>.out}. Excluded from the default build; run with {@code mvn -Pcluster test}.
+ * </p>
+ */
+@Tag("cluster")
+class ClusterRoutingHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRoutingHarness.class);
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("user2025:booking7891".getBytes(StandardCharsets.UTF_8));
+    // booking.auth.token.secret of the loadtest profile, to view the ring as a cluster member
+    private static final String TOKEN_SECRET = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+    private static final List<String> NODES = List.of("node-a", "node-b", "node-c");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(Integer.getInteger("cluster.startupSeconds", 120));
+    private static final int CONTENDERS = Integer.getInteger("cluster.contenders", 60);
+
+    private final Path workDir = Path.of("target", "cluster-harness");
+    private final Map<String, Integer> ports = new LinkedHashMap<>();
+    private final Map<String, Process> processes = new ConcurrentHashMap<>();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Server database;
+    private String nodeAuthorization;
+
+    @BeforeEach
+    void startCluster() throws Exception {
+        deleteRecursively(workDir);
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "secret", TOKEN_SECRET);
+        ReflectionTestUtils.setField(tokenService, "ttl", Duration.ofHours(1));
+        tokenService.init();
+        nodeAuthorization = "Bearer " + tokenService.issueNodeToken("harness").getAccessToken();
+        Files.createDirectories(workDir.resolve("members"));
+        database = Server.createTcpServer("-tcpPort", String.valueOf(freePort()), "-ifNotExists").start();
+        for (String node : NODES) {
+            ports.put(node, freePort());
+        }
+        // Nodes start one after another so that only the first one creates the schema
+        for (String node : NODES) {
+            start(node);
+            awaitUp(node);
+        }
+        for (String node : NODES) {
+            awaitView(node, view -> members(view).size() == NODES.size());
+        }
+    }
+
+    @AfterEach
+    void stopCluster() {
+        processes.values().forEach(Process::destroy);
+        processes.values().forEach(process -> {
+            try {
+                process.waitFor(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            process.destroyForcibly();
+        });
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    /**
+     * Runs the ownership, routing and rebalancing checks.
+     */
+    @Test
+    void routesBookingsToEventOwners() throws Exception {
+        // Every node sees the same owners
+        for (long eventId = 1; eventId <= 50; eventId++) {
+            Set<String> owners = new HashSet<>();
+            for (String node : NODES) {
+                owners.add(view(node, eventId).get("owner").asText());
+            }
+            assertEquals(1, owners.size(), "owners of event " + eventId + ": " + owners);
+        }
+
+        long eventId = createEvent("node-a", 20);
+        String owner = view("node-a", eventId).get("owner").asText();
+        String other = NODES.stream().filter(node -> !node.equals(owner)).findFirst().orElseThrow();
+        logger.info("Event {} is owned by {}", eventId, owner);
+
+        // Clients cannot call the internal endpoints to book around the owner
+        HttpResponse<String> bypass = post(other, "/internal/bookings/book",
+                "{\"userId\":1,\"eventId\":" + eventId + ",\"seatNumber\":\"1\"}");
+        assertEquals(403, bypass.statusCode(), bypass.body());
+
+        // One seat contended through every node has a single winner, and other nodes relay the owner's answer
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+        try {
+            List<Future<HttpResponse<String>>> contenders = new ArrayList<>();
+            for (int i = 0; i < CONTENDERS; i++) {
+                String node = NODES.get(i % NODES.size());
+                int userId = i + 1;
+                contenders.add(executor.submit(() -> book(node, eventId, userId, "1")));
+            }
+            Map<Integer, Integer> statuses = new TreeMap<>();
+            for (Future<HttpResponse<String>> contender : contenders) {
+                HttpResponse<String> response = contender.get(60, TimeUnit.SECONDS);
+                statuses.merge(response.statusCode(), 1, Integer::sum);
+                if (response.headers().firstValue(EventRouter.NODE_HEADER).isPresent()) {
+                    assertEquals(owner, response.headers().firstValue(EventRouter.NODE_HEADER).get());
+                }
+            }
+            logger.info("Contended seat outcomes: {}", statuses);
+            assertEquals(Map.of(200, 1, 409, CONTENDERS - 1), statuses);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A booking and its cancellation sent to another node are executed by the owner
+        HttpResponse<String> booked = book(other, eventId, 500, "2");
+        assertEquals(200, booked.statusCode(), booked.body());
+        assertEquals(owner, booked.headers().firstValue(EventRouter.NODE_HEADER).orElse(null));
+        long bookingId = objectMapper.readTree(booked.body()).get("id").asLong();
+        HttpResponse<String> cancelled = post(other, "/api/bookings/cancel/" + bookingId + "?eventId=" + eventId, "");
+        assertEquals(200, cancelled.statusCode(), cancelled.body());
+        assertEquals(owner, cancelled.headers().firstValue(EventRouter.NODE_HEADER).orElse(null));
+
+        // The owner's events move to the remaining nodes once it stops heartbeating
+        processes.remove(owner).destroyForcibly().waitFor(30, TimeUnit.SECONDS);
+        List<String> remaining = NODES.stream().filter(node -> !node.equals(owner)).toList();
+        for (String node : remaining) {
+            awaitView(node, view -> members(view).size() == remaining.size());
+        }
+        String newOwner = view(remaining.get(0), eventId).get("owner").asText();
+        assertTrue(remaining.contains(newOwner), newOwner);
+        assertEquals(newOwner, view(remaining.get(1), eventId).get("owner").asText());
+        for (String node : remaining) {
+            HttpResponse<String> response = book(node, eventId, 600 + remaining.indexOf(node), String.valueOf(3 + remaining.indexOf(node)));
+            assertEquals(200, response.statusCode(), response.body());
+        }
+        logger.info("Event {} moved from {} to {}", eventId, owner, newOwner);
+
+        // Rejoining, the node gets its events back
+        start(owner);
+        awaitUp(owner);
+        for (String node : NODES) {
+            awaitView(node, view -> members(view).size() == NODES.size());
+            assertEquals(owner, view(node, eventId).get("owner").asText());
+        }
+        HttpResponse<String> rebooked = book(newOwner, eventId, 700, "5");
+        assertEquals(200, rebooked.statusCode(), rebooked.body());
+        assertEquals(owner, rebooked.headers().firstValue(EventRouter.NODE_HEADER).orElse(null));
+    }
+
+    private void start(String node) throws IOException {
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = List.of(java, "-Xmx512m", "-cp", classpath, ClusterNode.class.getName(),
+                "--server.port=" + ports.get(node),
+                "--booking.node-id=" + node,
+                "--booking.cluster.enabled=true",
+                "--booking.cluster.discovery-dir=" + workDir.resolve("members").toAbsolutePath(),
+                "--booking.cluster.advertised-url=http://localhost:" + ports.get(node),
+                "--booking.cluster.heartbeat-ms=200",
+                "--booking.cluster.member-ttl-ms=1500",
+                "--spring.datasource.url=jdbc:h2:tcp://localhost:" + database.getPort()
+                        + "/mem:cluster;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--booking.seat-cache.snapshot.enabled=false",
+                "--logging.level.com.example.booking=INFO");
+        File out = workDir.resolve(node + ".out").toFile();
+        processes.put(node, new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(out))
+                .start());
+        logger.info("Started {} on port {}", node, ports.get(node));
+    }
+
+    private void awaitUp(String node) throws Exception {
+        awaitView(node, view -> true);
+    }
+
+    private void awaitView(String node, Predicate<JsonNode> condition) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        JsonNode last = null;
+        while (System.nanoTime() < deadline) {
+            Process process = processes.get(node);
+            assertTrue(process == null || process.isAlive(), node + " exited, see " + workDir.resolve(node + ".out"));
+            try {
+                last = view(node, null);
+                if (condition.test(last)) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        fail("Timed out waiting for the cluster view of " + node + ", last: " + last);
+    }
+
+    private JsonNode view(String node, Long eventId) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request(node, "/internal/cluster" + (eventId == null ? "" : "?eventId=" + eventId))
+                .setHeader("Authorization", nodeAuthorization)
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(node + " answered " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static List<String> members(JsonNode view) {
+        List<String> members = new ArrayList<>();
+        view.get("members").forEach(member -> members.add(member.get("nodeId").asText()));
+        return members;
+    }
+
+    private long createEvent(String node, int seats) throws IOException, InterruptedException {
+        String body = "{\"name\":\"Cluster " + System.currentTimeMillis() + "\",\"location\":\"Arena\","
+                + "\"eventDate\":\"" + LocalDateTime.now().plusDays(30).withNano(0) + "\","
+                + "\"totalSeats\":" + seats + ",\"seatStart\":1,\"seatEnd\":" + seats + "}";
+        HttpResponse<String> response = post(node, "/api/events", body);
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private HttpResponse<String> book(String node, long eventId, int userId, String seatNumber) throws IOException, InterruptedException {
+        return post(node, "/api/bookings/book",
+                "{\"userId\":" + userId + ",\"eventId\":" + eventId + ",\"seatNumber\":\"" + seatNumber + "\"}");
+    }
+
+    private HttpResponse<String> post(String node, String path, String body) throws IOException, InterruptedException {
+        return http.send(request(node, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String node, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + ports.get(node) + path))
+                .header("Authorization", AUTHORIZATION)
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.booking.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdaptivePoolSizer}.
+ */
+class AdaptivePoolSizerTest {
+
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    void setUp() {
+        sizer = new AdaptivePoolSizer();
+        ReflectionTestUtils.setField(sizer, "minPoolSize", 10);
+        ReflectionTestUtils.setField(sizer, "maxPoolSize", 20);
+        ReflectionTestUtils.setField(sizer, "step", 2);
+        ReflectionTestUtils.setField(sizer, "growWaitRatio", 0.25);
+        ReflectionTestUtils.setField(sizer, "shrinkAfterTicks", 3);
+    }
+
+    /**
+     * Should grow the pool when threads wait longer than the configured fraction of hold time.
+     */
+    @Test
+    void computeTargetSize_growsWhenWaitDominates() {
+        assertEquals(14, sizer.computeTargetSize(12, 5_000_000, 10_000_000, 4, 0));
+    }
+
+    /**
+     * Should not grow the pool when nobody is waiting, even if past waits were long.
+     */
+    @Test
+    void computeTargetSize_keepsSizeWithoutWaiters() {
+        assertEquals(12, sizer.computeTargetSize(12, 5_000_000, 10_000_000, 0, 0));
+    }
+
+    /**
+     * Should not grow the pool when waits are small relative to DB latency.
+     */
+    @Test
+    void computeTargetSize_keepsSizeWhenWaitIsSmall() {
+        assertEquals(12, sizer.computeTargetSize(12, 100_000, 10_000_000, 2, 0));
+    }
+
+    /**
+     * Should shrink after enough consecutive idle ticks.
+     */
+    @Test
+    void computeTargetSize_shrinksAfterIdleTicks() {
+        assertEquals(10, sizer.computeTargetSize(12, 0, 1_000_000, 0, 3));
+    }
+
+    /**
+     * Should clamp the result to the configured bounds.
+     */
+    @Test
+    void computeTargetSize_clampsToBounds() {
+        assertEquals(20, sizer.computeTargetSize(20, 9_000_000, 10_000_000, 8, 0));
+        assertEquals(10, sizer.computeTargetSize(10, 0, 1_000_000, 0, 10));
+    }
+}
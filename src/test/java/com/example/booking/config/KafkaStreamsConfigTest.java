@@ -0,0 +1,30 @@
+package com.example.booking.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KafkaStreamsConfig}.
+ */
+class KafkaStreamsConfigTest {
+
+    /**
+     * Should prefer the configured advertised host, then the HOSTNAME variable.
+     */
+    @Test
+    void resolveAdvertisedHost_prefersConfiguredHostThenHostname() {
+        assertEquals("10.0.0.7", KafkaStreamsConfig.resolveAdvertisedHost("10.0.0.7", "pod-1", true));
+        assertEquals("10.0.0.8", KafkaStreamsConfig.resolveAdvertisedHost("", "10.0.0.8", true));
+    }
+
+    /**
+     * Should refuse a loopback address in cluster mode and allow it for a single instance.
+     */
+    @Test
+    void resolveAdvertisedHost_rejectsLoopbackOnMultiInstanceDeployments() {
+        assertThrows(IllegalStateException.class, () -> KafkaStreamsConfig.resolveAdvertisedHost("localhost", "", true));
+        assertThrows(IllegalStateException.class, () -> KafkaStreamsConfig.resolveAdvertisedHost("", "127.0.0.1", true));
+        assertEquals("localhost", KafkaStreamsConfig.resolveAdvertisedHost("localhost", "", false));
+    }
+}
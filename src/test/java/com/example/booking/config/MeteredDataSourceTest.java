@@ -0,0 +1,63 @@
+package com.example.booking.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link MeteredDataSource}.
+ */
+class MeteredDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        ConnectionCallSite.clear();
+    }
+
+    /**
+     * Should record acquisition and hold time tagged with the bound call site.
+     */
+    @Test
+    void getConnection_recordsAcquireAndHoldPerCallSite() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredDataSource dataSource = new MeteredDataSource(target, registry);
+
+        ConnectionCallSite.set("POST /api/bookings/book");
+        Connection wrapped = dataSource.getConnection();
+        wrapped.close();
+        wrapped.close();
+
+        Timer acquire = registry.get(MeteredDataSource.ACQUIRE_TIMER).tag("call_site", "POST /api/bookings/book").timer();
+        Timer hold = registry.get(MeteredDataSource.HOLD_TIMER).tag("call_site", "POST /api/bookings/book").timer();
+        assertEquals(1, acquire.count());
+        assertEquals(1, hold.count());
+        assertEquals(1, dataSource.getAcquireCount());
+        assertEquals(1, dataSource.getHoldCount());
+        verify(connection, times(2)).close();
+    }
+
+    /**
+     * Should fall back to the background call site outside of requests.
+     */
+    @Test
+    void getConnection_usesBackgroundCallSiteByDefault() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MeteredDataSource dataSource = new MeteredDataSource(target, registry);
+
+        dataSource.getConnection().close();
+
+        assertNotNull(registry.find(MeteredDataSource.ACQUIRE_TIMER).tag("call_site", ConnectionCallSite.BACKGROUND).timer());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.booking.config;
+
+import com.example.booking.service.SeatSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OutboundBackpressureInterceptor}.
+ */
+class OutboundBackpressureInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketSessionRegistry sessionRegistry = mock(WebSocketSessionRegistry.class);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+
+    /**
+     * Deltas of a subscription with one still queued should be merged into it instead of queueing again, keeping
+     * the latest state of each seat.
+     */
+    @Test
+    void coalescesQueuedDeltasOfASubscription() {
+        OutboundBackpressureInterceptor interceptor = new OutboundBackpressureInterceptor(sessionRegistry, meterRegistry, 10, 1000);
+        Message<?> first = delta("s1", "sub-0", "A1", 5, true);
+        Message<?> other = delta("s1", "sub-0", "A2", 6, true);
+        Message<?> second = delta("s1", "sub-0", "A1", 7, false);
+        Message<?> elsewhere = delta("s1", "sub-1", "A1", 5, true);
+
+        assertSame(first, interceptor.preSend(first, channel));
+        assertNull(interceptor.preSend(other, channel));
+        assertNull(interceptor.preSend(second, channel));
+        assertSame(elsewhere, interceptor.preSend(elsewhere, channel));
+        assertEquals(2, interceptor.getPending("s1"));
+
+        Message<?> sent = interceptor.beforeHandle(first, channel, handler);
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent);
+        assertEquals(SeatSnapshotService.DELTAS, headers.getFirstNativeHeader(SeatSnapshotService.MESSAGE_TYPE_HEADER));
+        assertEquals("5", headers.getFirstNativeHeader(SeatSnapshotService.FIRST_SEQUENCE_HEADER));
+        assertEquals("7", headers.getFirstNativeHeader(SeatSnapshotService.SEQUENCE_HEADER));
+        assertEquals("sub-0", headers.getSubscriptionId());
+        assertEquals("[" + json("A1", 7, false) + "," + json("A2", 6, true) + "]",
+                new String((byte[]) sent.getPayload(), StandardCharsets.UTF_8));
+        interceptor.afterMessageHandled(sent, channel, handler, null);
+        assertEquals(1, interceptor.getPending("s1"));
+        assertSame(elsewhere, interceptor.beforeHandle(elsewhere, channel, handler));
+
+        Message<?> third = delta("s1", "sub-0", "A1", 8, true);
+        assertSame(third, interceptor.preSend(third, channel));
+        assertEquals(2, meterRegistry.get(OutboundBackpressureInterceptor.MESSAGES_COUNTER)
+                .tag("outcome", "conflated").counter().count());
+    }
+
+    /**
+     * A client following the sequence numbers of what a lagging session is sent should see every update
+     * exactly once and no gap.
+     */
+    @Test
+    void coalescedDeltasLeaveNoSequenceGap() {
+        OutboundBackpressureInterceptor interceptor = new OutboundBackpressureInterceptor(sessionRegistry, meterRegistry, 10, 1000);
+        Deque<Message<?>> queue = new ArrayDeque<>();
+        long expected = 1;
+        for (long sequence = 1; sequence <= 50; sequence++) {
+            Message<?> message = interceptor.preSend(delta("s1", "sub-0", "A" + sequence % 7, sequence, sequence % 2 == 0), channel);
+            if (message != null) {
+                queue.add(message);
+            }
+            // The outbound executor takes a message now and then, while deltas keep coming
+            if (sequence % 9 == 0 || sequence == 50) {
+                while (!queue.isEmpty()) {
+                    Message<?> sent = interceptor.beforeHandle(queue.poll(), channel, handler);
+                    SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent);
+                    String first = headers.getFirstNativeHeader(SeatSnapshotService.FIRST_SEQUENCE_HEADER);
+                    long from = Long.parseLong(first != null ? first : headers.getFirstNativeHeader(SeatSnapshotService.SEQUENCE_HEADER));
+                    assertEquals(expected, from);
+                    expected = Long.parseLong(headers.getFirstNativeHeader(SeatSnapshotService.SEQUENCE_HEADER)) + 1;
+                    interceptor.afterMessageHandled(sent, channel, handler, null);
+                }
+            }
+        }
+
+        assertEquals(51, expected);
+        assertEquals(0, interceptor.getPending("s1"));
+        assertTrue(meterRegistry.get(OutboundBackpressureInterceptor.MESSAGES_COUNTER)
+                .tag("outcome", "conflated").counter().count() > 0);
+    }
+
+    /**
+     * A session at its budget should have messages dropped, and be evicted once it stays there.
+     */
+    @Test
+    void dropsAndEvictsSessionsOverBudget() throws InterruptedException {
+        OutboundBackpressureInterceptor interceptor = new OutboundBackpressureInterceptor(sessionRegistry, meterRegistry, 2, 20);
+
+        assertNotNull(interceptor.preSend(delta("s1", "sub-0", "A1", 1, true), channel));
+        assertNotNull(interceptor.preSend(delta("s1", "sub-1", "A2", 1, true), channel));
+        assertNotNull(interceptor.preSend(delta("s2", "sub-0", "A3", 1, true), channel));
+        assertNull(interceptor.preSend(delta("s1", "sub-2", "A3", 1, true), channel));
+        verify(sessionRegistry, never()).evict(anyString(), anyString());
+
+        Thread.sleep(30);
+        assertNull(interceptor.preSend(delta("s1", "sub-3", "A4", 1, true), channel));
+
+        verify(sessionRegistry).evict("s1", WebSocketSessionRegistry.REASON_LAGGING);
+        verify(sessionRegistry, never()).evict(eq("s2"), anyString());
+        assertEquals(2, meterRegistry.get(OutboundBackpressureInterceptor.MESSAGES_COUNTER)
+                .tag("outcome", "dropped").counter().count());
+    }
+
+    /**
+     * A message rejected by the channel executor must release its conflation slot.
+     */
+    @Test
+    void releasesSlotWhenExecutorRejects() {
+        OutboundBackpressureInterceptor interceptor = new OutboundBackpressureInterceptor(sessionRegistry, meterRegistry, 10, 1000);
+        Message<?> first = delta("s1", "sub-0", "A1", 1, true);
+
+        interceptor.preSend(first, channel);
+        interceptor.afterSendCompletion(first, channel, false, new IllegalStateException("queue full"));
+
+        Message<?> next = delta("s1", "sub-0", "A1", 2, false);
+        assertSame(next, interceptor.preSend(next, channel));
+        assertEquals(1, interceptor.getPending("s1"));
+    }
+
+    private static Message<?> delta(String sessionId, String subscriptionId, String seat, long sequence, boolean booked) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination("/topic/seats/1");
+        accessor.setNativeHeader(OutboundBackpressureInterceptor.CONFLATION_KEY_HEADER, seat);
+        accessor.setNativeHeader(SeatSnapshotService.MESSAGE_TYPE_HEADER, SeatSnapshotService.DELTA);
+        accessor.setNativeHeader(SeatSnapshotService.SEQUENCE_HEADER, Long.toString(sequence));
+        return MessageBuilder.createMessage(json(seat, sequence, booked).getBytes(StandardCharsets.UTF_8),
+                accessor.getMessageHeaders());
+    }
+
+    private static String json(String seat, long sequence, boolean booked) {
+        return "{\"seatNumber\":\"" + seat + "\",\"booked\":" + booked + ",\"sequence\":" + sequence + "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.booking.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SamplingTurboFilter}.
+ */
+class SamplingTurboFilterTest {
+
+    /**
+     * Should admit at most maxPerSecond INFO messages of sampled loggers, and leave warnings, disabled levels
+     * and other loggers alone.
+     */
+    @Test
+    void decide_limitsInfoMessagesOfSampledLoggers() {
+        LoggerContext context = new LoggerContext();
+        Logger hot = context.getLogger("com.example.booking.service.BookingService");
+        Logger cold = context.getLogger("com.example.booking.service.EventService");
+        context.getLogger("com.example.booking").setLevel(Level.INFO);
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.addLogger("com.example.booking.service.BookingService");
+        filter.setMaxPerSecond(3);
+        filter.start();
+
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.DEBUG, "Seat marked as booked: seatId={}", null, null));
+            if (filter.decide(null, hot, Level.INFO, "Booking created: bookingId={}", null, null) == FilterReply.NEUTRAL) {
+                admitted++;
+            }
+        }
+
+        assertEquals(3, admitted);
+        assertEquals(7, filter.getSampledOut());
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.WARN, "Seat already booked", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, cold, Level.INFO, "Fetching event", null, null));
+    }
+}
@@ -1,16 +1,21 @@
 package com.example.booking.controller;
 
+import com.example.booking.exception.SeatAlreadyBookedException;
 import com.example.booking.model.BookingRequest;
 import com.example.booking.service.BookingService;
+import com.example.booking.service.EventRouter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -26,6 +31,10 @@ class BookingControllerTest {
     @Mock
     private BookingService bookingService;
 
+    // Cluster mode off: bookings are executed locally
+    @Spy
+    private EventRouter eventRouter = new EventRouter();
+
     @InjectMocks
     private BookingController bookingController;
 
@@ -66,6 +75,33 @@ class BookingControllerTest {
         logger.info("Test bookTicket_returnsBadRequestOnRuntimeException passed");
     }
 
+    /**
+     * Tests that booking failures are left to BookingExceptionHandler rather than answered with 400.
+     */
+    @Test
+    void bookTicket_propagatesBookingFailures() {
+        BookingRequest request = new BookingRequest();
+        when(bookingService.bookTicket(request)).thenThrow(new SeatAlreadyBookedException());
+
+        assertThrows(SeatAlreadyBookedException.class, () -> bookingController.bookTicket(request));
+    }
+
+    /**
+     * Tests that a booking of an event owned by another node is answered with the owner's response.
+     */
+    @Test
+    void bookTicket_relaysOwnerResponse() {
+        BookingRequest request = new BookingRequest();
+        doReturn(Optional.of(ResponseEntity.status(409).body("Seat already booked")))
+                .when(eventRouter).forwardBooking(request);
+
+        ResponseEntity<?> result = bookingController.bookTicket(request);
+
+        assertEquals(409, result.getStatusCode().value());
+        assertEquals("Seat already booked", result.getBody());
+        verifyNoInteractions(bookingService);
+    }
+
     /**
      * Tests that bookTicket returns 500 Internal Server Error on Exception.
      * Note: This test is illustrative; actual Exception handling may require a custom setup.
@@ -92,12 +128,12 @@ class BookingControllerTest {
         logger.info("Starting test: cancelBooking_returnsOkOnSuccess");
         Long bookingId = 1L;
 
-        ResponseEntity<?> result = bookingController.cancelBooking(bookingId);
+        ResponseEntity<?> result = bookingController.cancelBooking(bookingId, null);
 
         logger.debug("Verifying response status and body");
         assertEquals(200, result.getStatusCodeValue());
         assertEquals("Booking cancelled successfully", result.getBody());
-        verify(bookingService).cancelBooking(bookingId);
+        verify(bookingService).cancelBooking(bookingId, null);
         logger.info("Test cancelBooking_returnsOkOnSuccess passed");
     }
 
@@ -108,14 +144,14 @@ class BookingControllerTest {
     void cancelBooking_returnsBadRequestOnRuntimeException() {
         logger.info("Starting test: cancelBooking_returnsBadRequestOnRuntimeException");
         Long bookingId = 1L;
-        doThrow(new RuntimeException("Cancel error")).when(bookingService).cancelBooking(bookingId);
+        doThrow(new RuntimeException("Cancel error")).when(bookingService).cancelBooking(bookingId, null);
 
-        ResponseEntity<?> result = bookingController.cancelBooking(bookingId);
+        ResponseEntity<?> result = bookingController.cancelBooking(bookingId, null);
 
         logger.debug("Verifying error response");
         assertEquals(400, result.getStatusCodeValue());
         assertEquals("Cancel error", result.getBody());
-        verify(bookingService).cancelBooking(bookingId);
+        verify(bookingService).cancelBooking(bookingId, null);
         logger.info("Test cancelBooking_returnsBadRequestOnRuntimeException passed");
     }
 
@@ -0,0 +1,34 @@
+package com.example.booking.controller;
+
+import com.example.booking.exception.BookingNotFoundException;
+import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.SeatAlreadyBookedException;
+import com.example.booking.exception.SeatNotFoundException;
+import com.example.booking.exception.SoldOutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BookingExceptionHandler}.
+ */
+class BookingExceptionHandlerTest {
+
+    private final BookingExceptionHandler handler = new BookingExceptionHandler();
+
+    /**
+     * Should map taken seats and sold-out events to 409 and missing entities to 404, keeping the message as body.
+     */
+    @Test
+    void handleBookingException_mapsFailuresToStatus() {
+        ResponseEntity<String> taken = handler.handleBookingException(new SeatAlreadyBookedException());
+
+        assertEquals(409, taken.getStatusCode().value());
+        assertEquals("Seat already booked", taken.getBody());
+        assertEquals(409, handler.handleBookingException(new SoldOutException()).getStatusCode().value());
+        assertEquals(404, handler.handleBookingException(new EventNotFoundException()).getStatusCode().value());
+        assertEquals(404, handler.handleBookingException(new SeatNotFoundException()).getStatusCode().value());
+        assertEquals(404, handler.handleBookingException(new BookingNotFoundException()).getStatusCode().value());
+    }
+}
@@ -3,8 +3,18 @@ package com.example.booking.controller;
 import com.example.booking.model.EventRequest;
 import com.example.booking.model.Event;
 import com.example.booking.model.Seat;
+import com.example.booking.model.EventSearchHit;
+import com.example.booking.model.EventSuggestion;
 import com.example.booking.model.EventWithSeats;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.model.SeatGroupAvailability;
+import com.example.booking.service.EventAutocompleteIndex;
+import com.example.booking.service.EventSearchIndex;
 import com.example.booking.service.EventService;
+import com.example.booking.service.SeatEventStreamBroadcaster;
+import com.example.booking.service.SeatSnapshotService;
+import com.example.booking.service.SeatStateCache;
+import com.example.booking.service.UpcomingEventsIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -16,7 +26,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +46,24 @@ class EventControllerTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private SeatStateCache seatStateCache;
+
+    @Mock
+    private SeatEventStreamBroadcaster seatEventStreamBroadcaster;
+
+    @Mock
+    private SeatSnapshotService seatSnapshotService;
+
+    @Mock
+    private EventSearchIndex eventSearchIndex;
+
+    @Mock
+    private EventAutocompleteIndex eventAutocompleteIndex;
+
+    @Mock
+    private UpcomingEventsIndex upcomingEventsIndex;
+
     @InjectMocks
     private EventController eventController;
 
@@ -174,4 +205,168 @@ class EventControllerTest {
         assertThrows(RuntimeException.class, () -> eventController.deleteEvent(eventId));
         verify(eventService).deleteEvent(eventId);
     }
+
+    /**
+     * Should return the cached seat availability of an event.
+     */
+    @Test
+    void getAvailability_returnsAvailability() {
+        // Arrange
+        SeatAvailability availability = new SeatAvailability(1L, 100, 40, null);
+        when(seatStateCache.getAvailability(1L)).thenReturn(Optional.of(availability));
+
+        // Act
+        ResponseEntity<SeatAvailability> response = eventController.getAvailability(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(60, response.getBody().getAvailableSeats());
+    }
+
+    /**
+     * Should return 404 when the event has no seats.
+     */
+    @Test
+    void getAvailability_returnsNotFoundForUnknownEvent() {
+        // Arrange
+        when(seatStateCache.getAvailability(1L)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<SeatAvailability> response = eventController.getAvailability(1L);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    /**
+     * Should open a seat stream from the client's Last-Event-ID, or return 404 when the event has no seats.
+     */
+    @Test
+    void streamSeats_resumesFromLastEventIdOrReturnsNotFound() {
+        // Arrange
+        SseEmitter emitter = new SseEmitter();
+        when(seatEventStreamBroadcaster.subscribe(1L, "k3x9-41")).thenReturn(Optional.of(emitter));
+        when(seatEventStreamBroadcaster.subscribe(2L, null)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<SseEmitter> response = eventController.streamSeats(1L, "k3x9-41");
+        ResponseEntity<SseEmitter> missing = eventController.streamSeats(2L, null);
+
+        // Assert
+        assertSame(emitter, response.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
+    /**
+     * Should send the precompressed seat map to clients accepting gzip and the plain JSON to others, with the
+     * same ETag.
+     */
+    @Test
+    void getSeatMap_sendsPrecompressedGzipWhenAccepted() {
+        // Arrange
+        SeatSnapshotService.CachedSnapshot seatMap = mock(SeatSnapshotService.CachedSnapshot.class);
+        when(seatMap.getETag()).thenReturn("W/\"1-abc\"");
+        when(seatMap.getJson()).thenReturn(new byte[]{'{', '}'});
+        when(seatMap.getGzip()).thenReturn(new byte[]{31, -117});
+        when(seatSnapshotService.getSeatMap(1L)).thenReturn(Optional.of(seatMap));
+        when(seatSnapshotService.getSeatMap(2L)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<byte[]> gzip = eventController.getSeatMap(1L, "br, gzip;q=0.8");
+        ResponseEntity<byte[]> identity = eventController.getSeatMap(1L, "gzip;q=0");
+        ResponseEntity<byte[]> missing = eventController.getSeatMap(2L, null);
+
+        // Assert
+        assertEquals("gzip", gzip.getHeaders().getFirst("Content-Encoding"));
+        assertArrayEquals(new byte[]{31, -117}, gzip.getBody());
+        assertEquals("W/\"1-abc\"", gzip.getHeaders().getETag());
+        assertNull(identity.getHeaders().getFirst("Content-Encoding"));
+        assertArrayEquals(new byte[]{'{', '}'}, identity.getBody());
+        assertEquals(gzip.getHeaders().getETag(), identity.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+    }
+
+    /**
+     * Should search the index with an inclusive date range and reject invalid ranges and limits.
+     */
+    @Test
+    void searchEvents_searchesIndexWithInclusiveDateRange() {
+        // Arrange
+        List<EventSearchHit> hits = List.of(new EventSearchHit(1L, "Jazz Night", "New York", null, 100, 1.5));
+        when(eventSearchIndex.search("jazz", LocalDateTime.of(2030, 7, 1, 0, 0), LocalDateTime.of(2030, 8, 1, 0, 0), 20))
+                .thenReturn(hits);
+
+        // Act
+        ResponseEntity<?> response = eventController.searchEvents("jazz", LocalDate.of(2030, 7, 1), LocalDate.of(2030, 7, 31), 20);
+        ResponseEntity<?> reversed = eventController.searchEvents("jazz", LocalDate.of(2030, 7, 31), LocalDate.of(2030, 7, 1), 20);
+        ResponseEntity<?> tooMany = eventController.searchEvents("jazz", null, null, 101);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(hits, response.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, reversed.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, tooMany.getStatusCode());
+        verify(eventSearchIndex, times(1)).search(any(), any(), any(), anyInt());
+    }
+
+    /**
+     * Should return the trie's suggestions and reject limits above its top-K.
+     */
+    @Test
+    void autocomplete_returnsSuggestionsWithinTopK() {
+        // Arrange
+        List<EventSuggestion> suggestions = List.of(new EventSuggestion(1L, "Jazz Night", "New York", null));
+        when(eventAutocompleteIndex.getTopK()).thenReturn(10);
+        when(eventAutocompleteIndex.suggest("ja", 5)).thenReturn(suggestions);
+
+        // Act
+        ResponseEntity<?> response = eventController.autocomplete("ja", 5);
+        ResponseEntity<?> tooMany = eventController.autocomplete("ja", 11);
+
+        // Assert
+        assertSame(suggestions, response.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, tooMany.getStatusCode());
+        verify(eventAutocompleteIndex, times(1)).suggest(any(), anyInt());
+    }
+
+    /**
+     * Should serve the precomputed page of a known window with its ETag and reject unknown windows.
+     */
+    @Test
+    void getUpcomingEvents_servesPrecomputedPage() {
+        // Arrange
+        UpcomingEventsIndex.CachedPage listing = mock(UpcomingEventsIndex.CachedPage.class);
+        when(listing.getETag()).thenReturn("W/\"abc\"");
+        when(listing.getJson()).thenReturn(new byte[]{'{', '}'});
+        when(upcomingEventsIndex.getPage(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 20)).thenReturn(listing);
+
+        // Act
+        ResponseEntity<?> response = eventController.getUpcomingEvents("this-weekend", 0, 20);
+        ResponseEntity<?> unknown = eventController.getUpcomingEvents("next-year", 0, 20);
+
+        // Assert
+        assertEquals("W/\"abc\"", response.getHeaders().getETag());
+        assertArrayEquals(new byte[]{'{', '}'}, (byte[]) response.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+    }
+
+    /**
+     * Should return section and row availability from the seat state cache, and 404 for unknown ones.
+     */
+    @Test
+    void getSectionAvailability_returnsCountersFromCache() {
+        // Arrange
+        SeatGroupAvailability section = new SeatGroupAvailability(1L, "112", null, 120, 30);
+        SeatGroupAvailability row = new SeatGroupAvailability(1L, "112", "C", 20, 20);
+        when(seatStateCache.getSectionAvailability(1L)).thenReturn(List.of(section));
+        when(seatStateCache.getSectionAvailability(1L, "112")).thenReturn(Optional.of(section));
+        when(seatStateCache.getRowAvailability(1L, "112", "C")).thenReturn(Optional.of(row));
+        when(seatStateCache.getRowAvailability(1L, "112", "Z")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(List.of(section), eventController.getSectionAvailability(1L));
+        assertEquals(90, eventController.getSectionAvailability(1L, "112").getBody().getAvailableSeats());
+        assertEquals(0, eventController.getRowAvailability(1L, "112", "C").getBody().getAvailableSeats());
+        assertEquals(HttpStatus.NOT_FOUND, eventController.getRowAvailability(1L, "112", "Z").getStatusCode());
+    }
 }
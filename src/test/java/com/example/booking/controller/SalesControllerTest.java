@@ -0,0 +1,68 @@
+package com.example.booking.controller;
+
+import com.example.booking.model.SalesCounts;
+import com.example.booking.service.SalesQueryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SalesController}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SalesControllerTest {
+
+    @Mock
+    private SalesQueryService salesQueryService;
+
+    @InjectMocks
+    private SalesController salesController;
+
+    /**
+     * Tests that getTotals returns the locally held counts.
+     */
+    @Test
+    void getTotals_returnsOkWithCounts() {
+        SalesCounts counts = new SalesCounts(5, 1);
+        when(salesQueryService.remoteOwner(1L)).thenReturn(Optional.empty());
+        when(salesQueryService.getTotals(1L)).thenReturn(counts);
+
+        ResponseEntity<?> result = salesController.getTotals(1L);
+
+        assertEquals(200, result.getStatusCode().value());
+        assertEquals(counts, result.getBody());
+    }
+
+    /**
+     * Tests that getTotals returns 503 while the stores are unavailable.
+     */
+    @Test
+    void getTotals_returnsServiceUnavailableWhileStoresUnavailable() {
+        when(salesQueryService.remoteOwner(1L)).thenThrow(new IllegalStateException("Sales data is not available yet"));
+
+        ResponseEntity<?> result = salesController.getTotals(1L);
+
+        assertEquals(503, result.getStatusCode().value());
+        assertEquals("Sales data is not available yet", result.getBody());
+    }
+
+    /**
+     * Tests that getPerMinute rejects an out-of-range look-back.
+     */
+    @Test
+    void getPerMinute_returnsBadRequestForInvalidRange() {
+        ResponseEntity<?> result = salesController.getPerMinute(1L, SalesController.MAX_MINUTES + 1);
+
+        assertEquals(400, result.getStatusCode().value());
+        verify(salesQueryService, never()).getPerMinute(any(), any(), any());
+    }
+}
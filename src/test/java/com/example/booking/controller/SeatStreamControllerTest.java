@@ -0,0 +1,41 @@
+package com.example.booking.controller;
+
+import com.example.booking.model.SeatSnapshot;
+import com.example.booking.service.SeatSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SeatStreamController}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatStreamControllerTest {
+
+    @Mock
+    private SeatSnapshotService seatSnapshotService;
+
+    @InjectMocks
+    private SeatStreamController seatStreamController;
+
+    /**
+     * Should reply with the event's snapshot, and with nothing for an unknown event.
+     */
+    @Test
+    void snapshot_repliesWithSnapshot() {
+        SeatSnapshot snapshot = new SeatSnapshot(1L, 7L, 1, 0, List.of("A1"), "");
+        when(seatSnapshotService.getSnapshot(1L)).thenReturn(Optional.of(snapshot));
+        when(seatSnapshotService.getSnapshot(2L)).thenReturn(Optional.empty());
+
+        assertSame(snapshot, seatStreamController.snapshot(1L));
+        assertNull(seatStreamController.snapshot(2L));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.booking.controller;
+
+import com.example.booking.exception.NoSeatOfferException;
+import com.example.booking.model.Booking;
+import com.example.booking.model.WaitlistStatus;
+import com.example.booking.service.WaitlistService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link WaitlistController}.
+ */
+@ExtendWith(MockitoExtension.class)
+class WaitlistControllerTest {
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @InjectMocks
+    private WaitlistController waitlistController;
+
+    /**
+     * Joining returns the user's place in line.
+     */
+    @Test
+    void join_returnsStatus() {
+        WaitlistStatus status = new WaitlistStatus(7L, 11L, WaitlistService.WAITING, 3, null, null);
+        when(waitlistService.join(7L, 11L)).thenReturn(status);
+
+        ResponseEntity<?> response = waitlistController.join(7L, 11L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(status, response.getBody());
+    }
+
+    /**
+     * A claim returns the booking, and a claim without an offer is left to the exception handler (409).
+     */
+    @Test
+    void claim_returnsBookingOrConflict() {
+        Booking booking = new Booking();
+        when(waitlistService.claim(7L, 11L)).thenReturn(booking);
+        when(waitlistService.claim(7L, 12L)).thenThrow(new NoSeatOfferException());
+
+        assertSame(booking, waitlistController.claim(7L, 11L).getBody());
+        NoSeatOfferException ex = assertThrows(NoSeatOfferException.class, () -> waitlistController.claim(7L, 12L));
+        assertEquals(HttpStatus.CONFLICT, BookingExceptionHandler.statusOf(ex));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BookingEventCodec}, {@link BookingEventSerializer} and {@link BookingEventDeserializer}.
+ */
+class BookingEventCodecTest {
+
+    private final BookingEventDeserializer deserializer = new BookingEventDeserializer();
+
+    /**
+     * Should round-trip an event through the binary encoding, including non-ASCII seat numbers.
+     */
+    @Test
+    void binary_roundTrips() {
+        BookingEvent event = BookingEvent.cancelled(1_234_567L, 42L, 1_001L, "Balcón-7");
+
+        byte[] payload = BookingEventCodec.encodeBinary(event);
+
+        assertEquals(BookingEventCodec.MAGIC, payload[0]);
+        assertEquals(BookingEventCodec.SCHEMA_VERSION, payload[1]);
+        assertEquals(event, deserializer.deserialize("booking-events", payload));
+    }
+
+    /**
+     * Should produce the legacy JSON shape with the seat number escaped.
+     */
+    @Test
+    void json_matchesLegacyShapeAndEscapes() throws Exception {
+        BookingEvent event = BookingEvent.booked(100L, 1L, 2L, "A\"1\\");
+
+        byte[] payload = BookingEventCodec.encodeJson(event);
+
+        JsonNode node = new ObjectMapper().readTree(payload);
+        assertEquals("BOOKED", node.get("type").asText());
+        assertEquals(100L, node.get("bookingId").asLong());
+        assertEquals("A\"1\\", node.get("seatNumber").asText());
+        assertEquals(event, deserializer.deserialize("booking-events", payload));
+        assertEquals("{\"type\":\"BOOKED\",\"bookingId\":100,\"userId\":1,\"eventId\":2,\"seatNumber\":\"A\\\"1\\\\\"}",
+                new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Binary payloads should be considerably smaller than JSON.
+     */
+    @Test
+    void binary_isSmallerThanJson() {
+        BookingEvent event = BookingEvent.booked(1_234_567L, 42L, 1_001L, "A-123");
+
+        assertTrue(BookingEventCodec.encodeBinary(event).length * 4 < BookingEventCodec.encodeJson(event).length);
+    }
+
+    /**
+     * Should select the wire format from the producer configuration.
+     */
+    @Test
+    void serializer_honoursFormatConfig() {
+        BookingEvent event = BookingEvent.booked(1L, 2L, 3L, "B2");
+        BookingEventSerializer serializer = new BookingEventSerializer();
+        assertEquals('{', serializer.serialize("t", event)[0]);
+
+        serializer.configure(Map.of(BookingEventSerializer.FORMAT_CONFIG, "binary"), false);
+
+        assertTrue(BookingEventCodec.isBinary(serializer.serialize("t", event)));
+        assertThrows(IllegalStateException.class,
+                () -> serializer.configure(Map.of(BookingEventSerializer.FORMAT_CONFIG, "avro"), false));
+    }
+
+    /**
+     * Should encode supplementary characters as whole code points rather than per UTF-16 unit.
+     */
+    @Test
+    void json_encodesSupplementaryCharacters() throws Exception {
+        String seatNumber = "VIP-\uD83C\uDFAB-1";
+        BookingEvent event = BookingEvent.booked(100L, 1L, 2L, seatNumber);
+
+        byte[] payload = BookingEventCodec.encodeJson(event);
+
+        assertEquals(seatNumber, new ObjectMapper().readTree(payload).get("seatNumber").asText());
+        assertTrue(new String(payload, StandardCharsets.UTF_8).contains(seatNumber));
+        assertEquals(event, deserializer.deserialize("booking-events", payload));
+    }
+
+    /**
+     * Should decode records from a newer schema version, skipping fields appended after version 1.
+     */
+    @Test
+    void deserializer_acceptsNewerSchemaVersions() {
+        BookingEvent event = BookingEvent.booked(300L, 2L, 3L, "C3");
+        byte[] payload = BookingEventCodec.encodeBinary(event);
+        byte[] future = Arrays.copyOf(payload, payload.length + 3);
+        future[1] = (byte) (BookingEventCodec.SCHEMA_VERSION + 1);
+        future[payload.length] = 0x7F;
+
+        assertEquals(event, deserializer.deserialize("t", future));
+    }
+
+    /**
+     * Should reject truncated payloads and invalid schema versions.
+     */
+    @Test
+    void deserializer_rejectsMalformedPayloads() {
+        byte[] payload = BookingEventCodec.encodeBinary(BookingEvent.booked(300L, 2L, 3L, "C3"));
+        byte[] truncated = Arrays.copyOf(payload, 4);
+        byte[] invalid = payload.clone();
+        invalid[1] = 0;
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("t", truncated));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("t", invalid));
+    }
+}
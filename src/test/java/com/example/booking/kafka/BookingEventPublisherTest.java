@@ -0,0 +1,79 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BookingEventPublisher}.
+ */
+class BookingEventPublisherTest {
+
+    private KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingEventPublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new BookingEventPublisher(kafkaTemplate, meterRegistry, "booking-events");
+    }
+
+    /**
+     * Should key the record by event ID and time the acknowledged delivery.
+     */
+    @Test
+    void publish_keysByEventIdAndRecordsDelivery() {
+        BookingEvent event = BookingEvent.booked(100L, 1L, 7L, "A1");
+        CompletableFuture<SendResult<String, BookingEvent>> future = new CompletableFuture<>();
+        when(kafkaTemplate.send("booking-events", "7", event)).thenReturn(future);
+
+        publisher.publish(event);
+        assertEquals(0, meterRegistry.get(BookingEventPublisher.DELIVERY_TIMER).tag("type", "booked").timer().count());
+        future.complete(null);
+
+        assertEquals(1, meterRegistry.get(BookingEventPublisher.DELIVERY_TIMER).tag("type", "booked").timer().count());
+        assertNull(meterRegistry.find(BookingEventPublisher.FAILURE_COUNTER).counter());
+    }
+
+    /**
+     * Should count deliveries that the broker never acknowledges.
+     */
+    @Test
+    void publish_countsFailedDelivery() {
+        BookingEvent event = BookingEvent.cancelled(100L, 1L, 7L, "A1");
+        CompletableFuture<SendResult<String, BookingEvent>> future = new CompletableFuture<>();
+        when(kafkaTemplate.send("booking-events", "7", event)).thenReturn(future);
+
+        publisher.publish(event);
+        future.completeExceptionally(new TimeoutException("expired"));
+
+        assertEquals(1.0, meterRegistry.get(BookingEventPublisher.FAILURE_COUNTER)
+                .tags("type", "cancelled", "exception", "TimeoutException").counter().count());
+        assertEquals(0, meterRegistry.get(BookingEventPublisher.DELIVERY_TIMER).tag("type", "cancelled").timer().count());
+    }
+
+    /**
+     * Should count and rethrow failures raised before the record is handed to the producer.
+     */
+    @Test
+    void publish_countsAndRethrowsSynchronousFailure() {
+        BookingEvent event = BookingEvent.booked(100L, 1L, 7L, "A1");
+        when(kafkaTemplate.send("booking-events", "7", event)).thenThrow(new IllegalStateException("closed"));
+
+        assertThrows(IllegalStateException.class, () -> publisher.publish(event));
+        assertEquals(1.0, meterRegistry.get(BookingEventPublisher.FAILURE_COUNTER)
+                .tag("exception", "IllegalStateException").counter().count());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.booking.kafka;
+
+import com.example.booking.model.BookingEvent;
+import com.example.booking.model.SalesCounts;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.*;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BookingSalesTopology} using {@link TopologyTestDriver}.
+ */
+class BookingSalesTopologyTest {
+
+    private static final String TOPIC = "booking-events";
+    private static final Instant ON_SALE = Instant.parse("2025-06-14T10:00:00Z");
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, BookingEvent> input;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        BookingSalesTopology.build(builder, TOPIC, Duration.ofHours(1));
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "booking-sales-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), props);
+        input = driver.createInputTopic(TOPIC, new StringSerializer(), new BookingEventSerializer(BookingEventSerializer.Format.BINARY));
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    /**
+     * Should count bookings and cancellations per event.
+     */
+    @Test
+    void totals_countBookedAndCancelledPerEvent() {
+        input.pipeInput("1", BookingEvent.booked(10L, 100L, 1L, "A1"), ON_SALE);
+        input.pipeInput("1", BookingEvent.booked(11L, 101L, 1L, "A2"), ON_SALE.plusSeconds(1));
+        input.pipeInput("1", BookingEvent.cancelled(10L, 100L, 1L, "A1"), ON_SALE.plusSeconds(2));
+        input.pipeInput("2", BookingEvent.booked(12L, 102L, 2L, "B1"), ON_SALE.plusSeconds(3));
+
+        KeyValueStore<String, SalesCounts> totals = driver.getKeyValueStore(BookingSalesTopology.TOTALS_STORE);
+        assertEquals(new SalesCounts(2, 1), totals.get("1"));
+        assertEquals(1, totals.get("1").getNet());
+        assertEquals(new SalesCounts(1, 0), totals.get("2"));
+    }
+
+    /**
+     * Should bucket sales into one-minute windows by record time.
+     */
+    @Test
+    void perMinute_bucketsByRecordTime() {
+        input.pipeInput("1", BookingEvent.booked(10L, 100L, 1L, "A1"), ON_SALE.plusSeconds(5));
+        input.pipeInput("1", BookingEvent.booked(11L, 101L, 1L, "A2"), ON_SALE.plusSeconds(55));
+        input.pipeInput("1", BookingEvent.booked(12L, 102L, 1L, "A3"), ON_SALE.plusSeconds(65));
+
+        WindowStore<String, SalesCounts> perMinute = driver.getWindowStore(BookingSalesTopology.PER_MINUTE_STORE);
+        try (WindowStoreIterator<SalesCounts> windows = perMinute.fetch("1", ON_SALE, ON_SALE.plusSeconds(60))) {
+            KeyValue<Long, SalesCounts> first = windows.next();
+            assertEquals(ON_SALE.toEpochMilli(), first.key);
+            assertEquals(2, first.value.getBooked());
+            KeyValue<Long, SalesCounts> second = windows.next();
+            assertEquals(ON_SALE.plusSeconds(60).toEpochMilli(), second.key);
+            assertEquals(1, second.value.getBooked());
+            assertFalse(windows.hasNext());
+        }
+    }
+
+    /**
+     * Should skip unkeyed records and read legacy JSON payloads.
+     */
+    @Test
+    void skipsUnkeyedRecordsAndReadsJson() {
+        TestInputTopic<String, BookingEvent> jsonInput = driver.createInputTopic(TOPIC, new StringSerializer(), new BookingEventSerializer());
+        jsonInput.pipeInput(null, BookingEvent.booked(10L, 100L, 1L, "A1"), ON_SALE);
+        jsonInput.pipeInput("1", BookingEvent.booked(11L, 101L, 1L, "A2"), ON_SALE);
+
+        KeyValueStore<String, SalesCounts> totals = driver.getKeyValueStore(BookingSalesTopology.TOTALS_STORE);
+        assertEquals(new SalesCounts(1, 0), totals.get("1"));
+    }
+}
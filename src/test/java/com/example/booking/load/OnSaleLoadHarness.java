@@ -0,0 +1,281 @@
+package com.example.booking.load;
+
+import com.example.booking.config.MeteredDataSource;
+import com.example.booking.repository.BookingRepository;
+import com.example.booking.service.BookingMetrics;
+import com.example.booking.service.SeatSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end on-sale load harness.
+ * <p>
+ * Boots the application on a random port against an embedded H2 database in PostgreSQL mode and an
+ * in-process Kafka producer, creates an event through {@code EventController}, connects WebSocket
+ * viewers to {@code /topic/seats/{id}} and fires concurrent {@code /api/bookings/book} requests
+ * with a Zipf-skewed seat choice so that hot seats are contended the way they are during an on-sale.
+ * </p>
+ * Reports throughput, latency percentiles, the error mix and seat lock waits, and writes them to
+ * {@code target/onsale-load-report.json}. Excluded from the default build; run with
+ * {@code mvn -Ponsale-load test}.
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OnSaleLoadHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnSaleLoadHarness.class);
+
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+            .encodeToString("user2025:booking7891".getBytes(StandardCharsets.UTF_8));
+
+    private final int requests = Integer.getInteger("onsale.requests", 5000);
+    private final int concurrency = Integer.getInteger("onsale.concurrency", 64);
+    private final int seats = Integer.getInteger("onsale.seats", 2000);
+    private final int wsClients = Integer.getInteger("onsale.wsClients", 50);
+    private final double skew = Double.parseDouble(System.getProperty("onsale.skew", "1.1"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Replaces the Kafka producer with an in-process stand-in that acknowledges every record.
+     */
+    @TestConfiguration
+    static class KafkaStandIn {
+        @Bean
+        ProducerFactory<Object, Object> producerFactory() {
+            Serializer<Object> serializer = (topic, data) -> String.valueOf(data).getBytes(StandardCharsets.UTF_8);
+            MockProducer<Object, Object> producer = new MockProducer<>(true, serializer, serializer) {
+                @Override
+                public void close(Duration timeout) {
+                    // KafkaTemplate closes the producer after every send; keep the shared stand-in open.
+                }
+            };
+            return () -> producer;
+        }
+    }
+
+    /**
+     * Runs one on-sale and reports the results.
+     */
+    @Test
+    void onSale() throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long eventId = createEvent(http);
+        logger.warn("Created event {} with {} seats", eventId, seats);
+
+        AtomicLong seatUpdates = new AtomicLong();
+        List<StompSession> viewers = connectViewers(eventId, seatUpdates);
+
+        ZipfSampler sampler = new ZipfSampler(seats, skew);
+        long[] latencies = new long[requests];
+        Map<String, Long> outcomes = new ConcurrentHashMap<>();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            clients.execute(() -> {
+                String body = "{\"userId\":" + (index + 1) + ",\"eventId\":" + eventId
+                        + ",\"seatNumber\":\"" + sampler.next() + "\"}";
+                long start = System.nanoTime();
+                String outcome;
+                try {
+                    HttpResponse<String> response = http.send(post("/api/bookings/book", body), HttpResponse.BodyHandlers.ofString());
+                    outcome = response.statusCode() == 200 ? "200 booked" : response.statusCode() + " " + response.body();
+                } catch (IOException | InterruptedException ex) {
+                    outcome = "client " + ex.getClass().getSimpleName();
+                }
+                latencies[index] = System.nanoTime() - start;
+                outcomes.merge(outcome, 1L, Long::sum);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.MINUTES), "on-sale did not finish in time");
+        long elapsed = System.nanoTime() - started;
+        clients.shutdown();
+        Thread.sleep(500);
+        viewers.forEach(StompSession::disconnect);
+
+        Map<String, Object> report = report(elapsed, latencies, outcomes, seatUpdates.get());
+        String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "onsale-load-report.json"), json);
+        logger.warn("On-sale report:\n{}", json);
+
+        long booked = outcomes.getOrDefault("200 booked", 0L);
+        assertEquals(booked, bookingRepository.count(), "every 200 response must correspond to exactly one booking");
+        assertTrue(booked <= seats, "more bookings than seats");
+    }
+
+    private long createEvent(HttpClient http) throws IOException, InterruptedException {
+        String body = "{\"name\":\"On-sale " + System.currentTimeMillis() + "\",\"location\":\"Arena\","
+                + "\"eventDate\":\"" + LocalDateTime.now().plusDays(30).withNano(0) + "\","
+                + "\"totalSeats\":" + seats + ",\"seatStart\":1,\"seatEnd\":" + seats + "}";
+        HttpResponse<String> response = http.send(post("/api/events", body), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private List<StompSession> connectViewers(long eventId, AtomicLong seatUpdates) throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.add("Authorization", AUTHORIZATION);
+        List<StompSession> sessions = new ArrayList<>();
+        for (int i = 0; i < wsClients; i++) {
+            StompSession session = stompClient
+                    .connectAsync("ws://localhost:" + port + "/ws", headers, new StompSessionHandlerAdapter() {
+                    })
+                    .get(10, TimeUnit.SECONDS);
+            session.subscribe("/topic/seats/" + eventId, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders stompHeaders) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders stompHeaders, Object payload) {
+                    String type = stompHeaders.getFirst(SeatSnapshotService.MESSAGE_TYPE_HEADER);
+                    if (SeatSnapshotService.DELTA.equals(type) || SeatSnapshotService.DELTAS.equals(type)) {
+                        seatUpdates.incrementAndGet();
+                    }
+                }
+            });
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", AUTHORIZATION)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Map<String, Object> report(long elapsedNanos, long[] latencies, Map<String, Long> outcomes, long seatUpdates) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", requests);
+        report.put("concurrency", concurrency);
+        report.put("seats", seats);
+        report.put("skew", skew);
+        report.put("webSocketViewers", wsClients);
+        report.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.put("throughputPerSec", Math.round(requests / (elapsedNanos / 1e9)));
+
+        Map<String, Double> latencyMs = new LinkedHashMap<>();
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            latencyMs.put("p" + percentile, millis(sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100 * sorted.length) - 1)]));
+        }
+        latencyMs.put("max", millis(sorted[sorted.length - 1]));
+        report.put("latencyMs", latencyMs);
+        report.put("outcomes", new TreeMap<>(outcomes));
+        report.put("seatUpdatesReceived", seatUpdates);
+        report.put("seatLockWait", timerSummary(meterRegistry.find(BookingMetrics.PHASE_TIMER)
+                .tags("operation", "book", "phase", "seat_lock").timers()));
+        report.put("connectionAcquire", timerSummary(meterRegistry.find(MeteredDataSource.ACQUIRE_TIMER).timers()));
+        return report;
+    }
+
+    private static Map<String, Object> timerSummary(Collection<Timer> timers) {
+        long count = 0;
+        double totalMs = 0;
+        double maxMs = 0;
+        for (Timer timer : timers) {
+            count += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMs = Math.max(maxMs, timer.max(TimeUnit.MILLISECONDS));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("meanMs", count > 0 ? totalMs / count : 0);
+        summary.put("maxMs", maxMs);
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    /**
+     * Samples seat numbers {@code 1..n} with a Zipf distribution, so a few hot seats receive most requests.
+     */
+    static final class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1) + 1;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BinarySeatUpdateBatcher}.
+ */
+@ExtendWith(MockitoExtension.class)
+class BinarySeatUpdateBatcherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private SeatSnapshotService seatSnapshotService;
+
+    @InjectMocks
+    private BinarySeatUpdateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(batcher, "enabled", true);
+        batcher.registerMetrics();
+    }
+
+    /**
+     * Updates of an event should go out as one frame in sequence order; unknown seats are left out.
+     */
+    @Test
+    void flush_sendsOneOrderedFramePerEvent() {
+        when(seatSnapshotService.ordinal(1L, "A1")).thenReturn(0);
+        when(seatSnapshotService.ordinal(1L, "A2")).thenReturn(1);
+        when(seatSnapshotService.ordinal(1L, "Z9")).thenReturn(-1);
+
+        batcher.offer(1L, "A2", true, 8);
+        batcher.offer(1L, "A1", false, 7);
+        batcher.offer(1L, "Z9", true, 9);
+        batcher.flush();
+        batcher.flush();
+
+        ArgumentCaptor<byte[]> frame = ArgumentCaptor.forClass(byte[].class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/seats/1/bin"), frame.capture(), anyMap());
+        List<SeatUpdateFrameCodec.Entry> entries = SeatUpdateFrameCodec.decode(frame.getValue());
+        assertEquals(2, entries.size());
+        assertEquals(7, entries.get(0).getSequence());
+        assertEquals(0, entries.get(0).getOrdinal());
+        assertFalse(entries.get(0).isBooked());
+        assertEquals(8, entries.get(1).getSequence());
+        assertEquals(1, entries.get(1).getOrdinal());
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.booking.service;
 
+import com.example.booking.exception.BookingNotFoundException;
+import com.example.booking.exception.EventNotFoundException;
+import com.example.booking.exception.SeatAlreadyBookedException;
+import com.example.booking.kafka.BookingEventPublisher;
 import com.example.booking.model.*;
 import com.example.booking.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -34,15 +39,19 @@ class BookingServiceTest {
     @Mock
     private EventRepository eventRepository;
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private BookingEventPublisher bookingEventPublisher;
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private SeatUpdateFanout seatUpdateFanout;
+    @Mock
+    private WaitlistService waitlistService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry);
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        // Manually inject the topic value for tests
-        ReflectionTestUtils.setField(bookingService, "topic", "booking-events");
         logger.info("Mocks initialized for BookingServiceTest");
     }
 
@@ -80,7 +89,12 @@ class BookingServiceTest {
         assertNotNull(booking);
         assertEquals("BOOKED", booking.getStatus());
         logger.debug("Booking created with id={}", booking.getId());
-        verify(kafkaTemplate).send(anyString(), contains("BOOKED"));
+        verify(bookingEventPublisher).publish(eq(BookingEvent.booked(booking.getId(), 1L, 2L, "A1")));
+        verify(seatUpdateFanout).publish(eq(2L), argThat(u -> u.getSeatNumber().equals("A1") && u.isBooked()));
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER)
+                .tags("operation", "book", "phase", "seat_lock", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.OPERATION_TIMER)
+                .tags("operation", "book", "outcome", "success").timer().count());
     }
 
     /**
@@ -95,7 +109,7 @@ class BookingServiceTest {
         request.setSeatNumber("A1");
         when(eventRepository.findById(99L)).thenReturn(Optional.empty());
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> bookingService.bookTicket(request));
+        RuntimeException ex = assertThrows(EventNotFoundException.class, () -> bookingService.bookTicket(request));
         assertEquals("Event not found", ex.getMessage());
         logger.error("Expected exception: {}", ex.getMessage());
     }
@@ -122,8 +136,11 @@ class BookingServiceTest {
         when(eventRepository.findById(2L)).thenReturn(Optional.of(event));
         when(seatRepository.findByEventIdAndSeatNumberForUpdate(event, "A1")).thenReturn(Optional.of(seat));
 
-        RuntimeException ex = assertThrows(RuntimeException.class, () -> bookingService.bookTicket(request));
+        RuntimeException ex = assertThrows(SeatAlreadyBookedException.class, () -> bookingService.bookTicket(request));
         assertEquals("Seat already booked", ex.getMessage());
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER)
+                .tags("operation", "book", "phase", "seat_lock", "outcome", "failure").timer().count());
         logger.warn("Expected warning: {}", ex.getMessage());
     }
 
@@ -146,13 +163,122 @@ class BookingServiceTest {
         seat.setIsBooked(true);
 
         when(bookingRepository.findByIdAndStatus(10L, "BOOKED")).thenReturn(Optional.of(booking));
-        when(seatRepository.findById(3L)).thenReturn(Optional.of(seat));
+        when(seatRepository.findByEventIdAndId(2L, 3L)).thenReturn(Optional.of(seat));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(seatRepository.save(any(Seat.class))).thenReturn(seat);
 
         assertDoesNotThrow(() -> bookingService.cancelBooking(10L));
         logger.debug("Booking cancelled for id={}", booking.getId());
-        verify(kafkaTemplate).send(anyString(), contains("CANCELLED"));
+        verify(bookingEventPublisher).publish(argThat(e -> e.getType() == BookingEvent.Type.CANCELLED && e.getBookingId() == 10L));
+    }
+
+    /**
+     * Test that the transaction commit is timed as a phase, and the operation recorded with the commit outcome.
+     */
+    @Test
+    void testCancelBooking_TimesCommit() {
+        logger.info("Running testCancelBooking_TimesCommit");
+        Booking booking = new Booking();
+        booking.setId(10L);
+        booking.setSeatId(3L);
+        booking.setEventId(2L);
+        booking.setUserId(1L);
+        Seat seat = new Seat();
+        seat.setId(3L);
+        seat.setSeatNumber("A1");
+        seat.setIsBooked(true);
+        when(bookingRepository.findByIdAndStatus(anyLong(), eq("BOOKED"))).thenReturn(Optional.of(booking));
+        when(seatRepository.findByEventIdAndId(2L, 3L)).thenReturn(Optional.of(seat));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.cancelBooking(10L);
+            assertEquals(0, meterRegistry.get(BookingMetrics.OPERATION_TIMER)
+                    .tags("operation", "cancel", "outcome", "success").timer().count());
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+
+            bookingService.cancelBooking(11L);
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER)
+                .tags("operation", "cancel", "phase", "commit", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER)
+                .tags("operation", "cancel", "phase", "commit", "outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.OPERATION_TIMER)
+                .tags("operation", "cancel", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.OPERATION_TIMER)
+                .tags("operation", "cancel", "outcome", "failure").timer().count());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(synchronization -> {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(status);
+        });
+    }
+
+    /**
+     * Test that a cancelled seat is handed to the waitlist, without releasing it, when users are waiting.
+     */
+    @Test
+    void testCancelBooking_HandsSeatToWaitlist() {
+        logger.info("Running testCancelBooking_HandsSeatToWaitlist");
+        Booking booking = new Booking();
+        booking.setId(10L);
+        booking.setSeatId(3L);
+        booking.setEventId(2L);
+        booking.setUserId(1L);
+
+        Seat seat = new Seat();
+        seat.setId(3L);
+        seat.setSeatNumber("A1");
+        seat.setIsBooked(true);
+
+        when(bookingRepository.findByIdAndStatus(10L, "BOOKED")).thenReturn(Optional.of(booking));
+        when(seatRepository.findByEventIdAndId(2L, 3L)).thenReturn(Optional.of(seat));
+        when(waitlistService.hasWaiting(2L)).thenReturn(true);
+
+        bookingService.cancelBooking(10L);
+
+        assertEquals(BookingService.CANCELLED, booking.getStatus());
+        assertTrue(seat.getIsBooked());
+        verify(waitlistService).handOff(2L, 3L);
+        verify(seatRepository, never()).save(any(Seat.class));
+        verify(bookingRepository, never()).delete(any(Booking.class));
+        verifyNoInteractions(bookingEventPublisher, seatUpdateFanout);
+    }
+
+    /**
+     * Without an event ID, a partitioned bookings table should be searched in the booking's partition only.
+     */
+    @Test
+    void testCancelBooking_LocatesPartitionWithoutEventId() {
+        ReflectionTestUtils.setField(bookingService, "partitioned", true);
+        Booking booking = new Booking();
+        booking.setId(10L);
+        booking.setSeatId(3L);
+        booking.setEventId(2L);
+        booking.setUserId(1L);
+        Seat seat = new Seat();
+        seat.setId(3L);
+        seat.setSeatNumber("A1");
+
+        when(bookingRepository.findEventIdById(10L)).thenReturn(Optional.of(2L));
+        when(bookingRepository.findByEventIdAndIdAndStatus(2L, 10L, "BOOKED")).thenReturn(Optional.of(booking));
+        when(seatRepository.findByEventIdAndId(2L, 3L)).thenReturn(Optional.of(seat));
+        when(bookingRepository.findEventIdById(99L)).thenReturn(Optional.empty());
+
+        bookingService.cancelBooking(10L);
+        assertThrows(BookingNotFoundException.class, () -> bookingService.cancelBooking(99L));
+
+        verify(bookingRepository, never()).findByIdAndStatus(anyLong(), anyString());
+        verify(bookingRepository).delete(booking);
     }
 
     /**
@@ -165,6 +291,7 @@ class BookingServiceTest {
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> bookingService.cancelBooking(99L));
         assertEquals("Active booking not found", ex.getMessage());
+        assertInstanceOf(BookingNotFoundException.class, ex);
         logger.error("Expected exception: {}", ex.getMessage());
     }
 
@@ -0,0 +1,134 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.model.ClusterMember;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClusterMembership}.
+ */
+class ClusterMembershipTest {
+
+    @TempDir
+    Path discoveryDir;
+
+    private ClusterMembership membership;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        membership = new ClusterMembership();
+        ReflectionTestUtils.setField(membership, "nodeIdentity", new NodeIdentity("node-a", "host"));
+        ReflectionTestUtils.setField(membership, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(membership, "enabled", true);
+        ReflectionTestUtils.setField(membership, "staticMembers", "");
+        ReflectionTestUtils.setField(membership, "discoveryDir", discoveryDir);
+        ReflectionTestUtils.setField(membership, "advertisedUrl", "");
+        ReflectionTestUtils.setField(membership, "memberTtlMs", 5000L);
+        ReflectionTestUtils.setField(membership, "virtualNodes", 64);
+        ReflectionTestUtils.setField(membership, "unreachableMs", 10_000L);
+        ReflectionTestUtils.setField(membership, "localUrl", "http://localhost:8081");
+    }
+
+    /**
+     * Static members are parsed from the configuration, and must include this node.
+     */
+    @Test
+    void init_usesStaticMembers() {
+        ReflectionTestUtils.setField(membership, "staticMembers", "node-b=http://10.0.0.2:8080, node-a=http://10.0.0.1:8080");
+        membership.init();
+
+        assertEquals(List.of(new ClusterMember("node-a", "http://10.0.0.1:8080"), new ClusterMember("node-b", "http://10.0.0.2:8080")),
+                membership.getMembers());
+        long local = LongStream.range(0, 100).filter(membership::isLocal).count();
+        assertTrue(local > 20 && local < 80, "local " + local);
+
+        ReflectionTestUtils.setField(membership, "staticMembers", "node-b=http://10.0.0.2:8080");
+        assertThrows(IllegalStateException.class, membership::init);
+        assertThrows(IllegalArgumentException.class, () -> ClusterMembership.parseMembers("node-b"));
+    }
+
+    /**
+     * Discovered members join and leave the ring as their files appear, go stale or are removed.
+     */
+    @Test
+    void heartbeat_rebalancesAsMembersJoinAndLeave() throws Exception {
+        membership.init();
+        membership.heartbeat();
+        assertEquals("http://localhost:8081", Files.readString(discoveryDir.resolve("node-a.member")));
+        assertEquals(1, membership.getMembers().size());
+        assertTrue(membership.isLocal(42L));
+
+        Files.writeString(discoveryDir.resolve("node-b.member"), "http://localhost:8082");
+        Path stale = Files.writeString(discoveryDir.resolve("node-c.member"), "http://localhost:8083");
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        membership.heartbeat();
+
+        assertEquals(List.of("node-a", "node-b"), membership.getMembers().stream().map(ClusterMember::getNodeId).toList());
+        assertEquals(1.0, meterRegistry.get(ClusterMembership.REBALANCES_COUNTER).counter().count());
+        assertEquals(2.0, meterRegistry.get(ClusterMembership.MEMBERS_GAUGE).gauge().value());
+        Long remote = LongStream.range(0, 100).filter(eventId -> !membership.isLocal(eventId))
+                .boxed().findFirst().orElseThrow();
+        assertEquals("node-b", membership.ownerOf(remote).orElseThrow().getNodeId());
+
+        Files.delete(discoveryDir.resolve("node-b.member"));
+        membership.heartbeat();
+        assertTrue(membership.isLocal(remote));
+
+        membership.leave();
+        assertFalse(Files.exists(discoveryDir.resolve("node-a.member")));
+    }
+
+    /**
+     * Every event is local when cluster mode is off.
+     */
+    @Test
+    void ownerOf_disabled() {
+        ReflectionTestUtils.setField(membership, "enabled", false);
+        membership.init();
+        membership.update(Map.of("node-b", new ClusterMember("node-b", "http://localhost:8082")));
+
+        assertTrue(membership.ownerOf(1L).isEmpty());
+        assertTrue(membership.isLocal(1L));
+    }
+
+    /**
+     * The advertised URL is the configured one, else derived from the host name, which must not be a loopback
+     * address.
+     */
+    @Test
+    void resolveLocalUrl_rejectsDerivedLoopbackHost() {
+        assertEquals("http://10.0.0.1:8080", ClusterMembership.resolveLocalUrl("http://10.0.0.1:8080", "pod-1", 8081));
+        assertEquals("http://10.0.0.2:8081", ClusterMembership.resolveLocalUrl("", "10.0.0.2", 8081));
+        assertEquals("http://localhost:8081", ClusterMembership.resolveLocalUrl("http://localhost:8081", "", 8081));
+        assertThrows(IllegalStateException.class, () -> ClusterMembership.resolveLocalUrl("", "localhost", 8081));
+        assertThrows(IllegalStateException.class, () -> ClusterMembership.resolveLocalUrl("", "127.0.0.1", 8081));
+    }
+
+    /**
+     * A member marked unreachable stays so until the period ends.
+     */
+    @Test
+    void markUnreachable_expires() {
+        membership.markUnreachable("node-b");
+        assertFalse(membership.isReachable("node-b"));
+        assertTrue(membership.isReachable("node-c"));
+
+        ReflectionTestUtils.setField(membership, "unreachableMs", -1L);
+        membership.markUnreachable("node-b");
+        assertTrue(membership.isReachable("node-b"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConsistentHashRing}.
+ */
+class ConsistentHashRingTest {
+
+    private static final int EVENTS = 20_000;
+
+    /**
+     * Events are spread evenly over the nodes, and the ring does not depend on the order nodes are listed in.
+     */
+    @Test
+    void ownerOf_spreadsEventsEvenly() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing reordered = ConsistentHashRing.of(List.of("node-c", "node-a", "node-b"), 128);
+
+        Map<String, Long> counts = LongStream.range(0, EVENTS).boxed()
+                .collect(Collectors.groupingBy(ring::ownerOf, Collectors.counting()));
+
+        assertEquals(Set.of("node-a", "node-b", "node-c"), counts.keySet());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - EVENTS / 3.0) < EVENTS * 0.08, counts::toString));
+        LongStream.range(0, 1000).forEach(eventId -> assertEquals(ring.ownerOf(eventId), reordered.ownerOf(eventId)));
+    }
+
+    /**
+     * A joining node only takes events from the others, and a leaving node's events are the only ones to move.
+     */
+    @Test
+    void ownerOf_movesOnlyEventsOfJoiningOrLeavingNode() {
+        ConsistentHashRing three = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing four = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+
+        int moved = 0;
+        for (long eventId = 0; eventId < EVENTS; eventId++) {
+            String before = three.ownerOf(eventId);
+            String after = four.ownerOf(eventId);
+            if (!before.equals(after)) {
+                assertEquals("node-d", after);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > EVENTS * 0.17 && moved < EVENTS * 0.33, "moved " + moved);
+    }
+
+    /**
+     * An empty ring has no owners.
+     */
+    @Test
+    void ownerOf_emptyRing() {
+        assertNull(ConsistentHashRing.of(List.of(), 16).ownerOf(1L));
+        assertThrows(IllegalArgumentException.class, () -> ConsistentHashRing.of(List.of("node-a"), 0));
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSuggestion;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventAutocompleteIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventAutocompleteIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private SeatStateCache seatStateCache;
+
+    private final EventAutocompleteIndex index = new EventAutocompleteIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(index, "seatStateCache", seatStateCache);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "topK", 3);
+        ReflectionTestUtils.setField(index, "clock", Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        index.registerMetrics();
+        lenient().when(seatStateCache.getAvailability(anyLong())).thenReturn(Optional.empty());
+    }
+
+    /**
+     * A prefix should match the start of any word of the name or location, and suggestions should be ranked by
+     * sales per day until the event.
+     */
+    @Test
+    void suggest_matchesWordPrefixesRankedBySalesAndDate() {
+        when(seatStateCache.getAvailability(3L)).thenReturn(Optional.of(new SeatAvailability(3L, 100, 59, Instant.now())));
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, "Jazz Night", "Blue Note, New York", NOW.plusDays(1)),
+                event(2L, "Jazz Brunch", "Montréal", NOW.plusDays(3)),
+                event(3L, "Jazzfest", "Newport", NOW.plusDays(59)),
+                event(4L, "Opera Gala", "New York", NOW.plusDays(9))));
+        index.rebuild();
+
+        assertEquals(List.of(3L, 1L, 2L), ids(index.suggest("Ja", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("jazz b", 10)));
+        assertEquals(List.of(3L, 1L, 4L), ids(index.suggest("new", 10)));
+        assertEquals(List.of(1L, 4L), ids(index.suggest("new y", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("night", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("MONTRE", 10)));
+        assertEquals(List.of(3L), ids(index.suggest("ja", 1)));
+        assertTrue(index.suggest("jazz gala", 10).isEmpty());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+    }
+
+    /**
+     * The trie should give the same suggestions as a scan of every event after any sequence of creates,
+     * updates and deletes, and drop events that have started.
+     */
+    @Test
+    void onEventChanged_keepsTrieConsistentWithScan() {
+        when(eventRepository.findAll()).thenReturn(List.of(event(0L, "Past Show", "Old Hall", NOW.minusDays(1))));
+        index.rebuild();
+        String[] words = {"jazz", "jam", "james", "rock", "rocket", "road", "opera", "open", "new", "newport"};
+        Random random = new Random(7);
+        Map<Long, Event> live = new HashMap<>();
+        for (int step = 0; step < 2000; step++) {
+            long id = 1 + random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                live.remove(id);
+                index.onEventChanged(EventChangedEvent.deleted(id));
+            } else {
+                Event event = event(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+                        words[random.nextInt(words.length)], NOW.plusDays(1 + random.nextInt(300)));
+                live.put(id, event);
+                index.onEventChanged(EventChangedEvent.saved(event));
+            }
+        }
+
+        assertEquals(live.size(), index.size());
+        for (String prefix : List.of("j", "ja", "jam", "jame", "r", "ro", "rock", "roc", "o", "ope", "n", "new", "newp",
+                "jazz r", "new new", "x")) {
+            assertEquals(scan(live.values(), prefix), ids(index.suggest(prefix, 3)), prefix);
+        }
+        assertTrue(index.suggest("past", 3).isEmpty());
+    }
+
+    /**
+     * Ranking during a refresh should not hold up suggestions or changes, and a change made meanwhile should
+     * survive the swap to the refreshed trie.
+     */
+    @Test
+    void refresh_ranksOutsideTheLockAndKeepsChangesMadeMeanwhile() throws Exception {
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, "Jazz Night", "Blue Note", NOW.plusDays(1))));
+        index.rebuild();
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        List<Long> seenDuringRefresh = new ArrayList<>();
+        when(seatStateCache.getAvailability(1L)).thenAnswer(invocation -> {
+            // Would time out if ranking held the lock
+            other.submit(() -> {
+                seenDuringRefresh.addAll(ids(index.suggest("jazz", 3)));
+                index.onEventChanged(EventChangedEvent.saved(event(2L, "Jazz Club", "Village", NOW.plusDays(2))));
+            }).get(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        try {
+            index.refresh();
+        } finally {
+            other.shutdownNow();
+        }
+
+        assertEquals(List.of(1L), seenDuringRefresh);
+        assertEquals(List.of(1L, 2L), ids(index.suggest("jazz", 3)));
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * A reload should pick up events created and deleted on other nodes without a change reaching this one.
+     */
+    @Test
+    void reload_picksUpChangesMadeElsewhere() {
+        when(eventRepository.findAll()).thenReturn(List.of(event(1L, "Jazz Night", "Blue Note", NOW.plusDays(1))));
+        index.rebuild();
+        when(eventRepository.findAll()).thenReturn(List.of(event(2L, "Jazz Club", "Village", NOW.plusDays(2))));
+
+        index.reload();
+
+        assertEquals(List.of(2L), ids(index.suggest("jazz", 3)));
+    }
+
+    private static List<Long> scan(Collection<Event> events, String prefix) {
+        return events.stream()
+                .filter(event -> suffixes(event).stream().anyMatch(key -> key.startsWith(prefix)))
+                .sorted(Comparator.comparing((Event event) -> event.getEventDate()).thenComparing(Event::getId))
+                .limit(3)
+                .map(Event::getId)
+                .toList();
+    }
+
+    private static List<String> suffixes(Event event) {
+        List<String> keys = new ArrayList<>();
+        for (String text : List.of(event.getName(), event.getLocation())) {
+            String[] words = text.split(" ");
+            for (int i = 0; i < words.length; i++) {
+                keys.add(String.join(" ", Arrays.copyOfRange(words, i, words.length)));
+            }
+        }
+        return keys;
+    }
+
+    private static List<Long> ids(List<EventSuggestion> suggestions) {
+        return suggestions.stream().map(EventSuggestion::getEventId).toList();
+    }
+
+    private static Event event(Long id, String name, String location, LocalDateTime date) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName(name);
+        event.setLocation(location);
+        // Bypasses the future-date check of setEventDate, which uses the real clock
+        ReflectionTestUtils.setField(event, "eventDate", date);
+        event.setTotalSeats(100);
+        return event;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.model.Event;
+import com.example.booking.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventChangeFanout}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventChangeFanoutTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private EventChangeFanout eventChangeFanout;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(eventChangeFanout, "nodeIdentity", new NodeIdentity("node-a", "host"));
+        ReflectionTestUtils.setField(eventChangeFanout, "producerFactory", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(eventChangeFanout, "topic", "event-changes");
+        eventChangeFanout.init();
+        ReflectionTestUtils.setField(eventChangeFanout, "kafkaTemplate", kafkaTemplate);
+    }
+
+    /**
+     * Changes committed on this node should be published keyed by event ID, and received ones not again.
+     */
+    @Test
+    void onEventChanged_publishesLocalChangesOnly() {
+        when(kafkaTemplate.send("event-changes", "5", "node-a")).thenReturn(new CompletableFuture<>());
+
+        eventChangeFanout.onEventChanged(EventChangedEvent.saved(event(5L)));
+        eventChangeFanout.onEventChanged(EventChangedEvent.received(6L, event(6L)));
+
+        verify(kafkaTemplate).send("event-changes", "5", "node-a");
+        verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    /**
+     * Changes from other nodes should be reloaded and republished as received, deleted when the event is gone,
+     * and this node's own changes skipped.
+     */
+    @Test
+    void receive_republishesOtherNodesChanges() {
+        Event event = event(5L);
+        when(eventRepository.findById(5L)).thenReturn(Optional.of(event));
+        when(eventRepository.findById(6L)).thenReturn(Optional.empty());
+
+        assertTrue(eventChangeFanout.receive(5L, "node-b"));
+        assertTrue(eventChangeFanout.receive(6L, "node-b"));
+        assertFalse(eventChangeFanout.receive(7L, "node-a"));
+
+        verify(eventPublisher).publishEvent(argThat((EventChangedEvent change) ->
+                change.isReceived() && change.getEvent() == event));
+        verify(eventPublisher).publishEvent(argThat((EventChangedEvent change) ->
+                change.isReceived() && change.isDeleted() && change.getEventId() == 6L));
+        verify(eventRepository, never()).findById(7L);
+    }
+
+    private static Event event(Long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName("Event " + id);
+        return event;
+    }
+}
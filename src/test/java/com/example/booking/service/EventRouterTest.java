@@ -0,0 +1,172 @@
+package com.example.booking.service;
+
+import com.example.booking.model.AccessToken;
+import com.example.booking.model.BookingRequest;
+import com.example.booking.model.ClusterMember;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventRouter}, forwarding to a stand-in owner node.
+ */
+class EventRouterTest {
+
+    @InjectMocks
+    private EventRouter eventRouter;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    @Mock
+    private TokenService tokenService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private HttpServer owner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventRouter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(eventRouter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(eventRouter, "enabled", true);
+        ReflectionTestUtils.setField(eventRouter, "forwardTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(eventRouter, "seatLockStripes", 16);
+        eventRouter.init();
+        when(clusterMembership.getNodeId()).thenReturn("node-a");
+        when(clusterMembership.isReachable(anyString())).thenReturn(true);
+        when(tokenService.issueNodeToken("node-a")).thenReturn(new AccessToken("node-a-token", 900));
+
+        owner = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        owner.createContext("/internal/bookings", exchange -> {
+            received.add(exchange.getRequestURI() + " " + exchange.getRequestHeaders().getFirst("Authorization") + " "
+                    + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = "Seat already booked".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain;charset=UTF-8");
+            exchange.sendResponseHeaders(409, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        owner.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        owner.stop(0);
+    }
+
+    /**
+     * A booking of an event owned by another node is sent there with this node's token, and the owner's response
+     * is relayed as is.
+     */
+    @Test
+    void forwardBooking_relaysOwnerResponse() {
+        ownedBy("node-b", "http://localhost:" + owner.getAddress().getPort());
+        BookingRequest request = new BookingRequest();
+        request.setUserId(1L);
+        request.setEventId(7L);
+        request.setSeatNumber("A1");
+
+        ResponseEntity<String> response = eventRouter.forwardBooking(request).orElseThrow();
+
+        assertEquals(409, response.getStatusCode().value());
+        assertEquals("Seat already booked", response.getBody());
+        assertEquals("node-b", response.getHeaders().getFirst(EventRouter.NODE_HEADER));
+        assertEquals(1, received.size());
+        assertTrue(received.get(0).startsWith("/internal/bookings/book Bearer node-a-token {"), received.get(0));
+        assertTrue(received.get(0).contains("\"seatNumber\":\"A1\""), received.get(0));
+        assertEquals(1.0, meterRegistry.get(EventRouter.COMMANDS_COUNTER).tag("route", "forwarded").counter().count());
+    }
+
+    /**
+     * Commands of events owned here, cancellations without an event, and commands whose owner cannot be connected
+     * to are executed locally; an owner that refused the connection is marked unreachable and skipped after that.
+     */
+    @Test
+    void forward_executesLocallyWhenOwnedOrUnreachable() {
+        when(clusterMembership.isLocal(7L)).thenReturn(true);
+        assertTrue(eventRouter.forwardCancel(5L, 7L).isEmpty());
+        assertTrue(eventRouter.forwardCancel(5L, null).isEmpty());
+
+        ownedBy("node-c", "http://localhost:1");
+        assertTrue(eventRouter.forwardCancel(5L, 7L).isEmpty());
+        verify(clusterMembership).markUnreachable("node-c");
+
+        when(clusterMembership.isReachable("node-c")).thenReturn(false);
+        assertTrue(eventRouter.forwardCancel(5L, 7L).isEmpty());
+
+        assertTrue(received.isEmpty());
+        assertEquals(2.0, meterRegistry.get(EventRouter.COMMANDS_COUNTER).tag("route", "fallback").counter().count());
+        assertEquals("booked", eventRouter.execute(7L, "A1", () -> "booked"));
+        assertEquals(1.0, meterRegistry.get(EventRouter.COMMANDS_COUNTER).tag("route", "local").counter().count());
+    }
+
+    /**
+     * An owner that accepted the command but did not answer in time may have executed it, so the command is not
+     * executed again locally and the client gets a 504.
+     */
+    @Test
+    void forward_answersTimeoutWithoutExecutingLocally() throws Exception {
+        HttpServer slow = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        slow.createContext("/internal/bookings", exchange -> {
+            received.add(exchange.getRequestURI().toString());
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        slow.start();
+        try {
+            ReflectionTestUtils.setField(eventRouter, "forwardTimeoutMs", 200L);
+            ownedBy("node-b", "http://localhost:" + slow.getAddress().getPort());
+
+            ResponseEntity<String> response = eventRouter.forwardCancel(5L, 7L).orElseThrow();
+
+            assertEquals(504, response.getStatusCode().value());
+            assertEquals("node-b", response.getHeaders().getFirst(EventRouter.NODE_HEADER));
+            assertEquals(List.of("/internal/bookings/cancel/5?eventId=7"), received);
+            assertEquals(1.0, meterRegistry.get(EventRouter.COMMANDS_COUNTER).tag("route", "unanswered").counter().count());
+            assertEquals(0.0, meterRegistry.get(EventRouter.COMMANDS_COUNTER).tag("route", "fallback").counter().count());
+            verify(clusterMembership).markUnreachable("node-b");
+        } finally {
+            slow.stop(0);
+        }
+    }
+
+    /**
+     * Nothing is forwarded when cluster mode is off.
+     */
+    @Test
+    void forwardBooking_disabled() {
+        ReflectionTestUtils.setField(eventRouter, "enabled", false);
+
+        assertEquals(Optional.empty(), eventRouter.forwardBooking(new BookingRequest()));
+        verifyNoInteractions(clusterMembership);
+    }
+
+    private void ownedBy(String nodeId, String url) {
+        when(clusterMembership.isLocal(7L)).thenReturn(false);
+        when(clusterMembership.ownerOf(7L)).thenReturn(Optional.of(new ClusterMember(nodeId, url)));
+    }
+}
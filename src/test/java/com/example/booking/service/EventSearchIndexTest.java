@@ -0,0 +1,105 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.model.EventSearchHit;
+import com.example.booking.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link EventSearchIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventSearchIndexTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final EventSearchIndex index = new EventSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        index.registerMetrics();
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, "Jazz Night", "Blue Note, New York", LocalDateTime.of(2030, 7, 10, 20, 0)),
+                event(2L, "Rock Festival", "Jazz Café Plaza", LocalDateTime.of(2030, 7, 5, 18, 0)),
+                event(3L, "Jazz Brunch", "Montréal", LocalDateTime.of(2030, 8, 2, 11, 0)),
+                event(4L, "Opera Gala", "New York", LocalDateTime.of(2030, 9, 1, 19, 30))));
+        index.rebuild();
+    }
+
+    /**
+     * Name matches should rank above location matches, every word must match, the last word matches as a
+     * prefix, and accents and case are ignored.
+     */
+    @Test
+    void search_ranksTokenAndPrefixMatches() {
+        assertEquals(List.of(1L, 3L, 2L), ids(index.search("JAZZ", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("jazz new york", null, null, 10)));
+        assertEquals(List.of(1L, 4L), ids(index.search("new yo", null, null, 10)));
+        assertEquals(List.of(3L), ids(index.search("montreal", null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("cafe", null, null, 10)));
+        assertTrue(index.search("jazz opera", null, null, 10).isEmpty());
+        assertEquals(1, index.search("jazz", null, null, 1).size());
+    }
+
+    /**
+     * Date ranges should include the start and exclude the end, and a search without words should list the
+     * events in the range by date.
+     */
+    @Test
+    void search_filtersByDateRange() {
+        LocalDateTime july = LocalDateTime.of(2030, 7, 1, 0, 0);
+        LocalDateTime august = LocalDateTime.of(2030, 8, 1, 0, 0);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("jazz", july, august, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search(" ", july, august, 10)));
+        assertEquals(List.of(3L, 4L), ids(index.search(null, august, null, 10)));
+        assertEquals(0.0, index.search(null, july, null, 1).get(0).getScore());
+    }
+
+    /**
+     * Committed changes should be searchable without reading the events table again.
+     */
+    @Test
+    void onEventChanged_updatesIndexIncrementally() {
+        index.onEventChanged(EventChangedEvent.saved(
+                event(5L, "Jazz Picnic", "Central Park", LocalDateTime.of(2030, 7, 20, 12, 0))));
+        index.onEventChanged(EventChangedEvent.saved(
+                event(1L, "Blues Night", "Blue Note, New York", LocalDateTime.of(2030, 7, 10, 20, 0))));
+        index.onEventChanged(EventChangedEvent.deleted(3L));
+
+        assertEquals(List.of(5L, 2L), ids(index.search("jazz", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("blues", null, null, 10)));
+        assertTrue(index.search("brunch", null, null, 10).isEmpty());
+        assertEquals(4, index.size());
+        verify(eventRepository, times(1)).findAll();
+    }
+
+    private static List<Long> ids(List<EventSearchHit> hits) {
+        return hits.stream().map(hit -> hit.getId()).toList();
+    }
+
+    private static Event event(Long id, String name, String location, LocalDateTime date) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName(name);
+        event.setLocation(location);
+        event.setEventDate(date);
+        event.setTotalSeats(100);
+        return event;
+    }
+}
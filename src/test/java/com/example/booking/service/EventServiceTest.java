@@ -3,6 +3,7 @@ package com.example.booking.service;
 import com.example.booking.model.Event;
 import com.example.booking.model.Seat;
 import com.example.booking.model.EventRequest;
+import com.example.booking.model.SectionLayout;
 import com.example.booking.repository.EventRepository;
 import com.example.booking.repository.SeatRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
 import java.time.LocalDateTime;
@@ -33,6 +35,8 @@ class EventServiceTest {
     private EventRepository eventRepository;
     @Mock
     private SeatRepository seatRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
@@ -109,9 +113,41 @@ class EventServiceTest {
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
+        verify(eventPublisher).publishEvent(argThat((EventChangedEvent change) ->
+                change.getEventId() == 1L && !change.isDeleted()));
         logger.debug("Created event with id={}", result.getId());
     }
 
+    /**
+     * Test creating an event with a section layout.
+     */
+    @Test
+    void testCreateEventWithSections() {
+        logger.info("Running testCreateEventWithSections");
+        EventRequest request = new EventRequest();
+        request.setName("Test Event");
+        request.setLocation("Test Location");
+        request.setEventDate(LocalDateTime.MAX);
+        request.setTotalSeats(10);
+        request.setSections(List.of(new SectionLayout("112", 2, 3), new SectionLayout("113", 1, 4)));
+
+        Event event = new Event();
+        event.setId(1L);
+        when(eventRepository.save(any(Event.class))).thenReturn(event);
+        ArgumentCaptor<Seat> seats = ArgumentCaptor.forClass(Seat.class);
+
+        eventService.createEventWithSeats(request);
+
+        verify(seatRepository, times(10)).save(seats.capture());
+        assertEquals(List.of("112-A-1", "112-A-2", "112-A-3", "112-B-1"),
+                seats.getAllValues().subList(0, 4).stream().map(Seat::getSeatNumber).toList());
+        Seat last = seats.getAllValues().get(9);
+        assertEquals("113-A-4", last.getSeatNumber());
+        assertEquals("113", last.getSection());
+        assertEquals("A", last.getRow());
+        logger.debug("Created {} seats", seats.getAllValues().size());
+    }
+
     /**
      * Test fetching all events.
      */
@@ -163,6 +199,23 @@ class EventServiceTest {
         Optional<Event> result = eventService.updateEvent(1L, request);
 
         assertTrue(result.isPresent());
+        verify(eventPublisher).publishEvent(any(EventChangedEvent.class));
         logger.debug("Event updated: id={}", result.get().getId());
     }
+
+    /**
+     * Test deleting an event.
+     */
+    @Test
+    void testDeleteEvent() {
+        logger.info("Running testDeleteEvent");
+        when(seatRepository.findByEventId(1L, Pageable.unpaged())).thenReturn(Page.empty());
+
+        eventService.deleteEvent(1L);
+
+        verify(eventRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(argThat((EventChangedEvent change) ->
+                change.getEventId() == 1L && change.isDeleted()));
+        logger.debug("Event deleted: id=1");
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PartitionMaintenance}.
+ */
+class PartitionMaintenanceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @InjectMocks
+    private PartitionMaintenance partitionMaintenance;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(partitionMaintenance, "enabled", true);
+        ReflectionTestUtils.setField(partitionMaintenance, "blocksAhead", 2);
+        ReflectionTestUtils.setField(partitionMaintenance, "clock",
+                Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Partitions are created ahead of the newest event; nothing is detached without a retention period.
+     */
+    @Test
+    void maintain_createsPartitionsAhead() {
+        when(jdbcTemplate.queryForObject(contains("booking_ensure_partitions"), eq(Integer.class), eq(2))).thenReturn(2);
+
+        partitionMaintenance.maintain();
+
+        verify(jdbcTemplate).queryForObject(contains("booking_ensure_partitions"), eq(Integer.class), eq(2));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Blocks of events older than the retention period are detached.
+     */
+    @Test
+    void maintain_detachesPastEvents() {
+        ReflectionTestUtils.setField(partitionMaintenance, "detachAfter", Duration.ofDays(30));
+        Timestamp before = Timestamp.valueOf(NOW.minusDays(30));
+        when(jdbcTemplate.queryForList(contains("booking_detach_partitions"), eq(String.class), eq(before)))
+                .thenReturn(List.of("seats_p000000", "bookings_p000000"));
+
+        partitionMaintenance.maintain();
+
+        verify(jdbcTemplate).queryForList(contains("booking_detach_partitions"), eq(String.class), eq(before));
+    }
+
+    /**
+     * Nothing is done when partitioning is disabled, e.g. on the in-memory load test database.
+     */
+    @Test
+    void maintain_skipsWhenDisabled() {
+        ReflectionTestUtils.setField(partitionMaintenance, "enabled", false);
+
+        partitionMaintenance.maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatStatusUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SeatEventStreamBroadcaster}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatEventStreamBroadcasterTest {
+
+    @Mock
+    private SeatStateCache seatStateCache;
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+
+    private final SeatSnapshotService seatSnapshotService = new SeatSnapshotService();
+
+    private final Queue<SseEmitter> emitters = new ConcurrentLinkedQueue<>();
+
+    private final SeatEventStreamBroadcaster broadcaster = new SeatEventStreamBroadcaster() {
+        @Override
+        SseEmitter newEmitter(long timeout) {
+            SseEmitter emitter = emitters.poll();
+            return emitter != null ? emitter : new RecordingEmitter();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatSnapshotService, "seatStateCache", seatStateCache);
+        ReflectionTestUtils.setField(seatSnapshotService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(broadcaster, "seatSnapshotService", seatSnapshotService);
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(broadcaster, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(broadcaster, "replaySize", 2);
+        ReflectionTestUtils.setField(broadcaster, "shardsPerEvent", 2);
+        ReflectionTestUtils.setField(broadcaster, "threads", 1);
+        ReflectionTestUtils.setField(broadcaster, "maxThreads", 4);
+        ReflectionTestUtils.setField(broadcaster, "maxPendingBytes", 1L << 20);
+        ReflectionTestUtils.setField(broadcaster, "writeTimeoutMillis", 5000L);
+        broadcaster.init();
+        lenient().when(seatStateCache.getSeatImage(1L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(1L, 0L, new String[]{"A1", "A2", "A3"}, new BitSet())));
+    }
+
+    /**
+     * New subscribers should get a snapshot, then every update, serialized once for all subscribers.
+     */
+    @Test
+    void publish_serializesOnceAndStreamsToEverySubscriber() throws Exception {
+        RecordingEmitter first = (RecordingEmitter) broadcaster.subscribe(1L, null).orElseThrow();
+        RecordingEmitter second = (RecordingEmitter) broadcaster.subscribe(1L, null).orElseThrow();
+
+        publish("A1", true);
+        publish("A2", true);
+
+        for (RecordingEmitter emitter : new RecordingEmitter[]{first, second}) {
+            String stream = emitter.await(id(2));
+            assertTrue(stream.startsWith(id(0) + "\nevent:snapshot\ndata:{"));
+            assertTrue(stream.contains(id(1) + "\nevent:seat\ndata:{\"seatNumber\":\"A1\""));
+            assertTrue(stream.contains(id(2) + "\nevent:seat\ndata:{\"seatNumber\":\"A2\""));
+        }
+        verify(objectMapper, times(2)).writeValueAsBytes(any(SeatStatusUpdate.class));
+        assertEquals(2, broadcaster.getSubscriberCount());
+        assertTrue(broadcaster.subscribe(2L, null).isEmpty());
+    }
+
+    /**
+     * A reconnecting subscriber should get only the updates after its Last-Event-ID while they are still
+     * remembered, and a fresh snapshot otherwise.
+     */
+    @Test
+    void subscribe_replaysMissedUpdatesOrFallsBackToSnapshot() throws Exception {
+        broadcaster.subscribe(1L, null).orElseThrow();
+        publish("A1", true);
+        publish("A2", true);
+        publish("A3", true);
+
+        RecordingEmitter resumed = (RecordingEmitter) broadcaster.subscribe(1L, epoch() + "-2").orElseThrow();
+        RecordingEmitter behind = (RecordingEmitter) broadcaster.subscribe(1L, epoch() + "-0").orElseThrow();
+        RecordingEmitter unknown = (RecordingEmitter) broadcaster.subscribe(1L, epoch() + "-99").orElseThrow();
+
+        assertTrue(resumed.await(id(3)).startsWith(id(3) + "\nevent:seat\n"));
+        assertFalse(resumed.received().contains("event:snapshot"));
+        assertTrue(behind.await(id(3)).startsWith(id(3) + "\nevent:snapshot\n"));
+        assertTrue(unknown.await(id(3)).startsWith(id(3) + "\nevent:snapshot\n"));
+    }
+
+    /**
+     * IDs from another node or an earlier run should get a snapshot even when their sequence number is one this
+     * node has issued, since it counted different updates.
+     */
+    @Test
+    void subscribe_sendsSnapshotForAnotherEpochsLastEventId() throws Exception {
+        broadcaster.subscribe(1L, null).orElseThrow();
+        publish("A1", true);
+        publish("A2", true);
+        publish("A3", true);
+
+        RecordingEmitter foreign = (RecordingEmitter) broadcaster.subscribe(1L, "0-2").orElseThrow();
+        RecordingEmitter legacy = (RecordingEmitter) broadcaster.subscribe(1L, "2").orElseThrow();
+        RecordingEmitter garbled = (RecordingEmitter) broadcaster.subscribe(1L, epoch() + "-x").orElseThrow();
+
+        for (RecordingEmitter emitter : new RecordingEmitter[]{foreign, legacy, garbled}) {
+            assertTrue(emitter.await(id(3)).startsWith(id(3) + "\nevent:snapshot\n"));
+            assertFalse(emitter.received().contains("event:seat"));
+        }
+    }
+
+    /**
+     * Updates published right after a subscribe must reach the new subscriber after its snapshot, and every
+     * update after the snapshot must be delivered, in sequence order.
+     */
+    @Test
+    void subscribe_neverLetsDeltasOvertakeTheSnapshot() throws Exception {
+        broadcaster.subscribe(1L, null).orElseThrow();
+        publish("A1", true);
+        RecordingEmitter late = (RecordingEmitter) broadcaster.subscribe(1L, null).orElseThrow();
+        publish("A2", true);
+        publish("A3", true);
+
+        String stream = late.await(id(3) + "\nevent:seat");
+        assertTrue(stream.startsWith(id(1) + "\nevent:snapshot\n"));
+        assertFalse(stream.contains(id(1) + "\nevent:seat"));
+        assertTrue(stream.indexOf(id(2) + "\nevent:seat") > 0);
+        assertTrue(stream.indexOf(id(3) + "\nevent:seat") > stream.indexOf(id(2) + "\nevent:seat"));
+    }
+
+    /**
+     * A stream whose write is blocked should be dropped after the write timeout, with a writer thread added
+     * meanwhile so that the other streams keep flowing, and the thread given back once the write ends.
+     */
+    @Test
+    void evictBlockedStreams_dropsStreamsStuckInAWrite() throws Exception {
+        ReflectionTestUtils.setField(broadcaster, "writeTimeoutMillis", 0L);
+        BlockingEmitter stuck = new BlockingEmitter();
+        emitters.add(stuck);
+        broadcaster.subscribe(1L, null).orElseThrow();
+        RecordingEmitter other = (RecordingEmitter) broadcaster.subscribe(1L, null).orElseThrow();
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+
+        broadcaster.evictBlockedStreams();
+        publish("A1", true);
+
+        assertTrue(other.await(id(1)).contains(id(1) + "\nevent:seat"));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(2, writers().getCorePoolSize());
+        stuck.release.countDown();
+        assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, writers().getCorePoolSize());
+    }
+
+    /**
+     * A stream should be dropped once more than the pending limit is queued for it, even before its blocked
+     * write times out.
+     */
+    @Test
+    void publish_dropsStreamsTooFarBehind() throws Exception {
+        ReflectionTestUtils.setField(broadcaster, "maxPendingBytes", 1L);
+        ReflectionTestUtils.setField(broadcaster, "shardsPerEvent", 1);
+        // The stuck write holds one thread, the fan-out needs another
+        writers().setMaximumPoolSize(2);
+        writers().setCorePoolSize(2);
+        BlockingEmitter stuck = new BlockingEmitter();
+        emitters.add(stuck);
+        broadcaster.subscribe(1L, null).orElseThrow();
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+        RecordingEmitter other = (RecordingEmitter) broadcaster.subscribe(1L, null).orElseThrow();
+
+        publish("A1", true);
+        publish("A2", true);
+        // The shard queued A2 only after it was done with A1, and with it the stuck stream
+        other.await(id(2));
+
+        assertEquals(1, broadcaster.getSubscriberCount());
+        stuck.release.countDown();
+        assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(stuck.received().contains("event:seat"));
+    }
+
+    /**
+     * An event without subscribers should be forgotten after two heartbeats; events with subscribers are kept,
+     * and events without seats never get a channel.
+     */
+    @Test
+    void heartbeat_evictsEventsWithoutSubscribers() throws Exception {
+        broadcaster.subscribe(1L, null).orElseThrow();
+        assertTrue(broadcaster.subscribe(2L, null).isEmpty());
+        assertEquals(1, broadcaster.getChannelCount());
+        when(seatStateCache.getSeatImage(3L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(3L, 0L, new String[]{"A1"}, new BitSet())));
+        FailingEmitter closed = new FailingEmitter();
+        emitters.add(closed);
+        broadcaster.subscribe(3L, null).orElseThrow();
+        assertTrue(closed.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, broadcaster.getChannelCount());
+
+        broadcaster.heartbeat();
+        assertEquals(2, broadcaster.getChannelCount());
+        broadcaster.heartbeat();
+
+        assertEquals(1, broadcaster.getChannelCount());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    private void publish(String seat, boolean booked) {
+        SeatStatusUpdate update = new SeatStatusUpdate(seat, booked);
+        update.setSequence(seatSnapshotService.apply(1L, seat, booked));
+        broadcaster.publish(1L, update);
+    }
+
+    private String epoch() {
+        return broadcaster.getEpoch();
+    }
+
+    private String id(long sequence) {
+        return "id:" + epoch() + "-" + sequence;
+    }
+
+    private ThreadPoolExecutor writers() {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(broadcaster, "executor");
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final StringBuffer received = new StringBuffer();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private volatile String awaited;
+        private volatile CountDownLatch arrived;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            items.forEach(item -> received.append(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+            CountDownLatch latch = arrived;
+            if (latch != null && received.indexOf(awaited) >= 0) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void complete() {
+            super.complete();
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            super.completeWithError(ex);
+            completed.countDown();
+        }
+
+        /**
+         * Waits until the stream contains the given text.
+         * @return the stream so far
+         */
+        String await(String text) throws InterruptedException {
+            CountDownLatch latch = new CountDownLatch(1);
+            awaited = text;
+            arrived = latch;
+            if (received.indexOf(text) < 0) {
+                assertTrue(latch.await(5, TimeUnit.SECONDS), "Stream never got " + text);
+            }
+            return received();
+        }
+
+        String received() {
+            return received.toString();
+        }
+    }
+
+    /**
+     * Blocks in its first write until released, like a client that stopped reading.
+     */
+    private static final class BlockingEmitter extends RecordingEmitter {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(items);
+        }
+    }
+
+    /**
+     * Fails every write, like a client that has gone away.
+     */
+    private static final class FailingEmitter extends RecordingEmitter {
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatGroupAvailability;
+import com.example.booking.model.SectionLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeatHierarchy} and {@link SeatKeys}.
+ */
+class SeatHierarchyTest {
+
+    /**
+     * Structured labels should pack to keys whose parts round-trip, with flat labels in the unnamed section.
+     */
+    @Test
+    void keyOf_packsSectionRowAndNumber() {
+        SeatHierarchy hierarchy = new SeatHierarchy();
+
+        int key = hierarchy.keyOf("112-C-7");
+        int sameRow = hierarchy.keyOf("112-C-8");
+        int flat = hierarchy.keyOf("57");
+
+        assertEquals(1, SeatKeys.section(key));
+        assertEquals(1, SeatKeys.row(key));
+        assertEquals(7, SeatKeys.number(key));
+        assertEquals(SeatKeys.rowKey(key), SeatKeys.rowKey(sameRow));
+        assertEquals(2, SeatKeys.section(hierarchy.keyOf("113-C-7")));
+        assertEquals(SeatKeys.pack(0, 0, 57), flat);
+        assertEquals(SeatKeys.pack(SeatKeys.MAX_SECTIONS - 1, SeatKeys.MAX_ROWS - 1, SeatKeys.MAX_NUMBER),
+                SeatKeys.pack(1023, 1023, 4095));
+        assertEquals(1023, SeatKeys.section(SeatKeys.pack(1023, 5, 9)));
+        assertEquals(List.of("A", "Z", "AA", "AZ", "BA"),
+                List.of(SeatKeys.rowLabel(0), SeatKeys.rowLabel(25), SeatKeys.rowLabel(26), SeatKeys.rowLabel(51),
+                        SeatKeys.rowLabel(52)));
+    }
+
+    /**
+     * Section and row counters should follow seats being added, booked and released.
+     */
+    @Test
+    void counters_followBookings() {
+        SeatHierarchy hierarchy = new SeatHierarchy();
+        for (String row : List.of("A", "B")) {
+            for (int number = 1; number <= 3; number++) {
+                hierarchy.add(SeatKeys.label("112", row, number), false);
+                hierarchy.add(SeatKeys.label("113", row, number), number == 1);
+            }
+        }
+        hierarchy.add("1", true);
+
+        hierarchy.setBooked("112-A-2", true);
+        hierarchy.setBooked("112-B-3", true);
+        hierarchy.setBooked("112-B-3", false);
+
+        SeatGroupAvailability section = hierarchy.section(1L, "112").orElseThrow();
+        assertEquals(6, section.getTotalSeats());
+        assertEquals(1, section.getBookedSeats());
+        assertEquals(2, hierarchy.section(1L, "113").orElseThrow().getBookedSeats());
+        SeatGroupAvailability row = hierarchy.row(1L, "112", "A").orElseThrow();
+        assertEquals(3, row.getTotalSeats());
+        assertEquals(2, row.getAvailableSeats());
+        assertEquals(List.of("112", "113"), hierarchy.sections(1L).stream().map(SeatGroupAvailability::getSection).toList());
+        assertTrue(hierarchy.section(1L, "999").isEmpty());
+        assertTrue(hierarchy.row(1L, "112", "Z").isEmpty());
+    }
+
+    /**
+     * Layouts whose labels do not fit the seat number column or the key should be rejected.
+     */
+    @Test
+    void validate_rejectsLayoutsThatDoNotFit() {
+        SeatKeys.validate(new SectionLayout("112", 26, 40));
+        assertThrows(IllegalArgumentException.class, () -> SeatKeys.validate(new SectionLayout("UPPER-1", 5, 10)));
+        assertThrows(IllegalArgumentException.class, () -> SeatKeys.validate(new SectionLayout("BALCONY", 30, 100)));
+        assertThrows(IllegalArgumentException.class, () -> SeatKeys.validate(new SectionLayout("1", 1, 5000)));
+        assertThrows(IllegalArgumentException.class, () -> SeatKeys.validate(new SectionLayout("1", 0, 10)));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SeatSnapshotService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatSnapshotServiceTest {
+
+    @Mock
+    private SeatStateCache seatStateCache;
+
+    @Mock
+    private MessageChannel clientOutboundChannel;
+
+    private final SeatSnapshotService seatSnapshotService = new SeatSnapshotService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatSnapshotService, "seatStateCache", seatStateCache);
+        ReflectionTestUtils.setField(seatSnapshotService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(seatSnapshotService, "clientOutboundChannel", clientOutboundChannel);
+    }
+
+    /**
+     * Snapshots should list seats in order with their booked bits, carry the current sequence number,
+     * and be rebuilt only when the sequence number moves.
+     */
+    @Test
+    void getSnapshot_carriesSequenceAndIsReusedUntilItChanges() throws IOException {
+        BitSet booked = new BitSet();
+        booked.set(0);
+        when(seatStateCache.getSeatImage(1L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(1L, 0L, new String[]{"B1", "A2", "A1"}, booked)));
+        seatSnapshotService.apply(1L, "A1", false);
+        seatSnapshotService.apply(1L, "A2", false);
+        assertEquals(1, seatSnapshotService.apply(2L, "A1", true));
+
+        SeatSnapshot snapshot = seatSnapshotService.getSnapshot(1L).orElseThrow();
+        assertSame(snapshot, seatSnapshotService.getSnapshot(1L).orElseThrow());
+
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(List.of("A1", "A2", "B1"), snapshot.getSeats());
+        assertEquals(1, snapshot.getBookedSeats());
+        BitSet bits = BitSet.valueOf(Base64.getDecoder().decode(snapshot.getBooked()));
+        assertTrue(bits.get(2));
+        assertEquals(1, bits.cardinality());
+        assertEquals(2, seatSnapshotService.ordinal(1L, "B1"));
+
+        SeatSnapshotService.CachedSnapshot seatMap = seatSnapshotService.getSeatMap(1L).orElseThrow();
+        assertSame(seatMap.getGzip(), seatMap.getGzip());
+        assertArrayEquals(seatMap.getJson(), gunzip(seatMap.getGzip()));
+        String eTag = seatMap.getETag();
+
+        seatSnapshotService.apply(1L, "A1", true);
+        assertEquals(3, seatSnapshotService.getSnapshot(1L).orElseThrow().getSequence());
+        assertNotEquals(eTag, seatSnapshotService.getSeatMap(1L).orElseThrow().getETag());
+        verify(seatStateCache, times(1)).getSeatImage(1L);
+    }
+
+    /**
+     * A snapshot should hold exactly the updates up to its sequence number, even when the seat state cache
+     * has not caught up with them; new seats get the next ordinal and existing ordinals stay put.
+     */
+    @Test
+    void getSnapshot_followsTheDeltaStreamRatherThanTheCache() {
+        when(seatStateCache.getSeatImage(1L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(1L, 0L, new String[]{"A2", "A1"}, new BitSet())));
+        assertEquals(-1, seatSnapshotService.ordinal(1L, "A1"));
+
+        assertEquals(1, seatSnapshotService.apply(1L, "A2", true));
+        assertEquals(2, seatSnapshotService.apply(1L, "A0", true));
+
+        SeatSnapshot snapshot = seatSnapshotService.getSnapshot(1L).orElseThrow();
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(List.of("A1", "A2", "A0"), snapshot.getSeats());
+        assertEquals(2, snapshot.getBookedSeats());
+        assertEquals(1, seatSnapshotService.ordinal(1L, "A2"));
+        assertEquals(2, seatSnapshotService.ordinal(1L, "A0"));
+        verify(seatStateCache, times(1)).getSeatImage(1L);
+    }
+
+    /**
+     * Subscribing to an event's seat topic should send the snapshot to that subscription only.
+     */
+    @Test
+    void onSubscribe_sendsSnapshotToSubscriber() {
+        when(seatStateCache.getSeatImage(1L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(1L, 0L, new String[]{"A1"}, new BitSet())));
+
+        seatSnapshotService.onSubscribe(subscribe("/topic/seats/1"));
+        seatSnapshotService.onSubscribe(subscribe("/topic/other"));
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel).send(sent.capture());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent.getValue());
+        assertEquals("session-1", headers.getSessionId());
+        assertEquals("sub-1", headers.getSubscriptionId());
+        assertEquals("/topic/seats/1", headers.getDestination());
+        assertEquals(SeatSnapshotService.SNAPSHOT, headers.getFirstNativeHeader(SeatSnapshotService.MESSAGE_TYPE_HEADER));
+        assertTrue(new String((byte[]) sent.getValue().getPayload()).contains("\"seats\":[\"A1\"]"));
+    }
+
+    /**
+     * Binary subscribers should get the snapshot in the binary frame encoding.
+     */
+    @Test
+    void onSubscribe_sendsBinarySnapshotToBinarySubscriber() {
+        BitSet booked = new BitSet();
+        booked.set(1);
+        when(seatStateCache.getSeatImage(1L)).thenReturn(Optional.of(
+                new SeatStateSnapshot.EventImage(1L, 0L, new String[]{"A1", "A2"}, booked)));
+
+        seatSnapshotService.onSubscribe(subscribe("/topic/seats/1/bin"));
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel).send(sent.capture());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent.getValue());
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, headers.getContentType());
+        SeatSnapshot snapshot = SeatUpdateFrameCodec.decodeSnapshot((byte[]) sent.getValue().getPayload());
+        assertEquals(List.of("A1", "A2"), snapshot.getSeats());
+        assertEquals(1, snapshot.getBookedSeats());
+    }
+
+    private SessionSubscribeEvent subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-1");
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.booking.service;
+
+import com.example.booking.model.BookingEvent;
+import com.example.booking.model.SeatAvailability;
+import com.example.booking.repository.SeatRepository;
+import com.example.booking.repository.SeatStateView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SeatStateCache}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatStateCacheTest {
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @InjectMocks
+    private SeatStateCache seatStateCache;
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        configure(seatStateCache);
+    }
+
+    private void configure(SeatStateCache cache) {
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "seatRepository", seatRepository);
+        ReflectionTestUtils.setField(cache, "consumerFactory", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(cache, "topic", "booking-events");
+        ReflectionTestUtils.setField(cache, "consumerEnabled", true);
+        ReflectionTestUtils.setField(cache, "snapshotEnabled", true);
+        ReflectionTestUtils.setField(cache, "snapshotPath", dir.resolve("seat-state.snapshot"));
+        ReflectionTestUtils.setField(cache, "snapshotMaxAge", Duration.ofHours(1));
+        cache.registerMetrics();
+    }
+
+    /**
+     * Should load seats from the database on first access and apply later events in memory.
+     */
+    @Test
+    void apply_updatesAvailabilityAfterLazyLoad() {
+        when(seatRepository.findSeatStatesByEventId(1L)).thenReturn(List.of(
+                seat(1L, "A1", false), seat(1L, "A2", true), seat(1L, "A3", false)));
+        long now = System.currentTimeMillis();
+
+        assertTrue(seatStateCache.apply(0, 5, now, BookingEvent.booked(10L, 100L, 1L, "A1")));
+        assertTrue(seatStateCache.apply(0, 6, now, BookingEvent.cancelled(7L, 101L, 1L, "A2")));
+
+        SeatAvailability availability = seatStateCache.getAvailability(1L).orElseThrow();
+        assertEquals(3, availability.getTotalSeats());
+        assertEquals(1, availability.getBookedSeats());
+        assertEquals(2, availability.getAvailableSeats());
+        assertEquals(Instant.ofEpochMilli(now), availability.getLastUpdate());
+        assertEquals(Optional.of(true), seatStateCache.isBooked(1L, "A1"));
+        verify(seatRepository, times(1)).findSeatStatesByEventId(1L);
+        assertEquals(2, meterRegistry.get(SeatStateCache.PROPAGATION_TIMER).timer().count());
+    }
+
+    /**
+     * Should skip records at offsets that were already applied on a partition.
+     */
+    @Test
+    void apply_skipsAlreadyAppliedOffsets() {
+        when(seatRepository.findSeatStatesByEventId(1L)).thenReturn(List.of(seat(1L, "A1", false)));
+        long now = System.currentTimeMillis();
+
+        assertTrue(seatStateCache.apply(0, 5, now, BookingEvent.booked(10L, 100L, 1L, "A1")));
+        assertTrue(seatStateCache.apply(0, 6, now, BookingEvent.cancelled(10L, 100L, 1L, "A1")));
+        assertFalse(seatStateCache.apply(0, 5, now, BookingEvent.booked(10L, 100L, 1L, "A1")));
+        assertTrue(seatStateCache.apply(1, 0, now, BookingEvent.booked(11L, 100L, 1L, "A1")));
+
+        assertEquals(1, seatStateCache.getAvailability(1L).orElseThrow().getBookedSeats());
+    }
+
+    /**
+     * Should report unknown events as empty without keeping them in memory.
+     */
+    @Test
+    void getAvailability_returnsEmptyForEventWithoutSeats() {
+        when(seatRepository.findSeatStatesByEventId(99L)).thenReturn(List.of());
+
+        assertTrue(seatStateCache.getAvailability(99L).isEmpty());
+        assertEquals(0.0, meterRegistry.get(SeatStateCache.EVENTS_GAUGE).gauge().value());
+    }
+
+    /**
+     * A restarted cache should restore state and offsets from the snapshot without querying the database.
+     */
+    @Test
+    void restoreSnapshot_warmStartsWithoutDatabase() {
+        when(seatRepository.findSeatStatesByEventId(1L)).thenReturn(List.of(seat(1L, "A1", false), seat(1L, "A2", false)));
+        long now = System.currentTimeMillis();
+        seatStateCache.apply(0, 5, now, BookingEvent.booked(10L, 100L, 1L, "A1"));
+        ReflectionTestUtils.setField(seatStateCache, "bootstrapped", true);
+        seatStateCache.writeSnapshot();
+
+        SeatStateCache restarted = new SeatStateCache();
+        configure(restarted);
+        assertTrue(restarted.restoreSnapshot());
+
+        assertEquals(1, restarted.getAvailability(1L).orElseThrow().getBookedSeats());
+        assertFalse(restarted.apply(0, 5, now, BookingEvent.cancelled(10L, 100L, 1L, "A1")));
+        assertTrue(restarted.apply(0, 6, now, BookingEvent.booked(11L, 101L, 1L, "A2")));
+        assertEquals(2, restarted.getAvailability(1L).orElseThrow().getBookedSeats());
+        verify(seatRepository, times(1)).findSeatStatesByEventId(1L);
+        assertEquals(1, meterRegistry.get(SeatStateCache.SNAPSHOT_TIMER).timer().count());
+    }
+
+    /**
+     * After a restore, partitions in the snapshot should resume after their offsets and a partition missing from
+     * it should be replayed from the beginning instead of starting at the end.
+     */
+    @Test
+    void restoreSnapshot_replaysPartitionsMissingFromSnapshot() {
+        when(seatRepository.findSeatStatesByEventId(1L)).thenReturn(List.of(seat(1L, "A1", false)));
+        seatStateCache.apply(0, 5, System.currentTimeMillis(), BookingEvent.booked(10L, 100L, 1L, "A1"));
+        ReflectionTestUtils.setField(seatStateCache, "bootstrapped", true);
+        seatStateCache.writeSnapshot();
+
+        SeatStateCache restarted = new SeatStateCache();
+        configure(restarted);
+        assertTrue(restarted.restoreSnapshot());
+        ConsumerSeekAware.ConsumerSeekCallback callback = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        restarted.onPartitionsAssigned(Map.of(new TopicPartition("booking-events", 0), 0L,
+                new TopicPartition("booking-events", 1), 0L), callback);
+
+        verify(callback).seek("booking-events", 0, 6);
+        verify(callback).seekToBeginning("booking-events", 1);
+        verifyNoMoreInteractions(callback);
+    }
+
+    /**
+     * Should ignore snapshots written for another topic.
+     */
+    @Test
+    void restoreSnapshot_rejectsOtherTopic() {
+        when(seatRepository.findSeatStatesByEventId(1L)).thenReturn(List.of(seat(1L, "A1", false)));
+        seatStateCache.apply(0, 0, System.currentTimeMillis(), BookingEvent.booked(10L, 100L, 1L, "A1"));
+        ReflectionTestUtils.setField(seatStateCache, "bootstrapped", true);
+        seatStateCache.writeSnapshot();
+
+        SeatStateCache restarted = new SeatStateCache();
+        configure(restarted);
+        ReflectionTestUtils.setField(restarted, "topic", "other-events");
+
+        assertFalse(restarted.restoreSnapshot());
+    }
+
+    private static SeatStateView seat(Long eventId, String seatNumber, boolean booked) {
+        return new SeatStateView() {
+            @Override
+            public Long getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public String getSeatNumber() {
+                return seatNumber;
+            }
+
+            @Override
+            public Boolean getBooked() {
+                return booked;
+            }
+        };
+    }
+}
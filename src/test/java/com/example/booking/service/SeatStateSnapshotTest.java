@@ -0,0 +1,65 @@
+package com.example.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeatStateSnapshot}.
+ */
+class SeatStateSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Should round-trip offsets and seat state through the mapped file.
+     */
+    @Test
+    void writeAndRead_roundTrips() throws Exception {
+        BitSet booked = new BitSet();
+        booked.set(1);
+        booked.set(8);
+        String[] seats = {"A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "Balcón-9"};
+        SeatStateSnapshot snapshot = new SeatStateSnapshot(1_000L, "booking-events", Map.of(0, 42L, 1, 7L),
+                List.of(new SeatStateSnapshot.EventImage(5L, 900L, seats, booked)));
+        Path file = dir.resolve("seat-state.snapshot");
+
+        long bytes = snapshot.write(file);
+        SeatStateSnapshot read = SeatStateSnapshot.read(file).orElseThrow();
+
+        assertEquals(Files.size(file), bytes);
+        assertEquals(1_000L, read.getCreatedAt());
+        assertEquals("booking-events", read.getTopic());
+        assertEquals(Map.of(0, 42L, 1, 7L), read.getNextOffsets());
+        SeatStateSnapshot.EventImage image = read.getEvents().get(0);
+        assertEquals(5L, image.eventId);
+        assertEquals(900L, image.lastUpdate);
+        assertArrayEquals(seats, image.seatNumbers);
+        assertEquals(booked, image.booked);
+    }
+
+    /**
+     * Should report a missing file as empty and reject a corrupted one.
+     */
+    @Test
+    void read_detectsMissingAndCorruptFiles() throws Exception {
+        Path file = dir.resolve("seat-state.snapshot");
+        assertTrue(SeatStateSnapshot.read(file).isEmpty());
+
+        new SeatStateSnapshot(1L, "booking-events", Map.of(0, 1L),
+                List.of(new SeatStateSnapshot.EventImage(5L, 0L, new String[]{"A1"}, new BitSet()))).write(file);
+        byte[] content = Files.readAllBytes(file);
+        content[content.length / 2] ^= 0x5A;
+        Files.write(file, content);
+
+        assertThrows(IllegalStateException.class, () -> SeatStateSnapshot.read(file));
+    }
+}
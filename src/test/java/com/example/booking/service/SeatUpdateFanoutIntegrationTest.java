@@ -0,0 +1,72 @@
+package com.example.booking.service;
+
+import com.example.booking.kafka.SeatUpdateEnvelope;
+import com.example.booking.kafka.SeatUpdateEnvelopeSerializer;
+import com.example.booking.model.SeatStatusUpdate;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs {@link SeatUpdateFanout} against an embedded broker: this node publishes its own updates to the
+ * fan-out topic and delivers every update on the topic, its own included, once.
+ */
+@ActiveProfiles("loadtest")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "booking.fanout.enabled=true",
+        "booking.node-id=node-a"
+})
+@EmbeddedKafka(kraft = true, partitions = 2, topics = "seat-updates")
+class SeatUpdateFanoutIntegrationTest {
+
+    @Autowired
+    private SeatUpdateFanout seatUpdateFanout;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @MockitoSpyBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * An update from another node and this node's own update, both consumed from the topic, are each delivered
+     * once to local subscribers.
+     */
+    @Test
+    void deliversEveryNodesUpdatesFromTheTopicOnce() {
+        ContainerTestUtils.waitForAssignment(listenerRegistry.getListenerContainer(SeatUpdateFanout.LISTENER_ID), 2);
+
+        seatUpdateFanout.publish(7L, new SeatStatusUpdate("A1", true));
+        try (KafkaProducer<String, SeatUpdateEnvelope> producer = new KafkaProducer<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new SeatUpdateEnvelopeSerializer())) {
+            SeatUpdateEnvelope envelope = new SeatUpdateEnvelope("node-b", 1, 7L, "B2", true);
+            producer.send(new ProducerRecord<>("seat-updates", "7", envelope));
+        }
+
+        verify(messagingTemplate, timeout(10_000)).convertAndSend(eq("/topic/seats/7"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("B2")), anyMap());
+        verify(messagingTemplate, after(1_000).times(1)).convertAndSend(eq("/topic/seats/7"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("B2")), anyMap());
+        verify(messagingTemplate, timeout(10_000).times(1)).convertAndSend(eq("/topic/seats/7"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A1")), anyMap());
+    }
+}
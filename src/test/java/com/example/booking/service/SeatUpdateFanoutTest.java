@@ -0,0 +1,182 @@
+package com.example.booking.service;
+
+import com.example.booking.config.NodeIdentity;
+import com.example.booking.kafka.SeatUpdateEnvelope;
+import com.example.booking.model.SeatStatusUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SeatUpdateFanout}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatUpdateFanoutTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private SeatSnapshotService seatSnapshotService;
+
+    @Mock
+    private BinarySeatUpdateBatcher binarySeatUpdateBatcher;
+
+    @Mock
+    private SeatEventStreamBroadcaster seatEventStreamBroadcaster;
+
+    @Mock
+    private KafkaTemplate<String, SeatUpdateEnvelope> kafkaTemplate;
+
+    @InjectMocks
+    private SeatUpdateFanout seatUpdateFanout;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seatUpdateFanout, "nodeIdentity", new NodeIdentity("node-a", "host"));
+        ReflectionTestUtils.setField(seatUpdateFanout, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(seatUpdateFanout, "producerFactory", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(seatUpdateFanout, "topic", "seat-updates");
+        seatUpdateFanout.init();
+        seatUpdateFanout.shutdown();
+        ReflectionTestUtils.setField(seatUpdateFanout, "broadcaster", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(seatUpdateFanout, "kafkaTemplate", kafkaTemplate);
+    }
+
+    /**
+     * Should publish an envelope keyed by event ID and leave delivery, local clients included, to the consumer,
+     * which sequences updates in topic order.
+     */
+    @Test
+    void publish_deliversThroughTheTopic() {
+        when(kafkaTemplate.send(eq("seat-updates"), eq("5"), any())).thenReturn(new CompletableFuture<>());
+        when(seatSnapshotService.apply(5L, "A1", true)).thenReturn(41L);
+        when(seatSnapshotService.apply(5L, "A2", false)).thenReturn(42L);
+
+        seatUpdateFanout.publish(5L, new SeatStatusUpdate("A1", true));
+        seatUpdateFanout.publish(5L, new SeatStatusUpdate("A2", false));
+        verifyNoInteractions(messagingTemplate);
+        long now = System.currentTimeMillis();
+        seatUpdateFanout.receive(0, 10, now, new SeatUpdateEnvelope("node-a", 1, 5L, "A1", true));
+        seatUpdateFanout.receive(0, 11, now, new SeatUpdateEnvelope("node-a", 2, 5L, "A2", false));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A1") && u.getSequence() == 41), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A2") && u.getSequence() == 42), anyMap());
+        verify(binarySeatUpdateBatcher).offer(5L, "A1", true, 41L);
+        verify(binarySeatUpdateBatcher).offer(5L, "A2", false, 42L);
+        verify(seatEventStreamBroadcaster).publish(eq(5L), argThat(u -> u.getSequence() == 41));
+        verify(kafkaTemplate).send(eq("seat-updates"), eq("5"), argThat(e ->
+                e.getOriginNode().equals("node-a") && e.getSequence() == 1 && e.getSeatNumber().equals("A1") && e.isBooked()));
+        verify(kafkaTemplate).send(eq("seat-updates"), eq("5"), argThat(e -> e.getSequence() == 2 && !e.isBooked()));
+    }
+
+    /**
+     * Concurrent publishers of one event should reach local subscribers in ascending sequence order.
+     */
+    @Test
+    void publish_deliversEachEventInSequenceOrder() throws Exception {
+        ReflectionTestUtils.setField(seatUpdateFanout, "kafkaTemplate", null);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(seatUpdateFanout, "broadcaster", pool);
+        AtomicLong sequence = new AtomicLong();
+        when(seatSnapshotService.apply(eq(5L), anyString(), anyBoolean())).thenAnswer(invocation -> sequence.incrementAndGet());
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> delivered.add(invocation.<SeatStatusUpdate>getArgument(1).getSequence()))
+                .when(messagingTemplate).convertAndSend(eq("/topic/seats/5"), any(SeatStatusUpdate.class), anyMap());
+
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 400; i++) {
+            String seat = "A" + i;
+            publishers.execute(() -> seatUpdateFanout.publish(5L, new SeatStatusUpdate(seat, true)));
+        }
+        publishers.shutdown();
+        assertTrue(publishers.awaitTermination(5, TimeUnit.SECONDS));
+        verify(messagingTemplate, timeout(5_000).times(400)).convertAndSend(eq("/topic/seats/5"), any(SeatStatusUpdate.class), anyMap());
+        pool.shutdown();
+
+        for (int i = 0; i < delivered.size(); i++) {
+            assertEquals(i + 1, delivered.get(i));
+        }
+    }
+
+    /**
+     * A Kafka failure must not fail the caller; the update still reaches local clients.
+     */
+    @Test
+    void publish_deliversLocallyWhenKafkaFails() {
+        when(kafkaTemplate.send(anyString(), eq("5"), any())).thenThrow(new IllegalStateException("producer closed"));
+        when(kafkaTemplate.send(anyString(), eq("6"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timed out")));
+
+        assertDoesNotThrow(() -> seatUpdateFanout.publish(5L, new SeatStatusUpdate("A1", true)));
+        seatUpdateFanout.publish(6L, new SeatStatusUpdate("A1", true));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"), any(SeatStatusUpdate.class), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/6"), any(SeatStatusUpdate.class), anyMap());
+        assertEquals(2, meterRegistry.get(SeatUpdateFanout.MESSAGES_COUNTER).tag("outcome", "publish_failed").counter().count());
+    }
+
+    /**
+     * Should deliver updates from every node, this one included, and skip redelivered offsets.
+     */
+    @Test
+    void receive_deliversOwnUpdatesAndSkipsRedeliveredOnes() {
+        long now = System.currentTimeMillis();
+
+        assertTrue(seatUpdateFanout.receive(0, 10, now, new SeatUpdateEnvelope("node-a", 1, 5L, "A2", true)));
+        assertTrue(seatUpdateFanout.receive(0, 11, now, new SeatUpdateEnvelope("node-b", 1, 5L, "A1", true)));
+        assertTrue(seatUpdateFanout.receive(0, 12, now, new SeatUpdateEnvelope("node-b", 2, 5L, "A1", false)));
+        assertFalse(seatUpdateFanout.receive(0, 12, now, new SeatUpdateEnvelope("node-b", 2, 5L, "A1", false)));
+        assertFalse(seatUpdateFanout.receive(0, 11, now, new SeatUpdateEnvelope("node-b", 1, 5L, "A1", true)));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A1") && u.isBooked()), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A1") && !u.isBooked()), anyMap());
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A2")), anyMap());
+        assertEquals(1, meterRegistry.get(SeatUpdateFanout.MESSAGES_COUNTER).tag("outcome", "own").counter().count());
+        assertEquals(2, meterRegistry.get(SeatUpdateFanout.MESSAGES_COUNTER).tag("outcome", "duplicate").counter().count());
+        assertEquals(2, meterRegistry.get(SeatUpdateFanout.MESSAGES_COUNTER).tag("outcome", "rebroadcast").counter().count());
+    }
+
+    /**
+     * A sequence number published out of order by concurrent publishers must not hide the later record.
+     */
+    @Test
+    void receive_deliversOutOfOrderSequences() {
+        long now = System.currentTimeMillis();
+
+        assertTrue(seatUpdateFanout.receive(1, 20, now, new SeatUpdateEnvelope("node-b", 6, 5L, "A2", true)));
+        assertTrue(seatUpdateFanout.receive(1, 21, now, new SeatUpdateEnvelope("node-b", 5, 5L, "A1", true)));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/seats/5"),
+                argThat((SeatStatusUpdate u) -> u.getSeatNumber().equals("A1")), anyMap());
+    }
+}
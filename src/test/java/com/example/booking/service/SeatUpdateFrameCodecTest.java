@@ -0,0 +1,76 @@
+package com.example.booking.service;
+
+import com.example.booking.model.SeatSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeatUpdateFrameCodec}.
+ */
+class SeatUpdateFrameCodecTest {
+
+    /**
+     * A batch should round-trip and take about two bytes per update.
+     */
+    @Test
+    void encode_roundTripsCompactly() {
+        List<SeatUpdateFrameCodec.Entry> entries = List.of(
+                new SeatUpdateFrameCodec.Entry(1_000_000L, 5, true),
+                new SeatUpdateFrameCodec.Entry(1_000_001L, 63, false),
+                new SeatUpdateFrameCodec.Entry(1_000_003L, 70_000, true));
+
+        byte[] payload = SeatUpdateFrameCodec.encode(entries);
+        List<SeatUpdateFrameCodec.Entry> decoded = SeatUpdateFrameCodec.decode(payload);
+
+        assertEquals(1 + 1 + 3 + (1 + 1) + (1 + 1) + (1 + 3), payload.length);
+        assertEquals(3, decoded.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(entries.get(i).getSequence(), decoded.get(i).getSequence());
+            assertEquals(entries.get(i).getOrdinal(), decoded.get(i).getOrdinal());
+            assertEquals(entries.get(i).isBooked(), decoded.get(i).isBooked());
+        }
+    }
+
+    /**
+     * A snapshot should round-trip with its seat list and booked flags, and be told apart from update batches.
+     */
+    @Test
+    void encodeSnapshot_roundTrips() {
+        BitSet booked = new BitSet();
+        booked.set(1);
+        booked.set(8);
+        SeatSnapshot snapshot = new SeatSnapshot(7L, 42L, 10, 2,
+                List.of("A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "Balcón-1", "B2"),
+                Base64.getEncoder().encodeToString(booked.toByteArray()));
+
+        byte[] payload = SeatUpdateFrameCodec.encodeSnapshot(snapshot);
+        SeatSnapshot decoded = SeatUpdateFrameCodec.decodeSnapshot(payload);
+
+        assertTrue(SeatUpdateFrameCodec.isSnapshot(payload));
+        assertFalse(SeatUpdateFrameCodec.isSnapshot(SeatUpdateFrameCodec.encode(List.of())));
+        assertEquals(7L, decoded.getEventId());
+        assertEquals(42L, decoded.getSequence());
+        assertEquals(snapshot.getSeats(), decoded.getSeats());
+        assertEquals(2, decoded.getBookedSeats());
+        assertEquals(snapshot.getBooked(), decoded.getBooked());
+        assertThrows(IllegalArgumentException.class,
+                () -> SeatUpdateFrameCodec.decodeSnapshot(java.util.Arrays.copyOf(payload, payload.length - 1)));
+    }
+
+    /**
+     * Malformed payloads should be rejected.
+     */
+    @Test
+    void decode_rejectsMalformedPayloads() {
+        byte[] payload = SeatUpdateFrameCodec.encode(List.of(new SeatUpdateFrameCodec.Entry(1, 1, true)));
+
+        assertThrows(IllegalArgumentException.class, () -> SeatUpdateFrameCodec.decode(new byte[]{2, 0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> SeatUpdateFrameCodec.decode(java.util.Arrays.copyOf(payload, payload.length - 1)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.booking.service;
+
+import com.example.booking.model.AccessToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TokenService}.
+ */
+class TokenServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenService tokenService = new TokenService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tokenService, "secret", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(tokenService, "ttl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(tokenService, "cacheSize", 2);
+        ReflectionTestUtils.setField(tokenService, "clock", Clock.fixed(Instant.parse("2025-06-14T10:00:00Z"), ZoneOffset.UTC));
+        tokenService.init();
+    }
+
+    /**
+     * Issued tokens should verify to the same user and authorities, from the cache after the first time.
+     */
+    @Test
+    void verify_returnsPrincipalOfIssuedToken() {
+        AccessToken token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user2025", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        Authentication first = tokenService.verify(token.getAccessToken()).orElseThrow();
+        Authentication second = tokenService.verify(token.getAccessToken()).orElseThrow();
+
+        assertEquals(900, token.getExpiresIn());
+        assertEquals("user2025", first.getName());
+        assertTrue(first.isAuthenticated());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), first.getAuthorities());
+        assertSame(first, second);
+        assertEquals(1, meterRegistry.counter(TokenService.VERIFICATIONS_COUNTER, "result", "cached").count());
+    }
+
+    /**
+     * Node tokens should verify to the node with the cluster authority only.
+     */
+    @Test
+    void issueNodeToken_grantsClusterAuthority() {
+        AccessToken token = tokenService.issueNodeToken("node-a");
+
+        Authentication node = tokenService.verify(token.getAccessToken()).orElseThrow();
+
+        assertEquals("node-a", node.getName());
+        assertEquals(AuthorityUtils.createAuthorityList(TokenService.CLUSTER_AUTHORITY), node.getAuthorities());
+    }
+
+    /**
+     * Forged, malformed and expired tokens should be rejected, and the cache should stay bounded.
+     */
+    @Test
+    void verify_rejectsForgedMalformedAndExpiredTokens() {
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user2025", null, AuthorityUtils.NO_AUTHORITIES)).getAccessToken();
+        String payload = token.substring(0, token.indexOf('.'));
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("9999999999::admin".getBytes());
+
+        assertTrue(tokenService.verify(forgedPayload + token.substring(payload.length())).isEmpty());
+        assertTrue(tokenService.verify("not-a-token").isEmpty());
+        assertTrue(tokenService.verify(payload + ".%%%").isEmpty());
+        assertTrue(tokenService.verify(token).isPresent());
+        for (int i = 0; i < 5; i++) {
+            tokenService.verify(tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                    "user" + i, null, AuthorityUtils.NO_AUTHORITIES)).getAccessToken());
+        }
+        assertTrue(tokenService.getCachedCount() <= 2);
+
+        ReflectionTestUtils.setField(tokenService, "clock", Clock.fixed(Instant.parse("2025-06-14T10:15:00Z"), ZoneOffset.UTC));
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+
+    /**
+     * A full cache should drop the least recently used token, and a cache size of 0 should cache nothing.
+     */
+    @Test
+    void verify_evictsLeastRecentlyUsedTokens() {
+        String first = token("user1");
+        String second = token("user2");
+        tokenService.verify(first);
+        tokenService.verify(second);
+        tokenService.verify(first);
+        tokenService.verify(token("user3"));
+        tokenService.verify(first);
+        tokenService.verify(second);
+
+        assertEquals(2, tokenService.getCachedCount());
+        assertEquals(2, meterRegistry.get(TokenService.VERIFICATIONS_COUNTER).tag("result", "cached").counter().count());
+        assertEquals(4, meterRegistry.get(TokenService.VERIFICATIONS_COUNTER).tag("result", "verified").counter().count());
+
+        TokenService uncached = new TokenService();
+        ReflectionTestUtils.setField(uncached, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(uncached, "secret", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(uncached, "ttl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(uncached, "clock", Clock.fixed(Instant.parse("2025-06-14T10:00:00Z"), ZoneOffset.UTC));
+        uncached.init();
+        assertTrue(uncached.verify(first).isPresent());
+        assertTrue(uncached.verify(first).isPresent());
+        assertEquals(0, uncached.getCachedCount());
+    }
+
+    private String token(String username) {
+        return tokenService.issue(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, AuthorityUtils.NO_AUTHORITIES)).getAccessToken();
+    }
+
+    /**
+     * Without a shared secret a single node should sign with a random key, and cluster mode should fail startup.
+     */
+    @Test
+    void init_requiresSecretInClusterMode() {
+        TokenService unconfigured = new TokenService();
+        ReflectionTestUtils.setField(unconfigured, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(unconfigured, "secret", "");
+        ReflectionTestUtils.setField(unconfigured, "ttl", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(unconfigured, "clusterEnabled", true);
+
+        assertThrows(IllegalStateException.class, unconfigured::init);
+
+        ReflectionTestUtils.setField(unconfigured, "clusterEnabled", false);
+        unconfigured.init();
+        String token = unconfigured.issue(UsernamePasswordAuthenticationToken.authenticated(
+                "user2025", null, AuthorityUtils.NO_AUTHORITIES)).getAccessToken();
+        assertTrue(unconfigured.verify(token).isPresent());
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+}
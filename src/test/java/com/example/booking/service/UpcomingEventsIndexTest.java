@@ -0,0 +1,154 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Event;
+import com.example.booking.repository.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UpcomingEventsIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UpcomingEventsIndexTest {
+
+    // A Wednesday
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 2, 12, 0);
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final UpcomingEventsIndex index = new UpcomingEventsIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(index, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "cachedPages", 2);
+        setNow(NOW);
+        index.registerMetrics();
+        when(eventRepository.findAll()).thenReturn(List.of(
+                event(1L, NOW.minusHours(1)),
+                event(2L, NOW.plusHours(2)),
+                event(3L, NOW.plusDays(3).withHour(20)),
+                event(4L, NOW.plusDays(4).withHour(14)),
+                event(5L, NOW.plusDays(5)),
+                event(6L, NOW.plusDays(20))));
+        index.rebuild();
+    }
+
+    /**
+     * Windows should select the events by date, without the ones that have started, and page through them.
+     */
+    @Test
+    void getPage_listsWindowByDate() throws Exception {
+        assertEquals(List.of(2L), ids(UpcomingEventsIndex.Window.TODAY, 0, 10));
+        assertEquals(List.of(3L, 4L), ids(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 10));
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids(UpcomingEventsIndex.Window.NEXT_7_DAYS, 0, 10));
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), ids(UpcomingEventsIndex.Window.ALL, 0, 10));
+        for (long id = 7; id <= 9; id++) {
+            index.onEventChanged(EventChangedEvent.saved(event(id, NOW.plusDays(id))));
+        }
+        assertEquals(List.of(8L, 9L, 6L), ids(UpcomingEventsIndex.Window.ALL, 1, 5));
+        JsonNode page = objectMapper.readTree(index.getPage(UpcomingEventsIndex.Window.NEXT_7_DAYS, 0, 5).getJson());
+        assertEquals(4, page.get("totalElements").asInt());
+        assertEquals("2030-01-09T00:00:00", page.get("to").asText());
+    }
+
+    /**
+     * Pages should be reused until an event of their window changes or starts.
+     */
+    @Test
+    void getPage_reusesPagesUntilTheirWindowChanges() throws Exception {
+        UpcomingEventsIndex.CachedPage weekend = index.getPage(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 10);
+        UpcomingEventsIndex.CachedPage today = index.getPage(UpcomingEventsIndex.Window.TODAY, 0, 10);
+
+        index.onEventChanged(EventChangedEvent.saved(event(7L, NOW.plusDays(3).withHour(10))));
+
+        assertSame(today, index.getPage(UpcomingEventsIndex.Window.TODAY, 0, 10));
+        assertNotSame(weekend, index.getPage(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 10));
+        assertEquals(List.of(7L, 3L, 4L), ids(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 10));
+
+        setNow(NOW.plusHours(3));
+        index.purge();
+
+        assertEquals(List.of(), ids(UpcomingEventsIndex.Window.TODAY, 0, 10));
+        assertEquals(5, index.size());
+
+        index.onEventChanged(EventChangedEvent.deleted(3L));
+        assertEquals(List.of(7L, 4L), ids(UpcomingEventsIndex.Window.THIS_WEEKEND, 0, 10));
+    }
+
+    /**
+     * Sizes should be rounded up to a served size, and only the first pages of each window and size cached.
+     */
+    @Test
+    void getPage_roundsSizesAndCachesOnlyFirstPages() throws Exception {
+        JsonNode page = objectMapper.readTree(index.getPage(UpcomingEventsIndex.Window.ALL, 0, 3).getJson());
+        assertEquals(5, page.get("size").asInt());
+        assertEquals(5, page.get("events").size());
+        assertSame(index.getPage(UpcomingEventsIndex.Window.ALL, 0, 3), index.getPage(UpcomingEventsIndex.Window.ALL, 0, 5));
+        assertEquals(100, UpcomingEventsIndex.pageSize(1_000));
+
+        assertSame(index.getPage(UpcomingEventsIndex.Window.ALL, 1, 5), index.getPage(UpcomingEventsIndex.Window.ALL, 1, 5));
+        assertNotSame(index.getPage(UpcomingEventsIndex.Window.ALL, 2, 5), index.getPage(UpcomingEventsIndex.Window.ALL, 2, 5));
+    }
+
+    private List<Long> ids(UpcomingEventsIndex.Window window, int page, int size) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(index.getPage(window, page, size).getJson()).get("events")
+                .forEach(event -> ids.add(event.get("id").asLong()));
+        return ids;
+    }
+
+    private void setNow(LocalDateTime now) {
+        ReflectionTestUtils.setField(index, "clock", Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    /**
+     * A reload should pick up changes made elsewhere, and keep a change applied while it read the table.
+     */
+    @Test
+    void reload_picksUpChangesMadeElsewhereAndKeepsChangesMadeMeanwhile() throws Exception {
+        when(eventRepository.findAll()).thenAnswer(invocation -> {
+            index.onEventChanged(EventChangedEvent.deleted(5L));
+            return List.of(event(2L, NOW.plusHours(2)), event(5L, NOW.plusDays(5)), event(7L, NOW.plusDays(6)));
+        });
+
+        index.reload();
+
+        assertEquals(List.of(2L, 7L), ids(UpcomingEventsIndex.Window.ALL, 0, 10));
+    }
+
+    private static Event event(Long id, LocalDateTime date) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName("Event " + id);
+        event.setLocation("Arena");
+        // Bypasses the future-date check of setEventDate, which uses the real clock
+        ReflectionTestUtils.setField(event, "eventDate", date);
+        event.setTotalSeats(100);
+        return event;
+    }
+}
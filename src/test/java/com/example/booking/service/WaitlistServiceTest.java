@@ -0,0 +1,226 @@
+package com.example.booking.service;
+
+import com.example.booking.exception.NoSeatOfferException;
+import com.example.booking.exception.SeatsAvailableException;
+import com.example.booking.kafka.BookingEventPublisher;
+import com.example.booking.model.*;
+import com.example.booking.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link WaitlistService}.
+ */
+class WaitlistServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private SeatRepository seatRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private SeatStateCache seatStateCache;
+    @Mock
+    private BookingEventPublisher bookingEventPublisher;
+    @Mock
+    private SeatUpdateFanout seatUpdateFanout;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(waitlistService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(waitlistService, "hold", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(waitlistService, "headSize", 3);
+        ReflectionTestUtils.setField(waitlistService, "clock",
+                Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        waitlistService.init();
+    }
+
+    /**
+     * Handed-over seats go to waiting entries in joining order, stale head entries are skipped, and a seat
+     * nobody is left waiting for is released.
+     */
+    @Test
+    void allocate_offersSeatsInOrderAndReleasesTheRest() {
+        Seat a = seat(1L, "A1");
+        Seat b = seat(2L, "A2");
+        Seat c = seat(3L, "A3");
+        Seat held = seat(4L, "A4");
+        List<Long> seatIds = List.of(1L, 2L, 3L, 4L, 5L);
+        when(seatRepository.findAllByIdForUpdate(7L, seatIds)).thenReturn(List.of(a, b, c, held));
+        Booking cancelledC = booking(30L, 3L);
+        when(bookingRepository.findByEventIdAndStatusAndSeatIdIn(7L, BookingService.CANCELLED, seatIds))
+                .thenReturn(List.of(booking(10L, 1L), booking(20L, 2L), cancelledC, booking(40L, 4L)));
+        when(waitlistRepository.findSeatIdsByStatus(seatIds, WaitlistService.OFFERED)).thenReturn(List.of(4L));
+        when(waitlistRepository.findByEventIdAndStatusOrderByIdAsc(eq(7L), eq(WaitlistService.WAITING), any()))
+                .thenReturn(List.of(entry(100L, 11L), entry(101L, 12L), entry(102L, 13L)))
+                .thenReturn(List.of());
+        LocalDateTime expiresAt = NOW.plusMinutes(5);
+        // Entry 100 was offered a seat by another node meanwhile
+        when(waitlistRepository.offer(eq(100L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(waitlistRepository.offer(101L, WaitlistService.WAITING, WaitlistService.OFFERED, 1L, "A1", expiresAt)).thenReturn(1);
+        when(waitlistRepository.offer(102L, WaitlistService.WAITING, WaitlistService.OFFERED, 2L, "A2", expiresAt)).thenReturn(1);
+
+        List<WaitlistStatus> offers = waitlistService.allocate(7L, seatIds);
+
+        assertEquals(List.of(12L, 13L), offers.stream().map(WaitlistStatus::getUserId).toList());
+        assertEquals(List.of("A1", "A2"), offers.stream().map(WaitlistStatus::getSeatNumber).toList());
+        assertEquals(expiresAt, offers.get(0).getOfferExpiresAt());
+        assertFalse(c.getIsBooked());
+        assertTrue(held.getIsBooked());
+        verify(bookingRepository).delete(cancelledC);
+        verify(bookingEventPublisher).publish(argThat(e -> e.getType() == BookingEvent.Type.CANCELLED && e.getBookingId() == 30L));
+        verify(seatUpdateFanout).publish(eq(7L), argThat(update -> update.getSeatNumber().equals("A3") && !update.isBooked()));
+        verify(waitlistRepository, times(2)).findByEventIdAndStatusOrderByIdAsc(eq(7L), eq(WaitlistService.WAITING), any());
+        assertEquals(2.0, meterRegistry.get(WaitlistService.SEATS_COUNTER).tag("outcome", "offered").counter().count());
+        assertEquals(1.0, meterRegistry.get(WaitlistService.SEATS_COUNTER).tag("outcome", "released").counter().count());
+    }
+
+    /**
+     * Claiming an offer replaces the cancelled booking of the seat, and only then publishes its cancellation.
+     */
+    @Test
+    void claim_replacesCancelledBooking() {
+        WaitlistEntry entry = entry(100L, 11L);
+        entry.setStatus(WaitlistService.OFFERED);
+        entry.setSeatId(1L);
+        entry.setSeatNumber("A1");
+        entry.setOfferExpiresAt(NOW.plusMinutes(1));
+        when(waitlistRepository.findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(eq(7L), eq(11L), any()))
+                .thenReturn(Optional.of(entry));
+        when(seatRepository.findAllByIdForUpdate(7L, List.of(1L))).thenReturn(List.of(seat(1L, "A1")));
+        when(waitlistRepository.transition(100L, WaitlistService.OFFERED, WaitlistService.CLAIMED)).thenReturn(1);
+        Booking cancelled = booking(10L, 1L);
+        when(bookingRepository.findByEventIdAndSeatIdAndStatus(7L, 1L, BookingService.CANCELLED)).thenReturn(Optional.of(cancelled));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(50L);
+            return booking;
+        });
+
+        Booking booking = waitlistService.claim(7L, 11L);
+
+        assertEquals(11L, booking.getUserId());
+        assertEquals(BookingService.BOOKED, booking.getStatus());
+        InOrder inOrder = inOrder(bookingRepository, bookingEventPublisher);
+        inOrder.verify(bookingRepository).delete(cancelled);
+        inOrder.verify(bookingRepository).flush();
+        inOrder.verify(bookingRepository).save(any(Booking.class));
+        inOrder.verify(bookingEventPublisher).publish(argThat(e -> e.getType() == BookingEvent.Type.CANCELLED && e.getBookingId() == 10L));
+        inOrder.verify(bookingEventPublisher).publish(argThat(e -> e.getType() == BookingEvent.Type.BOOKED && e.getBookingId() == 50L));
+        verifyNoInteractions(seatUpdateFanout);
+    }
+
+    /**
+     * An expired offer, or an entry that is still waiting, cannot be claimed.
+     */
+    @Test
+    void claim_rejectsWithoutLiveOffer() {
+        WaitlistEntry entry = entry(100L, 11L);
+        entry.setStatus(WaitlistService.OFFERED);
+        entry.setSeatId(1L);
+        entry.setOfferExpiresAt(NOW.minusSeconds(1));
+        when(waitlistRepository.findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(eq(7L), eq(11L), any()))
+                .thenReturn(Optional.of(entry), Optional.of(entry(101L, 11L)));
+
+        assertThrows(NoSeatOfferException.class, () -> waitlistService.claim(7L, 11L));
+        assertThrows(NoSeatOfferException.class, () -> waitlistService.claim(7L, 11L));
+        verifyNoInteractions(seatRepository, bookingRepository);
+    }
+
+    /**
+     * Users can only join once the event is sold out, and learn how many are waiting ahead of them.
+     */
+    @Test
+    void join_requiresSoldOutEvent() {
+        when(eventRepository.existsById(7L)).thenReturn(true);
+        when(seatStateCache.getAvailability(7L)).thenReturn(
+                Optional.of(new SeatAvailability(7L, 100, 99, null)),
+                Optional.of(new SeatAvailability(7L, 100, 100, null)));
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(100L);
+            return entry;
+        });
+        when(waitlistRepository.countByEventIdAndStatusAndIdLessThan(7L, WaitlistService.WAITING, 100L)).thenReturn(42L);
+
+        assertThrows(SeatsAvailableException.class, () -> waitlistService.join(7L, 11L));
+        WaitlistStatus status = waitlistService.join(7L, 11L);
+
+        assertEquals(WaitlistService.WAITING, status.getStatus());
+        assertEquals(42L, status.getAhead());
+    }
+
+    /**
+     * Expired offers and offers given up by their user put the seat back in the queue.
+     */
+    @Test
+    void expireAndLeave_requeueOfferedSeats() {
+        WaitlistEntry expiring = entry(100L, 11L);
+        expiring.setStatus(WaitlistService.OFFERED);
+        expiring.setSeatId(1L);
+        when(waitlistRepository.findByStatusAndOfferExpiresAtBefore(eq(WaitlistService.OFFERED), eq(NOW), any()))
+                .thenReturn(List.of(expiring));
+        when(waitlistRepository.transition(100L, WaitlistService.OFFERED, WaitlistService.EXPIRED)).thenReturn(1);
+        WaitlistEntry leaving = entry(101L, 12L);
+        leaving.setStatus(WaitlistService.OFFERED);
+        leaving.setSeatId(2L);
+        when(waitlistRepository.findFirstByEventIdAndUserIdAndStatusInOrderByIdDesc(eq(7L), eq(12L), any()))
+                .thenReturn(Optional.of(leaving));
+        when(waitlistRepository.transition(101L, WaitlistService.OFFERED, WaitlistService.LEFT)).thenReturn(1);
+
+        List<WaitlistStatus> expired = waitlistService.expireOffers(10);
+        WaitlistStatus left = waitlistService.leave(7L, 12L);
+
+        assertEquals(WaitlistService.EXPIRED, expired.get(0).getStatus());
+        assertEquals(WaitlistService.LEFT, left.getStatus());
+        assertEquals(Map.of(7L, Set.of(1L, 2L)), waitlistService.pollFreedSeats(10));
+        assertTrue(waitlistService.pollFreedSeats(10).isEmpty());
+    }
+
+    private static Seat seat(Long id, String seatNumber) {
+        Seat seat = new Seat();
+        seat.setId(id);
+        seat.setSeatNumber(seatNumber);
+        seat.setIsBooked(true);
+        return seat;
+    }
+
+    private static Booking booking(Long id, Long seatId) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setUserId(1L);
+        booking.setEventId(7L);
+        booking.setSeatId(seatId);
+        booking.setStatus(BookingService.CANCELLED);
+        return booking;
+    }
+
+    private static WaitlistEntry entry(Long id, Long userId) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setEventId(7L);
+        entry.setUserId(userId);
+        return entry;
+    }
+}